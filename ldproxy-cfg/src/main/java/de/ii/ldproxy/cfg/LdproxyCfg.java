@@ -69,6 +69,15 @@ public interface LdproxyCfg extends LdproxyCfgWriter {
 
   Set<ValidationMessage> validateEntity(String entityCfg, String entityType) throws IOException;
 
+  /**
+   * Validate all entities in the store. The entities are validated concurrently, the schemas are
+   * shared.
+   *
+   * @param parallelism the maximum number of entities that are validated concurrently
+   * @return the validation messages for every entity file, ordered by path
+   */
+  Map<Path, Set<ValidationMessage>> validateEntities(int parallelism) throws IOException;
+
   <T extends EntityData> Path getEntityPath(T data);
 
   Map<String, String> getRawSchemas();
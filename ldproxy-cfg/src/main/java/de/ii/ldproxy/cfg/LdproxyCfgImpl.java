@@ -61,6 +61,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -72,7 +73,12 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.slf4j.Logger;
@@ -331,6 +337,63 @@ class LdproxyCfgImpl implements LdproxyCfg {
     return entitySchemas.get(entityType).validate(jsonNode);
   }
 
+  @Override
+  public Map<Path, Set<ValidationMessage>> validateEntities(int parallelism) throws IOException {
+    Path entitiesPath = getEntitiesPath();
+    List<Path> entityPaths = new ArrayList<>();
+
+    for (String entityType : entitySchemas.keySet()) {
+      Path typePath = entitiesPath.resolve(entityType);
+      if (!Files.isDirectory(typePath)) {
+        continue;
+      }
+      try (Stream<Path> paths = Files.walk(typePath)) {
+        paths
+            .filter(Files::isRegularFile)
+            .filter(path -> path.getFileName().toString().matches(".*\\.ya?ml$"))
+            .forEach(entityPaths::add);
+      }
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+    try {
+      Map<Path, Set<ValidationMessage>> results =
+          pool.submit(
+                  () ->
+                      entityPaths.parallelStream()
+                          .collect(
+                              Collectors.toConcurrentMap(
+                                  path -> path,
+                                  path ->
+                                      validateEntityUnchecked(
+                                          path,
+                                          entitiesPath.relativize(path).getName(0).toString()))))
+              .get();
+
+      // the order of the report does not depend on the scheduling of the validations
+      return new TreeMap<>(results);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private Set<ValidationMessage> validateEntityUnchecked(Path entityPath, String entityType) {
+    try {
+      return validateEntity(entityPath, entityType);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          String.format("Could not read entity %s: %s", entityPath, e.getMessage()), e);
+    }
+  }
+
   @Override
   public <T extends EntityData> void writeEntity(T data, Path... patches) throws IOException {
     Path path = getEntityPath(data);
@@ -65,7 +65,7 @@ class OgcApiExtensionRegistry implements ExtensionRegistry {
             .add(new CrsBuildingBlock(null, null))
             .add(new CrudBuildingBlock())
             .add(new FeaturesCsvBuildingBlock())
-            .add(new FeaturesCoreBuildingBlock(null, null, null))
+            .add(new FeaturesCoreBuildingBlock(null, null, null, null))
             .add(new FeaturesExtensionsBuildingBlock())
             .add(new FeaturesHtmlBuildingBlock())
             .add(new FeaturesFlatgeobufBuildingBlock())
@@ -85,10 +85,10 @@ class OgcApiExtensionRegistry implements ExtensionRegistry {
             .add(new ResourcesBuildingBlock())
             .add(new RoutingBuildingBlock())
             .add(new SchemaBuildingBlock())
-            .add(new SearchBuildingBlock())
+            .add(new SearchBuildingBlock(null))
             .add(new SortingBuildingBlock(null, null))
             .add(new StylesBuildingBlock(this)) // TODO: StyleFormatExtensions
-            .add(new TextSearchBuildingBlock())
+            .add(new TextSearchBuildingBlock(null, null))
             .add(new TileMatrixSetsBuildingBlock())
             .add(
                 new TilesBuildingBlock(
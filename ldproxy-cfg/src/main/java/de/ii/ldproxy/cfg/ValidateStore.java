@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.cfg;
+
+import com.networknt.schema.ValidationMessage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line entry point to validate all entities of a store, e.g. in a CI pipeline.
+ *
+ * <p>Usage: {@code ValidateStore <store directory> [parallelism]}
+ *
+ * <p>Prints the validation messages for every invalid entity and exits with status 1, if at least
+ * one entity is invalid.
+ */
+public final class ValidateStore {
+
+  private ValidateStore() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: ValidateStore <store directory> [parallelism]");
+      System.exit(2);
+    }
+
+    Path store = Path.of(args[0]).toAbsolutePath().normalize();
+    int parallelism =
+        args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+    long start = System.nanoTime();
+    LdproxyCfg ldproxyCfg = LdproxyCfg.create(store);
+    Map<Path, Set<ValidationMessage>> report = ldproxyCfg.validateEntities(parallelism);
+    long duration = (System.nanoTime() - start) / 1_000_000;
+
+    long invalid = 0;
+    for (Map.Entry<Path, Set<ValidationMessage>> entry : report.entrySet()) {
+      if (entry.getValue().isEmpty()) {
+        continue;
+      }
+      invalid++;
+      System.out.println(store.relativize(entry.getKey()));
+      entry.getValue().forEach(message -> System.out.println("  " + message.getMessage()));
+    }
+
+    System.out.printf(
+        "Validated %d entities in %d ms with parallelism %d, %d invalid.%n",
+        report.size(), duration, parallelism, invalid);
+
+    if (invalid > 0) {
+      System.exit(1);
+    }
+  }
+}
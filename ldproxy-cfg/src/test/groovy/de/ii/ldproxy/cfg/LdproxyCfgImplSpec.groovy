@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.cfg
+
+import com.networknt.schema.ValidationMessage
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class LdproxyCfgImplSpec extends Specification {
+
+    static final Map<String, String> VALID = [
+            codelists: "id: valid\nlabel: Valid\n",
+            providers: "id: valid\nproviderType: FEATURE\nproviderSubType: SQL\n",
+            services : "id: valid\nserviceType: OGC_API\n",
+            users    : "id: valid\nrole: USER\n"
+    ]
+
+    Path store
+    LdproxyCfg ldproxyCfg
+
+    def setup() {
+        store = Files.createTempDirectory("ldproxy-cfg")
+        ldproxyCfg = LdproxyCfg.create(store)
+    }
+
+    def cleanup() {
+        store.toFile().deleteDir()
+    }
+
+    def 'all entities are validated and reported in the order of their paths'() {
+        given:
+        VALID.each { type, content ->
+            createEntity(type, "valid.yml", content)
+            createEntity(type, "invalid.yml", content + "unknown: true\n")
+        }
+
+        when:
+        def report = ldproxyCfg.validateEntities(4)
+
+        then:
+        report.keySet().toList() == ["codelists", "providers", "services", "users"].collectMany { type ->
+            [entityPath(type, "invalid.yml"), entityPath(type, "valid.yml")]
+        }
+        report.findAll { path, messages -> !messages.isEmpty() }.keySet()*.getFileName()*.toString() == ["invalid.yml"] * 4
+    }
+
+    def 'the report does not depend on the parallelism'() {
+        given:
+        VALID.each { type, content ->
+            createEntity(type, "valid.yml", content)
+            createEntity(type, "invalid.yml", content + "unknown: true\n")
+        }
+
+        expect:
+        createReport(ldproxyCfg.validateEntities(1)) == createReport(ldproxyCfg.validateEntities(8))
+    }
+
+    def 'a read error is thrown as an IOException'() {
+        given:
+        createEntity("services", "valid.yml", VALID.services)
+        createEntity("services", "broken.yml", "id: [broken\n")
+
+        when:
+        ldproxyCfg.validateEntities(4)
+
+        then:
+        thrown(IOException)
+    }
+
+    static List<Tuple2<Path, Set<String>>> createReport(Map<Path, Set<ValidationMessage>> report) {
+        return report.collect { path, messages -> new Tuple2(path, messages*.getMessage() as Set) }
+    }
+
+    Path entityPath(String type, String name) {
+        return ldproxyCfg.getEntitiesPath().resolve(type).resolve(name)
+    }
+
+    void createEntity(String type, String name, String content) {
+        Path path = entityPath(type, name)
+        Files.createDirectories(path.getParent())
+        Files.writeString(path, content)
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.csv.app;
+
+import de.ii.ogcapi.features.core.domain.FeatureEncoderFixture;
+import de.ii.ogcapi.features.core.domain.FeatureEncoderFixture.CountingOutputStream;
+import de.ii.ogcapi.features.core.domain.RecordedFeatures;
+import de.ii.ogcapi.features.csv.domain.ImmutableCsvConfiguration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Replays the events of the sample feature collection of {@link RecordedFeatures} into the CSV
+ * encoder. The geometries are part of the events, but are not written, like for a request. The
+ * records are counted, but not kept, so the results only include the encoding. Run with the
+ * {@code gc} profiler to get the allocated bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FeatureEncoderCsvBenchmark {
+
+  @Param({"1", "100", "10000"})
+  public int features;
+
+  /** The number of positions of the exterior ring of each polygon. */
+  @Param({"5", "100"})
+  public int positions;
+
+  private static final String COLLECTION_ID = "xyz";
+
+  private RecordedFeatures recordedFeatures;
+  private FeatureEncoderFixture fixture;
+
+  /** The size of the response in bytes. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Output {
+    public long outputBytes;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.recordedFeatures = RecordedFeatures.createSample(COLLECTION_ID, features, positions);
+    this.fixture =
+        new FeatureEncoderFixture(
+            recordedFeatures,
+            FeaturesFormatCsv.MEDIA_TYPE,
+            new ImmutableCsvConfiguration.Builder().enabled(true).build());
+  }
+
+  @Benchmark
+  public long encodeFeatureCollection(Output output) {
+    CountingOutputStream outputStream = new CountingOutputStream();
+    FeatureEncoderCsv encoder =
+        new FeatureEncoderCsv(
+            ImmutableEncodingContextCsv.builder()
+                .from(fixture.createTransformationContext(outputStream).build())
+                .collectionId(COLLECTION_ID)
+                .schema(recordedFeatures.getSchema())
+                .build(),
+            bytes -> outputStream.write(bytes, 0, bytes.length));
+
+    recordedFeatures.replay(encoder, encoder.createContext());
+
+    output.outputBytes = outputStream.getCount();
+
+    return outputStream.getCount();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.csv.app;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Builds the records of a CSV file in a reused buffer and passes them on in batches of about the
+ * given size, so that there are only a few allocations per record.
+ */
+class CsvBatch {
+
+  private final int batchSize;
+  private final Consumer<byte[]> consumer;
+  private final StringBuilder record;
+  private final ByteArrayOutputStream batch;
+  private boolean emptyRecord;
+
+  CsvBatch(int batchSize, Consumer<byte[]> consumer) {
+    this.batchSize = batchSize;
+    this.consumer = consumer;
+    this.record = new StringBuilder(1024);
+    this.batch = new ByteArrayOutputStream(batchSize + 8 * 1024);
+    this.emptyRecord = true;
+  }
+
+  /**
+   * Adds a header to the current record, it is not escaped.
+   *
+   * @param header the name of the column
+   */
+  void addHeader(String header) {
+    addSeparator();
+    record.append(header);
+  }
+
+  /**
+   * Adds a value to the current record.
+   *
+   * @param value the value, {@code null} is written as an empty value
+   */
+  void addValue(Object value) {
+    addSeparator();
+    if (Objects.nonNull(value)) {
+      appendValue(record, value.toString());
+    }
+  }
+
+  /** Ends the current record, the batch is passed on, if it has reached the batch size. */
+  void endRecord() {
+    record.append('\n');
+    batch.writeBytes(record.toString().getBytes(StandardCharsets.UTF_8));
+    record.setLength(0);
+    emptyRecord = true;
+    if (batch.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  /** Passes on the remaining records, e.g. at the end of the file. */
+  void flush() {
+    if (batch.size() > 0) {
+      consumer.accept(batch.toByteArray());
+      batch.reset();
+    }
+  }
+
+  private void addSeparator() {
+    if (!emptyRecord) {
+      record.append(',');
+    }
+    emptyRecord = false;
+  }
+
+  /**
+   * Appends the value to the row. Line breaks are replaced with a space, unless the value has to
+   * be quoted because it contains a comma, a double quote or a single quote. In that case double
+   * quotes are doubled.
+   */
+  static void appendValue(StringBuilder row, String value) {
+    if (needsQuotes(value)) {
+      row.append('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '"') {
+          row.append('"');
+        }
+        row.append(c);
+      }
+      row.append('"');
+      return;
+    }
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (isLineBreak(c)) {
+        // \r\n is a single line break
+        if (c == '\r' && i + 1 < value.length() && value.charAt(i + 1) == '\n') {
+          i++;
+        }
+        row.append(' ');
+      } else {
+        row.append(c);
+      }
+    }
+  }
+
+  static boolean needsQuotes(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == ',' || c == '"' || c == '\'') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // the same characters as \R in regular expressions
+  static boolean isLineBreak(char c) {
+    return c == '\n'
+        || c == '\r'
+        || c == '\u000B'
+        || c == '\f'
+        || c == '\u0085'
+        || c == '\u2028'
+        || c == '\u2029';
+  }
+}
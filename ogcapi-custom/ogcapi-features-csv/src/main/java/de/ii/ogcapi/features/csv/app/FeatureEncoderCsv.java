@@ -12,9 +12,10 @@ import de.ii.xtraplatform.features.domain.FeatureSchema;
 import de.ii.xtraplatform.features.domain.SchemaBase;
 import de.ii.xtraplatform.features.domain.transform.FeatureEncoderSfFlat;
 import de.ii.xtraplatform.features.domain.transform.FeatureSfFlat;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Objects;
 import java.util.SortedMap;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,15 +23,25 @@ public class FeatureEncoderCsv extends FeatureEncoderSfFlat {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FeatureEncoderCsv.class);
 
+  // rows are collected and pushed in batches of about this size
+  private static final int BATCH_SIZE = 64 * 1024;
+
   private final String collectionId;
   private final FeatureSchema featureSchema;
+  private final CsvBatch batch;
 
-  private List<String> headers;
+  private String[] columns;
 
   public FeatureEncoderCsv(EncodingContextCsv encodingContext) {
+    this(encodingContext, null);
+  }
+
+  // the records are passed to the given consumer instead of the stream, e.g. in benchmarks
+  FeatureEncoderCsv(EncodingContextCsv encodingContext, Consumer<byte[]> output) {
     super(encodingContext);
     this.featureSchema = encodingContext.getSchema();
     this.collectionId = encodingContext.getCollectionId();
+    this.batch = new CsvBatch(BATCH_SIZE, Objects.nonNull(output) ? output : this::push);
   }
 
   @Override
@@ -40,23 +51,18 @@ public class FeatureEncoderCsv extends FeatureEncoderSfFlat {
     }
     this.processingStart = System.nanoTime();
 
-    headers = getHeaders();
+    // the columns are determined once per response, the rows only look up the values
+    columns = getHeaders().toArray(String[]::new);
     try {
-      writeRecord(headers);
+      for (String column : columns) {
+        batch.addHeader(column);
+      }
+      batch.endRecord();
     } catch (Exception e) {
       throw new IllegalStateException("Could not write to CSV output stream: " + e.getMessage(), e);
     }
   }
 
-  private String processValue(String value) {
-    String escapedValue = value.replaceAll("\\R", " ");
-    if (value.contains(",") || value.contains("\"") || value.contains("'")) {
-      value = value.replace("\"", "\"\"");
-      escapedValue = "\"" + value + "\"";
-    }
-    return escapedValue;
-  }
-
   private List<String> getHeaders() {
     ImmutableList.Builder<String> columns = ImmutableList.builder();
     for (FeatureSchema schema : featureSchema.getProperties()) {
@@ -79,24 +85,16 @@ public class FeatureEncoderCsv extends FeatureEncoderSfFlat {
   }
 
   private void writeRecord(SortedMap<String, Object> properties) {
-    ImmutableList.Builder<String> values = ImmutableList.builder();
-    for (String column : headers) {
-      if (properties.containsKey(column)) {
-        values.add(processValue(properties.get(column).toString()));
-      } else {
-        values.add(processValue(""));
-      }
+    for (String column : columns) {
+      batch.addValue(properties.get(column));
     }
-    writeRecord(values.build());
-  }
-
-  private void writeRecord(List<String> record) {
-    push(String.join(",", record).getBytes(StandardCharsets.UTF_8));
-    push("\n".getBytes(StandardCharsets.UTF_8));
+    batch.endRecord();
   }
 
   @Override
   public void onEnd(ModifiableContext context) {
+    batch.flush();
+
     if (LOGGER.isTraceEnabled()) {
       long transformerDuration = (System.nanoTime() - transformerStart) / 1000000;
       long processingDuration = (System.nanoTime() - processingStart) / 1000000;
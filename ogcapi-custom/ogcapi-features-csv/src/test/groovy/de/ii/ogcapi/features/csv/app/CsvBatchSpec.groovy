@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.csv.app
+
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.function.Consumer
+
+class CsvBatchSpec extends Specification {
+
+    static final String LINE_SEPARATOR = "a${(char) 0x2028}b"
+    static final String PARAGRAPH_SEPARATOR = "a${(char) 0x2029}b"
+    static final String NEXT_LINE = "a${(char) 0x85}b"
+
+    List<String> pushed = []
+    Consumer<byte[]> consumer = { byte[] bytes -> pushed << new String(bytes, StandardCharsets.UTF_8) } as Consumer
+
+    def 'values are escaped like with the regular expressions before'() {
+        given:
+        StringBuilder row = new StringBuilder()
+
+        when:
+        CsvBatch.appendValue(row, value)
+
+        then:
+        row.toString() == processValue(value)
+
+        where:
+        value << [
+                "",
+                "plain",
+                "a,b",
+                "a\"b",
+                "\"quoted\"",
+                "it's",
+                "a\nb",
+                "a\rb",
+                "a\r\nb",
+                "a\n\rb",
+                "a\r\n\r\nb",
+                "a\u000Bb",
+                "a\fb",
+                NEXT_LINE,
+                LINE_SEPARATOR,
+                PARAGRAPH_SEPARATOR,
+                "a,\nb",
+                "a\"\r\nb",
+                "\n",
+                "ä,ö"
+        ]
+    }
+
+    def 'only commas and quotes require quotes'() {
+        expect:
+        CsvBatch.needsQuotes(value) == expected
+
+        where:
+        value      || expected
+        "a,b"      || true
+        "a\"b"     || true
+        "a'b"      || true
+        "a;b"      || false
+        "a\nb"     || false
+        ""         || false
+    }
+
+    def 'line breaks are the characters of \\R'() {
+        expect:
+        (0..0xFFFF).findAll { CsvBatch.isLineBreak((char) it) } == (0..0xFFFF).findAll { String.valueOf((char) it) ==~ /\R/ }
+    }
+
+    def 'a missing or null value is an empty field'() {
+        given:
+        CsvBatch batch = new CsvBatch(1024, consumer)
+
+        when:
+        ["id", "name", "value"].each { batch.addHeader(it) }
+        batch.endRecord()
+        batch.addValue(1)
+        batch.addValue(null)
+        batch.addValue("a,b")
+        batch.endRecord()
+        batch.flush()
+
+        then:
+        pushed == ["id,name,value\n1,,\"a,b\"\n"]
+    }
+
+    def 'records are passed on in batches and the rest at the end of the stream'() {
+        given:
+        CsvBatch batch = new CsvBatch(10, consumer)
+
+        when:
+        batch.addValue("12345")
+        batch.endRecord()
+
+        then:
+        pushed.isEmpty()
+
+        when:
+        batch.addValue("6789")
+        batch.endRecord()
+
+        then:
+        pushed == ["12345\n6789\n"]
+
+        when:
+        batch.addValue("0")
+        batch.endRecord()
+        batch.flush()
+        batch.flush()
+
+        then:
+        pushed == ["12345\n6789\n", "0\n"]
+    }
+
+    // the escaping of the CSV encoder before the values were appended to a reused buffer
+    static String processValue(String value) {
+        String escapedValue = value.replaceAll("\\R", " ")
+        if (value.contains(",") || value.contains("\"") || value.contains("'")) {
+            value = value.replace("\"", "\"\"")
+            escapedValue = "\"" + value + "\""
+        }
+        return escapedValue
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.resources.app;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import javax.ws.rs.core.EntityTag;
+
+/** Parsing of the HTTP headers {@code Range} and {@code If-Range} (RFC 7233) for byte ranges. */
+final class ByteRanges {
+
+  static final String UNIT = "bytes";
+
+  // more ranges are ignored and the complete resource is returned
+  private static final int MAX_RANGES = 16;
+
+  private ByteRanges() {}
+
+  static final class Range {
+    private final long start;
+    private final long end;
+
+    Range(long start, long end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    long getStart() {
+      return start;
+    }
+
+    long getEnd() {
+      return end;
+    }
+
+    long getLength() {
+      return end - start + 1;
+    }
+
+    String getContentRange(long size) {
+      return String.format("%s %d-%d/%d", UNIT, start, end, size);
+    }
+  }
+
+  /**
+   * @param header the value of the {@code Range} header
+   * @param size the size of the resource in bytes
+   * @return the sorted and coalesced ranges or an empty list, if no range can be satisfied; empty,
+   *     if the header is invalid or should be ignored for other reasons
+   */
+  static Optional<List<Range>> parse(String header, long size) {
+    int separator = header.indexOf('=');
+    if (separator < 0
+        || !Objects.equals(header.substring(0, separator).trim().toLowerCase(Locale.ROOT), UNIT)) {
+      return Optional.empty();
+    }
+
+    String[] specs = header.substring(separator + 1).split(",");
+    if (specs.length > MAX_RANGES) {
+      return Optional.empty();
+    }
+
+    List<Range> ranges = new ArrayList<>();
+    try {
+      for (String spec : specs) {
+        String trimmed = spec.trim();
+        int dash = trimmed.indexOf('-');
+        if (dash < 0) {
+          return Optional.empty();
+        }
+        String first = trimmed.substring(0, dash).trim();
+        String last = trimmed.substring(dash + 1).trim();
+
+        if (first.isEmpty()) {
+          // suffix range with the last n bytes
+          long suffixLength = Long.parseLong(last);
+          if (suffixLength < 0) {
+            return Optional.empty();
+          }
+          if (suffixLength > 0 && size > 0) {
+            ranges.add(new Range(Math.max(0, size - suffixLength), size - 1));
+          }
+          continue;
+        }
+
+        long start = Long.parseLong(first);
+        long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+        if (start < 0 || end < start) {
+          return Optional.empty();
+        }
+        if (start < size) {
+          ranges.add(new Range(start, Math.min(end, size - 1)));
+        }
+      }
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+
+    return Optional.of(coalesce(ranges));
+  }
+
+  /**
+   * @param size the size of the resource in bytes
+   * @return the value of the {@code Content-Range} header for a response with status 416
+   */
+  static String getUnsatisfiedContentRange(long size) {
+    return String.format("%s */%d", UNIT, size);
+  }
+
+  /**
+   * @param ifRange the value of the {@code If-Range} header
+   * @param eTag the current entity tag of the resource
+   * @param lastModified the current last modification date of the resource
+   * @return {@code true}, if the representation has not changed and the range request can be
+   *     served
+   */
+  static boolean isUnchanged(Optional<String> ifRange, EntityTag eTag, Date lastModified) {
+    if (ifRange.isEmpty()) {
+      return true;
+    }
+    String value = ifRange.get().trim();
+
+    if (value.startsWith("W/")) {
+      // weak entity tags are not allowed for ranges
+      return false;
+    }
+    if (value.startsWith("\"")) {
+      return Objects.nonNull(eTag)
+          && !eTag.isWeak()
+          && value.length() > 1
+          && value.endsWith("\"")
+          && Objects.equals(value.substring(1, value.length() - 1), eTag.getValue());
+    }
+
+    if (Objects.isNull(lastModified)) {
+      return false;
+    }
+    try {
+      ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+      return date.toEpochSecond() == lastModified.getTime() / 1000;
+    } catch (DateTimeParseException e) {
+      return false;
+    }
+  }
+
+  private static List<Range> coalesce(List<Range> ranges) {
+    ranges.sort(Comparator.comparingLong(Range::getStart));
+
+    List<Range> coalesced = new ArrayList<>();
+    for (Range range : ranges) {
+      if (!coalesced.isEmpty()) {
+        Range previous = coalesced.get(coalesced.size() - 1);
+        if (range.getStart() <= previous.getEnd() + 1) {
+          coalesced.set(
+              coalesced.size() - 1,
+              new Range(previous.getStart(), Math.max(previous.getEnd(), range.getEnd())));
+          continue;
+        }
+      }
+      coalesced.add(range);
+    }
+
+    return coalesced;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.resources.app;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The runs of the features export per API. Whether a run only exports the changed collections is
+ * decided once, when the first partial of the run starts, and shared by all partials. Otherwise a
+ * partial that starts after another partial has already exported the changed collections would
+ * export all of its collections.
+ */
+class ExportRuns {
+
+  private final Map<String, Run> runs;
+
+  ExportRuns() {
+    this.runs = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @param apiId the API
+   * @param partials the number of partials of the run
+   * @param onlyChanged decides whether only the changed collections are exported, only called by
+   *     the first partial of a run
+   * @return {@code true}, if only the changed collections are exported
+   */
+  boolean start(String apiId, int partials, BooleanSupplier onlyChanged) {
+    return runs.compute(
+            apiId,
+            (id, run) ->
+                Objects.nonNull(run)
+                    ? run
+                    : new Run(onlyChanged.getAsBoolean(), Math.max(1, partials)))
+        .onlyChanged;
+  }
+
+  /**
+   * Ends a partial of the current run, the run ends with its last partial.
+   *
+   * @param apiId the API
+   */
+  void finish(String apiId) {
+    runs.computeIfPresent(apiId, (id, run) -> run.pending > 1 ? run.finishPartial() : null);
+  }
+
+  private static final class Run {
+    private final boolean onlyChanged;
+    private final int pending;
+
+    private Run(boolean onlyChanged, int pending) {
+      this.onlyChanged = onlyChanged;
+      this.pending = pending;
+    }
+
+    private Run finishPartial() {
+      return new Run(onlyChanged, pending - 1);
+    }
+  }
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.resources.app;
+
+import com.github.azahnen.dagger.annotations.AutoBind;
+import com.google.common.collect.ImmutableList;
+import de.ii.ogcapi.features.core.domain.FeatureFormatExtension;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreConfiguration;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreProviders;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreQueriesHandler;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreQueriesHandler.Query;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreQueriesHandler.QueryInputFeatures;
+import de.ii.ogcapi.features.core.domain.ImmutableQueryInputFeatures;
+import de.ii.ogcapi.foundation.domain.ApiRequestContext;
+import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
+import de.ii.ogcapi.foundation.domain.ExtensionRegistry;
+import de.ii.ogcapi.foundation.domain.ImmutableRequestContext;
+import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.ogcapi.foundation.domain.OgcApiBackgroundTask;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.ogcapi.foundation.domain.QueryParameterSet;
+import de.ii.ogcapi.foundation.domain.URICustomizer;
+import de.ii.ogcapi.resources.domain.ResourcesConfiguration;
+import de.ii.xtraplatform.base.domain.LogContext;
+import de.ii.xtraplatform.base.domain.resiliency.VolatileRegistry;
+import de.ii.xtraplatform.blobs.domain.ResourceStore;
+import de.ii.xtraplatform.entities.domain.ValidationResult;
+import de.ii.xtraplatform.entities.domain.ValidationResult.MODE;
+import de.ii.xtraplatform.features.domain.DatasetChangeListener;
+import de.ii.xtraplatform.features.domain.FeatureChangeListener;
+import de.ii.xtraplatform.features.domain.FeatureChanges;
+import de.ii.xtraplatform.features.domain.FeatureQuery;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery;
+import de.ii.xtraplatform.services.domain.TaskContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports the configured collections as files to the resources of the API. Each file is streamed
+ * from the features query handler to a temporary file and then stored as a resource, so no request
+ * thread is blocked and a download of a collection is just a static file. The number of features
+ * per file is limited by {@link ResourcesConfiguration#getExportMaxFeatures()}. The exports are
+ * distributed across the partials of the task and run in parallel.
+ *
+ * <p>The task runs on startup, periodically if configured, and when the feature provider reports
+ * changes of an exported collection. After changes, only the changed collections are exported.
+ */
+@Singleton
+@AutoBind
+public class FeaturesExport implements OgcApiBackgroundTask {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FeaturesExport.class);
+
+  // every export holds a connection to the feature provider while it is running
+  private static final int MAX_PARALLEL_EXPORTS = 4;
+
+  private final ExtensionRegistry extensionRegistry;
+  private final FeaturesCoreProviders providers;
+  private final FeaturesCoreQueriesHandler queriesHandlerFeatures;
+  private final ResourceStore resourcesStore;
+  private final VolatileRegistry volatileRegistry;
+  // the keys are "{apiId}/{collectionId}" and "{apiId}/{resourceId}"
+  private final Map<String, Long> changed;
+  private final Map<String, Long> exported;
+  private final Set<String> running;
+  private final ExportRuns runs;
+  private final Map<String, DatasetChangeListener> datasetChangeListeners;
+  private final Map<String, FeatureChangeListener> featureChangeListeners;
+  private Consumer<OgcApi> trigger;
+
+  @Inject
+  public FeaturesExport(
+      ExtensionRegistry extensionRegistry,
+      FeaturesCoreProviders providers,
+      FeaturesCoreQueriesHandler queriesHandlerFeatures,
+      ResourceStore blobStore,
+      VolatileRegistry volatileRegistry) {
+    this.extensionRegistry = extensionRegistry;
+    this.providers = providers;
+    this.queriesHandlerFeatures = queriesHandlerFeatures;
+    this.resourcesStore = blobStore.with(ResourcesBuildingBlock.STORE_RESOURCE_TYPE);
+    this.volatileRegistry = volatileRegistry;
+    this.changed = new ConcurrentHashMap<>();
+    this.exported = new ConcurrentHashMap<>();
+    this.running = ConcurrentHashMap.newKeySet();
+    this.runs = new ExportRuns();
+    this.datasetChangeListeners = new ConcurrentHashMap<>();
+    this.featureChangeListeners = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public boolean isEnabledForApi(OgcApiDataV2 apiData) {
+    return apiData.getEnabled()
+        && apiData
+            .getExtension(ResourcesConfiguration.class)
+            .filter(ResourcesConfiguration::isEnabled)
+            .filter(cfg -> !cfg.getExportCollections().isEmpty())
+            .isPresent();
+  }
+
+  @Override
+  public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+    return ResourcesConfiguration.class;
+  }
+
+  @Override
+  public Class<OgcApi> getServiceType() {
+    return OgcApi.class;
+  }
+
+  @Override
+  public String getLabel() {
+    return "Features export";
+  }
+
+  @Override
+  public ValidationResult onStartup(OgcApi api, MODE apiValidation) {
+    if (isEnabledForApi(api.getData())) {
+      providers
+          .getFeatureProvider(api.getData())
+          .ifPresent(provider -> updateChangeListeners(provider.changes(), api));
+    }
+
+    return ValidationResult.of();
+  }
+
+  @Override
+  public void onShutdown(OgcApi api) {
+    providers
+        .getFeatureProvider(api.getData())
+        .ifPresent(provider -> removeChangeListeners(provider.changes(), api));
+
+    OgcApiBackgroundTask.super.onShutdown(api);
+  }
+
+  @Override
+  public boolean runOnStart(OgcApi api) {
+    return isEnabledForApi(api.getData());
+  }
+
+  @Override
+  public Optional<String> runPeriodic(OgcApi api) {
+    if (!isEnabledForApi(api.getData())) {
+      return Optional.empty();
+    }
+    return api.getData()
+        .getExtension(ResourcesConfiguration.class)
+        .map(ResourcesConfiguration::getExportRunPeriodic);
+  }
+
+  @Override
+  public void setTrigger(Consumer<OgcApi> trigger) {
+    this.trigger = trigger;
+  }
+
+  /**
+   * @param apiId the API
+   * @param resourceId the resource
+   * @return {@code true}, if the resource is an export that is currently written
+   */
+  boolean isRunning(String apiId, String resourceId) {
+    return running.contains(getKey(apiId, resourceId));
+  }
+
+  @Override
+  public int getMaxPartials(OgcApi api) {
+    return Math.max(1, Math.min(getExports(api).size(), MAX_PARALLEL_EXPORTS));
+  }
+
+  @Override
+  public void run(OgcApi api, TaskContext taskContext) {
+    volatileRegistry
+        .onAvailable(
+            resourcesStore,
+            queriesHandlerFeatures,
+            providers.getFeatureProviderOrThrow(api.getData()))
+        .toCompletableFuture()
+        .join();
+
+    List<Export> exports = getExports(api);
+    List<Export> exportsOfPartial =
+        IntStream.range(0, exports.size())
+            .filter(taskContext::matchesPartialModulo)
+            .mapToObj(exports::get)
+            .collect(Collectors.toUnmodifiableList());
+    // after changes only the changed collections are exported, otherwise all of them
+    boolean onlyChanged =
+        runs.start(
+            api.getId(),
+            taskContext.getMaxPartials(),
+            () -> exports.stream().anyMatch(export -> isChanged(api, export)));
+    try {
+      run(api, taskContext, exportsOfPartial, onlyChanged);
+    } finally {
+      runs.finish(api.getId());
+    }
+  }
+
+  private void run(
+      OgcApi api, TaskContext taskContext, List<Export> exportsOfPartial, boolean onlyChanged) {
+    int processed = 0;
+    int skipped = 0;
+    int failed = 0;
+
+    for (Export export : exportsOfPartial) {
+      if (taskContext.isStopped()) {
+        break;
+      }
+
+      if (onlyChanged && !isChanged(api, export)) {
+        skipped++;
+      } else {
+        taskContext.setStatusMessage(
+            String.format("currently exporting -> %s", export.getResourceId()));
+
+        String key = getKey(api.getId(), export.getResourceId());
+        long started = System.currentTimeMillis();
+        running.add(key);
+        try {
+          export(api, export);
+          exported.put(key, started);
+        } catch (Throwable e) {
+          failed++;
+          if (!taskContext.isStopped()) {
+            LogContext.error(
+                LOGGER,
+                e,
+                "{}: Could not export resource '{}'",
+                getLabel(),
+                export.getResourceId());
+          }
+        } finally {
+          running.remove(key);
+        }
+      }
+
+      processed++;
+      taskContext.setCompleteness((double) processed / exportsOfPartial.size());
+    }
+
+    taskContext.setStatusMessage(
+        String.format(
+            "exported %d resources, %d unchanged, %d failed",
+            processed - skipped - failed, skipped, failed));
+  }
+
+  private boolean isChanged(OgcApi api, Export export) {
+    Long lastChange = changed.get(getKey(api.getId(), export.getCollectionId()));
+    Long lastExport = exported.get(getKey(api.getId(), export.getResourceId()));
+
+    return Objects.nonNull(lastChange)
+        && (Objects.isNull(lastExport) || lastChange >= lastExport);
+  }
+
+  private void onChange(OgcApi api, String featureType) {
+    String collectionId = FeaturesCoreConfiguration.getCollectionId(api.getData(), featureType);
+    boolean isExported =
+        api.getData()
+            .getExtension(ResourcesConfiguration.class)
+            .map(ResourcesConfiguration::getExportCollections)
+            .filter(collections -> collections.contains(collectionId))
+            .isPresent();
+
+    if (isExported) {
+      changed.put(getKey(api.getId(), collectionId), System.currentTimeMillis());
+
+      if (Objects.nonNull(trigger)) {
+        trigger.accept(api);
+      }
+    }
+  }
+
+  // the listeners are managed here and not with WithChangeListeners, since the listeners in that
+  // interface are shared by all implementations with one entry per API
+  private void updateChangeListeners(FeatureChanges changeHandler, OgcApi api) {
+    removeChangeListeners(changeHandler, api);
+
+    DatasetChangeListener datasetChangeListener =
+        change -> change.getFeatureTypes().forEach(featureType -> onChange(api, featureType));
+    changeHandler.addListener(datasetChangeListener);
+    datasetChangeListeners.put(api.getId(), datasetChangeListener);
+
+    FeatureChangeListener featureChangeListener = change -> onChange(api, change.getFeatureType());
+    changeHandler.addListener(featureChangeListener);
+    featureChangeListeners.put(api.getId(), featureChangeListener);
+  }
+
+  private void removeChangeListeners(FeatureChanges changeHandler, OgcApi api) {
+    DatasetChangeListener datasetChangeListener = datasetChangeListeners.remove(api.getId());
+    if (Objects.nonNull(datasetChangeListener)) {
+      changeHandler.removeListener(datasetChangeListener);
+    }
+
+    FeatureChangeListener featureChangeListener = featureChangeListeners.remove(api.getId());
+    if (Objects.nonNull(featureChangeListener)) {
+      changeHandler.removeListener(featureChangeListener);
+    }
+  }
+
+  private static String getKey(String apiId, String id) {
+    return String.join("/", apiId, id);
+  }
+
+  private List<Export> getExports(OgcApi api) {
+    OgcApiDataV2 apiData = api.getData();
+    List<String> formats =
+        apiData
+            .getExtension(ResourcesConfiguration.class)
+            .map(ResourcesConfiguration::getExportFormats)
+            .orElse(List.of());
+
+    return apiData
+        .getExtension(ResourcesConfiguration.class)
+        .map(ResourcesConfiguration::getExportCollections)
+        .orElse(List.of())
+        .stream()
+        .filter(apiData::isCollectionEnabled)
+        .flatMap(
+            collectionId ->
+                formats.stream()
+                    .map(fileExtension -> getFormat(apiData, collectionId, fileExtension))
+                    .filter(Optional::isPresent)
+                    .map(format -> new Export(collectionId, format.get())))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private Optional<FeatureFormatExtension> getFormat(
+      OgcApiDataV2 apiData, String collectionId, String fileExtension) {
+    Optional<FeatureFormatExtension> format =
+        extensionRegistry.getExtensionsForType(FeatureFormatExtension.class).stream()
+            .filter(f -> f.isEnabledForApi(apiData, collectionId))
+            .filter(FeatureFormatExtension::canEncodeFeatures)
+            .filter(f -> Objects.equals(f.getMediaType().fileExtension(), fileExtension))
+            .findFirst();
+
+    if (format.isEmpty() && LOGGER.isWarnEnabled()) {
+      LOGGER.warn(
+          "{}: The format '{}' is not available for collection '{}', it is not exported.",
+          getLabel(),
+          fileExtension,
+          collectionId);
+    }
+
+    return format;
+  }
+
+  private void export(OgcApi api, Export export) throws IOException, URISyntaxException {
+    OgcApiDataV2 apiData = api.getData();
+    String collectionId = export.getCollectionId();
+    FeaturesCoreConfiguration coreConfiguration =
+        apiData.getExtension(FeaturesCoreConfiguration.class, collectionId).orElseThrow();
+
+    FeatureQuery query =
+        getQuery(
+            collectionId,
+            coreConfiguration,
+            apiData
+                .getExtension(ResourcesConfiguration.class)
+                .map(ResourcesConfiguration::getExportMaxFeatures)
+                .orElse(ResourcesBuildingBlock.EXPORT_MAX_FEATURES));
+
+    QueryInputFeatures queryInput =
+        new ImmutableQueryInputFeatures.Builder()
+            .collectionId(collectionId)
+            .query(query)
+            .featureProvider(
+                providers.getFeatureProviderOrThrow(
+                    apiData, apiData.getCollectionData(collectionId).orElseThrow()))
+            .defaultCrs(coreConfiguration.getDefaultEpsgCrs())
+            .sendResponseAsStream(true)
+            .build();
+
+    URI uri =
+        new URICustomizer(api.getUri())
+            .ensureLastPathSegments("collections", collectionId, "items")
+            .build();
+    ApiRequestContext requestContext =
+        new ImmutableRequestContext.Builder()
+            .api(api)
+            .request(Optional.empty())
+            .externalUri(uri)
+            .requestUri(uri)
+            .mediaType(export.getFormat().getMediaType())
+            .alternateMediaTypes(ImmutableList.of())
+            .queryParameterSet(QueryParameterSet.of())
+            .build();
+
+    Path tmpFile = Files.createTempFile("export-", "." + export.getFileExtension());
+    try {
+      try (Response response =
+              queriesHandlerFeatures.handle(Query.FEATURES, queryInput, requestContext);
+          OutputStream outputStream = Files.newOutputStream(tmpFile)) {
+        if (response.getStatus() != 200) {
+          throw new IOException(
+              String.format("The feature query failed with status %d.", response.getStatus()));
+        }
+        if (response.getEntity() instanceof StreamingOutput) {
+          ((StreamingOutput) response.getEntity()).write(outputStream);
+        } else if (response.getEntity() instanceof byte[]) {
+          outputStream.write((byte[]) response.getEntity());
+        } else {
+          throw new IOException(
+              String.format(
+                  "Unexpected feature response of type '%s'.",
+                  Objects.nonNull(response.getEntity())
+                      ? response.getEntity().getClass().getSimpleName()
+                      : null));
+        }
+      }
+
+      // the previous file is replaced when the new one is complete
+      try (InputStream inputStream = Files.newInputStream(tmpFile)) {
+        resourcesStore.put(Path.of(apiData.getId(), export.getResourceId()), inputStream);
+      }
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "{}: Exported resource '{}' with {} bytes.",
+            getLabel(),
+            export.getResourceId(),
+            Files.size(tmpFile));
+      }
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+  }
+
+  static FeatureQuery getQuery(
+      String collectionId, FeaturesCoreConfiguration coreConfiguration, int maxFeatures) {
+    return ImmutableFeatureQuery.builder()
+        .type(coreConfiguration.getFeatureType().orElse(collectionId))
+        .crs(coreConfiguration.getDefaultEpsgCrs())
+        .limit(maxFeatures)
+        .build();
+  }
+
+  private static final class Export {
+    private final String collectionId;
+    private final FeatureFormatExtension format;
+
+    private Export(String collectionId, FeatureFormatExtension format) {
+      this.collectionId = collectionId;
+      this.format = format;
+    }
+
+    String getCollectionId() {
+      return collectionId;
+    }
+
+    FeatureFormatExtension getFormat() {
+      return format;
+    }
+
+    String getFileExtension() {
+      return format.getMediaType().fileExtension();
+    }
+
+    String getResourceId() {
+      return String.format("%s.%s", collectionId, getFileExtension());
+    }
+  }
+}
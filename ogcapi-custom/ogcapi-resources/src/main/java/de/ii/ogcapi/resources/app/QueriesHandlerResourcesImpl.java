@@ -9,6 +9,7 @@ package de.ii.ogcapi.resources.app;
 
 import com.github.azahnen.dagger.annotations.AutoBind;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 import de.ii.ogcapi.foundation.domain.ApiRequestContext;
 import de.ii.ogcapi.foundation.domain.ExtensionRegistry;
 import de.ii.ogcapi.foundation.domain.HeaderCaching;
@@ -29,13 +30,23 @@ import de.ii.xtraplatform.blobs.domain.Blob;
 import de.ii.xtraplatform.blobs.domain.ResourceStore;
 import de.ii.xtraplatform.web.domain.LastModified;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Inject;
@@ -43,30 +54,39 @@ import javax.inject.Singleton;
 import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.ServerErrorException;
+import javax.ws.rs.ServiceUnavailableException;
 import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 @Singleton
 @AutoBind
 public class QueriesHandlerResourcesImpl extends AbstractVolatileComposed
     implements QueriesHandlerResources {
 
+  private static final String HEADER_ACCEPT_RANGES = "Accept-Ranges";
+  private static final String HEADER_CONTENT_RANGE = "Content-Range";
+
   private final I18n i18n;
   private final ExtensionRegistry extensionRegistry;
   private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
   private final ResourceStore resourcesStore;
+  private final FeaturesExport featuresExport;
 
   @Inject
   public QueriesHandlerResourcesImpl(
       ExtensionRegistry extensionRegistry,
       I18n i18n,
       ResourceStore blobStore,
+      FeaturesExport featuresExport,
       VolatileRegistry volatileRegistry) {
     super(QueriesHandlerResources.class.getSimpleName(), volatileRegistry, true);
     this.extensionRegistry = extensionRegistry;
     this.i18n = i18n;
     this.resourcesStore = blobStore.with(ResourcesBuildingBlock.STORE_RESOURCE_TYPE);
+    this.featuresExport = featuresExport;
     this.queryHandlers =
         ImmutableMap.of(
             Query.RESOURCES,
@@ -179,11 +199,14 @@ public class QueriesHandlerResourcesImpl extends AbstractVolatileComposed
                             requestContext.getMediaType().type())));
 
     try {
+      if (format.isPassThrough()) {
+        return getPassThroughResponse(queryInput, requestContext, resourcePath, resourceId);
+      }
+
       Optional<Blob> resourceBlob = resourcesStore.get(resourcePath);
 
       if (resourceBlob.isEmpty()) {
-        throw new NotFoundException(
-            MessageFormat.format("The resource ''{0}'' does not exist.", resourceId));
+        throw notFound(apiId, resourceId);
       }
 
       Blob blob = resourceBlob.get();
@@ -207,4 +230,183 @@ public class QueriesHandlerResourcesImpl extends AbstractVolatileComposed
       throw new ServerErrorException("resource could not be read: " + resourceId, 500);
     }
   }
+
+  // the resource is returned unchanged, so it is never loaded into memory, only the metadata is
+  // read from the store and the content is streamed
+  private Response getPassThroughResponse(
+      QueryInputResource queryInput,
+      ApiRequestContext requestContext,
+      Path resourcePath,
+      String resourceId)
+      throws IOException {
+    if (!resourcesStore.has(resourcePath)) {
+      throw notFound(requestContext.getApi().getId(), resourceId);
+    }
+
+    long modified = resourcesStore.lastModified(resourcePath);
+    long size = resourcesStore.size(resourcePath);
+    Date lastModified = LastModified.from(modified);
+    EntityTag eTag = getEntityTag(modified, size);
+    Response.ResponseBuilder response = evaluatePreconditions(requestContext, lastModified, eTag);
+    if (Objects.nonNull(response)) return response.build();
+
+    Optional<Path> localPath = resourcesStore.asLocalPath(resourcePath, false);
+    String contentType = getContentType(resourceId, localPath);
+    Optional<List<ByteRanges.Range>> ranges =
+        queryInput
+            .getRange()
+            .filter(range -> ByteRanges.isUnchanged(queryInput.getIfRange(), eTag, lastModified))
+            .flatMap(range -> ByteRanges.parse(range, size));
+
+    if (ranges.isPresent() && ranges.get().isEmpty()) {
+      return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+          .header(HEADER_CONTENT_RANGE, ByteRanges.getUnsatisfiedContentRange(size))
+          .build();
+    }
+
+    response =
+        prepareSuccessResponse(
+                requestContext,
+                null,
+                HeaderCaching.of(lastModified, eTag, queryInput),
+                null,
+                HeaderContentDisposition.of(resourceId))
+            .header(HEADER_ACCEPT_RANGES, ByteRanges.UNIT);
+
+    if (ranges.isEmpty()) {
+      return response
+          .entity(
+              (StreamingOutput)
+                  outputStream -> write(outputStream, resourcePath, localPath, 0, size))
+          .type(contentType)
+          .header(HttpHeaders.CONTENT_LENGTH, size)
+          .build();
+    }
+
+    if (ranges.get().size() == 1) {
+      ByteRanges.Range range = ranges.get().get(0);
+      return response
+          .status(Response.Status.PARTIAL_CONTENT)
+          .entity(
+              (StreamingOutput)
+                  outputStream ->
+                      write(
+                          outputStream,
+                          resourcePath,
+                          localPath,
+                          range.getStart(),
+                          range.getLength()))
+          .type(contentType)
+          .header(HEADER_CONTENT_RANGE, range.getContentRange(size))
+          .header(HttpHeaders.CONTENT_LENGTH, range.getLength())
+          .build();
+    }
+
+    String boundary = UUID.randomUUID().toString();
+    return response
+        .status(Response.Status.PARTIAL_CONTENT)
+        .entity(
+            (StreamingOutput)
+                outputStream ->
+                    writeMultipart(
+                        outputStream,
+                        resourcePath,
+                        localPath,
+                        ranges.get(),
+                        size,
+                        contentType,
+                        boundary))
+        .type(String.format("multipart/byteranges; boundary=%s", boundary))
+        .build();
+  }
+
+  private RuntimeException notFound(String apiId, String resourceId) {
+    if (featuresExport.isRunning(apiId, resourceId)) {
+      return new ServiceUnavailableException(
+          MessageFormat.format(
+              "The resource ''{0}'' is currently exported. Please try again later.", resourceId));
+    }
+
+    return new NotFoundException(
+        MessageFormat.format("The resource ''{0}'' does not exist.", resourceId));
+  }
+
+  // a strong validator from the last modification and the size, like the ones of common web
+  // servers, computing a hash would require to read the complete resource
+  private static EntityTag getEntityTag(long lastModified, long size) {
+    return new EntityTag(String.format("%x-%x", lastModified, size));
+  }
+
+  private static String getContentType(String resourceId, Optional<Path> localPath)
+      throws IOException {
+    String contentType = null;
+    if (localPath.isPresent()) {
+      contentType = Files.probeContentType(localPath.get());
+    }
+    if (Objects.isNull(contentType)) {
+      contentType = URLConnection.guessContentTypeFromName(resourceId);
+    }
+    return Objects.requireNonNullElse(contentType, MediaType.APPLICATION_OCTET_STREAM);
+  }
+
+  private void writeMultipart(
+      OutputStream outputStream,
+      Path resourcePath,
+      Optional<Path> localPath,
+      List<ByteRanges.Range> ranges,
+      long size,
+      String contentType,
+      String boundary)
+      throws IOException {
+    for (ByteRanges.Range range : ranges) {
+      outputStream.write(
+          String.format(
+                  "\r\n--%s\r\n%s: %s\r\n%s: %s\r\n\r\n",
+                  boundary,
+                  HttpHeaders.CONTENT_TYPE,
+                  contentType,
+                  HEADER_CONTENT_RANGE,
+                  range.getContentRange(size))
+              .getBytes(StandardCharsets.US_ASCII));
+      write(outputStream, resourcePath, localPath, range.getStart(), range.getLength());
+    }
+    outputStream.write(
+        String.format("\r\n--%s--\r\n", boundary).getBytes(StandardCharsets.US_ASCII));
+  }
+
+  // files in the local file system are transferred by the channel, other stores are streamed, in
+  // both cases the resource is never held in memory completely
+  private void write(
+      OutputStream outputStream,
+      Path resourcePath,
+      Optional<Path> localPath,
+      long start,
+      long length)
+      throws IOException {
+    if (localPath.isPresent()) {
+      try (FileChannel channel = FileChannel.open(localPath.get(), StandardOpenOption.READ)) {
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        long position = start;
+        long remaining = length;
+        while (remaining > 0) {
+          long transferred = channel.transferTo(position, remaining, target);
+          if (transferred <= 0) {
+            break;
+          }
+          position += transferred;
+          remaining -= transferred;
+        }
+      }
+      return;
+    }
+
+    Optional<InputStream> content = resourcesStore.content(resourcePath);
+    if (content.isEmpty()) {
+      throw new IOException("resource could not be read: " + resourcePath);
+    }
+    try (InputStream inputStream = content.get()) {
+      ByteStreams.skipFully(inputStream, start);
+      ByteStreams.copy(ByteStreams.limit(inputStream, length), outputStream);
+    }
+  }
 }
@@ -60,6 +60,11 @@ public class ResourceFormatAny implements ResourceFormatExtension {
         .build();
   }
 
+  @Override
+  public boolean isPassThrough() {
+    return true;
+  }
+
   @Override
   public Object getResourceEntity(
       byte[] resource, String resourceId, OgcApiDataV2 apiData, ApiRequestContext requestContext) {
@@ -43,12 +43,18 @@ public class ResourcesBuildingBlock implements ApiBuildingBlock {
       Optional.of(SpecificationMaturity.DRAFT_LDPROXY);
   public static final Optional<ExternalDocumentation> SPEC = Optional.empty();
   public static final String STORE_RESOURCE_TYPE = "api-resources";
+  public static final int EXPORT_MAX_FEATURES = 1_000_000;
 
   @Inject
   public ResourcesBuildingBlock() {}
 
   @Override
   public ExtensionConfiguration getDefaultConfiguration() {
-    return new Builder().enabled(false).managerEnabled(false).build();
+    return new Builder()
+        .enabled(false)
+        .managerEnabled(false)
+        .addExportFormats("json")
+        .exportMaxFeatures(EXPORT_MAX_FEATURES)
+        .build();
   }
 }
@@ -13,6 +13,7 @@ import de.ii.ogcapi.foundation.domain.QueriesHandler;
 import de.ii.ogcapi.foundation.domain.QueryIdentifier;
 import de.ii.ogcapi.foundation.domain.QueryInput;
 import de.ii.xtraplatform.base.domain.resiliency.Volatile2;
+import java.util.Optional;
 import org.immutables.value.Value;
 
 public interface QueriesHandlerResources
@@ -37,5 +38,9 @@ public interface QueriesHandlerResources
   @Value.Immutable
   interface QueryInputResource extends QueryInput {
     String getResourceId();
+
+    Optional<String> getRange();
+
+    Optional<String> getIfRange();
   }
 }
@@ -20,6 +20,14 @@ public interface ResourceFormatExtension extends FormatExtension {
     return true;
   }
 
+  /**
+   * @return {@code true}, if {@link #getResourceEntity} returns the resource unchanged, in that case
+   *     the resource is streamed from the store and byte range requests are supported
+   */
+  default boolean isPassThrough() {
+    return false;
+  }
+
   Object getResourceEntity(
       byte[] resource, String resourceId, OgcApiDataV2 apiData, ApiRequestContext requestContext);
 
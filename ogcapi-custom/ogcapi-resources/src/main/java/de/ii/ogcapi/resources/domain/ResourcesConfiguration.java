@@ -12,6 +12,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import de.ii.ogcapi.foundation.domain.CachingConfiguration;
 import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
 import de.ii.xtraplatform.docs.JsonDynamicSubType;
+import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nullable;
 import org.immutables.value.Value;
@@ -25,6 +26,33 @@ import org.immutables.value.Value;
  *   managerEnabled: true
  * ```
  * </code>
+ * @examplesEn Export of collections as files that can be downloaded as resources:
+ *     <p><code>
+ * ```yaml
+ * - buildingBlock: RESOURCES
+ *   enabled: true
+ *   exportCollections:
+ *   - buildings
+ *   - roads
+ *   exportFormats:
+ *   - json
+ *   - csv
+ * ```
+ * </code>
+ * @examplesDe Export von Collections als Dateien, die als Ressourcen heruntergeladen werden
+ *     können:
+ *     <p><code>
+ * ```yaml
+ * - buildingBlock: RESOURCES
+ *   enabled: true
+ *   exportCollections:
+ *   - buildings
+ *   - roads
+ *   exportFormats:
+ *   - json
+ *   - csv
+ * ```
+ * </code>
  */
 @Value.Immutable
 @Value.Style(builder = "new")
@@ -51,6 +79,65 @@ public interface ResourcesConfiguration extends ExtensionConfiguration, CachingC
     return Objects.equals(getManagerEnabled(), true);
   }
 
+  /**
+   * @langEn The collections that are exported as files to the resources of the API by a
+   *     background task. Every collection is written in each of the `exportFormats` to the resource
+   *     `{collectionId}.{fileExtension}`. The task runs on startup, according to `exportRunPeriodic`
+   *     and when the feature provider reports changes. After changes, only the changed collections
+   *     are exported again. While the task is running, the progress is reported in the task status
+   *     and the previous files remain available. A resource that is requested before its first
+   *     export is complete is answered with status 503.
+   * @langDe Die Collections, die von einem Hintergrundprozess als Dateien in die Ressourcen der
+   *     API exportiert werden. Jede Collection wird in jedem der `exportFormats` in die Ressource
+   *     `{collectionId}.{fileExtension}` geschrieben. Der Prozess läuft beim Start, gemäß
+   *     `exportRunPeriodic` und wenn der Feature-Provider Änderungen meldet. Nach Änderungen werden
+   *     nur die geänderten Collections erneut exportiert. Während der Prozess läuft, wird der
+   *     Fortschritt im Status des Prozesses gemeldet und die bisherigen Dateien bleiben verfügbar.
+   *     Eine Ressource, die vor dem Abschluss ihres ersten Exports angefragt wird, wird mit Status
+   *     503 beantwortet.
+   * @default []
+   * @since v4.2
+   */
+  List<String> getExportCollections();
+
+  /**
+   * @langEn The file extensions of the feature encodings used for `exportCollections`, e.g.
+   *     `json` for GeoJSON, `csv` or `fgb`. Only encodings that are enabled for a collection are
+   *     used.
+   * @langDe Die Dateiendungen der Feature-Kodierungen, die für `exportCollections` verwendet
+   *     werden, z.B. `json` für GeoJSON, `csv` oder `fgb`. Es werden nur Kodierungen verwendet, die
+   *     für die Collection aktiviert sind.
+   * @default [ json ]
+   * @since v4.2
+   */
+  List<String> getExportFormats();
+
+  /**
+   * @langEn A cron expression to run the export of `exportCollections` periodically, e.g.
+   *     `0 3 * * *` to export all collections every night. This is useful for feature providers
+   *     that do not report changes.
+   * @langDe Ein Cron-Ausdruck, um den Export der `exportCollections` periodisch auszuführen, z.B.
+   *     `0 3 * * *`, um alle Collections jede Nacht zu exportieren. Das ist für Feature-Provider
+   *     sinnvoll, die keine Änderungen melden.
+   * @default null
+   * @since v4.2
+   */
+  @Nullable
+  String getExportRunPeriodic();
+
+  /**
+   * @langEn The maximum number of features that are exported per collection. Collections with
+   *     more features are truncated; the export is not a replacement for a bulk download from the
+   *     database.
+   * @langDe Die maximale Anzahl der Features, die pro Collection exportiert werden. Collections
+   *     mit mehr Features werden abgeschnitten; der Export ist kein Ersatz für einen Massen-Download
+   *     aus der Datenbank.
+   * @default 1000000
+   * @since v4.2
+   */
+  @Nullable
+  Integer getExportMaxFeatures();
+
   @Override
   default Builder getBuilder() {
     return new ImmutableResourcesConfiguration.Builder();
@@ -59,7 +146,17 @@ public interface ResourcesConfiguration extends ExtensionConfiguration, CachingC
   @Override
   default ExtensionConfiguration mergeInto(ExtensionConfiguration source) {
     ImmutableResourcesConfiguration.Builder builder =
-        ((ImmutableResourcesConfiguration.Builder) source.getBuilder()).from(source).from(this);
+        ((ImmutableResourcesConfiguration.Builder) source.getBuilder())
+            .from(source)
+            .from(this)
+            .exportCollections(
+                this.getExportCollections().isEmpty()
+                    ? ((ResourcesConfiguration) source).getExportCollections()
+                    : this.getExportCollections())
+            .exportFormats(
+                this.getExportFormats().isEmpty()
+                    ? ((ResourcesConfiguration) source).getExportFormats()
+                    : this.getExportFormats());
 
     return builder.build();
   }
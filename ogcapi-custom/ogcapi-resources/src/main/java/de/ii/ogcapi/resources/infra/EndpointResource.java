@@ -37,6 +37,7 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
@@ -141,6 +142,8 @@ public class EndpointResource extends Endpoint implements ApiExtensionHealth {
    * Fetch a resource by id
    *
    * @param resourceId the local identifier of a specific resource
+   * @param range the requested byte ranges, if any
+   * @param ifRange the entity tag or last modification date the byte ranges depend on, if any
    * @return the resources as a file
    */
   @Path("/{resourceId}")
@@ -148,12 +151,16 @@ public class EndpointResource extends Endpoint implements ApiExtensionHealth {
   @Produces(MediaType.WILDCARD)
   public Response getResource(
       @PathParam("resourceId") String resourceId,
+      @HeaderParam("Range") String range,
+      @HeaderParam("If-Range") String ifRange,
       @Context OgcApi api,
       @Context ApiRequestContext requestContext) {
     QueriesHandlerResources.QueryInputResource queryInput =
         ImmutableQueryInputResource.builder()
             .from(getGenericQueryInput(api.getData()))
             .resourceId(resourceId)
+            .range(Optional.ofNullable(range))
+            .ifRange(Optional.ofNullable(ifRange))
             .build();
 
     return queryHandler.handle(QueriesHandlerResources.Query.RESOURCE, queryInput, requestContext);
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.resources.app
+
+import javax.ws.rs.core.EntityTag
+import spock.lang.Specification
+
+class ByteRangesSpec extends Specification {
+
+    static List<List<Long>> parse(String header, long size) {
+        return ByteRanges.parse(header, size)
+                .map { ranges -> ranges.collect { [it.getStart(), it.getEnd()] } }
+                .orElse(null)
+    }
+
+    def 'ranges are parsed: #header'() {
+        expect:
+        parse(header, 1000) == expected
+
+        where:
+        header              | expected
+        "bytes=0-99"        | [[0, 99]]
+        "bytes=100-"        | [[100, 999]]
+        "bytes=900-1999"    | [[900, 999]]
+        "bytes=999-999"     | [[999, 999]]
+        "BYTES = 0-0"       | [[0, 0]]
+        "bytes=0-0, 10-19"  | [[0, 0], [10, 19]]
+        "bytes=10-19, 0-0"  | [[0, 0], [10, 19]]
+    }
+
+    def 'suffix ranges return the last bytes: #header'() {
+        expect:
+        parse(header, 1000) == expected
+
+        where:
+        header          | expected
+        "bytes=-100"    | [[900, 999]]
+        "bytes=-1"      | [[999, 999]]
+        "bytes=-1000"   | [[0, 999]]
+        "bytes=-5000"   | [[0, 999]]
+        "bytes=-0"      | []
+    }
+
+    def 'overlapping and adjacent ranges are coalesced: #header'() {
+        expect:
+        parse(header, 1000) == expected
+
+        where:
+        header                      | expected
+        "bytes=0-99, 50-149"        | [[0, 149]]
+        "bytes=0-99, 100-199"       | [[0, 199]]
+        "bytes=0-99, 101-199"       | [[0, 99], [101, 199]]
+        "bytes=50-59, 0-999"        | [[0, 999]]
+        "bytes=900-, -200"          | [[800, 999]]
+        "bytes=0-9, 20-29, 5-24"    | [[0, 29]]
+    }
+
+    def 'unsatisfiable ranges result in an empty list: #header'() {
+        expect:
+        parse(header, size) == []
+
+        where:
+        header              | size
+        "bytes=1000-"       | 1000
+        "bytes=1000-1099"   | 1000
+        "bytes=0-99"        | 0
+        "bytes=-100"        | 0
+        "bytes=2000-, -0"   | 1000
+    }
+
+    def 'a partially satisfiable header only returns the satisfiable ranges'() {
+        expect:
+        parse("bytes=2000-2099, 0-9", 1000) == [[0, 9]]
+    }
+
+    def 'the Content-Range of unsatisfiable requests has the size'() {
+        expect:
+        ByteRanges.getUnsatisfiedContentRange(1000) == "bytes */1000"
+        new ByteRanges.Range(0, 99).getContentRange(1000) == "bytes 0-99/1000"
+    }
+
+    def 'invalid or ignored headers are empty: #header'() {
+        expect:
+        ByteRanges.parse(header, 1000).isEmpty()
+
+        where:
+        header << [
+                "bytes",
+                "items=0-9",
+                "bytes=abc",
+                "bytes=9-0",
+                "bytes=-",
+                "bytes=x-9",
+                "bytes=--9",
+                "bytes=" + (0..16).collect { "${it * 10}-${it * 10 + 1}" }.join(",")
+        ]
+    }
+
+    static final EntityTag ETAG = new EntityTag("abc")
+    static final Date LAST_MODIFIED = new Date(1_700_000_000_000L)
+
+    def 'a range request without If-Range is served'() {
+        expect:
+        ByteRanges.isUnchanged(Optional.empty(), ETAG, LAST_MODIFIED)
+    }
+
+    def 'If-Range is evaluated: #ifRange -> #expected'() {
+        expect:
+        ByteRanges.isUnchanged(Optional.of(ifRange), ETAG, LAST_MODIFIED) == expected
+
+        where:
+        ifRange                             | expected
+        '"abc"'                             | true
+        ' "abc" '                           | true
+        '"abd"'                             | false
+        'W/"abc"'                           | false
+        '"abc'                              | false
+        'Tue, 14 Nov 2023 22:13:20 GMT'     | true
+        'Tue, 14 Nov 2023 22:13:21 GMT'     | false
+        'yesterday'                         | false
+    }
+
+    def 'If-Range never matches a weak entity tag'() {
+        expect:
+        !ByteRanges.isUnchanged(Optional.of('"abc"'), new EntityTag("abc", true), LAST_MODIFIED)
+    }
+
+    def 'If-Range with a date never matches without a last modification date'() {
+        expect:
+        !ByteRanges.isUnchanged(Optional.of('Tue, 14 Nov 2023 22:13:20 GMT'), ETAG, null)
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.resources.app
+
+import spock.lang.Specification
+
+import java.util.function.BooleanSupplier
+
+class ExportRunsSpec extends Specification {
+
+    ExportRuns runs = new ExportRuns()
+    boolean changes = true
+    int decisions = 0
+    BooleanSupplier onlyChanged = { decisions++; changes } as BooleanSupplier
+
+    def 'the partials of a run share the decision of the first partial'() {
+        when: 'the first partial exports the changed collection before the second partial starts'
+        boolean first = runs.start("api", 2, onlyChanged)
+        changes = false
+        runs.finish("api")
+        boolean second = runs.start("api", 2, onlyChanged)
+        runs.finish("api")
+
+        then:
+        first
+        second
+        decisions == 1
+    }
+
+    def 'the next run decides again'() {
+        given:
+        runs.start("api", 2, onlyChanged)
+        runs.start("api", 2, onlyChanged)
+        runs.finish("api")
+        runs.finish("api")
+        changes = false
+
+        when:
+        boolean next = runs.start("api", 2, onlyChanged)
+
+        then:
+        !next
+        decisions == 2
+    }
+
+    def 'the runs of different APIs are independent'() {
+        when:
+        boolean api1 = runs.start("api1", 1, onlyChanged)
+        changes = false
+        boolean api2 = runs.start("api2", 1, onlyChanged)
+
+        then:
+        api1
+        !api2
+        decisions == 2
+    }
+
+    def 'a run without partials ends with its only run'() {
+        when:
+        runs.start("api", 0, onlyChanged)
+        runs.finish("api")
+        runs.start("api", 0, onlyChanged)
+
+        then:
+        decisions == 2
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.resources.app
+
+import de.ii.ogcapi.features.core.domain.FeaturesCoreConfiguration
+import de.ii.xtraplatform.crs.domain.OgcCrs
+import spock.lang.Specification
+
+class FeaturesExportSpec extends Specification {
+
+    def 'the export query is limited to the maximum number of features'() {
+        given:
+        FeaturesCoreConfiguration coreConfiguration = Stub(FeaturesCoreConfiguration) {
+            getFeatureType() >> featureType
+            getDefaultEpsgCrs() >> OgcCrs.CRS84
+        }
+
+        when:
+        def query = FeaturesExport.getQuery("c", coreConfiguration, 1000)
+
+        then:
+        query.getType() == type
+        query.getLimit() == 1000
+        query.getCrs() == Optional.of(OgcCrs.CRS84)
+
+        where:
+        featureType          || type
+        Optional.empty()     || "c"
+        Optional.of("c_v2")  || "c_v2"
+    }
+}
@@ -736,6 +736,20 @@ public class FeatureEncoderGltf extends FeatureObjectEncoder<PropertyGltf, Featu
       surfaceCount++;
     }
 
+    if (!indices.isEmpty() && context.getGltfConfiguration().weldVertices()) {
+      int removed =
+          VertexWelding.weld(
+              vertices,
+              normals,
+              featureIds,
+              !context.getProperties().isEmpty(),
+              indices,
+              outline);
+      if (LOGGER.isTraceEnabled()) {
+        LOGGER.trace("Welded vertices of feature '{}': {} removed", featureName, removed);
+      }
+    }
+
     // glTF output
     if (indices.isEmpty()) {
       return false;
@@ -765,14 +779,16 @@ public class FeatureEncoderGltf extends FeatureObjectEncoder<PropertyGltf, Featu
         }
       }
 
+      // the component type depends on the largest index, the maximum value of the type is not
+      // allowed as an index (primitive restart value)
+      int maxIndex = vertices.size() / 3 - 1;
       int componentType;
-      if (indices.size() <= Byte.MAX_VALUE - Byte.MIN_VALUE) {
+      if (maxIndex < Byte.MAX_VALUE - Byte.MIN_VALUE) {
         componentType = UNSIGNED_BYTE;
-      } else if (indices.size() <= Short.MAX_VALUE - Short.MIN_VALUE) {
+      } else if (maxIndex < Short.MAX_VALUE - Short.MIN_VALUE) {
         componentType = UNSIGNED_SHORT;
       } else {
-        // UNSIGNED_INT is not allowed
-        componentType = FLOAT;
+        componentType = UNSIGNED_INT;
       }
 
       // write indices and add accessor
@@ -790,10 +806,10 @@ public class FeatureEncoderGltf extends FeatureObjectEncoder<PropertyGltf, Featu
           }
           break;
 
-        case FLOAT:
+        case UNSIGNED_INT:
         default:
           for (int v : indices) {
-            buffer.write(GltfAsset.intToLittleEndianFloat(v));
+            buffer.write(GltfAsset.intToLittleEndianInt(v));
           }
           break;
       }
@@ -1006,7 +1022,7 @@ public class FeatureEncoderGltf extends FeatureObjectEncoder<PropertyGltf, Featu
       Integer accessorIdOutline = null;
       if (context.getGltfConfiguration().writeOutline()) {
         // write outline edges and add accessor
-        if (indices.size() <= Short.MAX_VALUE - Short.MIN_VALUE) {
+        if (maxIndex < Short.MAX_VALUE - Short.MIN_VALUE) {
           componentType = UNSIGNED_SHORT;
         } else {
           componentType = UNSIGNED_INT;
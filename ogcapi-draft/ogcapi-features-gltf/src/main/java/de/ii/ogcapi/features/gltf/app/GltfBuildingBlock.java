@@ -97,6 +97,7 @@ public class GltfBuildingBlock implements ApiBuildingBlock {
         .meshQuantization(true)
         .withNormals(true)
         .withOutline(false)
+        .weldVertices(true)
         .polygonOrientationNotGuaranteed(true)
         .withSurfaceType(false)
         .maxMultiplicity(DEFAULT_MULTIPLICITY)
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.gltf.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges vertices of a mesh that are identical, i.e. that have the same position, normal and
+ * feature id. Surfaces are triangulated independently, so adjacent surfaces and the rings of a
+ * surface repeat the same vertices. The vertex attributes are the largest part of a glTF mesh and
+ * are reduced accordingly, the indices are updated to reference the remaining vertices.
+ */
+final class VertexWelding {
+
+  private VertexWelding() {}
+
+  /**
+   * Welds the vertices in place.
+   *
+   * @param vertices the vertex positions, three values per vertex
+   * @param normals the normals, three values per vertex, or empty, if no normals are written
+   * @param featureIds the feature ids, one value per vertex
+   * @param withFeatureIds {@code true}, if the feature ids are written
+   * @param indices the indices of the triangles
+   * @param outline the indices of the outline edges, may be empty
+   * @return the number of vertices that have been removed
+   */
+  static int weld(
+      List<Double> vertices,
+      List<Double> normals,
+      List<Integer> featureIds,
+      boolean withFeatureIds,
+      List<Integer> indices,
+      List<Integer> outline) {
+    int vertexCount = vertices.size() / 3;
+    boolean withNormals = normals.size() == vertices.size();
+    int keyLength = withNormals ? 7 : 4;
+
+    Map<Key, Integer> unique = new HashMap<>(vertexCount * 2);
+    int[] remap = new int[vertexCount];
+    List<Double> weldedVertices = new ArrayList<>(vertices.size());
+    List<Double> weldedNormals = new ArrayList<>(withNormals ? normals.size() : 0);
+    List<Integer> weldedFeatureIds = new ArrayList<>(featureIds.size());
+
+    for (int i = 0; i < vertexCount; i++) {
+      long[] values = new long[keyLength];
+      values[0] = Double.doubleToLongBits(vertices.get(i * 3));
+      values[1] = Double.doubleToLongBits(vertices.get(i * 3 + 1));
+      values[2] = Double.doubleToLongBits(vertices.get(i * 3 + 2));
+      values[3] = withFeatureIds ? featureIds.get(i) : 0;
+      if (withNormals) {
+        values[4] = Double.doubleToLongBits(normals.get(i * 3));
+        values[5] = Double.doubleToLongBits(normals.get(i * 3 + 1));
+        values[6] = Double.doubleToLongBits(normals.get(i * 3 + 2));
+      }
+
+      Integer existing = unique.putIfAbsent(new Key(values), unique.size());
+      if (existing != null) {
+        remap[i] = existing;
+        continue;
+      }
+
+      remap[i] = weldedFeatureIds.size();
+      weldedVertices.add(vertices.get(i * 3));
+      weldedVertices.add(vertices.get(i * 3 + 1));
+      weldedVertices.add(vertices.get(i * 3 + 2));
+      if (withNormals) {
+        weldedNormals.add(normals.get(i * 3));
+        weldedNormals.add(normals.get(i * 3 + 1));
+        weldedNormals.add(normals.get(i * 3 + 2));
+      }
+      weldedFeatureIds.add(featureIds.get(i));
+    }
+
+    int removed = vertexCount - weldedFeatureIds.size();
+    if (removed == 0) {
+      return 0;
+    }
+
+    vertices.clear();
+    vertices.addAll(weldedVertices);
+    if (withNormals) {
+      normals.clear();
+      normals.addAll(weldedNormals);
+    }
+    featureIds.clear();
+    featureIds.addAll(weldedFeatureIds);
+    indices.replaceAll(index -> remap[index]);
+    outline.replaceAll(index -> remap[index]);
+
+    return removed;
+  }
+
+  private static final class Key {
+    private final long[] values;
+    private final int hash;
+
+    private Key(long[] values) {
+      this.values = values;
+      this.hash = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && Arrays.equals(values, ((Key) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
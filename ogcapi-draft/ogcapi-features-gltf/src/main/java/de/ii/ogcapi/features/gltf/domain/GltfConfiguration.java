@@ -107,6 +107,23 @@ public interface GltfConfiguration extends ExtensionConfiguration, FeatureFormat
     return Boolean.TRUE.equals(getWithOutline());
   }
 
+  /**
+   * @langEn If `true`, vertices of a feature with the same position, normal and feature id are
+   *     written only once and are shared by all triangles that use them.
+   * @langDe Wenn `true`, werden Punkte eines Features mit derselben Position, Normalen und
+   *     Feature-ID nur einmal geschrieben und von allen Dreiecken gemeinsam verwendet.
+   * @default true
+   * @since v4.2
+   */
+  @Nullable
+  Boolean getWeldVertices();
+
+  @Value.Derived
+  @JsonIgnore
+  default boolean weldVertices() {
+    return Boolean.TRUE.equals(getWeldVertices());
+  }
+
   /**
    * @langEn If `true`, materials are defined as
    *     [double-sided](https://registry.khronos.org/glTF/specs/2.0/glTF-2.0.html#double-sided).
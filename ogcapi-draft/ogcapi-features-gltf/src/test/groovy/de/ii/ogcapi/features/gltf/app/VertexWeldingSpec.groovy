@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.gltf.app
+
+import spock.lang.Specification
+
+class VertexWeldingSpec extends Specification {
+
+    // a square that is triangulated as two triangles with three vertices each
+    static List<Double> square() {
+        return [0d, 0d, 0d, 1d, 0d, 0d, 1d, 1d, 0d,
+                0d, 0d, 0d, 1d, 1d, 0d, 0d, 1d, 0d]
+    }
+
+    static List<Double> up(int count) {
+        return (1..count).collectMany { [0d, 0d, 1d] }
+    }
+
+    def 'shared vertices of a mesh with normals and outline are welded'() {
+        given:
+        List<Double> vertices = square()
+        List<Double> normals = up(6)
+        List<Integer> featureIds = [0, 0, 0, 0, 0, 0]
+        List<Integer> indices = [0, 1, 2, 3, 4, 5]
+        List<Integer> outline = [0, 1, 1, 2, 4, 5, 5, 3]
+
+        when:
+        int removed = VertexWelding.weld(vertices, normals, featureIds, true, indices, outline)
+
+        then:
+        removed == 2
+        vertices == [0d, 0d, 0d, 1d, 0d, 0d, 1d, 1d, 0d, 0d, 1d, 0d]
+        normals == up(4)
+        featureIds == [0, 0, 0, 0]
+        indices == [0, 1, 2, 0, 2, 3]
+        outline == [0, 1, 1, 2, 2, 3, 3, 0]
+    }
+
+    def 'vertices with different normals are not welded'() {
+        given:
+        List<Double> vertices = square()
+        List<Double> normals = up(3) + [0d, 1d, 0d] * 3
+        List<Integer> featureIds = [0, 0, 0, 0, 0, 0]
+        List<Integer> indices = [0, 1, 2, 3, 4, 5]
+        List<Integer> outline = [0, 1, 4, 5]
+
+        when:
+        int removed = VertexWelding.weld(vertices, normals, featureIds, true, indices, outline)
+
+        then:
+        removed == 0
+        vertices == square()
+        normals.size() == 18
+        indices == [0, 1, 2, 3, 4, 5]
+        outline == [0, 1, 4, 5]
+    }
+
+    def 'vertices of different features are only welded without feature ids'() {
+        given:
+        List<Double> vertices = square()
+        List<Integer> featureIds = [0, 0, 0, 1, 1, 1]
+        List<Integer> indices = [0, 1, 2, 3, 4, 5]
+
+        when:
+        int removed = VertexWelding.weld(vertices, [], featureIds, withFeatureIds, indices, [])
+
+        then:
+        removed == expectedRemoved
+        vertices.size() == 3 * (6 - expectedRemoved)
+        featureIds.size() == 6 - expectedRemoved
+        indices == expectedIndices
+
+        where:
+        withFeatureIds | expectedRemoved | expectedIndices
+        true           | 0               | [0, 1, 2, 3, 4, 5]
+        false          | 2               | [0, 1, 2, 0, 2, 3]
+    }
+}
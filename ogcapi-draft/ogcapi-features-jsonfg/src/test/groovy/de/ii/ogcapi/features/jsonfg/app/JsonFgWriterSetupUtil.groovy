@@ -98,6 +98,11 @@ class JsonFgWriterSetupUtil {
                     QueryParameterSet getQueryParameterSet() {
                         return QueryParameterSet.of()
                     }
+
+                    @Override
+                    Optional<RequestTimings> getTimings() {
+                        return Optional.empty()
+                    }
                 })
                 .limit(10)
                 .offset(20)
@@ -24,6 +24,7 @@ import de.ii.ogcapi.features.search.domain.SearchConfiguration;
 import de.ii.ogcapi.features.search.domain.SearchQueriesHandler;
 import de.ii.ogcapi.features.search.domain.SearchQueriesHandler.Query;
 import de.ii.ogcapi.features.search.domain.SearchQueriesHandler.QueryInputQuery;
+import de.ii.ogcapi.features.search.domain.StoredQueryPlan;
 import de.ii.ogcapi.features.search.domain.StoredQueryRepository;
 import de.ii.ogcapi.foundation.domain.ApiEndpointDefinition;
 import de.ii.ogcapi.foundation.domain.ApiExtensionHealth;
@@ -207,8 +208,9 @@ public class EndpointStoredQuery extends EndpointRequiresFeatures implements Api
     ensureSupportForFeatures(apiData);
     checkPathParameter(extensionRegistry, apiData, "/search/{queryId}", "queryId", queryId);
 
-    QueryExpression query = repository.get(apiData, queryId);
-    ImmutableQueryExpression.Builder builder = new ImmutableQueryExpression.Builder().from(query);
+    StoredQueryPlan plan = repository.getPlan(apiData, queryId);
+    ImmutableQueryExpression.Builder builder =
+        new ImmutableQueryExpression.Builder().from(plan.getQuery());
 
     QueryParameterSet queryParameterSet = requestContext.getQueryParameterSet();
     for (OgcApiQueryParameter parameter : queryParameterSet.getDefinitions()) {
@@ -217,7 +219,7 @@ public class EndpointStoredQuery extends EndpointRequiresFeatures implements Api
       }
     }
 
-    query = builder.build().resolveParameters(queryParameterSet, schemaValidator);
+    QueryExpression query = plan.bind(builder.build(), queryParameterSet, schemaValidator);
 
     FeaturesCoreConfiguration coreConfiguration =
         apiData.getExtension(FeaturesCoreConfiguration.class).orElseThrow();
@@ -226,6 +228,7 @@ public class EndpointStoredQuery extends EndpointRequiresFeatures implements Api
         new ImmutableQueryInputQuery.Builder()
             .from(getGenericQueryInput(apiData))
             .query(query)
+            .plan(plan)
             .featureProvider(providers.getFeatureProviderOrThrow(apiData))
             .defaultCrs(coreConfiguration.getDefaultEpsgCrs())
             .minimumPageSize(Optional.ofNullable(coreConfiguration.getMinimumPageSize()))
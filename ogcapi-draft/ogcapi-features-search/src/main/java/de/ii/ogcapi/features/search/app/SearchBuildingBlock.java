@@ -9,9 +9,11 @@ package de.ii.ogcapi.features.search.app;
 
 import com.github.azahnen.dagger.annotations.AutoBind;
 import de.ii.ogcapi.features.search.domain.ImmutableSearchConfiguration;
+import de.ii.ogcapi.features.search.domain.StoredQueryRepository;
 import de.ii.ogcapi.foundation.domain.ApiBuildingBlock;
 import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
 import de.ii.ogcapi.foundation.domain.ExternalDocumentation;
+import de.ii.ogcapi.foundation.domain.OgcApi;
 import de.ii.ogcapi.foundation.domain.SpecificationMaturity;
 import java.util.Optional;
 import javax.inject.Inject;
@@ -181,8 +183,12 @@ public class SearchBuildingBlock implements ApiBuildingBlock {
               "Testbed-18: Filtering Service and Rule Set Engineering Report (PREDRAFT)"));
   public static final String QUERY_ID_PATTERN = "[\\w\\-]+";
 
+  private final StoredQueryRepository repository;
+
   @Inject
-  public SearchBuildingBlock() {}
+  public SearchBuildingBlock(StoredQueryRepository repository) {
+    this.repository = repository;
+  }
 
   @Override
   public ExtensionConfiguration getDefaultConfiguration() {
@@ -194,6 +200,11 @@ public class SearchBuildingBlock implements ApiBuildingBlock {
         .build();
   }
 
+  @Override
+  public void onShutdown(OgcApi api) {
+    repository.removePlans(api.getData());
+  }
+
   @Override
   public Optional<SpecificationMaturity> getSpecificationMaturity() {
     return SearchBuildingBlock.MATURITY;
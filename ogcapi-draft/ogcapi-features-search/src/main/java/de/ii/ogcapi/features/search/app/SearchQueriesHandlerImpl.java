@@ -32,6 +32,7 @@ import de.ii.ogcapi.features.search.domain.SearchQueriesHandler;
 import de.ii.ogcapi.features.search.domain.StoredQueries;
 import de.ii.ogcapi.features.search.domain.StoredQueriesFormat;
 import de.ii.ogcapi.features.search.domain.StoredQueryFormat;
+import de.ii.ogcapi.features.search.domain.StoredQueryPlan;
 import de.ii.ogcapi.features.search.domain.StoredQueryRepository;
 import de.ii.ogcapi.foundation.domain.ApiMediaType;
 import de.ii.ogcapi.foundation.domain.ApiRequestContext;
@@ -114,6 +115,8 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
   public static final String MEDIA_TYPE_NOT_SUPPORTED =
       "The requested media type ''{0}'' is not supported, the following media types are available: {1}";
 
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
   private final I18n i18n;
   private final CrsTransformerFactory crsTransformerFactory;
   private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
@@ -527,10 +530,12 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
     }
 
     QueryExpression queryExpression = queryInput.getQuery();
+    Optional<StoredQueryPlan> plan = queryInput.getPlan();
     EpsgCrs crs =
         queryExpression.getCrs().map(EpsgCrs::fromString).orElse(queryInput.getDefaultCrs());
 
-    MultiFeatureQuery query = getMultiFeatureQuery(requestContext.getApi(), queryExpression, crs);
+    MultiFeatureQuery query =
+        getMultiFeatureQuery(requestContext.getApi(), queryExpression, plan, crs);
 
     List<String> collectionIds =
         queryExpression.getCollections().size() == 1
@@ -585,6 +590,7 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
         getStreamingOutput(
             requestContext,
             queryExpression,
+            plan,
             query,
             queryInput.getAllLinksAreLocal(),
             collectionIds,
@@ -615,9 +621,9 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
   }
 
   private MultiFeatureQuery getMultiFeatureQuery(
-      OgcApi api, QueryExpression queryExpression, EpsgCrs crs) {
+      OgcApi api, QueryExpression queryExpression, Optional<StoredQueryPlan> plan, EpsgCrs crs) {
     Optional<Cql2Expression> topLevelFilter =
-        getCql2Expression(queryExpression.getFilter(), queryExpression.getFilterCrs());
+        getCql2Expression(queryExpression.getFilter(), queryExpression.getFilterCrs(), plan);
     List<SubQuery> queries =
         queryExpression.getCollections().size() == 1
             ? ImmutableList.of(
@@ -636,7 +642,8 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
                         getSubQuery(
                             api.getData(),
                             q.getCollections().get(0),
-                            getCql2Expression(q.getFilter(), queryExpression.getFilterCrs()),
+                            getCql2Expression(
+                                q.getFilter(), queryExpression.getFilterCrs(), plan),
                             topLevelFilter,
                             queryExpression.getFilterOperator(),
                             q.getSortby(),
@@ -736,6 +743,16 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
     return cqlFilter;
   }
 
+  private Optional<Cql2Expression> getCql2Expression(
+      Map<String, Object> filter, Optional<String> filterCrs, Optional<StoredQueryPlan> plan) {
+    if (filter.isEmpty() || plan.isEmpty()) {
+      return getCql2Expression(filter, filterCrs);
+    }
+
+    // the filters of a stored query only vary with the parameter values, parse them only once
+    return plan.get().getFilter(filter, filterCrs, () -> getCql2Expression(filter, filterCrs));
+  }
+
   private Optional<Cql2Expression> getCql2Expression(
       Map<String, Object> filter, Optional<String> filterCrs) {
     if (!filter.isEmpty()) {
@@ -747,7 +764,7 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
             String.format("The CRS URI '%s' is invalid: %s", filterCrs.get(), e.getMessage()), e);
       }
       try {
-        String jsonFilter = new ObjectMapper().writeValueAsString(filter);
+        String jsonFilter = MAPPER.writeValueAsString(filter);
         return crs.map(epsgCrs -> cql.read(jsonFilter, Format.JSON, epsgCrs))
             .or(() -> Optional.ofNullable(cql.read(jsonFilter, Format.JSON)));
       } catch (JsonProcessingException | CqlParseException e) {
@@ -761,6 +778,7 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
   private StreamingOutput getStreamingOutput(
       ApiRequestContext requestContext,
       QueryExpression queryExpression,
+      Optional<StoredQueryPlan> plan,
       MultiFeatureQuery query,
       boolean allLinksAreLocal,
       List<String> collectionIds,
@@ -825,15 +843,25 @@ public class SearchQueriesHandlerImpl extends AbstractVolatileComposed
               .getFeatureEncoder(transformationContextGeneric, requestContext.getLanguage())
               .orElseThrow();
 
+      String serviceUrl = transformationContextGeneric.getServiceUrl();
+      Supplier<Map<String, PropertyTransformations>> idTransformations =
+          () ->
+              getIdTransformations(
+                  query,
+                  api.getData(),
+                  collectionIds,
+                  featureProvider,
+                  outputFormat,
+                  profiles,
+                  serviceUrl);
       propertyTransformations =
-          getIdTransformations(
-              query,
-              api.getData(),
-              collectionIds,
-              featureProvider,
-              outputFormat,
-              profiles,
-              transformationContextGeneric.getServiceUrl());
+          plan.map(
+                  p ->
+                      p.getTransformations(
+                          List.of(
+                              collectionIds, featureProvider, outputFormat, profiles, serviceUrl),
+                          idTransformations))
+              .orElseGet(idTransformations);
     } else {
       throw new NotAcceptableException(
           MessageFormat.format(
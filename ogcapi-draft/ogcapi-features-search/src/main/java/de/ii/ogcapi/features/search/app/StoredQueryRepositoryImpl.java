@@ -12,6 +12,7 @@ import com.google.common.collect.ImmutableList;
 import de.ii.ogcapi.features.search.domain.QueryExpression;
 import de.ii.ogcapi.features.search.domain.StoredQueriesFormat;
 import de.ii.ogcapi.features.search.domain.StoredQueryFormat;
+import de.ii.ogcapi.features.search.domain.StoredQueryPlan;
 import de.ii.ogcapi.features.search.domain.StoredQueryRepository;
 import de.ii.ogcapi.foundation.domain.ApiMediaType;
 import de.ii.ogcapi.foundation.domain.ExtensionRegistry;
@@ -28,9 +29,12 @@ import java.text.MessageFormat;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Inject;
@@ -49,6 +53,7 @@ public class StoredQueryRepositoryImpl extends AbstractVolatile
   private final ExtensionRegistry extensionRegistry;
   private final KeyValueStore<QueryExpression> queriesStore;
   private final VolatileRegistry volatileRegistry;
+  private final ConcurrentMap<String, StoredQueryPlan> plans;
 
   @Inject
   public StoredQueryRepositoryImpl(
@@ -59,6 +64,7 @@ public class StoredQueryRepositoryImpl extends AbstractVolatile
     this.extensionRegistry = extensionRegistry;
     this.queriesStore = valueStore.forTypeWritable(QueryExpression.class);
     this.volatileRegistry = volatileRegistry;
+    this.plans = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -107,6 +113,28 @@ public class StoredQueryRepositoryImpl extends AbstractVolatile
     return queriesStore.get(queryId, apiData.getId());
   }
 
+  @Override
+  public StoredQueryPlan getPlan(OgcApiDataV2 apiData, String queryId) {
+    QueryExpression query = get(apiData, queryId);
+
+    return plans.compute(
+        getPlanKey(apiData, queryId),
+        (key, plan) ->
+            Objects.nonNull(plan) && plan.isValidFor(apiData, query)
+                ? plan
+                : new StoredQueryPlan(apiData, query));
+  }
+
+  @Override
+  public void removePlans(OgcApiDataV2 apiData) {
+    String prefix = getPlanKey(apiData, "");
+    plans.keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  private static String getPlanKey(OgcApiDataV2 apiData, String queryId) {
+    return String.format("%s/%s", apiData.getId(), queryId);
+  }
+
   @Override
   public boolean exists(OgcApiDataV2 apiData, String queryId) {
     return queriesStore.has(queryId, apiData.getId());
@@ -160,6 +188,7 @@ public class StoredQueryRepositoryImpl extends AbstractVolatile
   public void writeStoredQueryDocument(OgcApiDataV2 apiData, String queryId, QueryExpression query)
       throws IOException {
     try {
+      plans.remove(getPlanKey(apiData, queryId));
       queriesStore.put(queryId, query, apiData.getId()).join();
     } catch (CompletionException e) {
       if (e.getCause() instanceof IOException) {
@@ -172,6 +201,7 @@ public class StoredQueryRepositoryImpl extends AbstractVolatile
   @Override
   public void deleteStoredQuery(OgcApiDataV2 apiData, String queryId) throws IOException {
     try {
+      plans.remove(getPlanKey(apiData, queryId));
       queriesStore.delete(queryId, apiData.getId()).join();
     } catch (CompletionException e) {
       if (e.getCause() instanceof IOException) {
@@ -190,24 +190,54 @@ public interface QueryExpression extends StoredValue {
     return paramBuilder.build();
   }
 
+  /**
+   * @return the JSON Schema of each parameter as a string, ready for validation
+   */
+  @JsonIgnore
+  @Value.Lazy
+  default Map<String, String> getParameterSchemas() {
+    ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    for (Map.Entry<String, JsonNode> entry : getParametersAsNodes().entrySet()) {
+      try {
+        builder.put(entry.getKey(), MAPPER.writeValueAsString(entry.getValue()));
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException(
+            String.format(
+                "Could not read the schema of parameter '%s' in a query.", entry.getKey()),
+            e);
+      }
+    }
+    return builder.build();
+  }
+
   default QueryExpression resolveParameters(
       QueryParameterSet queryParameterSet, SchemaValidator schemaValidator) {
-    Map<String, JsonNode> params = getParametersAsNodes();
+    return resolveParameters(
+        queryParameterSet, schemaValidator, getParametersAsNodes(), getParameterSchemas());
+  }
+
+  /**
+   * Replaces the parameters in the query with the values from the request or the defaults.
+   *
+   * @param queryParameterSet the parameter values of the request
+   * @param schemaValidator the validator for the parameter values
+   * @param params the parameters of the query
+   * @param schemas the JSON Schema of each parameter as a string, see {@link
+   *     #getParameterSchemas()}
+   * @return the query without parameters
+   */
+  default QueryExpression resolveParameters(
+      QueryParameterSet queryParameterSet,
+      SchemaValidator schemaValidator,
+      Map<String, JsonNode> params,
+      Map<String, String> schemas) {
     if (!params.isEmpty()) {
       ImmutableMap.Builder<String, JsonNode> builder = ImmutableMap.builder();
       JsonNode valueAsNode;
       for (Map.Entry<String, JsonNode> entry : params.entrySet()) {
 
         // get the JSON Schema of the parameter as a string for validation
-        String schemaAsString;
-        try {
-          schemaAsString = MAPPER.writeValueAsString(entry.getValue());
-        } catch (JsonProcessingException e) {
-          throw new IllegalStateException(
-              String.format(
-                  "Could not read the schema of parameter '%s' in a query.", entry.getKey()),
-              e);
-        }
+        String schemaAsString = schemas.get(entry.getKey());
 
         // get value as node (for the result)
         if (queryParameterSet.getTypedValues().containsKey(entry.getKey())) {
@@ -51,6 +51,8 @@ public interface SearchQueriesHandler
 
     QueryExpression getQuery();
 
+    Optional<StoredQueryPlan> getPlan();
+
     FeatureProvider getFeatureProvider();
 
     EpsgCrs getDefaultCrs();
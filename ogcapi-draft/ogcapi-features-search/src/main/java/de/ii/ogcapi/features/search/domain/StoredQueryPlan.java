@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.search.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import de.ii.ogcapi.foundation.domain.BoundedCache;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.ogcapi.foundation.domain.QueryParameterSet;
+import de.ii.ogcapi.foundation.domain.SchemaValidator;
+import de.ii.xtraplatform.cql.domain.Cql2Expression;
+import de.ii.xtraplatform.features.domain.transform.PropertyTransformations;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The prepared execution plan of a stored query. The parameter definitions and their schemas are
+ * derived once, parsed CQL2 filters and the id transformations are memoized for the lifetime of
+ * the plan. A plan is only valid for the stored query and the API configuration it has been
+ * created for, so executing a stored query just binds the parameter values.
+ */
+public final class StoredQueryPlan {
+
+  private static final int MAX_ENTRIES = 256;
+
+  private final QueryExpression query;
+  private final int apiHashCode;
+  private final Map<String, JsonNode> parameters;
+  private final Map<String, String> parameterSchemas;
+  // parameter values are arbitrary, the bounds keep the memory footprint of a plan small
+  private final BoundedCache<List<Object>, Optional<Cql2Expression>> filters;
+  private final BoundedCache<List<Object>, Map<String, PropertyTransformations>> transformations;
+
+  public StoredQueryPlan(OgcApiDataV2 apiData, QueryExpression query) {
+    this.query = query;
+    this.apiHashCode = apiData.hashCode();
+    this.parameters = query.getParametersAsNodes();
+    this.parameterSchemas = query.getParameterSchemas();
+    this.filters =
+        BoundedCache.<List<Object>, Optional<Cql2Expression>>builder()
+            .maxEntries(MAX_ENTRIES)
+            .build();
+    this.transformations =
+        BoundedCache.<List<Object>, Map<String, PropertyTransformations>>builder()
+            .maxEntries(MAX_ENTRIES)
+            .build();
+  }
+
+  public QueryExpression getQuery() {
+    return query;
+  }
+
+  /**
+   * @param apiData the current API configuration
+   * @param current the current stored query
+   * @return {@code true}, if neither the API configuration nor the stored query have changed
+   */
+  public boolean isValidFor(OgcApiDataV2 apiData, QueryExpression current) {
+    return apiHashCode == apiData.hashCode() && query.equals(current);
+  }
+
+  /**
+   * Binds the parameter values of the request to the query. The query may differ from the stored
+   * query in the members that are set by query parameters (limit, offset, etc.), but not in the
+   * parameters and filters.
+   *
+   * @param queryExpression the stored query with the query parameters applied
+   * @param queryParameterSet the parameter values of the request
+   * @param schemaValidator the validator for the parameter values
+   * @return the query without parameters
+   */
+  public QueryExpression bind(
+      QueryExpression queryExpression,
+      QueryParameterSet queryParameterSet,
+      SchemaValidator schemaValidator) {
+    return queryExpression.resolveParameters(
+        queryParameterSet, schemaValidator, parameters, parameterSchemas);
+  }
+
+  /**
+   * @param filter a CQL2 JSON filter of the query with bound parameter values
+   * @param filterCrs the CRS of the filter
+   * @param parser parses the filter, if it is not yet known
+   * @return the parsed filter
+   */
+  public Optional<Cql2Expression> getFilter(
+      Map<String, Object> filter,
+      Optional<String> filterCrs,
+      Supplier<Optional<Cql2Expression>> parser) {
+    return filters.get(List.of(filter, filterCrs), ignore -> parser.get());
+  }
+
+  /**
+   * @param key the output format, profiles, service URL and everything else the transformations
+   *     depend on
+   * @param supplier derives the transformations, if they are not yet known
+   * @return the id and property transformations per feature type
+   */
+  public Map<String, PropertyTransformations> getTransformations(
+      List<Object> key, Supplier<Map<String, PropertyTransformations>> supplier) {
+    return transformations.get(key, ignore -> supplier.get());
+  }
+}
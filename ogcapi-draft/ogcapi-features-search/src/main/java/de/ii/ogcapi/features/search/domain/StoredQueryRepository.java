@@ -63,6 +63,23 @@ public interface StoredQueryRepository extends Volatile2 {
    */
   QueryExpression get(OgcApiDataV2 apiData, String queryId);
 
+  /**
+   * fetches the prepared execution plan of a stored query, the plan is derived on first use and
+   * reused until the stored query or the API configuration changes
+   *
+   * @param apiData information about the API
+   * @param queryId the identifier of the query in the query collection
+   * @return the plan of the stored query, or throws an exception, if not available
+   */
+  StoredQueryPlan getPlan(OgcApiDataV2 apiData, String queryId);
+
+  /**
+   * removes the execution plans of all stored queries of an API, e.g. when the API is removed
+   *
+   * @param apiData information about the API
+   */
+  void removePlans(OgcApiDataV2 apiData);
+
   /**
    * determine, if a stored query is available
    *
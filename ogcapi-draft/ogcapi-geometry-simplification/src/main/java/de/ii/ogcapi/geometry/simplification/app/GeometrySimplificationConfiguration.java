@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
 import de.ii.ogcapi.geometry.simplification.app.ImmutableGeometrySimplificationConfiguration.Builder;
 import de.ii.xtraplatform.docs.JsonDynamicSubType;
+import java.util.List;
 import org.immutables.value.Value;
 
 /**
@@ -19,6 +20,11 @@ import org.immutables.value.Value;
  * ```yaml
  * - buildingBlock: GEOMETRY_SIMPLIFICATION
  *   enabled: true
+ *   zoomLevels:
+ *   - 4
+ *   - 8
+ *   - 12
+ *   - 16
  * ```
  * </code>
  */
@@ -28,6 +34,27 @@ import org.immutables.value.Value;
 @JsonDeserialize(builder = Builder.class)
 public interface GeometrySimplificationConfiguration extends ExtensionConfiguration {
 
+  /**
+   * @langEn Restricts the simplification to a fixed set of zoom levels (WebMercatorQuad). A
+   *     requested `zoom-level` is raised to the next configured zoom level and a requested
+   *     `maxAllowableOffset` is reduced to the tolerance of the next configured zoom level, so that
+   *     the geometries are never simplified more than requested. Requests for the same zoom level
+   *     range result in identical responses, which can be reused by caches. Requests beyond the
+   *     most detailed configured zoom level are not changed. If empty, the requested values are
+   *     used as is.
+   * @langDe Beschränkt die Vereinfachung auf eine feste Menge von Zoomstufen (WebMercatorQuad).
+   *     Ein angefragter `zoom-level` wird auf die nächste konfigurierte Zoomstufe angehoben und ein
+   *     angefragter `maxAllowableOffset` auf die Toleranz der nächsten konfigurierten Zoomstufe
+   *     verringert, so dass Geometrien nie stärker als angefragt vereinfacht werden. Anfragen für
+   *     denselben Bereich von Zoomstufen führen zu identischen Antworten, die von Caches
+   *     wiederverwendet werden können. Anfragen jenseits der detailliertesten konfigurierten
+   *     Zoomstufe werden nicht verändert. Ist die Liste leer, werden die angefragten Werte
+   *     unverändert verwendet.
+   * @default []
+   * @since v4.2
+   */
+  List<Double> getZoomLevels();
+
   abstract class Builder extends ExtensionConfiguration.Builder {}
 
   @Override
@@ -19,6 +19,7 @@ import de.ii.ogcapi.foundation.domain.QueryParameterSet;
 import de.ii.ogcapi.foundation.domain.SchemaValidator;
 import de.ii.ogcapi.foundation.domain.SpecificationMaturity;
 import de.ii.ogcapi.foundation.domain.TypedQueryParameter;
+import de.ii.xtraplatform.crs.domain.CrsInfo;
 import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery.Builder;
 import io.swagger.v3.oas.models.media.NumberSchema;
 import io.swagger.v3.oas.models.media.Schema;
@@ -53,10 +54,18 @@ public class QueryParameterMaxAllowableOffsetFeatures extends OgcApiQueryParamet
     implements FeatureQueryParameter, TypedQueryParameter<Double> {
 
   private final SchemaValidator schemaValidator;
+  private final CrsInfo crsInfo;
 
   @Inject
-  QueryParameterMaxAllowableOffsetFeatures(SchemaValidator schemaValidator) {
+  QueryParameterMaxAllowableOffsetFeatures(SchemaValidator schemaValidator, CrsInfo crsInfo) {
     this.schemaValidator = schemaValidator;
+    this.crsInfo = crsInfo;
+  }
+
+  @Override
+  public int getPriority() {
+    // wait for parsed results of crs
+    return 2;
   }
 
   @Override
@@ -92,7 +101,16 @@ public class QueryParameterMaxAllowableOffsetFeatures extends OgcApiQueryParamet
       QueryParameterSet parameters,
       OgcApiDataV2 apiData,
       FeatureTypeConfigurationOgcApi collectionData) {
-    parameters.getValue(this).ifPresent(queryBuilder::maxAllowableOffset);
+    parameters
+        .getValue(this)
+        .map(
+            maxAllowableOffset ->
+                SimplificationLevels.snapMaxAllowableOffset(
+                    maxAllowableOffset,
+                    SimplificationLevels.getCrs(parameters),
+                    crsInfo,
+                    collectionData))
+        .ifPresent(queryBuilder::maxAllowableOffset);
   }
 
   @Override
@@ -21,8 +21,6 @@ import de.ii.ogcapi.foundation.domain.SchemaValidator;
 import de.ii.ogcapi.foundation.domain.SpecificationMaturity;
 import de.ii.ogcapi.foundation.domain.TypedQueryParameter;
 import de.ii.xtraplatform.crs.domain.CrsInfo;
-import de.ii.xtraplatform.crs.domain.EpsgCrs;
-import de.ii.xtraplatform.crs.domain.OgcCrs;
 import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery.Builder;
 import io.swagger.v3.oas.models.media.NumberSchema;
 import io.swagger.v3.oas.models.media.Schema;
@@ -33,7 +31,6 @@ import java.util.Objects;
 import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import org.kortforsyningen.proj.Units;
 
 /**
  * @title zoom-level
@@ -103,18 +100,18 @@ public class QueryParameterZoomLevelFeatures extends OgcApiQueryParameterBase
         .getValue(this)
         .ifPresent(
             level -> {
-              double maxAllowableOffset = 559082264.028717 / 4096 / Math.pow(2, level);
-              EpsgCrs crs =
-                  parameters.getTypedValues().containsKey("crs")
-                      ? (EpsgCrs) parameters.getTypedValues().get("crs")
-                      : OgcCrs.CRS84;
-              if (crsInfo.getUnit(crs).equals(Units.DEGREE)) {
-                maxAllowableOffset /= 111319.5;
-              }
+              double effectiveLevel = SimplificationLevels.snapZoomLevel(level, collectionData);
+              double maxAllowableOffset =
+                  SimplificationLevels.toMaxAllowableOffset(
+                      effectiveLevel, SimplificationLevels.getCrs(parameters), crsInfo);
               queryBuilder.maxAllowableOffset(maxAllowableOffset);
 
               if (LOGGER.isTraceEnabled()) {
-                LOGGER.trace("Zoom level: {}; epsilon: {}", level, maxAllowableOffset);
+                LOGGER.trace(
+                    "Zoom level: {}; effective zoom level: {}; epsilon: {}",
+                    level,
+                    effectiveLevel,
+                    maxAllowableOffset);
               }
             });
   }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.geometry.simplification.app;
+
+import de.ii.ogcapi.foundation.domain.FeatureTypeConfigurationOgcApi;
+import de.ii.ogcapi.foundation.domain.QueryParameterSet;
+import de.ii.xtraplatform.crs.domain.CrsInfo;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import de.ii.xtraplatform.crs.domain.OgcCrs;
+import java.util.List;
+import java.util.Optional;
+import org.kortforsyningen.proj.Units;
+
+/**
+ * Maps requested simplification tolerances to the configured zoom levels of a collection. All
+ * requests within the range of two configured levels are simplified with the same tolerance, the
+ * one of the closest level that still provides at least the requested detail.
+ */
+final class SimplificationLevels {
+
+  // scale denominator of zoom level 0 in WebMercatorQuad divided by the tile size
+  private static final double OFFSET_LEVEL_0 = 559082264.028717 / 4096;
+  private static final double METERS_PER_DEGREE = 111319.5;
+
+  private SimplificationLevels() {}
+
+  static double toMaxAllowableOffset(double level, EpsgCrs crs, CrsInfo crsInfo) {
+    double maxAllowableOffset = OFFSET_LEVEL_0 / Math.pow(2, level);
+    if (crsInfo.getUnit(crs).equals(Units.DEGREE)) {
+      maxAllowableOffset /= METERS_PER_DEGREE;
+    }
+    return maxAllowableOffset;
+  }
+
+  static EpsgCrs getCrs(QueryParameterSet parameters) {
+    return parameters.getTypedValues().containsKey("crs")
+        ? (EpsgCrs) parameters.getTypedValues().get("crs")
+        : OgcCrs.CRS84;
+  }
+
+  /**
+   * @param level the requested zoom level
+   * @param collectionData the collection
+   * @return the smallest configured zoom level that is not smaller than the requested level or the
+   *     requested level, if there is none
+   */
+  static double snapZoomLevel(double level, FeatureTypeConfigurationOgcApi collectionData) {
+    return getLevels(collectionData).stream()
+        .filter(configured -> configured >= level)
+        .min(Double::compare)
+        .orElse(level);
+  }
+
+  /**
+   * @param maxAllowableOffset the requested tolerance in the units of the CRS
+   * @param crs the CRS of the response
+   * @param crsInfo the CRS information
+   * @param collectionData the collection
+   * @return the largest tolerance of a configured zoom level that is not larger than the requested
+   *     tolerance or the requested tolerance, if there is none
+   */
+  static double snapMaxAllowableOffset(
+      double maxAllowableOffset,
+      EpsgCrs crs,
+      CrsInfo crsInfo,
+      FeatureTypeConfigurationOgcApi collectionData) {
+    if (maxAllowableOffset <= 0) {
+      return maxAllowableOffset;
+    }
+
+    return getLevels(collectionData).stream()
+        .map(level -> toMaxAllowableOffset(level, crs, crsInfo))
+        .filter(offset -> offset <= maxAllowableOffset)
+        .max(Double::compare)
+        .orElse(maxAllowableOffset);
+  }
+
+  private static List<Double> getLevels(FeatureTypeConfigurationOgcApi collectionData) {
+    return Optional.ofNullable(collectionData)
+        .flatMap(collection -> collection.getExtension(GeometrySimplificationConfiguration.class))
+        .map(GeometrySimplificationConfiguration::getZoomLevels)
+        .orElse(List.of());
+  }
+}
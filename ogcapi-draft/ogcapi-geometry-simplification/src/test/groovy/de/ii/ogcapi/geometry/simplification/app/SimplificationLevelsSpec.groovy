@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.geometry.simplification.app
+
+import de.ii.ogcapi.foundation.domain.FeatureTypeConfigurationOgcApi
+import de.ii.xtraplatform.crs.domain.CrsInfo
+import de.ii.xtraplatform.crs.domain.EpsgCrs
+import de.ii.xtraplatform.crs.domain.OgcCrs
+import org.kortforsyningen.proj.Units
+import spock.lang.Specification
+
+class SimplificationLevelsSpec extends Specification {
+
+    static final EpsgCrs METRIC = EpsgCrs.of(3857)
+    static final EpsgCrs DEGREES = OgcCrs.CRS84
+
+    CrsInfo crsInfo = Mock(CrsInfo) {
+        getUnit(METRIC) >> Units.METRE
+        getUnit(DEGREES) >> Units.DEGREE
+    }
+
+    FeatureTypeConfigurationOgcApi collection(List<Double> levels) {
+        GeometrySimplificationConfiguration configuration = Mock(GeometrySimplificationConfiguration) {
+            getZoomLevels() >> levels
+        }
+        return Mock(FeatureTypeConfigurationOgcApi) {
+            getExtension(GeometrySimplificationConfiguration) >> Optional.of(configuration)
+        }
+    }
+
+    double offset(double level, EpsgCrs crs = METRIC) {
+        return SimplificationLevels.toMaxAllowableOffset(level, crs, crsInfo)
+    }
+
+    def 'the tolerance halves with each zoom level'() {
+        expect:
+        offset(0) == 559082264.028717d / 4096
+        offset(1) == offset(0) / 2
+        offset(12) == offset(0) / 4096
+    }
+
+    def 'the tolerance is converted to degrees for a geographic CRS'() {
+        expect:
+        Math.abs(offset(level, DEGREES) - offset(level) / 111319.5) < 1e-15
+
+        where:
+        level << [0, 4, 12, 18]
+    }
+
+    def 'zoom levels are snapped to the next configured level: #level -> #expected'() {
+        expect:
+        SimplificationLevels.snapZoomLevel(level, collection([4d, 8d, 12d])) == expected
+
+        where:
+        level | expected
+        0     | 4
+        3.5   | 4
+        4     | 4
+        4.1   | 8
+        8     | 8
+        11    | 12
+        12    | 12
+        13    | 13
+        20    | 20
+    }
+
+    def 'zoom levels are not snapped without configured levels'() {
+        expect:
+        SimplificationLevels.snapZoomLevel(5, collection([])) == 5
+        SimplificationLevels.snapZoomLevel(5, null) == 5
+    }
+
+    def 'tolerances between two levels are snapped to the more detailed level'() {
+        expect:
+        snap(offset(level)) == offset(expected)
+
+        where:
+        level | expected
+        0     | 4
+        4     | 4
+        5     | 8
+        6.5   | 8
+        8     | 8
+        9     | 12
+        12    | 12
+    }
+
+    def 'tolerances below the most detailed level are not snapped'() {
+        given:
+        double requested = offset(12) / 3
+
+        expect:
+        snap(requested) == requested
+    }
+
+    def 'tolerances are snapped in degrees for a geographic CRS'() {
+        given:
+        double requested = offset(6, DEGREES)
+
+        expect:
+        SimplificationLevels.snapMaxAllowableOffset(
+                requested, DEGREES, crsInfo, collection([4d, 8d, 12d])) == offset(8, DEGREES)
+    }
+
+    def 'tolerances that disable the simplification are not snapped: #requested'() {
+        expect:
+        snap(requested) == requested
+
+        where:
+        requested << [0d, -1d]
+    }
+
+    def 'tolerances are not snapped without configured levels'() {
+        expect:
+        SimplificationLevels.snapMaxAllowableOffset(10, METRIC, crsInfo, collection([])) == 10
+        SimplificationLevels.snapMaxAllowableOffset(10, METRIC, crsInfo, null) == 10
+    }
+
+    double snap(double requested) {
+        return SimplificationLevels.snapMaxAllowableOffset(
+                requested, METRIC, crsInfo, collection([4d, 8d, 12d]))
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a number of asynchronous computations with a bound on the computations that are in flight
+ * at the same time. A new computation is started as soon as a running one completes, the results
+ * are returned in the order of the indexes.
+ */
+final class BoundedComputation {
+
+  private BoundedComputation() {}
+
+  /**
+   * @param count the number of computations
+   * @param parallelism the maximum number of computations that are in flight at the same time
+   * @param computation starts the computation for an index
+   * @return the results in the order of the indexes
+   */
+  static <T> List<T> computeAll(
+      int count, int parallelism, IntFunction<CompletableFuture<T>> computation) {
+    Semaphore permits = new Semaphore(Math.max(1, parallelism));
+    List<CompletableFuture<T>> results = new ArrayList<>(count);
+
+    for (int i = 0; i < count; i++) {
+      permits.acquireUninterruptibly();
+
+      CompletableFuture<T> result;
+      try {
+        result = computation.apply(i);
+      } catch (RuntimeException e) {
+        permits.release();
+        throw e;
+      }
+
+      result.whenComplete((value, error) -> permits.release());
+      results.add(result);
+    }
+
+    return results.stream().map(CompletableFuture::join).collect(Collectors.toUnmodifiableList());
+  }
+}
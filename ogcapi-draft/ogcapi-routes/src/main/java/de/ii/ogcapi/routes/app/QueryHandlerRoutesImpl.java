@@ -7,11 +7,14 @@
  */
 package de.ii.ogcapi.routes.app;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.github.azahnen.dagger.annotations.AutoBind;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import de.ii.ogcapi.crs.domain.CrsSupport;
-import de.ii.ogcapi.foundation.domain.ApiMediaType;
 import de.ii.ogcapi.foundation.domain.ApiRequestContext;
 import de.ii.ogcapi.foundation.domain.HeaderCaching;
 import de.ii.ogcapi.foundation.domain.HeaderContentDisposition;
@@ -23,8 +26,12 @@ import de.ii.ogcapi.foundation.domain.QueryHandler;
 import de.ii.ogcapi.foundation.domain.QueryInput;
 import de.ii.ogcapi.html.domain.HtmlConfiguration;
 import de.ii.ogcapi.routes.app.json.RouteDefinitionFormatJson;
+import de.ii.ogcapi.routes.app.json.RouteFormatGeoJson;
 import de.ii.ogcapi.routes.domain.FeatureTransformationContextRoutes;
 import de.ii.ogcapi.routes.domain.ImmutableFeatureTransformationContextRoutes;
+import de.ii.ogcapi.routes.domain.ImmutableRoute;
+import de.ii.ogcapi.routes.domain.ImmutableRouteMatrix;
+import de.ii.ogcapi.routes.domain.ImmutableRouteMatrixEntry;
 import de.ii.ogcapi.routes.domain.ImmutableRoutes;
 import de.ii.ogcapi.routes.domain.QueryHandlerRoutes;
 import de.ii.ogcapi.routes.domain.Route;
@@ -32,6 +39,10 @@ import de.ii.ogcapi.routes.domain.RouteDefinition;
 import de.ii.ogcapi.routes.domain.RouteDefinitionFormatExtension;
 import de.ii.ogcapi.routes.domain.RouteDefinitionInputs;
 import de.ii.ogcapi.routes.domain.RouteFormatExtension;
+import de.ii.ogcapi.routes.domain.RouteMatrix;
+import de.ii.ogcapi.routes.domain.RouteMatrixDefinition;
+import de.ii.ogcapi.routes.domain.RouteMatrixEntry;
+import de.ii.ogcapi.routes.domain.RouteMatrixFormatExtension;
 import de.ii.ogcapi.routes.domain.RouteRepository;
 import de.ii.ogcapi.routes.domain.Routes;
 import de.ii.ogcapi.routes.domain.RoutesFormatExtension;
@@ -39,6 +50,7 @@ import de.ii.ogcapi.routes.domain.RoutesLinksGenerator;
 import de.ii.ogcapi.routes.domain.RoutingConfiguration;
 import de.ii.ogcapi.routes.domain.RoutingFlag;
 import de.ii.ogcapi.routes.infra.EndpointRoutesGet;
+import de.ii.ogcapi.routes.infra.EndpointRoutesPost;
 import de.ii.xtraplatform.base.domain.ETag;
 import de.ii.xtraplatform.base.domain.LogContext;
 import de.ii.xtraplatform.base.domain.resiliency.AbstractVolatileComposed;
@@ -70,7 +82,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -81,7 +96,6 @@ import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.StreamingOutput;
 
 @Singleton
 @AutoBind
@@ -94,6 +108,8 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
   private final CrsSupport crsSupport;
   private final CrsInfo crsInfo;
   private final RouteRepository routeRepository;
+  private final Map<String, RouteResultCache> resultCaches;
+  private final ObjectMapper mapper;
 
   @Inject
   public QueryHandlerRoutesImpl(
@@ -111,16 +127,27 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
     this.codelistStore = valueStore.forType(Codelist.class);
     this.crsSupport = crsSupport;
     this.routeRepository = routeRepository;
+    this.resultCaches = new ConcurrentHashMap<>();
+    this.mapper = new ObjectMapper();
+    mapper.registerModule(new Jdk8Module());
+    mapper.registerModule(new GuavaModule());
+    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
     this.queryHandlers =
-        ImmutableMap.of(
-            Query.COMPUTE_ROUTE,
-                QueryHandler.with(QueryInputComputeRoute.class, this::computeRoute),
-            Query.GET_ROUTES, QueryHandler.with(QueryInputRoutes.class, this::getRoutes),
-            Query.GET_ROUTE, QueryHandler.with(QueryInputRoute.class, this::getRoute),
-            Query.GET_ROUTE_DEFINITION,
-                QueryHandler.with(QueryInputRoute.class, this::getRouteDefinition),
-            Query.DELETE_ROUTE, QueryHandler.with(QueryInputRoute.class, this::deleteRoute));
+        ImmutableMap.<Query, QueryHandler<? extends QueryInput>>builder()
+            .put(
+                Query.COMPUTE_ROUTE,
+                QueryHandler.with(QueryInputComputeRoute.class, this::computeRoute))
+            .put(
+                Query.COMPUTE_ROUTE_MATRIX,
+                QueryHandler.with(QueryInputComputeRouteMatrix.class, this::computeRouteMatrix))
+            .put(Query.GET_ROUTES, QueryHandler.with(QueryInputRoutes.class, this::getRoutes))
+            .put(Query.GET_ROUTE, QueryHandler.with(QueryInputRoute.class, this::getRoute))
+            .put(
+                Query.GET_ROUTE_DEFINITION,
+                QueryHandler.with(QueryInputRoute.class, this::getRouteDefinition))
+            .put(Query.DELETE_ROUTE, QueryHandler.with(QueryInputRoute.class, this::deleteRoute))
+            .build();
 
     onVolatileStart();
 
@@ -143,19 +170,7 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
     OgcApiDataV2 apiData = api.getData();
     RouteDefinition routeDefinition = queryInput.getDefinition();
     String routeId = queryInput.getRouteId();
-    FeatureQuery query = queryInput.getQuery();
-    FeatureProvider featureProvider = queryInput.getFeatureProvider();
-    RoutingConfiguration config =
-        apiData
-            .getExtension(RoutingConfiguration.class)
-            .orElseThrow(
-                () -> new IllegalStateException("No routing configuration found for the API."));
-    RoutesConfiguration providerConfig =
-        EndpointRoutesGet.getProviderRoutingCfg(featureProvider)
-            .orElseThrow(
-                () ->
-                    new IllegalStateException(
-                        "No routing configuration found for the feature provider of this API."));
+    RoutingConfiguration config = getRoutingConfiguration(apiData);
 
     RouteFormatExtension outputFormat =
         api.getOutputFormat(
@@ -169,6 +184,266 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
 
     RouteDefinitionInputs inputs = routeDefinition.getInputs();
 
+    FeatureQuery query = getRouteQuery(queryInput, routeDefinition, apiData, config);
+    EpsgCrs targetCrs = query.getCrs().orElse(queryInput.getDefaultCrs());
+
+    List<Link> links = ImmutableList.of();
+    if (config.isManageRoutesEnabled()) {
+      links =
+          new RoutesLinksGenerator()
+              .generateRouteLinks(
+                  routeId,
+                  inputs.getName(),
+                  requestContext.getUriCustomizer(),
+                  requestContext.getMediaType(),
+                  i18n,
+                  requestContext.getLanguage());
+    }
+
+    String cacheKey = getCacheKey(apiData, routeId, targetCrs);
+    Optional<Route> cached =
+        config.isResultCacheEnabled()
+            ? getResultCache(apiData, config).get(cacheKey)
+            : Optional.empty();
+
+    byte[] result;
+    if (cached.isPresent()) {
+      // the cached route is rendered with the links of the current request
+      Route route = new ImmutableRoute.Builder().from(cached.get()).links(links).build();
+      result = outputFormat.getRouteAsByteArray(route, apiData, requestContext);
+    } else {
+      result =
+          join(
+              computeRoute(
+                  queryInput,
+                  query,
+                  targetCrs,
+                  inputs.getName(),
+                  links,
+                  outputFormat,
+                  requestContext));
+
+      if (config.isResultCacheEnabled()) {
+        getResultCache(apiData, config)
+            .put(cacheKey, parseRoute(result), config.getResultCacheTtl());
+      }
+    }
+    EntityTag etag = ETag.from(result);
+
+    Response.ResponseBuilder response = evaluatePreconditions(requestContext, null, etag);
+    if (Objects.nonNull(response)) return response.build();
+
+    // write routeDefinition and route if managing routes is enabled, a cached route may have been
+    // computed for a route matrix, which does not store the route
+    if (config.isManageRoutesEnabled()
+        && (cached.isEmpty() || !routeRepository.routeExists(apiData, routeId))) {
+      try {
+        List<Link> definitionLinks =
+            new RoutesLinksGenerator()
+                .generateRouteDefinitionLinks(
+                    routeId,
+                    inputs.getName(),
+                    requestContext.getUriCustomizer(),
+                    RouteDefinitionFormatJson.MEDIA_TYPE,
+                    i18n,
+                    requestContext.getLanguage());
+        routeRepository.writeRouteAndDefinition(
+            apiData, routeId, outputFormat, result, routeDefinition, definitionLinks);
+      } catch (IOException e) {
+        LOGGER.error("Could not store route in route repository.", e);
+        if (LOGGER.isDebugEnabled(LogContext.MARKER.STACKTRACE))
+          LOGGER.debug(LogContext.MARKER.STACKTRACE, "Stacktrace: ", e);
+      }
+    }
+
+    return prepareSuccessResponse(
+            requestContext,
+            queryInput.getIncludeLinkHeader() ? links : null,
+            HeaderCaching.of(null, etag, queryInput),
+            targetCrs,
+            HeaderContentDisposition.of(
+                String.format(
+                    "%s.%s",
+                    inputs.getName().orElse("Route"), outputFormat.getMediaType().fileExtension())))
+        .entity(result)
+        .build();
+  }
+
+  private Response computeRouteMatrix(
+      QueryInputComputeRouteMatrix queryInput, ApiRequestContext requestContext) {
+    OgcApi api = requestContext.getApi();
+    OgcApiDataV2 apiData = api.getData();
+    RouteMatrixDefinition definition = queryInput.getDefinition();
+    RoutingConfiguration config = getRoutingConfiguration(apiData);
+
+    if (definition.getNumberOfPairs() > config.getMaxMatrixPairs()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "The route matrix has %d origin-destination pairs, the maximum is %d.",
+              definition.getNumberOfPairs(), config.getMaxMatrixPairs()));
+    }
+
+    RouteMatrixFormatExtension outputFormat =
+        api.getOutputFormat(
+                RouteMatrixFormatExtension.class, requestContext.getMediaType(), Optional.empty())
+            .orElseThrow(
+                () ->
+                    new NotAcceptableException(
+                        MessageFormat.format(
+                            "The requested media type ''{0}'' is not supported for this resource.",
+                            requestContext.getMediaType())));
+
+    // the routes are parsed from GeoJSON to embed them in the route matrix
+    RouteFormatExtension routeFormat =
+        api.getOutputFormat(
+                RouteFormatExtension.class, RouteFormatGeoJson.MEDIA_TYPE, Optional.empty())
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "Route matrices require that the GeoJSON encoding of routes is enabled."));
+
+    EpsgCrs targetCrs = queryInput.getQuery().getCrs().orElse(queryInput.getDefaultCrs());
+    List<RouteDefinition> routeDefinitions = definition.getRouteDefinitions();
+    int numDestinations = definition.getInputs().getDestinations().size();
+    int parallelism = Math.max(1, Objects.requireNonNullElse(config.getMatrixParallelism(), 1));
+
+    // at most 'parallelism' routes are computed by the provider at the same time, the entries
+    // are in the order of the route definitions
+    List<RouteMatrixEntry> entries =
+        BoundedComputation.computeAll(
+            routeDefinitions.size(),
+            parallelism,
+            i ->
+                computeRouteMatrixEntry(
+                    queryInput,
+                    routeDefinitions.get(i),
+                    i / numDestinations,
+                    i % numDestinations,
+                    targetCrs,
+                    routeFormat,
+                    config,
+                    requestContext));
+
+    RouteMatrix routeMatrix = new ImmutableRouteMatrix.Builder().routes(entries).build();
+    byte[] result = outputFormat.getRouteMatrixAsByteArray(routeMatrix, apiData, requestContext);
+
+    EntityTag etag = ETag.from(result);
+    Response.ResponseBuilder response = evaluatePreconditions(requestContext, null, etag);
+    if (Objects.nonNull(response)) return response.build();
+
+    return prepareSuccessResponse(
+            requestContext,
+            null,
+            HeaderCaching.of(null, etag, queryInput),
+            targetCrs,
+            HeaderContentDisposition.of(
+                String.format("route-matrix.%s", outputFormat.getMediaType().fileExtension())))
+        .entity(result)
+        .build();
+  }
+
+  private CompletableFuture<RouteMatrixEntry> computeRouteMatrixEntry(
+      QueryInputComputeRouteMatrix queryInput,
+      RouteDefinition routeDefinition,
+      int origin,
+      int destination,
+      EpsgCrs targetCrs,
+      RouteFormatExtension routeFormat,
+      RoutingConfiguration config,
+      ApiRequestContext requestContext) {
+    OgcApiDataV2 apiData = requestContext.getApi().getData();
+    ImmutableRouteMatrixEntry.Builder entry =
+        new ImmutableRouteMatrixEntry.Builder().origin(origin).destination(destination);
+
+    // start asynchronously, so that errors while building the query also end up in the entry
+    return CompletableFuture.supplyAsync(
+            () -> {
+              FeatureQuery query = getRouteQuery(queryInput, routeDefinition, apiData, config);
+              String routeId =
+                  EndpointRoutesPost.getRouteId(
+                      routeDefinition,
+                      queryInput.getCrs().orElse(queryInput.getDefaultCrs().toUriString()));
+              String cacheKey = getCacheKey(apiData, routeId, targetCrs);
+              Optional<Route> cached =
+                  config.isResultCacheEnabled()
+                      ? getResultCache(apiData, config).get(cacheKey)
+                      : Optional.empty();
+
+              if (cached.isPresent()) {
+                return CompletableFuture.completedFuture(cached.get());
+              }
+
+              return computeRoute(
+                      queryInput,
+                      query,
+                      targetCrs,
+                      Optional.empty(),
+                      ImmutableList.of(),
+                      routeFormat,
+                      requestContext)
+                  .thenApply(
+                      bytes -> {
+                        Route route = parseRoute(bytes);
+                        if (config.isResultCacheEnabled()) {
+                          getResultCache(apiData, config)
+                              .put(cacheKey, route, config.getResultCacheTtl());
+                        }
+                        return route;
+                      });
+            })
+        .thenCompose(Function.identity())
+        .<RouteMatrixEntry>thenApply(route -> entry.route(route).build())
+        .exceptionally(
+            e -> {
+              Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+              return entry.error(Objects.requireNonNullElse(cause.getMessage(), "")).build();
+            });
+  }
+
+  private Route parseRoute(byte[] bytes) {
+    try {
+      // links are specific to a request, they are added when the route is rendered
+      return new ImmutableRoute.Builder()
+          .from(mapper.readValue(bytes, Route.class))
+          .links(ImmutableList.of())
+          .build();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not parse route.", e);
+    }
+  }
+
+  private RouteResultCache getResultCache(OgcApiDataV2 apiData, RoutingConfiguration config) {
+    int maxEntries = config.getResultCacheMaxEntries();
+    // the size limit is fixed for a cache, a new cache is created if the limit changes
+    return resultCaches.compute(
+        apiData.getId(),
+        (apiId, cache) ->
+            Objects.nonNull(cache) && cache.getMaxEntries() == maxEntries
+                ? cache
+                : new RouteResultCache(maxEntries));
+  }
+
+  private RoutingConfiguration getRoutingConfiguration(OgcApiDataV2 apiData) {
+    return apiData
+        .getExtension(RoutingConfiguration.class)
+        .orElseThrow(
+            () -> new IllegalStateException("No routing configuration found for the API."));
+  }
+
+  private FeatureQuery getRouteQuery(
+      QueryInputRouteComputation queryInput,
+      RouteDefinition routeDefinition,
+      OgcApiDataV2 apiData,
+      RoutingConfiguration config) {
+    RoutesConfiguration providerConfig =
+        EndpointRoutesGet.getProviderRoutingCfg(queryInput.getFeatureProvider())
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "No routing configuration found for the feature provider of this API."));
+
+    RouteDefinitionInputs inputs = routeDefinition.getInputs();
+
     ImmutableRouteQuery.Builder routeQueryBuilder =
         ImmutableRouteQuery.builder()
             .start(routeDefinition.getStart())
@@ -227,33 +502,31 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
     RouteQuery routeQuery = routeQueryBuilder.build();
     LOGGER.debug("Route Query: {}", routeQuery);
 
-    query = ImmutableFeatureQuery.builder().from(query).addExtensions(routeQuery).build();
+    return ImmutableFeatureQuery.builder()
+        .from(queryInput.getQuery())
+        .addExtensions(routeQuery)
+        .build();
+  }
+
+  private CompletableFuture<byte[]> computeRoute(
+      QueryInputRouteComputation queryInput,
+      FeatureQuery query,
+      EpsgCrs targetCrs,
+      Optional<String> name,
+      List<Link> links,
+      RouteFormatExtension outputFormat,
+      ApiRequestContext requestContext) {
+    OgcApi api = requestContext.getApi();
+    FeatureProvider featureProvider = queryInput.getFeatureProvider();
 
     Optional<CrsTransformer> crsTransformer = Optional.empty();
-    boolean swapCoordinates = false;
 
     EpsgCrs sourceCrs = null;
-    EpsgCrs targetCrs = query.getCrs().orElse(queryInput.getDefaultCrs());
     if (featureProvider.crs().isAvailable()) {
       sourceCrs = featureProvider.crs().get().getNativeCrs();
       crsTransformer = crsTransformerFactory.getTransformer(sourceCrs, targetCrs);
     }
 
-    List<ApiMediaType> alternateMediaTypes = requestContext.getAlternateMediaTypes();
-
-    List<Link> links = ImmutableList.of();
-    if (config.isManageRoutesEnabled()) {
-      links =
-          new RoutesLinksGenerator()
-              .generateRouteLinks(
-                  routeId,
-                  inputs.getName(),
-                  requestContext.getUriCustomizer(),
-                  requestContext.getMediaType(),
-                  i18n,
-                  requestContext.getLanguage());
-    }
-
     FeatureTransformationContextRoutes transformationContext =
         ImmutableFeatureTransformationContextRoutes.builder()
             .api(api)
@@ -276,7 +549,7 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
             .offset(query.getOffset())
             .maxAllowableOffset(query.getMaxAllowableOffset())
             .geometryPrecision(query.getGeometryPrecision())
-            .name(inputs.getName())
+            .name(name)
             .format(outputFormat)
             .outputStream(new OutputStreamToByteConsumer())
             .startTimeNano(System.nanoTime())
@@ -298,52 +571,18 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
 
     FeatureStream featureStream = featureProvider.queries().get().getFeatureStream(query);
 
-    StreamingOutput streamingOutput = stream(featureStream, encoder.get());
-
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    try {
-      streamingOutput.write(baos);
-    } catch (IOException e) {
-      throw new IllegalStateException("Feature stream error.", e);
-    }
-    byte[] result = baos.toByteArray();
-
-    EntityTag etag = ETag.from(result);
-    Response.ResponseBuilder response = evaluatePreconditions(requestContext, null, etag);
-    if (Objects.nonNull(response)) return response.build();
+    return run(featureStream, encoder.get());
+  }
 
-    // write routeDefinition and route if managing routes is enabled
-    if (config.isManageRoutesEnabled()) {
-      try {
-        List<Link> definitionLinks =
-            new RoutesLinksGenerator()
-                .generateRouteDefinitionLinks(
-                    routeId,
-                    inputs.getName(),
-                    requestContext.getUriCustomizer(),
-                    RouteDefinitionFormatJson.MEDIA_TYPE,
-                    i18n,
-                    requestContext.getLanguage());
-        routeRepository.writeRouteAndDefinition(
-            apiData, routeId, outputFormat, result, routeDefinition, definitionLinks);
-      } catch (IOException e) {
-        LOGGER.error("Could not store route in route repository.", e);
-        if (LOGGER.isDebugEnabled(LogContext.MARKER.STACKTRACE))
-          LOGGER.debug(LogContext.MARKER.STACKTRACE, "Stacktrace: ", e);
-      }
-    }
+  private String getCacheKey(OgcApiDataV2 apiData, String routeId, EpsgCrs targetCrs) {
+    // the route does not depend on the output format or the language, both only affect the
+    // rendering of the response
+    return String.join("/", getCacheKeyPrefix(apiData, routeId), targetCrs.toUriString());
+  }
 
-    return prepareSuccessResponse(
-            requestContext,
-            queryInput.getIncludeLinkHeader() ? links : null,
-            HeaderCaching.of(null, etag, queryInput),
-            targetCrs,
-            HeaderContentDisposition.of(
-                String.format(
-                    "%s.%s",
-                    inputs.getName().orElse("Route"), outputFormat.getMediaType().fileExtension())))
-        .entity(result)
-        .build();
+  private String getCacheKeyPrefix(OgcApiDataV2 apiData, String routeId) {
+    // the hash code of the API changes with the configuration, older entries are not used any more
+    return String.join("/", apiData.getId(), String.valueOf(apiData.hashCode()), routeId, "");
   }
 
   private Response getRoutes(QueryInputRoutes queryInput, ApiRequestContext requestContext) {
@@ -470,8 +709,12 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
 
   private Response deleteRoute(QueryInputRoute queryInput, ApiRequestContext requestContext) {
 
+    OgcApiDataV2 apiData = requestContext.getApi().getData();
+    Optional.ofNullable(resultCaches.get(apiData.getId()))
+        .ifPresent(cache -> cache.remove(getCacheKeyPrefix(apiData, queryInput.getRouteId())));
+
     try {
-      routeRepository.deleteRoute(requestContext.getApi().getData(), queryInput.getRouteId());
+      routeRepository.deleteRoute(apiData, queryInput.getRouteId());
     } catch (IOException e) {
       throw new WebApplicationException(
           "Could not delete the route from the store.", e, Response.Status.INTERNAL_SERVER_ERROR);
@@ -480,32 +723,36 @@ public class QueryHandlerRoutesImpl extends AbstractVolatileComposed implements
     return Response.noContent().build();
   }
 
-  private StreamingOutput stream(
+  private CompletableFuture<byte[]> run(
       FeatureStream featureTransformStream, final FeatureTokenEncoder<?> encoder) {
-    return outputStream -> {
-      Reactive.SinkTransformed<Object, byte[]> featureSink =
-          encoder.to(Reactive.Sink.outputStream(outputStream));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Reactive.SinkTransformed<Object, byte[]> featureSink =
+        encoder.to(Reactive.Sink.outputStream(outputStream));
+
+    return featureTransformStream
+        .runWith(featureSink, ImmutableMap.of())
+        .toCompletableFuture()
+        .thenApply(
+            result -> {
+              result.getError().ifPresent(FeatureStream::processStreamError);
+
+              if (result.isEmpty()) {
+                throw new NotFoundException("The requested route could not be computed.");
+              }
+
+              return outputStream.toByteArray();
+            });
+  }
 
-      try {
-        FeatureStream.Result result =
-            featureTransformStream
-                .runWith(featureSink, ImmutableMap.of())
-                .toCompletableFuture()
-                .join();
-
-        result.getError().ifPresent(FeatureStream::processStreamError);
-
-        if (result.isEmpty()) {
-          throw new NotFoundException("The requested route could not be computed.");
-        }
-
-      } catch (CompletionException e) {
-        if (e.getCause() instanceof WebApplicationException) {
-          throw (WebApplicationException) e.getCause();
-        }
-        throw new IllegalStateException("Feature stream error.", e.getCause());
+  private static byte[] join(CompletableFuture<byte[]> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof WebApplicationException) {
+        throw (WebApplicationException) e.getCause();
       }
-    };
+      throw new IllegalStateException("Feature stream error.", e.getCause());
+    }
   }
 
   private ImmutableRouteQuery.Builder processPreference(
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.app;
+
+import de.ii.ogcapi.routes.domain.Route;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * A size-bounded least-recently-used cache for computed routes with a time-to-live. The keys are
+ * content hashes of the route definition and the requested CRS, so a route is never served for a
+ * different definition. The cache holds the route itself, not an encoding, and the response is
+ * rendered for each request.
+ */
+class RouteResultCache {
+
+  private static class Entry {
+    private final Route route;
+    private final long expires;
+
+    private Entry(Route route, long expires) {
+      this.route = route;
+      this.expires = expires;
+    }
+  }
+
+  private final int maxEntries;
+  private final LongSupplier clock;
+  private final Map<String, Entry> entries;
+
+  RouteResultCache(int maxEntries) {
+    this(maxEntries, System::currentTimeMillis);
+  }
+
+  RouteResultCache(int maxEntries, LongSupplier clock) {
+    this.maxEntries = maxEntries;
+    this.clock = clock;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > RouteResultCache.this.maxEntries;
+          }
+        };
+  }
+
+  int getMaxEntries() {
+    return maxEntries;
+  }
+
+  synchronized Optional<Route> get(String key) {
+    Entry entry = entries.get(key);
+
+    if (Objects.isNull(entry)) {
+      return Optional.empty();
+    }
+
+    if (entry.expires <= clock.getAsLong()) {
+      entries.remove(key);
+      return Optional.empty();
+    }
+
+    return Optional.of(entry.route);
+  }
+
+  synchronized void put(String key, Route route, int ttl) {
+    entries.put(key, new Entry(route, clock.getAsLong() + ttl * 1000L));
+  }
+
+  synchronized void remove(String keyPrefix) {
+    entries.keySet().removeIf(key -> key.startsWith(keyPrefix));
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+}
@@ -50,7 +50,8 @@ import javax.inject.Singleton;
  *     de.ii.ogcapi.routes.infra.EndpointRouteDelete}, {@link
  *     de.ii.ogcapi.routes.infra.EndpointRouteGet}, {@link
  *     de.ii.ogcapi.routes.infra.EndpointRoutesGet}, {@link
- *     de.ii.ogcapi.routes.infra.EndpointRoutesPost}
+ *     de.ii.ogcapi.routes.infra.EndpointRoutesPost}, {@link
+ *     de.ii.ogcapi.routes.infra.EndpointRouteMatrixPost}
  * @ref:queryParameters {@link de.ii.ogcapi.routes.domain.QueryParameterFRoutes}, {@link
  *     de.ii.ogcapi.routes.domain.QueryParameterFRoute}, {@link
  *     de.ii.ogcapi.routes.domain.QueryParameterFRouteDefinition}, {@link
@@ -97,6 +98,10 @@ public class RoutingBuildingBlock implements ApiBuildingBlock {
         .defaultMode("driving")
         .additionalFlags(ImmutableMap.of())
         .defaultCrs(CRS84)
+        .resultCacheTtl(0)
+        .resultCacheMaxEntries(1000)
+        .maxMatrixPairs(0)
+        .matrixParallelism(4)
         .html(ImmutableHtmlForm.builder().enabled(true).build())
         .build();
   }
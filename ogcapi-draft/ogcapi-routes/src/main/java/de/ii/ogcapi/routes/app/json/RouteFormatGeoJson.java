@@ -41,7 +41,7 @@ public class RouteFormatGeoJson implements ConformanceClass, RouteFormatExtensio
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RouteFormatGeoJson.class);
 
-  static final ApiMediaType MEDIA_TYPE =
+  public static final ApiMediaType MEDIA_TYPE =
       new ImmutableApiMediaType.Builder()
           .type(new MediaType("application", "geo+json"))
           .label("GeoJSON")
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.app.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.foundation.domain.ApiMediaType;
+import de.ii.ogcapi.foundation.domain.ApiMediaTypeContent;
+import de.ii.ogcapi.foundation.domain.ApiRequestContext;
+import de.ii.ogcapi.foundation.domain.ClassSchemaCache;
+import de.ii.ogcapi.foundation.domain.ImmutableApiMediaType;
+import de.ii.ogcapi.foundation.domain.ImmutableApiMediaTypeContent;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.ogcapi.routes.domain.RouteMatrix;
+import de.ii.ogcapi.routes.domain.RouteMatrixFormatExtension;
+import io.swagger.v3.oas.models.media.Schema;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * @title JSON
+ */
+@Singleton
+@AutoBind
+public class RouteMatrixFormatJson implements RouteMatrixFormatExtension {
+
+  public static final ApiMediaType MEDIA_TYPE =
+      new ImmutableApiMediaType.Builder()
+          .type(MediaType.APPLICATION_JSON_TYPE)
+          .label("JSON")
+          .parameter("json")
+          .build();
+
+  private final Schema<?> schemaRouteMatrix;
+  private final Map<String, Schema<?>> referencedSchemas;
+  private final ObjectMapper mapper;
+
+  @Inject
+  public RouteMatrixFormatJson(ClassSchemaCache classSchemaCache) {
+    this.schemaRouteMatrix = classSchemaCache.getSchema(RouteMatrix.class);
+    this.referencedSchemas = classSchemaCache.getReferencedSchemas(RouteMatrix.class);
+    this.mapper = new ObjectMapper();
+    mapper.registerModule(new Jdk8Module());
+  }
+
+  @Override
+  public ApiMediaTypeContent getContent() {
+    return new ImmutableApiMediaTypeContent.Builder()
+        .schema(schemaRouteMatrix)
+        .schemaRef(RouteMatrix.SCHEMA_REF)
+        .referencedSchemas(referencedSchemas)
+        .ogcApiMediaType(MEDIA_TYPE)
+        .build();
+  }
+
+  @Override
+  public ApiMediaType getMediaType() {
+    return MEDIA_TYPE;
+  }
+
+  @Override
+  public byte[] getRouteMatrixAsByteArray(
+      RouteMatrix routeMatrix, OgcApiDataV2 apiData, ApiRequestContext requestContext) {
+    try {
+      return mapper.writeValueAsBytes(routeMatrix);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not write route matrix.", e);
+    }
+  }
+}
@@ -33,7 +33,8 @@ public class PathParameterRouteId implements OgcApiPathParameter {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PathParameterRouteId.class);
 
-  public static final String ROUTE_ID_PATTERN = "[a-z0-9]+";
+  // route ids are hashes, 'matrix' is excluded since '/routes/matrix' is the route matrix resource
+  public static final String ROUTE_ID_PATTERN = "(?!matrix\\b)[a-z0-9]+";
 
   protected final SchemaValidator schemaValidator;
 
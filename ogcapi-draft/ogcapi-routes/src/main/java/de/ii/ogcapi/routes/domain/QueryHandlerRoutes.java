@@ -30,18 +30,14 @@ public interface QueryHandlerRoutes extends QueriesHandler<QueryHandlerRoutes.Qu
 
   enum Query implements QueryIdentifier {
     COMPUTE_ROUTE,
+    COMPUTE_ROUTE_MATRIX,
     DELETE_ROUTE,
     GET_ROUTES,
     GET_ROUTE,
     GET_ROUTE_DEFINITION
   }
 
-  @Value.Immutable
-  interface QueryInputComputeRoute extends QueryInput {
-    RouteDefinition getDefinition();
-
-    String getRouteId();
-
+  interface QueryInputRouteComputation extends QueryInput {
     FeatureQuery getQuery();
 
     FeatureProvider getFeatureProvider();
@@ -57,6 +53,18 @@ public interface QueryHandlerRoutes extends QueriesHandler<QueryHandlerRoutes.Qu
     Optional<Double> getElevationProfileSimplificationTolerance();
   }
 
+  @Value.Immutable
+  interface QueryInputComputeRoute extends QueryInputRouteComputation {
+    RouteDefinition getDefinition();
+
+    String getRouteId();
+  }
+
+  @Value.Immutable
+  interface QueryInputComputeRouteMatrix extends QueryInputRouteComputation {
+    RouteMatrixDefinition getDefinition();
+  }
+
   @Value.Immutable
   interface QueryInputRoutes extends QueryInput {
     RouteDefinitionInfo getTemplateInfo();
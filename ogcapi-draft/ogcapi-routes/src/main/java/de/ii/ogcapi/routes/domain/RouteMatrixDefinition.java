@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.immutables.value.Value;
+
+@Value.Immutable
+@Value.Style(jdkOnly = true, deepImmutablesDetection = true, builder = "new")
+@JsonDeserialize(builder = ImmutableRouteMatrixDefinition.Builder.class)
+public interface RouteMatrixDefinition {
+
+  String SCHEMA_REF = "#/components/schemas/RouteMatrixDefinition";
+
+  RouteMatrixInputs getInputs();
+
+  @JsonIgnore
+  @Value.Derived
+  default int getNumberOfPairs() {
+    return getInputs().getOrigins().size() * getInputs().getDestinations().size();
+  }
+
+  /**
+   * @return one route definition for each origin-destination pair, ordered by origin and then by
+   *     destination
+   */
+  @JsonIgnore
+  @Value.Lazy
+  default List<RouteDefinition> getRouteDefinitions() {
+    RouteMatrixInputs inputs = getInputs();
+    int numDestinations = inputs.getDestinations().size();
+
+    return IntStream.range(0, getNumberOfPairs())
+        .mapToObj(
+            i ->
+                new ImmutableRouteDefinition.Builder()
+                    .inputs(
+                        new ImmutableRouteDefinitionInputs.Builder()
+                            .waypoints(
+                                new ImmutableWaypoints.Builder()
+                                    .value(
+                                        new ImmutableWaypointsValue.Builder()
+                                            .addCoordinates(
+                                                inputs.getOrigins().get(i / numDestinations),
+                                                inputs.getDestinations().get(i % numDestinations))
+                                            .coordRefSys(inputs.getCoordRefSys())
+                                            .build())
+                                    .build())
+                            .preference(inputs.getPreference())
+                            .mode(inputs.getMode())
+                            .weight(inputs.getWeight())
+                            .height(inputs.getHeight())
+                            .obstacles(inputs.getObstacles())
+                            .additionalFlags(inputs.getAdditionalFlags())
+                            .build())
+                    .build())
+        .collect(Collectors.toUnmodifiableList());
+  }
+}
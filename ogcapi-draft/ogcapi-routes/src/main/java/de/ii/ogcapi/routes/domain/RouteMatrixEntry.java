@@ -0,0 +1,29 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+@Value.Immutable
+@Value.Style(jdkOnly = true, deepImmutablesDetection = true, builder = "new")
+@JsonDeserialize(builder = ImmutableRouteMatrixEntry.Builder.class)
+public interface RouteMatrixEntry {
+
+  int getOrigin();
+
+  int getDestination();
+
+  @JsonInclude(JsonInclude.Include.NON_ABSENT)
+  Optional<Route> getRoute();
+
+  @JsonInclude(JsonInclude.Include.NON_ABSENT)
+  Optional<String> getError();
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.domain;
+
+import de.ii.ogcapi.foundation.domain.ApiRequestContext;
+import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
+import de.ii.ogcapi.foundation.domain.FormatExtension;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+
+public interface RouteMatrixFormatExtension extends FormatExtension {
+
+  @Override
+  default boolean isEnabledForApi(OgcApiDataV2 apiData) {
+    return apiData
+        .getExtension(RoutingConfiguration.class)
+        .filter(RoutingConfiguration::isEnabled)
+        .filter(RoutingConfiguration::isMatrixEnabled)
+        .isPresent();
+  }
+
+  @Override
+  default boolean isEnabledForApi(OgcApiDataV2 apiData, String collectionId) {
+    return false;
+  }
+
+  @Override
+  default Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+    return RoutingConfiguration.class;
+  }
+
+  byte[] getRouteMatrixAsByteArray(
+      RouteMatrix routeMatrix, OgcApiDataV2 apiData, ApiRequestContext requestContext);
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.common.base.Preconditions;
+import de.ii.xtraplatform.crs.domain.OgcCrs;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.immutables.value.Value;
+
+@Value.Immutable
+@Value.Style(jdkOnly = true, deepImmutablesDetection = true, builder = "new")
+@JsonDeserialize(builder = ImmutableRouteMatrixInputs.Builder.class)
+public interface RouteMatrixInputs {
+
+  List<List<Float>> getOrigins();
+
+  List<List<Float>> getDestinations();
+
+  @Value.Default
+  default String getCoordRefSys() {
+    return OgcCrs.CRS84_URI;
+  }
+
+  @JsonInclude(JsonInclude.Include.NON_ABSENT)
+  Optional<String> getPreference();
+
+  @JsonInclude(JsonInclude.Include.NON_ABSENT)
+  Optional<String> getMode();
+
+  @JsonInclude(JsonInclude.Include.NON_ABSENT)
+  Optional<Double> getWeight();
+
+  @JsonInclude(JsonInclude.Include.NON_ABSENT)
+  Optional<Double> getHeight();
+
+  @JsonInclude(JsonInclude.Include.NON_ABSENT)
+  Optional<Obstacles> getObstacles();
+
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  List<String> getAdditionalFlags();
+
+  @Value.Check
+  default void check() {
+    Preconditions.checkState(!getOrigins().isEmpty(), "At least one origin is required.");
+    Preconditions.checkState(!getDestinations().isEmpty(), "At least one destination is required.");
+    Stream.concat(getOrigins().stream(), getDestinations().stream())
+        .forEach(
+            position ->
+                Preconditions.checkState(
+                    position.size() >= 2 && position.size() <= 3,
+                    "A position must have two or three coordinates. Found: %s.",
+                    position.size()));
+  }
+}
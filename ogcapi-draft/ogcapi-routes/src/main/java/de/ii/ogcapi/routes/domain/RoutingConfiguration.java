@@ -272,6 +272,70 @@ public interface RoutingConfiguration extends ExtensionConfiguration, CachingCon
   @Nullable
   Double getElevationProfileSimplificationTolerance();
 
+  /**
+   * @langEn Number of seconds that computed routes are kept in an in-memory cache. Identical route
+   *     definitions (same waypoints, preference, mode, flags and restrictions) that are requested
+   *     again within this time are not computed again. `0` disables the cache.
+   * @langDe Anzahl der Sekunden, die berechnete Routen in einem In-Memory-Cache vorgehalten
+   *     werden. Identische Routendefinitionen (gleiche Wegpunkte, Präferenz, Modus, Flags und
+   *     Beschränkungen), die innerhalb dieser Zeit erneut angefragt werden, werden nicht erneut
+   *     berechnet. `0` deaktiviert den Cache.
+   * @default 0
+   * @since v4.2
+   */
+  @Nullable
+  Integer getResultCacheTtl();
+
+  /**
+   * @langEn Maximum number of routes in the in-memory cache. If the limit is reached, the least
+   *     recently used routes are removed from the cache.
+   * @langDe Maximale Anzahl der Routen im In-Memory-Cache. Wird die Grenze erreicht, werden die am
+   *     längsten nicht verwendeten Routen aus dem Cache entfernt.
+   * @default 1000
+   * @since v4.2
+   */
+  @Nullable
+  Integer getResultCacheMaxEntries();
+
+  @JsonIgnore
+  @Value.Derived
+  @Value.Auxiliary
+  default boolean isResultCacheEnabled() {
+    return Objects.requireNonNullElse(getResultCacheTtl(), 0) > 0
+        && Objects.requireNonNullElse(getResultCacheMaxEntries(), 0) > 0;
+  }
+
+  /**
+   * @langEn Enables the computation of routes for multiple origin-destination pairs in a single
+   *     request (`POST /routes/matrix`). The value is the maximum number of pairs in a request.
+   *     `0` disables the operation.
+   * @langDe Aktiviert die Berechnung von Routen für mehrere Start-Ziel-Paare in einer Anfrage
+   *     (`POST /routes/matrix`). Der Wert ist die maximale Anzahl der Paare in einer Anfrage. `0`
+   *     deaktiviert die Operation.
+   * @default 0
+   * @since v4.2
+   */
+  @Nullable
+  Integer getMaxMatrixPairs();
+
+  @JsonIgnore
+  @Value.Derived
+  @Value.Auxiliary
+  default boolean isMatrixEnabled() {
+    return Objects.requireNonNullElse(getMaxMatrixPairs(), 0) > 0;
+  }
+
+  /**
+   * @langEn Maximum number of routes of a route matrix request that are computed concurrently by
+   *     the feature provider.
+   * @langDe Maximale Anzahl der Routen einer Routenmatrix-Anfrage, die gleichzeitig vom
+   *     Feature-Provider berechnet werden.
+   * @default 4
+   * @since v4.2
+   */
+  @Nullable
+  Integer getMatrixParallelism();
+
   /**
    * @langEn If enabled (the object includes a "enabled" member set to `true`), the HTML response to
    *     the Get Routes operation will be enabled. The object can also include a "defaults" member
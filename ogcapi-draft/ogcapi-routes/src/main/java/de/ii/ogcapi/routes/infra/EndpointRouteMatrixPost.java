@@ -0,0 +1,252 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.infra;
+
+import static de.ii.ogcapi.routes.domain.QueryHandlerRoutes.GROUP_ROUTES_WRITE;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.github.azahnen.dagger.annotations.AutoBind;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import de.ii.ogcapi.collections.domain.ImmutableOgcApiResourceData;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreProviders;
+import de.ii.ogcapi.features.core.domain.FeaturesQuery;
+import de.ii.ogcapi.foundation.domain.ApiEndpointDefinition;
+import de.ii.ogcapi.foundation.domain.ApiExtensionHealth;
+import de.ii.ogcapi.foundation.domain.ApiHeader;
+import de.ii.ogcapi.foundation.domain.ApiMediaTypeContent;
+import de.ii.ogcapi.foundation.domain.ApiOperation;
+import de.ii.ogcapi.foundation.domain.ApiRequestContext;
+import de.ii.ogcapi.foundation.domain.ClassSchemaCache;
+import de.ii.ogcapi.foundation.domain.Endpoint;
+import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
+import de.ii.ogcapi.foundation.domain.ExtensionRegistry;
+import de.ii.ogcapi.foundation.domain.FormatExtension;
+import de.ii.ogcapi.foundation.domain.HttpMethods;
+import de.ii.ogcapi.foundation.domain.ImmutableApiEndpointDefinition;
+import de.ii.ogcapi.foundation.domain.ImmutableApiMediaTypeContent;
+import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.ogcapi.foundation.domain.OgcApiQueryParameter;
+import de.ii.ogcapi.foundation.domain.QueryParameterSet;
+import de.ii.ogcapi.routes.app.RoutingBuildingBlock;
+import de.ii.ogcapi.routes.domain.ImmutableQueryInputComputeRouteMatrix;
+import de.ii.ogcapi.routes.domain.QueryHandlerRoutes;
+import de.ii.ogcapi.routes.domain.RouteMatrixDefinition;
+import de.ii.ogcapi.routes.domain.RouteMatrixFormatExtension;
+import de.ii.ogcapi.routes.domain.RoutingConfiguration;
+import de.ii.xtraplatform.auth.domain.User;
+import de.ii.xtraplatform.base.domain.resiliency.Volatile2;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import de.ii.xtraplatform.crs.domain.OgcCrs;
+import de.ii.xtraplatform.features.domain.FeatureProvider;
+import de.ii.xtraplatform.features.domain.FeatureQuery;
+import io.dropwizard.auth.Auth;
+import io.swagger.v3.oas.models.media.Schema;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * @title Route Matrix
+ * @path routes/matrix
+ * @langEn This operation computes the routes between all pairs of a list of origins and a list of
+ *     destinations. The routes are not stored.
+ * @langDe Diese Operation berechnet die Routen zwischen allen Paaren aus einer Liste von
+ *     Startpunkten und einer Liste von Zielpunkten. Die Routen werden nicht gespeichert.
+ * @ref:formats {@link de.ii.ogcapi.routes.domain.RouteMatrixFormatExtension}
+ */
+@Singleton
+@AutoBind
+public class EndpointRouteMatrixPost extends Endpoint implements ApiExtensionHealth {
+
+  private static final List<String> TAGS = ImmutableList.of("Routing");
+
+  private final QueryHandlerRoutes queryHandler;
+  private final Schema<?> schemaRouteMatrixDefinition;
+  private final Map<String, Schema<?>> referencedSchemas;
+  private final FeaturesQuery ogcApiFeaturesQuery;
+  private final FeaturesCoreProviders providers;
+  private final ObjectMapper mapper;
+
+  @Inject
+  public EndpointRouteMatrixPost(
+      ExtensionRegistry extensionRegistry,
+      QueryHandlerRoutes queryHandler,
+      ClassSchemaCache classSchemaCache,
+      FeaturesQuery ogcApiFeaturesQuery,
+      FeaturesCoreProviders providers) {
+    super(extensionRegistry);
+    this.queryHandler = queryHandler;
+    this.schemaRouteMatrixDefinition = classSchemaCache.getSchema(RouteMatrixDefinition.class);
+    this.referencedSchemas = classSchemaCache.getReferencedSchemas(RouteMatrixDefinition.class);
+    this.ogcApiFeaturesQuery = ogcApiFeaturesQuery;
+    this.providers = providers;
+    this.mapper = new ObjectMapper();
+    mapper.registerModule(new Jdk8Module());
+    mapper.registerModule(new GuavaModule());
+    mapper.configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
+    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  @Override
+  public boolean isEnabledForApi(OgcApiDataV2 apiData) {
+    return apiData
+        .getExtension(RoutingConfiguration.class)
+        .filter(RoutingConfiguration::isEnabled)
+        .filter(RoutingConfiguration::isMatrixEnabled)
+        .isPresent();
+  }
+
+  @Override
+  public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+    return RoutingConfiguration.class;
+  }
+
+  @Override
+  public List<? extends FormatExtension> getResourceFormats() {
+    if (formats == null)
+      formats = extensionRegistry.getExtensionsForType(RouteMatrixFormatExtension.class);
+    return formats;
+  }
+
+  @Override
+  protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+    ImmutableApiEndpointDefinition.Builder definitionBuilder =
+        new ImmutableApiEndpointDefinition.Builder()
+            .apiEntrypoint("routes")
+            .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_ROUTE_MATRIX_POST);
+    String path = "/routes/matrix";
+    HttpMethods method = HttpMethods.POST;
+    List<OgcApiQueryParameter> queryParameters =
+        getQueryParameters(extensionRegistry, apiData, path, method);
+    List<ApiHeader> headers = getHeaders(extensionRegistry, apiData, path, method);
+    String operationSummary = "compute routes between multiple origins and destinations";
+    Optional<String> operationDescription =
+        Optional.of(
+            "This operation computes a route for each pair of a location in `origins` and a "
+                + "location in `destinations`. The other inputs (`preference`, `mode`, "
+                + "`additionalFlags`, etc.) are the same as for a single route and apply to all "
+                + "routes. The routes are returned in the order of the origins and then the "
+                + "destinations. If a route cannot be computed, the entry includes an `error` "
+                + "member instead of the `route`.");
+    ImmutableOgcApiResourceData.Builder resourceBuilder =
+        new ImmutableOgcApiResourceData.Builder().path(path);
+    Map<MediaType, ApiMediaTypeContent> requestContent =
+        ImmutableMap.of(
+            EndpointRoutesPost.REQUEST_MEDIA_TYPE.type(),
+            new ImmutableApiMediaTypeContent.Builder()
+                .ogcApiMediaType(EndpointRoutesPost.REQUEST_MEDIA_TYPE)
+                .schema(schemaRouteMatrixDefinition)
+                .schemaRef(RouteMatrixDefinition.SCHEMA_REF)
+                .referencedSchemas(referencedSchemas)
+                .build());
+    ApiOperation.of(
+            requestContent,
+            getResponseContent(apiData),
+            queryParameters,
+            headers,
+            operationSummary,
+            operationDescription,
+            Optional.empty(),
+            getOperationId("computeRouteMatrix"),
+            GROUP_ROUTES_WRITE,
+            TAGS,
+            RoutingBuildingBlock.MATURITY,
+            RoutingBuildingBlock.SPEC)
+        .ifPresent(operation -> resourceBuilder.putOperations(method.toString(), operation));
+    definitionBuilder.putResources(path, resourceBuilder.build());
+
+    return definitionBuilder.build();
+  }
+
+  /**
+   * computes the routes for all origin-destination pairs
+   *
+   * @return the routes in the order of the origins and destinations
+   */
+  @Path("/matrix")
+  @POST
+  public Response computeRouteMatrix(
+      @Auth Optional<User> optionalUser,
+      @Context OgcApi api,
+      @Context ApiRequestContext requestContext,
+      @Context HttpServletRequest request,
+      byte[] requestBody) {
+
+    OgcApiDataV2 apiData = api.getData();
+    Optional<RoutingConfiguration> config = apiData.getExtension(RoutingConfiguration.class);
+
+    FeatureProvider featureProvider = providers.getFeatureProviderOrThrow(apiData);
+    EndpointRoutesGet.ensureFeatureProviderSupportsRouting(featureProvider);
+
+    String featureTypeId =
+        config
+            .map(RoutingConfiguration::getFeatureType)
+            .orElseThrow(
+                () ->
+                    new IllegalStateException("No feature type has been configured for routing."));
+    EpsgCrs defaultCrs = config.map(RoutingConfiguration::getDefaultEpsgCrs).orElse(OgcCrs.CRS84);
+
+    QueryParameterSet queryParameterSet = requestContext.getQueryParameterSet();
+
+    FeatureQuery query =
+        ogcApiFeaturesQuery.requestToBareFeatureQuery(
+            apiData,
+            featureTypeId,
+            defaultCrs,
+            config.map(RoutingConfiguration::getCoordinatePrecision).orElse(ImmutableMap.of()),
+            EndpointRoutesPost.LIMIT,
+            queryParameterSet);
+
+    RouteMatrixDefinition definition;
+    try {
+      definition = mapper.readValue(requestBody, RouteMatrixDefinition.class);
+    } catch (IOException e) {
+      throw new IllegalArgumentException(
+          String.format(
+              "The content of the route matrix definition is invalid: %s", e.getMessage()),
+          e);
+    }
+
+    QueryHandlerRoutes.QueryInputComputeRouteMatrix queryInput =
+        new ImmutableQueryInputComputeRouteMatrix.Builder()
+            .from(getGenericQueryInput(apiData))
+            .definition(definition)
+            .featureProvider(featureProvider)
+            .featureTypeId(featureTypeId)
+            .query(query)
+            .crs(Optional.ofNullable(request.getHeader("crs")))
+            .defaultCrs(defaultCrs)
+            .speedLimitUnit(config.map(RoutingConfiguration::getSpeedLimitUnit).orElse("kmph"))
+            .elevationProfileSimplificationTolerance(
+                config.map(RoutingConfiguration::getElevationProfileSimplificationTolerance))
+            .build();
+
+    return queryHandler.handle(
+        QueryHandlerRoutes.Query.COMPUTE_ROUTE_MATRIX, queryInput, requestContext);
+  }
+
+  @Override
+  public Set<Volatile2> getVolatiles(OgcApiDataV2 apiData) {
+    return Set.of(queryHandler, ogcApiFeaturesQuery, providers.getFeatureProviderOrThrow(apiData));
+  }
+}
@@ -390,14 +390,9 @@ public class EndpointRoutesPost extends Endpoint implements ConformanceClass, Ap
     }
 
     String routeId =
-        Hashing.murmur3_128()
-            .newHasher()
-            .putObject(definition, RouteDefinition.FUNNEL)
-            .putString(
-                Optional.ofNullable(request.getHeader("crs")).orElse(defaultCrs.toUriString()),
-                StandardCharsets.UTF_8)
-            .hash()
-            .toString();
+        getRouteId(
+            definition,
+            Optional.ofNullable(request.getHeader("crs")).orElse(defaultCrs.toUriString()));
 
     if (apiData
         .getExtension(RoutingConfiguration.class)
@@ -428,6 +423,24 @@ public class EndpointRoutesPost extends Endpoint implements ConformanceClass, Ap
     return queryHandler.handle(QueryHandlerRoutes.Query.COMPUTE_ROUTE, queryInput, requestContext);
   }
 
+  /**
+   * The id of a route is a hash of its definition and the requested coordinate reference system.
+   * Identical requests result in the same id.
+   *
+   * @param definition the route definition
+   * @param crs the URI of the coordinate reference system of the route
+   * @return the route id
+   */
+  @SuppressWarnings("UnstableApiUsage")
+  public static String getRouteId(RouteDefinition definition, String crs) {
+    return Hashing.murmur3_128()
+        .newHasher()
+        .putObject(definition, RouteDefinition.FUNNEL)
+        .putString(crs, StandardCharsets.UTF_8)
+        .hash()
+        .toString();
+  }
+
   @Override
   public Set<Volatile2> getVolatiles(OgcApiDataV2 apiData) {
     return Set.of(
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.app
+
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class BoundedComputationSpec extends Specification {
+
+    def 'the results are in the order of the indexes, even if later computations finish first'() {
+        given:
+        def executor = Executors.newFixedThreadPool(4)
+
+        when:
+        // the delay decreases with the index, so the last computation of a batch finishes first
+        List<Integer> results = BoundedComputation.computeAll(12, 4, { int i ->
+            CompletableFuture.supplyAsync({
+                TimeUnit.MILLISECONDS.sleep(5 * (12 - i))
+                return i
+            }, executor)
+        })
+
+        then:
+        results == (0..11).toList()
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def 'at most the given number of computations is in flight'() {
+        given:
+        def executor = Executors.newFixedThreadPool(8)
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+
+        when:
+        List<Integer> results = BoundedComputation.computeAll(20, 3, { int i ->
+            CompletableFuture.supplyAsync({
+                maxRunning.accumulateAndGet(running.incrementAndGet(), { a, b -> Math.max(a, b) })
+                TimeUnit.MILLISECONDS.sleep(10)
+                running.decrementAndGet()
+                return i
+            }, executor)
+        })
+
+        then:
+        results.size() == 20
+        maxRunning.get() <= 3
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def 'failed computations do not block the remaining ones'() {
+        when:
+        List<String> results = BoundedComputation.computeAll(5, 1, { int i ->
+            CompletableFuture.supplyAsync({
+                if (i == 2) {
+                    throw new IllegalArgumentException("invalid")
+                }
+                return "route" + i
+            }).exceptionally({ e -> "error" })
+        })
+
+        then:
+        results == ["route0", "route1", "error", "route3", "route4"]
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.routes.app
+
+import de.ii.ogcapi.routes.domain.ImmutableRoute
+import de.ii.ogcapi.routes.domain.Route
+import spock.lang.Specification
+
+class RouteResultCacheSpec extends Specification {
+
+    long now = 0
+    RouteResultCache cache = new RouteResultCache(2, { now })
+
+    static Route route(String name) {
+        return new ImmutableRoute.Builder().name(name).build()
+    }
+
+    def 'cached routes are returned'() {
+        when:
+        cache.put("api/1/a/crs", route("a"), 60)
+
+        then:
+        cache.get("api/1/a/crs").map { it.name.get() } == Optional.of("a")
+        cache.get("api/1/b/crs").isEmpty()
+    }
+
+    def 'the least recently used route is evicted when the limit is reached'() {
+        given:
+        cache.put("a", route("a"), 60)
+        cache.put("b", route("b"), 60)
+
+        when:
+        cache.get("a")
+        cache.put("c", route("c"), 60)
+
+        then:
+        cache.size() == 2
+        cache.get("a").isPresent()
+        cache.get("b").isEmpty()
+        cache.get("c").isPresent()
+    }
+
+    def 'the limit does not change when routes are added'() {
+        when:
+        10.times { cache.put("route" + it, route("r" + it), 60) }
+
+        then:
+        cache.maxEntries == 2
+        cache.size() == 2
+    }
+
+    def 'routes expire after the time-to-live'() {
+        given:
+        cache.put("a", route("a"), 60)
+
+        when:
+        now = 59_999
+
+        then:
+        cache.get("a").isPresent()
+
+        when:
+        now = 60_000
+
+        then:
+        cache.get("a").isEmpty()
+        cache.size() == 0
+    }
+
+    def 'all entries of a route are removed by prefix'() {
+        given:
+        cache.put("api/1/a/crs84", route("a"), 60)
+        cache.put("api/1/b/crs84", route("b"), 60)
+
+        when:
+        cache.remove("api/1/a/")
+
+        then:
+        cache.get("api/1/a/crs84").isEmpty()
+        cache.get("api/1/b/crs84").isPresent()
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.text.search.app;
+
+import de.ii.xtraplatform.features.domain.FeatureObjectEncoder;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
+import de.ii.xtraplatform.features.domain.SchemaBase;
+import de.ii.xtraplatform.features.domain.SchemaMapping;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Does not write anything, but passes the id and the values of the text search properties of each
+ * feature to the index.
+ */
+public class FeatureEncoderTextIndex
+    extends FeatureObjectEncoder<PropertyTextIndex, FeatureTextIndex> {
+
+  private final Set<String> properties;
+  private final BiConsumer<String, List<String>> consumer;
+  private final Set<String> indexedProperties;
+  private int count;
+
+  public FeatureEncoderTextIndex(
+      Set<String> properties, BiConsumer<String, List<String>> consumer) {
+    this.properties = properties;
+    this.consumer = consumer;
+    this.indexedProperties = new HashSet<>();
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * @return the text search properties for which at least one value has been found
+   */
+  public Set<String> getIndexedProperties() {
+    return indexedProperties;
+  }
+
+  @Override
+  public FeatureTextIndex createFeature() {
+    return ModifiableFeatureTextIndex.create();
+  }
+
+  @Override
+  public PropertyTextIndex createProperty() {
+    return ModifiablePropertyTextIndex.create();
+  }
+
+  @Override
+  public void onStart(ModifiableContext<FeatureSchema, SchemaMapping> context) {
+    this.count = 0;
+  }
+
+  @Override
+  public void onFeature(FeatureTextIndex feature) {
+    count++;
+
+    String id = null;
+    List<String> values = new ArrayList<>();
+    for (PropertyTextIndex property : feature.getProperties()) {
+      if (property.getSchema().filter(SchemaBase::isId).isPresent()) {
+        id = property.getValue();
+      } else {
+        collect(property, values);
+      }
+    }
+
+    if (Objects.nonNull(id)) {
+      consumer.accept(id, values);
+    }
+  }
+
+  @Override
+  public void onEnd(ModifiableContext<FeatureSchema, SchemaMapping> context) {}
+
+  private void collect(PropertyTextIndex property, List<String> values) {
+    if (property.getSchema().filter(SchemaBase::isSpatial).isPresent()) {
+      return;
+    }
+    if (property.isValue()) {
+      String path = String.join(".", property.getPropertyPath());
+      if (Objects.nonNull(property.getValue()) && properties.contains(path)) {
+        values.add(property.getValue());
+        indexedProperties.add(path);
+      }
+      return;
+    }
+    property.getNestedProperties().forEach(nested -> collect(nested, values));
+  }
+}
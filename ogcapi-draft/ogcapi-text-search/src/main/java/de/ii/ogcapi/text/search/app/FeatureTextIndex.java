@@ -0,0 +1,16 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.text.search.app;
+
+import de.ii.xtraplatform.features.domain.FeatureBase;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
+import org.immutables.value.Value;
+
+@Value.Modifiable
+@Value.Style(set = "*")
+public interface FeatureTextIndex extends FeatureBase<PropertyTextIndex, FeatureSchema> {}
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.text.search.app;
+
+import de.ii.xtraplatform.features.domain.FeatureSchema;
+import de.ii.xtraplatform.features.domain.PropertyBase;
+import org.immutables.value.Value;
+
+@Value.Modifiable
+@Value.Style(set = "*")
+public interface PropertyTextIndex extends PropertyBase<PropertyTextIndex, FeatureSchema> {
+
+  @Override
+  @Value.Default
+  default String getName() {
+    return getSchema().map(FeatureSchema::getName).orElse("");
+  }
+}
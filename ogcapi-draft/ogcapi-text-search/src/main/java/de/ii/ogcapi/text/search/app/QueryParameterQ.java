@@ -23,9 +23,11 @@ import de.ii.ogcapi.foundation.domain.SchemaValidator;
 import de.ii.ogcapi.foundation.domain.SpecificationMaturity;
 import de.ii.ogcapi.foundation.domain.TypedQueryParameter;
 import de.ii.ogcapi.text.search.domain.TextSearchConfiguration;
+import de.ii.xtraplatform.cql.domain.And;
 import de.ii.xtraplatform.cql.domain.Cql;
 import de.ii.xtraplatform.cql.domain.Cql2Expression;
 import de.ii.xtraplatform.cql.domain.Function;
+import de.ii.xtraplatform.cql.domain.In;
 import de.ii.xtraplatform.cql.domain.Like;
 import de.ii.xtraplatform.cql.domain.Or;
 import de.ii.xtraplatform.cql.domain.Property;
@@ -63,10 +65,13 @@ public class QueryParameterQ extends OgcApiQueryParameterBase
 
   private final Schema<?> baseSchema;
   private final SchemaValidator schemaValidator;
+  private final TextSearchIndex textSearchIndex;
 
   @Inject
-  public QueryParameterQ(SchemaValidator schemaValidator, Cql cql) {
+  public QueryParameterQ(
+      SchemaValidator schemaValidator, Cql cql, TextSearchIndex textSearchIndex) {
     this.schemaValidator = schemaValidator;
+    this.textSearchIndex = textSearchIndex;
     this.baseSchema = new ArraySchema().items(new StringSchema());
   }
 
@@ -86,15 +91,35 @@ public class QueryParameterQ extends OgcApiQueryParameterBase
       return null;
     }
 
-    Set<String> textSearchProperties =
+    Optional<TextSearchConfiguration> config =
         optionalCollectionData
             .map(cd -> cd.getExtension(TextSearchConfiguration.class))
-            .orElse(api.getData().getExtension(TextSearchConfiguration.class))
+            .orElse(api.getData().getExtension(TextSearchConfiguration.class));
+    Set<String> textSearchProperties =
+        config
             .map(TextSearchConfiguration::getProperties)
             .map(Set::copyOf)
             .orElse(ImmutableSet.of());
+    List<String> values = Splitter.on(",").trimResults().splitToList(value);
+
+    Cql2Expression cql2Expression = qToCql(textSearchProperties, values);
+
+    if (Objects.isNull(cql2Expression)
+        || optionalCollectionData.isEmpty()
+        || !config.map(TextSearchConfiguration::isIndexEnabled).orElse(false)) {
+      return cql2Expression;
+    }
 
-    return qToCql(textSearchProperties, Splitter.on(",").trimResults().splitToList(value));
+    // the LIKE predicates are kept, the candidates from the index are a superset of the result
+    return textSearchIndex
+        .getCandidates(api.getId(), optionalCollectionData.get().getId(), values)
+        .filter(candidates -> !candidates.isEmpty())
+        .<Cql2Expression>map(
+            candidates ->
+                And.of(
+                    In.of(candidates.stream().map(ScalarLiteral::of).toArray(ScalarLiteral[]::new)),
+                    cql2Expression))
+        .orElse(cql2Expression);
   }
 
   @Override
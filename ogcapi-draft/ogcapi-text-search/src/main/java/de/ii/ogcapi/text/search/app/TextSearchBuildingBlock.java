@@ -8,11 +8,15 @@
 package de.ii.ogcapi.text.search.app;
 
 import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreProviders;
 import de.ii.ogcapi.foundation.domain.ApiBuildingBlock;
 import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
 import de.ii.ogcapi.foundation.domain.ExternalDocumentation;
+import de.ii.ogcapi.foundation.domain.OgcApi;
 import de.ii.ogcapi.foundation.domain.SpecificationMaturity;
 import de.ii.ogcapi.text.search.domain.ImmutableTextSearchConfiguration;
+import de.ii.xtraplatform.entities.domain.ValidationResult;
+import de.ii.xtraplatform.entities.domain.ValidationResult.MODE;
 import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -41,11 +45,35 @@ public class TextSearchBuildingBlock implements ApiBuildingBlock {
               "https://docs.ogc.org/DRAFTS/24-031.html",
               "OGC API - Features - Part 9: Text Search (DRAFT)"));
 
+  private final FeaturesCoreProviders providers;
+  private final TextSearchIndex textSearchIndex;
+
   @Inject
-  public TextSearchBuildingBlock() {}
+  public TextSearchBuildingBlock(FeaturesCoreProviders providers, TextSearchIndex textSearchIndex) {
+    this.providers = providers;
+    this.textSearchIndex = textSearchIndex;
+  }
 
   @Override
   public ExtensionConfiguration getDefaultConfiguration() {
-    return new ImmutableTextSearchConfiguration.Builder().enabled(false).build();
+    return new ImmutableTextSearchConfiguration.Builder().enabled(false).index(false).build();
+  }
+
+  @Override
+  public ValidationResult onStartup(OgcApi api, MODE apiValidation) {
+    providers
+        .getFeatureProvider(api.getData())
+        .ifPresent(provider -> textSearchIndex.start(api, provider));
+
+    return ValidationResult.of();
+  }
+
+  @Override
+  public void onShutdown(OgcApi api) {
+    providers
+        .getFeatureProvider(api.getData())
+        .ifPresent(provider -> textSearchIndex.stop(api, provider));
+
+    ApiBuildingBlock.super.onShutdown(api);
   }
 }
@@ -0,0 +1,497 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.text.search.app;
+
+import com.google.common.collect.ImmutableMap;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreConfiguration;
+import de.ii.ogcapi.foundation.domain.FeatureTypeConfigurationOgcApi;
+import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.ogcapi.text.search.domain.TextSearchConfiguration;
+import de.ii.xtraplatform.base.domain.LogContext.MARKER;
+import de.ii.xtraplatform.cql.domain.In;
+import de.ii.xtraplatform.cql.domain.ScalarLiteral;
+import de.ii.xtraplatform.crs.domain.OgcCrs;
+import de.ii.xtraplatform.features.domain.FeatureChange.Action;
+import de.ii.xtraplatform.features.domain.FeatureChangeListener;
+import de.ii.xtraplatform.features.domain.FeatureProvider;
+import de.ii.xtraplatform.features.domain.FeatureQuery;
+import de.ii.xtraplatform.features.domain.FeatureStream;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery;
+import de.ii.xtraplatform.streams.domain.Reactive;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An inverted index of the tokens in the text search properties of a collection. The index is
+ * built in the background by streaming the collection from the feature provider and is kept
+ * current with the feature changes reported by the provider.
+ *
+ * <p>The index only narrows down the candidate features for the search terms. The tokens are
+ * matched as substrings, so the candidates are a superset of the features that match the {@code
+ * LIKE} predicates of the query parameter {@code q}, which are still evaluated by the provider. To
+ * look up substrings without scanning all tokens, the postings are kept in a sorted map by the
+ * suffixes of the tokens, and a search token is looked up as a prefix of the suffixes.
+ *
+ * <p>The size of an index is limited by the number of features and the number of postings, i.e.
+ * the feature ids per token suffix. If a limit is exceeded, the index is dropped and the search
+ * falls back to the provider.
+ */
+@Singleton
+public class TextSearchIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TextSearchIndex.class);
+
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern LIKE_WILDCARDS = Pattern.compile("[%_\\\\]");
+  private static final int PAGE_SIZE = 10_000;
+  private static final int MAX_CANDIDATES = 10_000;
+  private static final int MAX_FEATURES = 500_000;
+  private static final long MAX_POSTINGS = 5_000_000;
+
+  private final Map<String, CollectionIndex> indexes;
+  private final Map<String, FeatureChangeListener> listeners;
+  private final ExecutorService executor;
+
+  @Inject
+  public TextSearchIndex() {
+    this.indexes = new ConcurrentHashMap<>();
+    this.listeners = new ConcurrentHashMap<>();
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "text-search-index");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Builds the indexes for all collections of the API with an enabled index and starts listening
+   * to feature changes.
+   *
+   * @param api the API
+   * @param provider the feature provider of the API
+   */
+  public void start(OgcApi api, FeatureProvider provider) {
+    stop(api, provider);
+
+    api.getData().getCollections().values().stream()
+        .filter(collectionData -> getProperties(collectionData).isPresent())
+        .forEach(
+            collectionData -> {
+              CollectionIndex index =
+                  new CollectionIndex(
+                      getFeatureType(collectionData), getProperties(collectionData).get());
+              indexes.put(key(api.getId(), collectionData.getId()), index);
+              executor.submit(() -> build(api, provider, collectionData.getId(), index));
+            });
+
+    FeatureChangeListener listener = onFeatureChange(api, provider);
+    provider.changes().addListener(listener);
+    listeners.put(api.getId(), listener);
+  }
+
+  /**
+   * Stops listening to feature changes and drops the indexes of the API.
+   *
+   * @param api the API
+   * @param provider the feature provider of the API
+   */
+  public void stop(OgcApi api, FeatureProvider provider) {
+    FeatureChangeListener listener = listeners.remove(api.getId());
+    if (Objects.nonNull(listener)) {
+      provider.changes().removeListener(listener);
+    }
+    indexes.keySet().removeIf(key -> key.startsWith(key(api.getId(), "")));
+  }
+
+  /**
+   * @param apiId the API
+   * @param collectionId the collection
+   * @param values the search terms
+   * @return the ids of all features that may match at least one of the search terms, or empty, if
+   *     the index cannot be used for the search terms
+   */
+  public Optional<Set<String>> getCandidates(
+      String apiId, String collectionId, List<String> values) {
+    CollectionIndex index = indexes.get(key(apiId, collectionId));
+    if (Objects.isNull(index) || !index.ready || index.isExceeded()) {
+      return Optional.empty();
+    }
+
+    return index.getCandidates(values);
+  }
+
+  static List<String> tokenize(String text) {
+    return TOKEN_SEPARATOR
+        .splitAsStream(text.toLowerCase(Locale.ROOT))
+        .filter(token -> !token.isEmpty())
+        .collect(Collectors.toList());
+  }
+
+  private FeatureChangeListener onFeatureChange(OgcApi api, FeatureProvider provider) {
+    return change -> {
+      String collectionId =
+          FeaturesCoreConfiguration.getCollectionId(api.getData(), change.getFeatureType());
+      CollectionIndex index = indexes.get(key(api.getId(), collectionId));
+      if (Objects.isNull(index)) {
+        return;
+      }
+
+      List<String> featureIds = List.copyOf(change.getFeatureIds());
+      executor.submit(
+          () -> {
+            if (change.getAction() == Action.DELETE) {
+              featureIds.forEach(index::remove);
+            } else if (featureIds.isEmpty()) {
+              build(api, provider, collectionId, index);
+            } else {
+              update(api, provider, collectionId, index, featureIds);
+            }
+          });
+    };
+  }
+
+  private void build(
+      OgcApi api, FeatureProvider provider, String collectionId, CollectionIndex index) {
+    long start = System.nanoTime();
+    index.ready = false;
+    index.clear();
+
+    try {
+      Set<String> indexedProperties = new HashSet<>();
+      int offset = 0;
+      int count;
+      do {
+        FeatureQuery query =
+            ImmutableFeatureQuery.builder()
+                .type(index.featureType)
+                .crs(OgcCrs.CRS84)
+                .fields(index.properties)
+                .skipGeometry(true)
+                .limit(PAGE_SIZE)
+                .offset(offset)
+                .build();
+        FeatureEncoderTextIndex encoder =
+            new FeatureEncoderTextIndex(index.properties, index::add);
+        read(provider, query, encoder);
+        if (index.isExceeded()) {
+          logExceeded(api, collectionId);
+          return;
+        }
+        indexedProperties.addAll(encoder.getIndexedProperties());
+        count = encoder.getCount();
+        offset += count;
+      } while (count == PAGE_SIZE);
+
+      if (offset > 0 && !indexedProperties.containsAll(index.properties)) {
+        // a property without any value is most likely not a path in the feature schema
+        if (LOGGER.isWarnEnabled()) {
+          LOGGER.warn(
+              "Text search index for collection '{}' in API '{}' is not used, no values found for properties: {}",
+              collectionId,
+              api.getId(),
+              index.properties.stream()
+                  .filter(property -> !indexedProperties.contains(property))
+                  .collect(Collectors.joining(", ")));
+        }
+        return;
+      }
+
+      index.ready = true;
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "Text search index for collection '{}' in API '{}' built with {} features and {} postings in {} ms.",
+            collectionId,
+            api.getId(),
+            offset,
+            index.postingsCount,
+            (System.nanoTime() - start) / 1_000_000);
+      }
+    } catch (Throwable e) {
+      logError(api, collectionId, e);
+    }
+  }
+
+  private void update(
+      OgcApi api,
+      FeatureProvider provider,
+      String collectionId,
+      CollectionIndex index,
+      List<String> featureIds) {
+    try {
+      FeatureQuery query =
+          ImmutableFeatureQuery.builder()
+              .type(index.featureType)
+              .crs(OgcCrs.CRS84)
+              .fields(index.properties)
+              .skipGeometry(true)
+              .filter(
+                  In.of(featureIds.stream().map(ScalarLiteral::of).toArray(ScalarLiteral[]::new)))
+              .limit(featureIds.size())
+              .build();
+      Set<String> found = new HashSet<>();
+      read(
+          provider,
+          query,
+          new FeatureEncoderTextIndex(
+              index.properties,
+              (id, values) -> {
+                found.add(id);
+                index.add(id, values);
+              }));
+      // features that are not found any more are removed from the index
+      featureIds.stream().filter(id -> !found.contains(id)).forEach(index::remove);
+      if (index.isExceeded()) {
+        // the index is dropped, until it is rebuilt
+        index.ready = false;
+        logExceeded(api, collectionId);
+      }
+    } catch (Throwable e) {
+      // the index is incomplete, until it is rebuilt
+      index.ready = false;
+      logError(api, collectionId, e);
+    }
+  }
+
+  private static void read(
+      FeatureProvider provider, FeatureQuery query, FeatureEncoderTextIndex encoder) {
+    FeatureStream featureStream = provider.queries().get().getFeatureStream(query);
+
+    featureStream
+        .runWith(
+            encoder.to(Reactive.Sink.outputStream(OutputStream.nullOutputStream())),
+            ImmutableMap.of())
+        .thenAccept(result -> result.getError().ifPresent(FeatureStream::processStreamError))
+        .toCompletableFuture()
+        .join();
+  }
+
+  private static void logExceeded(OgcApi api, String collectionId) {
+    if (LOGGER.isWarnEnabled()) {
+      LOGGER.warn(
+          "Text search index for collection '{}' in API '{}' is not used, the collection exceeds the limits of {} features or {} postings.",
+          collectionId,
+          api.getId(),
+          MAX_FEATURES,
+          MAX_POSTINGS);
+    }
+  }
+
+  private static void logError(OgcApi api, String collectionId, Throwable e) {
+    if (LOGGER.isErrorEnabled()) {
+      LOGGER.error(
+          "Text search index for collection '{}' in API '{}' could not be updated: {}",
+          collectionId,
+          api.getId(),
+          e.getMessage());
+    }
+    if (LOGGER.isDebugEnabled(MARKER.STACKTRACE)) {
+      LOGGER.debug("Stacktrace", e);
+    }
+  }
+
+  private static Optional<Set<String>> getProperties(
+      FeatureTypeConfigurationOgcApi collectionData) {
+    return collectionData
+        .getExtension(TextSearchConfiguration.class)
+        .filter(TextSearchConfiguration::isEnabled)
+        .filter(TextSearchConfiguration::isIndexEnabled)
+        .map(TextSearchConfiguration::getProperties)
+        .filter(properties -> !properties.isEmpty())
+        .map(Set::copyOf);
+  }
+
+  private static String getFeatureType(FeatureTypeConfigurationOgcApi collectionData) {
+    return collectionData
+        .getExtension(FeaturesCoreConfiguration.class)
+        .flatMap(FeaturesCoreConfiguration::getFeatureType)
+        .orElse(collectionData.getId());
+  }
+
+  private static String key(String apiId, String collectionId) {
+    return String.join("/", apiId, collectionId);
+  }
+
+  static final class CollectionIndex {
+    private final String featureType;
+    private final Set<String> properties;
+    private final int maxFeatures;
+    private final long maxPostings;
+    private final NavigableMap<String, Set<String>> postings;
+    private final Map<String, Set<String>> tokensById;
+    // changes are applied by a single thread
+    private volatile long postingsCount;
+    private volatile boolean exceeded;
+    private volatile boolean ready;
+
+    CollectionIndex(String featureType, Set<String> properties) {
+      this(featureType, properties, MAX_FEATURES, MAX_POSTINGS);
+    }
+
+    CollectionIndex(
+        String featureType, Set<String> properties, int maxFeatures, long maxPostings) {
+      this.featureType = featureType;
+      this.properties = properties;
+      this.maxFeatures = maxFeatures;
+      this.maxPostings = maxPostings;
+      this.postings = new ConcurrentSkipListMap<>();
+      this.tokensById = new ConcurrentHashMap<>();
+      this.postingsCount = 0;
+      this.exceeded = false;
+      this.ready = false;
+    }
+
+    void add(String id, List<String> values) {
+      if (exceeded) {
+        return;
+      }
+
+      remove(id);
+
+      Set<String> tokens =
+          values.stream()
+              .flatMap(value -> tokenize(value).stream())
+              .collect(Collectors.toUnmodifiableSet());
+      Set<String> suffixes = suffixes(tokens);
+
+      if (tokensById.size() >= maxFeatures || postingsCount + suffixes.size() > maxPostings) {
+        exceeded = true;
+        postings.clear();
+        tokensById.clear();
+        postingsCount = 0;
+        return;
+      }
+
+      suffixes.forEach(
+          suffix ->
+              postings.computeIfAbsent(suffix, ignore -> ConcurrentHashMap.newKeySet()).add(id));
+      tokensById.put(id, tokens);
+      postingsCount += suffixes.size();
+    }
+
+    void remove(String id) {
+      Set<String> tokens = tokensById.remove(id);
+      if (Objects.isNull(tokens)) {
+        return;
+      }
+      Set<String> suffixes = suffixes(tokens);
+      postingsCount -= suffixes.size();
+      suffixes.forEach(
+          suffix ->
+              postings.computeIfPresent(
+                  suffix,
+                  (ignore, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                  }));
+    }
+
+    private void clear() {
+      postings.clear();
+      tokensById.clear();
+      postingsCount = 0;
+      exceeded = false;
+    }
+
+    int size() {
+      return tokensById.size();
+    }
+
+    /**
+     * @return {@code true}, if a limit was exceeded, the index is empty until it is rebuilt
+     */
+    boolean isExceeded() {
+      return exceeded;
+    }
+
+    /**
+     * @param values the search terms
+     * @return the ids of all features that may match at least one of the search terms, or empty,
+     *     if the index cannot be used for the search terms
+     */
+    Optional<Set<String>> getCandidates(List<String> values) {
+      Set<String> candidates = new HashSet<>();
+      for (String value : values) {
+        if (LIKE_WILDCARDS.matcher(value).find()) {
+          // the value is used as a pattern in the LIKE predicate
+          return Optional.empty();
+        }
+
+        Set<String> matches = null;
+        for (String token : tokenize(value)) {
+          Optional<Set<String>> ids = lookup(token);
+          if (ids.isEmpty()) {
+            // too frequent to narrow down the result, skipping the token keeps a superset
+            continue;
+          }
+          if (Objects.isNull(matches)) {
+            matches = ids.get();
+          } else {
+            matches.retainAll(ids.get());
+          }
+        }
+
+        if (Objects.isNull(matches)) {
+          return Optional.empty();
+        }
+        candidates.addAll(matches);
+        if (candidates.size() > MAX_CANDIDATES) {
+          return Optional.empty();
+        }
+      }
+
+      return Optional.of(candidates);
+    }
+
+    /**
+     * @return the ids of all features with a token that contains the search token, or empty, if
+     *     there are too many
+     */
+    Optional<Set<String>> lookup(String searchToken) {
+      // a token contains the search token, if one of its suffixes starts with the search token
+      Set<String> ids = new HashSet<>();
+      for (Set<String> postingIds :
+          postings.subMap(searchToken, true, searchToken + Character.MAX_VALUE, false).values()) {
+        ids.addAll(postingIds);
+        if (ids.size() > MAX_CANDIDATES) {
+          return Optional.empty();
+        }
+      }
+      return Optional.of(ids);
+    }
+
+    private static Set<String> suffixes(Set<String> tokens) {
+      Set<String> suffixes = new HashSet<>();
+      for (String token : tokens) {
+        for (int i = 0; i < token.length(); i++) {
+          suffixes.add(token.substring(i));
+        }
+      }
+      return suffixes;
+    }
+  }
+}
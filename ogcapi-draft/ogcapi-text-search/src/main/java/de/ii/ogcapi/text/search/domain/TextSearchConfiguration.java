@@ -7,10 +7,13 @@
  */
 package de.ii.ogcapi.text.search.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
 import de.ii.xtraplatform.docs.JsonDynamicSubType;
 import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
 import org.immutables.value.Value;
 
 /**
@@ -39,6 +42,31 @@ public interface TextSearchConfiguration extends ExtensionConfiguration {
    */
   List<String> getProperties();
 
+  /**
+   * @langEn Enables an in-memory index of the words in the text search properties of a collection.
+   *     The index is built on startup by reading all features of the collection and is updated with
+   *     changes made through the API. It is used to restrict the query to the features that may
+   *     match the search terms. Search terms that contain `%`, `_` or `\\` and terms that match
+   *     too many features are evaluated without the index.
+   * @langDe Aktiviert einen In-Memory-Index der Wörter in den Properties für die Textsuche einer
+   *     Collection. Der Index wird beim Start durch das Lesen aller Features der Collection
+   *     aufgebaut und bei Änderungen über die API aktualisiert. Er wird verwendet, um die Abfrage
+   *     auf die Features einzuschränken, die zu den Suchbegriffen passen können. Suchbegriffe, die
+   *     `%`, `_` oder `\\` enthalten, und Suchbegriffe, die auf zu viele Features zutreffen,
+   *     werden ohne den Index ausgewertet.
+   * @default false
+   * @since v4.2
+   */
+  @Nullable
+  Boolean getIndex();
+
+  @JsonIgnore
+  @Value.Derived
+  @Value.Auxiliary
+  default boolean isIndexEnabled() {
+    return Objects.equals(getIndex(), true);
+  }
+
   abstract class Builder extends ExtensionConfiguration.Builder {}
 
   @Override
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.text.search.app
+
+import spock.lang.Specification
+
+class TextSearchIndexSpec extends Specification {
+
+    TextSearchIndex.CollectionIndex index
+
+    def setup() {
+        index = new TextSearchIndex.CollectionIndex("places", Set.of("name", "description"))
+        index.add("1", ["Bahnhofstraße", "Main station of the city"])
+        index.add("2", ["Hauptbahnhof", "Central station"])
+        index.add("3", ["Marktplatz", "Old town square"])
+    }
+
+    def 'values are split into lower case tokens'() {
+        expect:
+        TextSearchIndex.tokenize("Main-Station, 2nd Floor") == ["main", "station", "2nd", "floor"]
+        TextSearchIndex.tokenize("  ") == []
+    }
+
+    def 'the index is built from the values of all features'() {
+        expect:
+        index.size() == 3
+    }
+
+    def 'tokens are found by prefix, suffix and substring'() {
+        expect:
+        index.lookup(token) == Optional.of(ids as Set)
+
+        where:
+        token     | ids
+        "bahnhof" | ["1", "2"]
+        "haupt"   | ["2"]
+        "straße"  | ["1"]
+        "station" | ["1", "2"]
+        "arktpla" | ["3"]
+        "x"       | []
+        "zzz"     | []
+    }
+
+    def 'the candidates match any search term and all tokens of a search term'() {
+        expect:
+        index.getCandidates(values) == Optional.of(ids as Set)
+
+        where:
+        values                        | ids
+        ["bahnhof"]                   | ["1", "2"]
+        ["central station"]           | ["2"]
+        ["old town", "hauptbahnhof"]  | ["2", "3"]
+        ["station city"]              | ["1"]
+        ["unknown"]                   | []
+    }
+
+    def 'the index is not used for values with LIKE wildcards or without tokens'() {
+        expect:
+        index.getCandidates(values).isEmpty()
+
+        where:
+        values << [["bahn%"], ["bahn_hof"], ["---"]]
+    }
+
+    def 'updated features are indexed with their new values'() {
+        when:
+        index.add("3", ["Bahnhofsvorplatz"])
+
+        then:
+        index.size() == 3
+        index.lookup("bahnhof") == Optional.of(["1", "2", "3"] as Set)
+        index.lookup("markt") == Optional.of([] as Set)
+    }
+
+    def 'removed features are not candidates any more'() {
+        when:
+        index.remove("2")
+
+        then:
+        index.size() == 2
+        index.lookup("bahnhof") == Optional.of(["1"] as Set)
+        index.lookup("haupt") == Optional.of([] as Set)
+    }
+
+    def 'tokens that match too many features are not used'() {
+        given:
+        def large = new TextSearchIndex.CollectionIndex("places", Set.of("name"))
+        (0..10_000).each { large.add(String.valueOf(it), ["Street " + it]) }
+
+        expect:
+        large.lookup("street").isEmpty()
+        // the frequent token is skipped, the candidates are still a superset of the matches
+        large.getCandidates(["street 42"]) == Optional.of(
+                (0..10_000).collect { String.valueOf(it) }.findAll { it.contains("42") }.toSet())
+    }
+
+    def 'the index is dropped, if it exceeds the number of features'() {
+        given:
+        def limited = new TextSearchIndex.CollectionIndex("places", Set.of("name"), 2, 1_000)
+        limited.add("1", ["Bahnhofstraße"])
+        limited.add("2", ["Hauptbahnhof"])
+
+        when:
+        limited.add("3", ["Marktplatz"])
+        limited.add("4", ["Rathaus"])
+
+        then:
+        limited.isExceeded()
+        limited.size() == 0
+        limited.lookup("bahnhof") == Optional.of([] as Set)
+    }
+
+    def 'the index is dropped, if it exceeds the number of postings'() {
+        given:
+        // "abc" has the suffixes "abc", "bc" and "c"
+        def limited = new TextSearchIndex.CollectionIndex("places", Set.of("name"), 100, 5)
+        limited.add("1", ["abc"])
+
+        expect:
+        !limited.isExceeded()
+
+        when:
+        limited.add("2", ["abc"])
+
+        then:
+        limited.isExceeded()
+        limited.size() == 0
+    }
+
+    def 'updating a feature replaces its postings'() {
+        given:
+        def limited = new TextSearchIndex.CollectionIndex("places", Set.of("name"), 100, 5)
+        limited.add("1", ["abc"])
+
+        when:
+        limited.add("1", ["xyz"])
+        limited.add("1", ["abc"])
+
+        then:
+        !limited.isExceeded()
+        limited.lookup("bc") == Optional.of(["1"] as Set)
+    }
+}
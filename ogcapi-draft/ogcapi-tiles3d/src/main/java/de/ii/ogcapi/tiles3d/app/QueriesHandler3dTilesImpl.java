@@ -10,7 +10,6 @@ package de.ii.ogcapi.tiles3d.app;
 import com.github.azahnen.dagger.annotations.AutoBind;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.io.ByteStreams;
 import de.ii.ogcapi.features.core.domain.FeaturesCoreQueriesHandler;
 import de.ii.ogcapi.features.gltf.domain.ImmutableAssetMetadata;
 import de.ii.ogcapi.foundation.domain.ApiMetadata;
@@ -35,6 +34,7 @@ import de.ii.ogcapi.tiles3d.domain.ImmutableTile;
 import de.ii.ogcapi.tiles3d.domain.ImmutableTileset;
 import de.ii.ogcapi.tiles3d.domain.QueriesHandler3dTiles;
 import de.ii.ogcapi.tiles3d.domain.Subtree;
+import de.ii.ogcapi.tiles3d.domain.TileResource;
 import de.ii.ogcapi.tiles3d.domain.TileResourceCache;
 import de.ii.ogcapi.tiles3d.domain.TileResourceDescriptor;
 import de.ii.ogcapi.tiles3d.domain.Tiles3dConfiguration;
@@ -43,9 +43,7 @@ import de.ii.xtraplatform.base.domain.ETag;
 import de.ii.xtraplatform.base.domain.resiliency.AbstractVolatileComposed;
 import de.ii.xtraplatform.base.domain.resiliency.VolatileRegistry;
 import de.ii.xtraplatform.crs.domain.BoundingBox;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.Date;
 import java.util.List;
@@ -240,7 +238,7 @@ public class QueriesHandler3dTilesImpl extends AbstractVolatileComposed
       QueryInputContent queryInput, ApiRequestContext requestContext) {
 
     Date lastModified = getLastModified(queryInput);
-    EntityTag etag = ETag.from(queryInput.getContent());
+    EntityTag etag = queryInput.getETag().orElseGet(() -> ETag.from(queryInput.getContent()));
     Response.ResponseBuilder response = evaluatePreconditions(requestContext, lastModified, etag);
     if (Objects.nonNull(response)) {
       return response.build();
@@ -285,23 +283,20 @@ public class QueriesHandler3dTilesImpl extends AbstractVolatileComposed
 
     TileResourceDescriptor r = TileResourceDescriptor.subtreeOf(api, collectionId, level, x, y);
 
-    byte[] result = getSubtreeContent(r);
-
-    if (Objects.isNull(result)) {
-      result = Subtree.getBinary(Subtree.of(queriesHandlerFeatures, queryInput, r));
-
-      try {
-        tileResourceCache.storeTileResource(r, result);
-      } catch (IOException e) {
-        throw new IllegalStateException(e);
-      }
+    TileResource subtree;
+    try {
+      subtree =
+          tileResourceCache.getOrGenerate(
+              r, () -> Subtree.getBinary(Subtree.of(queriesHandlerFeatures, queryInput, r)));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
     }
 
     Format3dTilesSubtree outputFormat = getFormat3dTilesSubtree(queryInput, requestContext);
 
     Date lastModified = getLastModified(queryInput);
     EntityTag etag =
-        shouldProvideEntityTag(apiData, collectionId, outputFormat) ? ETag.from(result) : null;
+        shouldProvideEntityTag(apiData, collectionId, outputFormat) ? subtree.getETag() : null;
     Response.ResponseBuilder response = evaluatePreconditions(requestContext, lastModified, etag);
     if (Objects.nonNull(response)) {
       return response.build();
@@ -316,30 +311,10 @@ public class QueriesHandler3dTilesImpl extends AbstractVolatileComposed
                 String.format(
                     "%s.subtree_%d_%d_%d.%s",
                     collectionId, level, x, y, outputFormat.getMediaType().fileExtension())))
-        .entity(outputFormat.getEntity(result))
+        .entity(outputFormat.getEntity(subtree.getContent()))
         .build();
   }
 
-  private byte[] getSubtreeContent(TileResourceDescriptor r) {
-    byte[] result = null;
-
-    try {
-      if (tileResourceCache.tileResourceExists(r)) {
-        Optional<InputStream> subtreeContent = tileResourceCache.getTileResource(r);
-        if (subtreeContent.isPresent()) {
-          try (InputStream is = subtreeContent.get()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ByteStreams.copy(is, baos);
-            result = baos.toByteArray();
-          }
-        }
-      }
-    } catch (IOException e) {
-      throw new IllegalStateException(e);
-    }
-    return result;
-  }
-
   private boolean shouldProvideEntityTag(
       OgcApiDataV2 apiData, String collectionId, FormatExtension outputFormat) {
     return !outputFormat.getMediaType().type().equals(MediaType.TEXT_HTML_TYPE)
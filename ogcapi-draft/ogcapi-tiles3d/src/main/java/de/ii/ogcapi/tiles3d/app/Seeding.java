@@ -38,8 +38,10 @@ import de.ii.xtraplatform.tiles.domain.SeedingOptions;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
@@ -291,15 +293,22 @@ public class Seeding implements OgcApiBackgroundTask {
           final int subtreeLevels = Objects.requireNonNull(cfg.getSubtreeLevels());
           final int maxLevel = Objects.requireNonNull(cfg.getMaxLevel());
 
+          // the resources of the subtree are stored at once, with a packed cache this writes the
+          // archive of the subtree only once
+          final Map<TileResourceDescriptor, byte[]> resources = new LinkedHashMap<>();
+
           final Subtree subtree =
               subtreeBytes.length > 0
                   ? Subtree.of(subtreeBytes)
-                  : computeAndCacheSubtree(subtreeDescriptor, cfg);
+                  : computeAndCacheSubtree(subtreeDescriptor, cfg, resources);
 
           if (level > 0 || !taskContext.isPartial() || taskContext.isFirstPartial()) {
-            processContentAvailability(taskContext, subtreeDescriptor, subtree, subtreeLevels);
+            processContentAvailability(
+                taskContext, subtreeDescriptor, subtree, subtreeLevels, resources);
           }
 
+          storeResources(subtreeDescriptor, resources);
+
           SubtreeWalkerResponse result =
               processChildSubtreeAvailability(
                   taskContext, subtreeDescriptor, subtree, subtreeLevels, maxLevel);
@@ -369,7 +378,9 @@ public class Seeding implements OgcApiBackgroundTask {
   }
 
   private Subtree computeAndCacheSubtree(
-      TileResourceDescriptor descriptor, Tiles3dConfiguration cfg) {
+      TileResourceDescriptor descriptor,
+      Tiles3dConfiguration cfg,
+      Map<TileResourceDescriptor, byte[]> resources) {
     final QueryInputSubtree queryInput =
         ImmutableQueryInputSubtree.builder()
             .api(descriptor.getApi())
@@ -410,7 +421,12 @@ public class Seeding implements OgcApiBackgroundTask {
             .build();
 
     Subtree subtree = Subtree.of(queryHandlerFeatures, queryInput, descriptor);
-    storeSubtree(descriptor, Subtree.getBinary(subtree));
+    if (descriptor.getLevel() == 0) {
+      // the other partials wait for the root subtree, so it is stored right away
+      storeSubtree(descriptor, Subtree.getBinary(subtree));
+    } else {
+      resources.put(descriptor, Subtree.getBinary(subtree));
+    }
 
     return subtree;
   }
@@ -435,6 +451,27 @@ public class Seeding implements OgcApiBackgroundTask {
     }
   }
 
+  private void storeResources(
+      TileResourceDescriptor subtree, Map<TileResourceDescriptor, byte[]> resources) {
+    if (resources.isEmpty()) {
+      return;
+    }
+
+    try {
+      tileResourcesCache.storeTileResources(resources);
+    } catch (IOException e) {
+      LogContext.errorAsWarn(
+          LOGGER,
+          e,
+          "{}: writing resources of subtree failed -> {}, {}/{}/{}",
+          getLabel(),
+          subtree.getCollectionId(),
+          subtree.getLevel(),
+          subtree.getX(),
+          subtree.getY());
+    }
+  }
+
   private SubtreeWalkerResponse processChildSubtreeAvailability(
       TaskContext taskContext,
       TileResourceDescriptor subtreeDescriptor,
@@ -509,7 +546,8 @@ public class Seeding implements OgcApiBackgroundTask {
       TaskContext taskContext,
       TileResourceDescriptor subtreeDescriptor,
       Subtree subtree,
-      int subtreeLevels) {
+      int subtreeLevels,
+      Map<TileResourceDescriptor, byte[]> resources) {
     final Availability contentAvailability = subtree.getContentAvailability().get(0);
 
     final byte[] buffer =
@@ -534,7 +572,7 @@ public class Seeding implements OgcApiBackgroundTask {
                     subtreeDescriptor.getLevel() + il,
                     xl + (int) coord.x,
                     yl + (int) coord.y);
-            processContent(contentDescriptor, taskContext);
+            processContent(contentDescriptor, taskContext, resources);
           }
         }
         xl *= 2;
@@ -597,7 +635,10 @@ public class Seeding implements OgcApiBackgroundTask {
     return new byte[0];
   }
 
-  private void processContent(TileResourceDescriptor content, TaskContext taskContext) {
+  private void processContent(
+      TileResourceDescriptor content,
+      TaskContext taskContext,
+      Map<TileResourceDescriptor, byte[]> resources) {
     try {
       if (!tileResourcesCache.tileResourceExists(content)) {
         OgcApiDataV2 apiData = content.getApiData();
@@ -640,12 +681,7 @@ public class Seeding implements OgcApiBackgroundTask {
                 Optional.empty());
 
         if (Objects.nonNull(response.getEntity())) {
-          try {
-            tileResourcesCache.storeTileResource(content, (byte[]) response.getEntity());
-          } catch (IOException e) {
-            LogContext.error(
-                LOGGER, e, "Could not write feature response to resource '{}'", tileResourcesCache);
-          }
+          resources.put(content, (byte[]) response.getEntity());
         }
       }
     } catch (Exception e) {
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.tiles3d.app;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Reads and writes archives with the resources of a subtree, i.e. the subtree itself and the
+ * content of the tiles in the subtree. All numbers are big endian.
+ *
+ * <pre>
+ * magic    4 bytes "3DTA"
+ * version  int
+ * count    int
+ * index    count times: name length (unsigned short), name (UTF-8), offset (long), length (int)
+ * data     the resources, the offsets are relative to the start of the archive
+ * </pre>
+ *
+ * <p>Archives are never modified in place, a change always writes a new archive. The index is
+ * small, so reads just scan it and then access the resource directly.
+ */
+final class TileResourceArchive {
+
+  static final String EXTENSION = "3dta";
+
+  private static final int MAGIC = 0x33445441;
+  private static final int VERSION = 1;
+
+  private TileResourceArchive() {}
+
+  /**
+   * @param archive the archive
+   * @param name the name of the resource
+   * @return {@code true}, if the resource is included in the archive
+   * @throws IOException the archive is invalid
+   */
+  static boolean contains(ByteBuffer archive, String name) throws IOException {
+    return find(archive, name) >= 0;
+  }
+
+  /**
+   * @param archive the archive
+   * @param name the name of the resource
+   * @return the content of the resource, if it is included in the archive
+   * @throws IOException the archive is invalid
+   */
+  static Optional<byte[]> read(ByteBuffer archive, String name) throws IOException {
+    int position = find(archive, name);
+    if (position < 0) {
+      return Optional.empty();
+    }
+
+    ByteBuffer buffer = archive.duplicate();
+    buffer.position(position);
+    long offset = buffer.getLong();
+    byte[] content = new byte[buffer.getInt()];
+    buffer.position(Math.toIntExact(offset));
+    buffer.get(content);
+    return Optional.of(content);
+  }
+
+  /**
+   * @param archive the archive
+   * @return all resources in the archive
+   * @throws IOException the archive is invalid
+   */
+  static SortedMap<String, byte[]> readAll(ByteBuffer archive) throws IOException {
+    ByteBuffer buffer = archive.duplicate();
+    int count = readHeader(buffer);
+    SortedMap<String, byte[]> entries = new TreeMap<>();
+
+    for (int i = 0; i < count; i++) {
+      byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+      buffer.get(name);
+      long offset = buffer.getLong();
+      byte[] content = new byte[buffer.getInt()];
+      ByteBuffer data = archive.duplicate();
+      data.position(Math.toIntExact(offset));
+      data.get(content);
+      entries.put(new String(name, StandardCharsets.UTF_8), content);
+    }
+
+    return entries;
+  }
+
+  /**
+   * @param entries the resources by name
+   * @return the archive
+   * @throws IOException the archive could not be written
+   */
+  static byte[] write(Map<String, byte[]> entries) throws IOException {
+    SortedMap<String, byte[]> sorted = new TreeMap<>(entries);
+    Map<String, byte[]> names = new TreeMap<>();
+    long indexSize = 0;
+    long dataSize = 0;
+    for (Map.Entry<String, byte[]> entry : sorted.entrySet()) {
+      byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      names.put(entry.getKey(), name);
+      indexSize += 2 + name.length + 8 + 4;
+      dataSize += entry.getValue().length;
+    }
+
+    long headerSize = 12 + indexSize;
+    ByteArrayOutputStream archive =
+        new ByteArrayOutputStream(Math.toIntExact(headerSize + dataSize));
+    try (DataOutputStream out = new DataOutputStream(archive)) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(sorted.size());
+
+      long offset = headerSize;
+      for (Map.Entry<String, byte[]> entry : sorted.entrySet()) {
+        byte[] name = names.get(entry.getKey());
+        out.writeShort(name.length);
+        out.write(name);
+        out.writeLong(offset);
+        out.writeInt(entry.getValue().length);
+        offset += entry.getValue().length;
+      }
+
+      for (byte[] content : sorted.values()) {
+        out.write(content);
+      }
+    }
+
+    return archive.toByteArray();
+  }
+
+  private static int readHeader(ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+      throw new IOException("Invalid tile resource archive.");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IOException(
+          String.format("Unsupported version of tile resource archive: %d.", version));
+    }
+    return buffer.getInt();
+  }
+
+  // returns the position of the offset of the resource in the index or -1
+  private static int find(ByteBuffer archive, String name) throws IOException {
+    ByteBuffer buffer = archive.duplicate();
+    int count = readHeader(buffer);
+    byte[] expected = name.getBytes(StandardCharsets.UTF_8);
+
+    for (int i = 0; i < count; i++) {
+      int nameLength = Short.toUnsignedInt(buffer.getShort());
+      boolean matches = nameLength == expected.length && matches(buffer, expected);
+      buffer.position(buffer.position() + nameLength);
+      if (matches) {
+        return buffer.position();
+      }
+      buffer.position(buffer.position() + 8 + 4);
+    }
+
+    return -1;
+  }
+
+  private static boolean matches(ByteBuffer buffer, byte[] expected) {
+    int start = buffer.position();
+    for (int i = 0; i < expected.length; i++) {
+      if (buffer.get(start + i) != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -7,39 +7,84 @@
  */
 package de.ii.ogcapi.tiles3d.app;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.Timer;
 import com.github.azahnen.dagger.annotations.AutoBind;
+import com.google.common.util.concurrent.Striped;
+import de.ii.ogcapi.foundation.domain.BoundedCache;
 import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.ogcapi.tiles3d.domain.TileResource;
 import de.ii.ogcapi.tiles3d.domain.TileResourceCache;
 import de.ii.ogcapi.tiles3d.domain.TileResourceDescriptor;
+import de.ii.ogcapi.tiles3d.domain.Tiles3dConfiguration;
+import de.ii.xtraplatform.base.domain.AppConfiguration;
 import de.ii.xtraplatform.base.domain.AppLifeCycle;
+import de.ii.xtraplatform.base.domain.LogContext;
 import de.ii.xtraplatform.base.domain.resiliency.AbstractVolatile;
 import de.ii.xtraplatform.base.domain.resiliency.VolatileRegistry;
 import de.ii.xtraplatform.blobs.domain.ResourceStore;
+import de.ii.xtraplatform.web.domain.DropwizardPlugin;
+import io.dropwizard.core.setup.Environment;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-/** Access to the cache for tile files. */
+/**
+ * Access to the cache for tile files. Recently used resources are also kept in memory and a
+ * resource that is not cached is generated only once, even if it is requested concurrently, e.g.
+ * when a client opens a new area.
+ */
 @Singleton
 @AutoBind
 public class TileResourceCacheImpl extends AbstractVolatile
-    implements TileResourceCache, AppLifeCycle {
+    implements TileResourceCache, AppLifeCycle, DropwizardPlugin {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TileResourceCacheImpl.class);
+
+  private static final long MAX_MEMORY_SIZE = 64L * 1_024 * 1_024;
+  private static final int MAX_MEMORY_ENTRY_SIZE = 4 * 1_024 * 1_024;
 
   private final ResourceStore cacheStore;
   private final VolatileRegistry volatileRegistry;
+  private final BoundedCache<Path, TileResource> memory;
+  private final Striped<ReadWriteLock> archiveLocks;
+  private final Timer generation;
 
   @Inject
   public TileResourceCacheImpl(ResourceStore blobStore, VolatileRegistry volatileRegistry) {
     super(volatileRegistry, true);
     this.cacheStore = blobStore.with(Tiles3dBuildingBlock.STORE_RESOURCE_TYPE);
     this.volatileRegistry = volatileRegistry;
+    this.memory =
+        BoundedCache.<Path, TileResource>builder()
+            .maxWeight(
+                resource -> resource.getContent().length, MAX_MEMORY_SIZE, MAX_MEMORY_ENTRY_SIZE)
+            .build();
+    this.archiveLocks = Striped.readWriteLock(64);
+    this.generation = new Timer();
   }
 
   @Override
@@ -49,25 +94,106 @@ public class TileResourceCacheImpl extends AbstractVolatile
     return volatileRegistry.onAvailable(cacheStore).thenRun(() -> setState(State.AVAILABLE));
   }
 
+  @Override
+  public void init(AppConfiguration configuration, Environment environment) {
+    MetricRegistry metrics = environment.metrics();
+    memory.registerMetrics(metrics, TileResourceCacheImpl.class);
+    metrics.register(
+        MetricRegistry.name(TileResourceCacheImpl.class, "hit-ratio"),
+        new RatioGauge() {
+          @Override
+          protected Ratio getRatio() {
+            long hits = memory.getHits().getCount();
+            return Ratio.of(hits, hits + memory.getMisses().getCount());
+          }
+        });
+    metrics.register(MetricRegistry.name(TileResourceCacheImpl.class, "generation"), generation);
+  }
+
   @Override
   public boolean tileResourceExists(TileResourceDescriptor r) throws IOException {
+    if (isPacked(r)) {
+      Path archivePath = getArchivePath(r);
+      Lock lock = archiveLocks.get(archivePath).readLock();
+      lock.lock();
+      try {
+        Optional<ByteBuffer> archive = readArchive(archivePath);
+        return archive.isPresent() && TileResourceArchive.contains(archive.get(), getName(r));
+      } finally {
+        lock.unlock();
+      }
+    }
+
     return cacheStore.has(getPath(r));
   }
 
   @Override
   public Optional<InputStream> getTileResource(TileResourceDescriptor r) throws IOException {
+    if (isPacked(r)) {
+      return readPacked(r).map(ByteArrayInputStream::new);
+    }
+
     return cacheStore.content(getPath(r));
   }
 
+  @Override
+  public TileResource getOrGenerate(TileResourceDescriptor r, Generator generator)
+      throws IOException {
+    Path path = getPath(r);
+
+    // a resource that is invalidated while it is generated is not kept in memory
+    try {
+      return memory.get(
+          path,
+          ignore -> {
+            try {
+              return load(r, generator);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
   @Override
   public void deleteTileResource(TileResourceDescriptor r) throws IOException {
-    cacheStore.delete(getPath(r));
+    Path path = getPath(r);
+    memory.invalidate(path);
+
+    if (isPacked(r)) {
+      Path archivePath = getArchivePath(r);
+      Lock lock = archiveLocks.get(archivePath).writeLock();
+      lock.lock();
+      try {
+        Optional<ByteBuffer> archive = readArchive(archivePath);
+        if (archive.isPresent()) {
+          SortedMap<String, byte[]> entries = TileResourceArchive.readAll(archive.get());
+          if (Objects.nonNull(entries.remove(getName(r)))) {
+            if (entries.isEmpty()) {
+              cacheStore.delete(archivePath);
+            } else {
+              cacheStore.put(
+                  archivePath, new ByteArrayInputStream(TileResourceArchive.write(entries)));
+            }
+          }
+        }
+      } finally {
+        lock.unlock();
+      }
+      return;
+    }
+
+    cacheStore.delete(path);
   }
 
   @Override
   public void deleteTileResources(OgcApi api) throws IOException {
     Path parent = Path.of(api.getId());
 
+    memory.invalidateIf(path -> path.startsWith(parent));
+
     try (Stream<Path> paths = cacheStore.walk(parent, 16, (p, a) -> true)) {
       paths
           .sorted(Comparator.reverseOrder())
@@ -85,7 +211,164 @@ public class TileResourceCacheImpl extends AbstractVolatile
 
   @Override
   public void storeTileResource(TileResourceDescriptor r, byte[] content) throws IOException {
-    cacheStore.put(getPath(r), new ByteArrayInputStream(content));
+    memory.invalidate(getPath(r));
+    write(r, content);
+  }
+
+  @Override
+  public void storeTileResources(Map<TileResourceDescriptor, byte[]> resources)
+      throws IOException {
+    Map<Path, Map<String, byte[]>> archives = new LinkedHashMap<>();
+    for (Map.Entry<TileResourceDescriptor, byte[]> resource : resources.entrySet()) {
+      TileResourceDescriptor r = resource.getKey();
+      memory.invalidate(getPath(r));
+
+      if (isPacked(r)) {
+        archives
+            .computeIfAbsent(getArchivePath(r), archivePath -> new TreeMap<>())
+            .put(getName(r), resource.getValue());
+      } else {
+        cacheStore.put(getPath(r), new ByteArrayInputStream(resource.getValue()));
+      }
+    }
+
+    for (Map.Entry<Path, Map<String, byte[]>> archive : archives.entrySet()) {
+      writeArchive(archive.getKey(), archive.getValue());
+    }
+  }
+
+  private TileResource load(TileResourceDescriptor r, Generator generator) throws IOException {
+    Optional<byte[]> stored = read(r);
+    if (stored.isPresent()) {
+      return new TileResource(stored.get());
+    }
+
+    byte[] content;
+    try (Timer.Context ignore = generation.time()) {
+      content = generator.generate();
+    }
+
+    try {
+      write(r, content);
+    } catch (IOException e) {
+      LogContext.error(LOGGER, e, "Could not write tile resource '{}'", r);
+    }
+
+    return new TileResource(content);
+  }
+
+  private Optional<byte[]> read(TileResourceDescriptor r) throws IOException {
+    if (isPacked(r)) {
+      return readPacked(r);
+    }
+
+    Path path = getPath(r);
+    Optional<InputStream> stored =
+        cacheStore.has(path) ? cacheStore.content(path) : Optional.empty();
+    if (stored.isEmpty()) {
+      return Optional.empty();
+    }
+    try (InputStream is = stored.get()) {
+      return Optional.of(is.readAllBytes());
+    }
+  }
+
+  private void write(TileResourceDescriptor r, byte[] content) throws IOException {
+    if (!isPacked(r)) {
+      cacheStore.put(getPath(r), new ByteArrayInputStream(content));
+      return;
+    }
+
+    writeArchive(getArchivePath(r), Map.of(getName(r), content));
+  }
+
+  // the archive is always replaced as a whole, so a tile that is generated on demand rewrites the
+  // archive of its subtree; the seeding stores all resources of a subtree at once
+  private void writeArchive(Path archivePath, Map<String, byte[]> resources) throws IOException {
+    Lock lock = archiveLocks.get(archivePath).writeLock();
+    lock.lock();
+    try {
+      Optional<ByteBuffer> archive = readArchive(archivePath);
+      SortedMap<String, byte[]> entries =
+          archive.isPresent() ? TileResourceArchive.readAll(archive.get()) : new TreeMap<>();
+      entries.putAll(resources);
+      cacheStore.put(archivePath, new ByteArrayInputStream(TileResourceArchive.write(entries)));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Optional<byte[]> readPacked(TileResourceDescriptor r) throws IOException {
+    Path archivePath = getArchivePath(r);
+    Lock lock = archiveLocks.get(archivePath).readLock();
+    lock.lock();
+    try {
+      Optional<ByteBuffer> archive = readArchive(archivePath);
+      return archive.isPresent()
+          ? TileResourceArchive.read(archive.get(), getName(r))
+          : Optional.empty();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Optional<ByteBuffer> readArchive(Path archivePath) throws IOException {
+    if (!cacheStore.has(archivePath)) {
+      return Optional.empty();
+    }
+
+    // local archives are mapped, only the requested resource is read
+    Optional<Path> localPath = cacheStore.asLocalPath(archivePath, false);
+    if (localPath.isPresent()) {
+      try (FileChannel channel = FileChannel.open(localPath.get(), StandardOpenOption.READ)) {
+        return Optional.of(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+      } catch (NoSuchFileException e) {
+        return Optional.empty();
+      }
+    }
+
+    Optional<InputStream> content = cacheStore.content(archivePath);
+    if (content.isEmpty()) {
+      return Optional.empty();
+    }
+    try (InputStream is = content.get()) {
+      return Optional.of(ByteBuffer.wrap(is.readAllBytes()));
+    }
+  }
+
+  private boolean isPacked(TileResourceDescriptor r) {
+    return getConfiguration(r).map(Tiles3dConfiguration::isPackedCacheEnabled).orElse(false);
+  }
+
+  private Optional<Tiles3dConfiguration> getConfiguration(TileResourceDescriptor r) {
+    return r.getApiData()
+        .getCollectionData(r.getCollectionId())
+        .flatMap(collection -> collection.getExtension(Tiles3dConfiguration.class));
+  }
+
+  /**
+   * PACKED cache: determine the file path of the archive of the subtree that includes a tile
+   * resource
+   *
+   * @param r the tile
+   * @return the file path
+   */
+  private Path getArchivePath(TileResourceDescriptor r) {
+    int subtreeLevels =
+        Math.max(1, getConfiguration(r).map(Tiles3dConfiguration::getSubtreeLevels).orElse(3));
+    int level = r.getLevel() - r.getLevel() % subtreeLevels;
+    int shift = r.getLevel() - level;
+
+    return Path.of(r.getApiData().getId())
+        .resolve(r.getCollectionId())
+        .resolve(
+            String.format(
+                "%d_%d_%d.%s",
+                level, r.getX() >> shift, r.getY() >> shift, TileResourceArchive.EXTENSION));
+  }
+
+  private String getName(TileResourceDescriptor r) {
+    return r.getRelativePath().toString();
   }
 
   /**
@@ -85,6 +85,7 @@ public class Tiles3dBuildingBlock implements ApiBuildingBlock {
         .subtreeLevels(3)
         .geometricErrorRoot(0.0f)
         .clampToEllipsoid(false)
+        .packedCache(false)
         .build();
   }
 }
@@ -16,6 +16,8 @@ import de.ii.xtraplatform.cql.domain.Cql2Expression;
 import de.ii.xtraplatform.features.domain.FeatureProvider;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import javax.ws.rs.core.EntityTag;
 import org.immutables.value.Value;
 
 public interface QueriesHandler3dTiles
@@ -47,6 +49,8 @@ public interface QueriesHandler3dTiles
     int getY();
 
     byte[] getContent();
+
+    Optional<EntityTag> getETag();
   }
 
   @Value.Immutable
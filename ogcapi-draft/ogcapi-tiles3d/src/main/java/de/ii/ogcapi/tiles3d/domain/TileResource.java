@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.tiles3d.domain;
+
+import de.ii.xtraplatform.base.domain.ETag;
+import javax.ws.rs.core.EntityTag;
+
+/** The content of a tile resource together with its entity tag. */
+public final class TileResource {
+
+  private final byte[] content;
+  private final EntityTag eTag;
+
+  public TileResource(byte[] content) {
+    this.content = content;
+    this.eTag = ETag.from(content);
+  }
+
+  /**
+   * @return the content of the tile resource, the array must not be modified
+   */
+  @SuppressWarnings("PMD.MethodReturnsInternalArray")
+  public byte[] getContent() {
+    return content;
+  }
+
+  /**
+   * @return the strong entity tag of the content
+   */
+  public EntityTag getETag() {
+    return eTag;
+  }
+}
@@ -12,6 +12,7 @@ import de.ii.ogcapi.foundation.domain.OgcApi;
 import de.ii.xtraplatform.base.domain.resiliency.Volatile2;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
 import java.util.Optional;
 
 // TODO upgrade to the new cache logic used by TILES
@@ -37,6 +38,17 @@ public interface TileResourceCache extends ApiExtension, Volatile2 {
    */
   Optional<InputStream> getTileResource(TileResourceDescriptor r) throws IOException;
 
+  /**
+   * fetch a tile resource from the cache or generate and store it, if it is not cached; concurrent
+   * requests for the same resource wait for a single generation
+   *
+   * @param r the tile resource
+   * @param generator generates the content, if the resource is not cached
+   * @return the tile resource
+   * @throws IOException an error occurred while accessing files
+   */
+  TileResource getOrGenerate(TileResourceDescriptor r, Generator generator) throws IOException;
+
   /**
    * store a tile resource in the cache
    *
@@ -46,6 +58,15 @@ public interface TileResourceCache extends ApiExtension, Volatile2 {
    */
   void storeTileResource(TileResourceDescriptor r, byte[] content) throws IOException;
 
+  /**
+   * store tile resources in the cache; with a packed cache, the resources of the same subtree are
+   * written to the archive of the subtree at once
+   *
+   * @param resources the byte arrays of the file contents by tile resource
+   * @throws IOException an error occurred while accessing files
+   */
+  void storeTileResources(Map<TileResourceDescriptor, byte[]> resources) throws IOException;
+
   /**
    * delete a tile from the cache
    *
@@ -61,4 +82,10 @@ public interface TileResourceCache extends ApiExtension, Volatile2 {
    * @throws IOException an error occurred while accessing files
    */
   void deleteTileResources(OgcApi api) throws IOException;
+
+  /** Generates the content of a tile resource that is not cached. */
+  @FunctionalInterface
+  interface Generator {
+    byte[] generate() throws IOException;
+  }
 }
@@ -172,6 +172,28 @@ public interface Tiles3dConfiguration extends ExtensionConfiguration {
    */
   Optional<SeedingOptions> getSeeding();
 
+  /**
+   * @langEn If set to `true`, the cached resources of a subtree, i.e. the subtree and the content
+   *     of its tiles, are stored in a single archive file instead of one file per resource. This
+   *     reduces the number of files in the cache substantially for large datasets. An archive is
+   *     always replaced as a whole.
+   * @langDe Bei der Einstellung `true` werden die zwischengespeicherten Ressourcen eines Subtrees,
+   *     d.h. der Subtree und die Inhalte seiner Kacheln, in einer einzigen Archivdatei statt in
+   *     einer Datei pro Ressource gespeichert. Das reduziert die Anzahl der Dateien im Cache bei
+   *     großen Datensätzen erheblich. Ein Archiv wird immer als Ganzes ersetzt.
+   * @default false
+   * @since v4.2
+   */
+  @Nullable
+  Boolean getPackedCache();
+
+  @JsonIgnore
+  @Value.Derived
+  @Value.Auxiliary
+  default boolean isPackedCacheEnabled() {
+    return Boolean.TRUE.equals(getPackedCache());
+  }
+
   /**
    * @langEn If set to `true`, each building will be translated vertically so that the bottom of the
    *     building is on the WGS 84 ellipsoid. Use this option, if the data is intended to be
@@ -11,7 +11,6 @@ import static de.ii.ogcapi.tilematrixsets.domain.TileMatrixSetsQueriesHandler.GR
 
 import com.github.azahnen.dagger.annotations.AutoBind;
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.ByteStreams;
 import de.ii.ogcapi.collections.domain.EndpointSubCollection;
 import de.ii.ogcapi.collections.domain.ImmutableOgcApiResourceData;
 import de.ii.ogcapi.features.core.domain.FeaturesCoreProviders;
@@ -37,17 +36,15 @@ import de.ii.ogcapi.tiles3d.domain.ImmutableQueryInputContent;
 import de.ii.ogcapi.tiles3d.domain.QueriesHandler3dTiles;
 import de.ii.ogcapi.tiles3d.domain.QueriesHandler3dTiles.Query;
 import de.ii.ogcapi.tiles3d.domain.QueriesHandler3dTiles.QueryInputContent;
+import de.ii.ogcapi.tiles3d.domain.TileResource;
 import de.ii.ogcapi.tiles3d.domain.TileResourceCache;
 import de.ii.ogcapi.tiles3d.domain.TileResourceDescriptor;
 import de.ii.ogcapi.tiles3d.domain.Tiles3dConfiguration;
 import de.ii.xtraplatform.auth.domain.User;
-import de.ii.xtraplatform.base.domain.LogContext;
 import de.ii.xtraplatform.base.domain.resiliency.Volatile2;
 import de.ii.xtraplatform.cql.domain.Cql;
 import io.dropwizard.auth.Auth;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +57,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -187,8 +185,7 @@ public class Endpoint3dTilesContent extends EndpointSubCollection implements Api
       @PathParam("collectionId") String collectionId,
       @PathParam("level") String level,
       @PathParam("x") String x,
-      @PathParam("y") String y)
-      throws URISyntaxException {
+      @PathParam("y") String y) {
 
     Tiles3dConfiguration cfg =
         api.getData()
@@ -213,10 +210,13 @@ public class Endpoint3dTilesContent extends EndpointSubCollection implements Api
 
     TileResourceDescriptor r = TileResourceDescriptor.contentOf(api, collectionId, cl, cx, cy);
 
-    byte[] content = fromCache(r);
-
-    if (Objects.isNull(content)) {
-      return computeAndCache(requestContext, api, collectionId, cfg, r);
+    TileResource content;
+    try {
+      content =
+          tileResourceCache.getOrGenerate(
+              r, () -> generate(requestContext, api, collectionId, cfg, r));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
     }
 
     QueryInputContent queryInput =
@@ -226,64 +226,46 @@ public class Endpoint3dTilesContent extends EndpointSubCollection implements Api
             .level(cl)
             .x(cx)
             .y(cy)
-            .content(content)
+            .content(content.getContent())
+            .eTag(content.getETag())
             .build();
 
     return queryHandler.handle(Query.CONTENT, queryInput, requestContext);
   }
 
-  private byte[] fromCache(TileResourceDescriptor r) {
-    byte[] content = null;
-
-    try {
-      if (tileResourceCache.tileResourceExists(r)) {
-        Optional<InputStream> contentStream = tileResourceCache.getTileResource(r);
-        if (contentStream.isPresent()) {
-          try (InputStream is = contentStream.get()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ByteStreams.copy(is, baos);
-            content = baos.toByteArray();
-          }
-        }
-      }
-    } catch (IOException e) {
-      throw new IllegalStateException(e);
-    }
-    return content;
-  }
-
-  private Response computeAndCache(
+  private byte[] generate(
       ApiRequestContext requestContext,
       OgcApi api,
       String collectionId,
       Tiles3dConfiguration cfg,
-      TileResourceDescriptor r)
-      throws URISyntaxException {
+      TileResourceDescriptor r) {
     OgcApiDataV2 apiData = api.getData();
-    Response response =
-        Tiles3dContentUtil.getContent(
-            extensionRegistry,
-            api,
-            collectionId,
-            providers.getFeatureProviderOrThrow(
-                apiData, apiData.getCollectionData(collectionId).orElseThrow()),
-            queriesHandlerFeatures,
-            cql,
-            cfg,
-            r,
-            r.getQuery(providers),
-            requestContext.getUriCustomizer(),
-            Optional.of(getGenericQueryInput(apiData)));
+    Response response;
+    try {
+      response =
+          Tiles3dContentUtil.getContent(
+              extensionRegistry,
+              api,
+              collectionId,
+              providers.getFeatureProviderOrThrow(
+                  apiData, apiData.getCollectionData(collectionId).orElseThrow()),
+              queriesHandlerFeatures,
+              cql,
+              cfg,
+              r,
+              r.getQuery(providers),
+              requestContext.getUriCustomizer(),
+              Optional.of(getGenericQueryInput(apiData)));
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
 
-    if (Objects.nonNull(response.getEntity())) {
-      try {
-        tileResourceCache.storeTileResource(r, (byte[]) response.getEntity());
-      } catch (IOException e) {
-        LogContext.error(LOGGER, e, "Could not write feature response to resource '{}'", r);
-      }
+    if (response.getEntity() instanceof byte[]) {
+      return (byte[]) response.getEntity();
     }
 
-    return response;
+    // the response cannot be cached, it is returned to all waiting requests
+    throw new WebApplicationException(response);
   }
 
   @Override
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.tiles3d.app
+
+import de.ii.ogcapi.foundation.domain.ImmutableFeatureTypeConfigurationOgcApi
+import de.ii.ogcapi.foundation.domain.ImmutableOgcApiDataV2
+import de.ii.ogcapi.foundation.domain.OgcApi
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2
+import de.ii.ogcapi.tiles3d.domain.ImmutableTiles3dConfiguration
+import de.ii.ogcapi.tiles3d.domain.TileResourceCache
+import de.ii.ogcapi.tiles3d.domain.TileResourceDescriptor
+import de.ii.xtraplatform.base.domain.resiliency.VolatileRegistry
+import de.ii.xtraplatform.blobs.domain.ResourceStore
+import de.ii.xtraplatform.crs.domain.BoundingBox
+import de.ii.xtraplatform.crs.domain.OgcCrs
+import spock.lang.Specification
+
+import java.nio.file.Path
+
+class TileResourceCacheImplSpec extends Specification {
+
+    Map<Path, byte[]> files = [:]
+    int puts = 0
+    OgcApi api
+    TileResourceCacheImpl cache
+
+    def setup() {
+        ResourceStore store = Stub(ResourceStore)
+        store.with(*_) >> store
+        store.has(_) >> { Path path -> files.containsKey(path) }
+        store.content(_) >> { Path path ->
+            files.containsKey(path) ? Optional.of(new ByteArrayInputStream(files[path])) : Optional.empty()
+        }
+        store.put(_, _) >> { Path path, InputStream content ->
+            puts++
+            files[path] = content.readAllBytes()
+        }
+        store.delete(_) >> { Path path -> files.remove(path) }
+        store.asLocalPath(_, _) >> Optional.empty()
+
+        api = Stub(OgcApi)
+        OgcApiDataV2 apiData = createApiData()
+        api.getData() >> apiData
+        api.getSpatialExtent(_) >> Optional.of(BoundingBox.of(0d, 0d, 0d, 1d, 1d, 100d, OgcCrs.CRS84h))
+
+        cache = new TileResourceCacheImpl(store, Stub(VolatileRegistry))
+    }
+
+    def 'a stored tile resource is read from the archive of its subtree'() {
+        given:
+        TileResourceDescriptor content = TileResourceDescriptor.contentOf(api, "c", 1, 1, 0)
+
+        when:
+        cache.storeTileResource(content, [1, 2, 3] as byte[])
+
+        then:
+        files.keySet() == [Path.of("api", "c", "0_0_0.3dta")] as Set
+        cache.tileResourceExists(content)
+        cache.getTileResource(content).get().readAllBytes() == [1, 2, 3] as byte[]
+    }
+
+    def 'storing a tile resource keeps the other resources of the subtree'() {
+        given:
+        TileResourceDescriptor subtree = TileResourceDescriptor.subtreeOf(api, "c", 0, 0, 0)
+        TileResourceDescriptor content = TileResourceDescriptor.contentOf(api, "c", 1, 1, 1)
+
+        when:
+        cache.storeTileResource(subtree, [1] as byte[])
+        cache.storeTileResource(content, [2] as byte[])
+
+        then:
+        files.size() == 1
+        cache.getTileResource(subtree).get().readAllBytes() == [1] as byte[]
+        cache.getTileResource(content).get().readAllBytes() == [2] as byte[]
+    }
+
+    def 'the resources of a subtree are written to its archive at once'() {
+        given:
+        TileResourceDescriptor subtree = TileResourceDescriptor.subtreeOf(api, "c", 2, 1, 3)
+        List<TileResourceDescriptor> contents = [
+                TileResourceDescriptor.contentOf(api, "c", 2, 1, 3),
+                TileResourceDescriptor.contentOf(api, "c", 3, 2, 6),
+                TileResourceDescriptor.contentOf(api, "c", 3, 3, 7)]
+        Map<TileResourceDescriptor, byte[]> resources = [(subtree): [0] as byte[]]
+        contents.eachWithIndex { content, i -> resources[content] = [i + 1] as byte[] }
+
+        when:
+        cache.storeTileResources(resources)
+
+        then:
+        puts == 1
+        files.keySet() == [Path.of("api", "c", "2_1_3.3dta")] as Set
+        cache.getTileResource(subtree).get().readAllBytes() == [0] as byte[]
+        contents.withIndex().every { content, i ->
+            cache.getTileResource(content).get().readAllBytes() == [i + 1] as byte[]
+        }
+    }
+
+    def 'a deleted tile resource is removed from the archive of its subtree'() {
+        given:
+        TileResourceDescriptor subtree = TileResourceDescriptor.subtreeOf(api, "c", 0, 0, 0)
+        TileResourceDescriptor content = TileResourceDescriptor.contentOf(api, "c", 0, 0, 0)
+        cache.storeTileResources([(subtree): [1] as byte[], (content): [2] as byte[]])
+
+        when:
+        cache.deleteTileResource(content)
+
+        then:
+        !cache.tileResourceExists(content)
+        cache.getTileResource(content).isEmpty()
+        cache.getTileResource(subtree).get().readAllBytes() == [1] as byte[]
+
+        when:
+        cache.deleteTileResource(subtree)
+
+        then:
+        !cache.tileResourceExists(subtree)
+        files.isEmpty()
+    }
+
+    def 'a tile resource that is generated is stored and then served from memory'() {
+        given:
+        TileResourceDescriptor content = TileResourceDescriptor.contentOf(api, "c", 1, 0, 1)
+        int generated = 0
+        TileResourceCache.Generator generator = { generated++; [4, 5] as byte[] }
+
+        when:
+        byte[] first = cache.getOrGenerate(content, generator).getContent()
+        byte[] second = cache.getOrGenerate(content, generator).getContent()
+
+        then:
+        first == [4, 5] as byte[]
+        second == first
+        generated == 1
+        cache.getTileResource(content).get().readAllBytes() == first
+    }
+
+    def 'a tile resource that is deleted while it is generated is not kept in memory'() {
+        given:
+        TileResourceDescriptor content = TileResourceDescriptor.contentOf(api, "c", 1, 0, 1)
+        int generated = 0
+        TileResourceCache.Generator generator = {
+            if (generated++ == 0) {
+                cache.deleteTileResource(content)
+            }
+            [4, 5] as byte[]
+        }
+
+        when:
+        cache.getOrGenerate(content, generator)
+        files.clear()
+        byte[] second = cache.getOrGenerate(content, generator).getContent()
+
+        then:
+        second == [4, 5] as byte[]
+        generated == 2
+    }
+
+    static OgcApiDataV2 createApiData() {
+        return new ImmutableOgcApiDataV2.Builder()
+                .id("api")
+                .serviceType("OGC_API")
+                .putCollections("c", new ImmutableFeatureTypeConfigurationOgcApi.Builder()
+                        .id("c")
+                        .label("c")
+                        .addExtensions(new ImmutableTiles3dConfiguration.Builder()
+                                .enabled(true)
+                                .geometricErrorRoot(0f)
+                                .subtreeLevels(2)
+                                .packedCache(true)
+                                .build())
+                        .enabled(true)
+                        .build())
+                .build()
+    }
+}
@@ -98,18 +98,36 @@ public class EndpointFeature extends EndpointFeaturesDefinition
     return definitionBuilder.build();
   }
 
+  // JAX-RS only suspends the request, if a completion stage is returned
   @GET
   @Path("/{collectionId}/items/{featureId}")
-  public Response getItem(
+  public Object getItem(
       @Auth Optional<User> optionalUser,
       @Context ApiRequestContext requestContext,
       @PathParam("collectionId") String collectionId,
       @PathParam("featureId") String featureId) {
-    return getItem(requestContext, collectionId, featureId);
+    FeaturesCoreQueriesHandler.QueryInputFeature queryInput =
+        getQueryInput(requestContext, collectionId, featureId);
+
+    if (isAsyncResponses(requestContext.getApi().getData(), collectionId)) {
+      return queryHandler.handleAsync(
+          FeaturesCoreQueriesHandler.Query.FEATURE, queryInput, requestContext);
+    }
+
+    return queryHandler.handle(
+        FeaturesCoreQueriesHandler.Query.FEATURE, queryInput, requestContext);
   }
 
   @Override
   public Response getItem(ApiRequestContext requestContext, String collectionId, String featureId) {
+    return queryHandler.handle(
+        FeaturesCoreQueriesHandler.Query.FEATURE,
+        getQueryInput(requestContext, collectionId, featureId),
+        requestContext);
+  }
+
+  private FeaturesCoreQueriesHandler.QueryInputFeature getQueryInput(
+      ApiRequestContext requestContext, String collectionId, String featureId) {
     OgcApi api = requestContext.getApi();
 
     checkCollectionExists(api.getData(), collectionId);
@@ -166,8 +184,7 @@ public class EndpointFeature extends EndpointFeaturesDefinition
         && Objects.nonNull(coreConfiguration.getCaching().getCacheControlItems()))
       queryInputBuilder.cacheControl(coreConfiguration.getCaching().getCacheControlItems());
 
-    return queryHandler.handle(
-        FeaturesCoreQueriesHandler.Query.FEATURE, queryInputBuilder.build(), requestContext);
+    return queryInputBuilder.build();
   }
 
   private void checkFeatureIdIsInteger(String featureId) {
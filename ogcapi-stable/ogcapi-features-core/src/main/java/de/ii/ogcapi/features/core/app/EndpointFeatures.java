@@ -236,17 +236,35 @@ public class EndpointFeatures extends EndpointFeaturesDefinition
     return definitionBuilder.build();
   }
 
+  // JAX-RS only suspends the request, if a completion stage is returned
   @GET
   @Path("/{collectionId}/items")
-  public Response getItems(
+  public Object getItems(
       @Auth Optional<User> optionalUser,
       @Context ApiRequestContext requestContext,
       @PathParam("collectionId") String collectionId) {
-    return getItems(requestContext, collectionId);
+    FeaturesCoreQueriesHandler.QueryInputFeatures queryInput =
+        getQueryInput(requestContext, collectionId);
+
+    if (isAsyncResponses(requestContext.getApi().getData(), collectionId)) {
+      return queryHandler.handleAsync(
+          FeaturesCoreQueriesHandlerImpl.Query.FEATURES, queryInput, requestContext);
+    }
+
+    return queryHandler.handle(
+        FeaturesCoreQueriesHandlerImpl.Query.FEATURES, queryInput, requestContext);
   }
 
   @Override
   public Response getItems(ApiRequestContext requestContext, String collectionId) {
+    return queryHandler.handle(
+        FeaturesCoreQueriesHandlerImpl.Query.FEATURES,
+        getQueryInput(requestContext, collectionId),
+        requestContext);
+  }
+
+  private FeaturesCoreQueriesHandler.QueryInputFeatures getQueryInput(
+      ApiRequestContext requestContext, String collectionId) {
     OgcApi api = requestContext.getApi();
 
     checkCollectionExists(api.getData(), collectionId);
@@ -287,19 +305,15 @@ public class EndpointFeatures extends EndpointFeaturesDefinition
             coreConfiguration.getCoordinatePrecision(),
             defaultPageSize,
             queryParameterSet);
-    FeaturesCoreQueriesHandler.QueryInputFeatures queryInput =
-        new Builder()
-            .from(getGenericQueryInput(api.getData()))
-            .collectionId(collectionId)
-            .query(query)
-            .profiles(requestedProfiles)
-            .featureProvider(providers.getFeatureProviderOrThrow(api.getData(), collectionData))
-            .defaultCrs(coreConfiguration.getDefaultEpsgCrs())
-            .defaultPageSize(Optional.of(defaultPageSize))
-            .build();
-
-    return queryHandler.handle(
-        FeaturesCoreQueriesHandlerImpl.Query.FEATURES, queryInput, requestContext);
+    return new Builder()
+        .from(getGenericQueryInput(api.getData()))
+        .collectionId(collectionId)
+        .query(query)
+        .profiles(requestedProfiles)
+        .featureProvider(providers.getFeatureProviderOrThrow(api.getData(), collectionData))
+        .defaultCrs(coreConfiguration.getDefaultEpsgCrs())
+        .defaultPageSize(Optional.of(defaultPageSize))
+        .build();
   }
 
   @Override
@@ -25,6 +25,7 @@ import de.ii.ogcapi.features.core.domain.JsonSchemaObject;
 import de.ii.ogcapi.features.core.domain.JsonSchemaOneOf;
 import de.ii.ogcapi.features.core.domain.JsonSchemaRef;
 import de.ii.ogcapi.features.core.domain.JsonSchemaString;
+import de.ii.ogcapi.features.core.domain.NumberMatchedCache;
 import de.ii.ogcapi.features.core.domain.WithChangeListeners;
 import de.ii.ogcapi.foundation.domain.ApiBuildingBlock;
 import de.ii.ogcapi.foundation.domain.ApiExtensionHealth;
@@ -181,15 +182,18 @@ public class FeaturesCoreBuildingBlock
   private final FeaturesCoreProviders providers;
   private final CrsTransformerFactory crsTransformerFactory;
   private final ClassSchemaCache classSchemaCache;
+  private final NumberMatchedCache numberMatchedCache;
 
   @Inject
   public FeaturesCoreBuildingBlock(
       FeaturesCoreProviders providers,
       CrsTransformerFactory crsTransformerFactory,
-      ClassSchemaCache classSchemaCache) {
+      ClassSchemaCache classSchemaCache,
+      NumberMatchedCache numberMatchedCache) {
     this.providers = providers;
     this.crsTransformerFactory = crsTransformerFactory;
     this.classSchemaCache = classSchemaCache;
+    this.numberMatchedCache = numberMatchedCache;
   }
 
   @Override
@@ -202,6 +206,9 @@ public class FeaturesCoreBuildingBlock
         .defaultPageSize(DEFAULT_PAGE_SIZE)
         .maximumPageSize(MAX_PAGE_SIZE)
         .validateCoordinatesInQueries(false)
+        .cursorPaging(false)
+        .asyncResponses(false)
+        .streamingEtags(false)
         .build();
   }
 
@@ -310,6 +317,7 @@ public class FeaturesCoreBuildingBlock
       for (String featureType : change.getFeatureTypes()) {
         String collectionId = FeaturesCoreConfiguration.getCollectionId(api.getData(), featureType);
 
+        numberMatchedCache.invalidate(api, collectionId);
         initMetadata(api, collectionId, change.getModified());
       }
     };
@@ -320,6 +328,8 @@ public class FeaturesCoreBuildingBlock
     return change -> {
       String collectionId =
           FeaturesCoreConfiguration.getCollectionId(api.getData(), change.getFeatureType());
+      // updates may change the features that match a filter, not only creates and deletes
+      numberMatchedCache.invalidate(api, collectionId);
       switch (change.getAction()) {
         case CREATE:
           api.updateItemCount(collectionId, (long) change.getFeatureIds().size());
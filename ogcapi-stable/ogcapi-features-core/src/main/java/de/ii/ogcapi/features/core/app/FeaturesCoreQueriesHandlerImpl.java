@@ -10,14 +10,18 @@ package de.ii.ogcapi.features.core.app;
 import com.github.azahnen.dagger.annotations.AutoBind;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import de.ii.ogcapi.features.core.domain.FeatureFormatExtension;
 import de.ii.ogcapi.features.core.domain.FeatureLinksGenerator;
 import de.ii.ogcapi.features.core.domain.FeatureTransformationQueryParameter;
 import de.ii.ogcapi.features.core.domain.FeaturesCoreConfiguration;
 import de.ii.ogcapi.features.core.domain.FeaturesCoreProviders;
 import de.ii.ogcapi.features.core.domain.FeaturesCoreQueriesHandler;
+import de.ii.ogcapi.features.core.domain.FeaturesCursor;
 import de.ii.ogcapi.features.core.domain.FeaturesLinksGenerator;
 import de.ii.ogcapi.features.core.domain.ImmutableFeatureTransformationContextGeneric;
+import de.ii.ogcapi.features.core.domain.NumberMatchedCache;
 import de.ii.ogcapi.features.core.domain.ProfileExtensionFeatures;
 import de.ii.ogcapi.foundation.domain.ApiMediaType;
 import de.ii.ogcapi.foundation.domain.ApiRequestContext;
@@ -28,12 +32,15 @@ import de.ii.ogcapi.foundation.domain.HeaderItems;
 import de.ii.ogcapi.foundation.domain.I18n;
 import de.ii.ogcapi.foundation.domain.Link;
 import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
 import de.ii.ogcapi.foundation.domain.OgcApiQueryParameter;
 import de.ii.ogcapi.foundation.domain.QueriesHandler;
 import de.ii.ogcapi.foundation.domain.QueryHandler;
 import de.ii.ogcapi.foundation.domain.QueryInput;
 import de.ii.ogcapi.foundation.domain.QueryParameterSet;
+import de.ii.ogcapi.foundation.domain.RequestTimings;
 import de.ii.ogcapi.html.domain.HtmlConfiguration;
+import de.ii.xtraplatform.base.domain.AppLifeCycle;
 import de.ii.xtraplatform.base.domain.resiliency.AbstractVolatileComposed;
 import de.ii.xtraplatform.base.domain.resiliency.VolatileRegistry;
 import de.ii.xtraplatform.codelists.domain.Codelist;
@@ -60,19 +67,29 @@ import de.ii.xtraplatform.streams.domain.Reactive.SinkTransformed;
 import de.ii.xtraplatform.strings.domain.StringTemplateFilters;
 import de.ii.xtraplatform.values.domain.ValueStore;
 import de.ii.xtraplatform.values.domain.Values;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.ServiceUnavailableException;
@@ -87,16 +104,21 @@ import org.slf4j.LoggerFactory;
 @Singleton
 @AutoBind
 public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
-    implements FeaturesCoreQueriesHandler {
+    implements FeaturesCoreQueriesHandler, AppLifeCycle {
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(FeaturesCoreQueriesHandlerImpl.class);
+  private static final int MAX_TRANSFORMATIONS = 256;
+  private static final AtomicInteger RESUME_THREADS = new AtomicInteger();
 
   private final I18n i18n;
   private final CrsTransformerFactory crsTransformerFactory;
   private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
   private final Values<Codelist> codelistStore;
   private final ExtensionRegistry extensionRegistry;
+  private final NumberMatchedCache numberMatchedCache;
+  private final Map<TransformationsKey, Map<String, PropertyTransformations>> transformations;
+  private final ExecutorService resumeExecutor;
 
   @Inject
   public FeaturesCoreQueriesHandlerImpl(
@@ -104,17 +126,44 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
       CrsTransformerFactory crsTransformerFactory,
       ValueStore valueStore,
       VolatileRegistry volatileRegistry,
-      ExtensionRegistry extensionRegistry) {
+      ExtensionRegistry extensionRegistry,
+      NumberMatchedCache numberMatchedCache) {
     super(FeaturesCoreQueriesHandler.class.getSimpleName(), volatileRegistry, true);
     this.i18n = i18n;
     this.crsTransformerFactory = crsTransformerFactory;
     this.codelistStore = valueStore.forType(Codelist.class);
     this.extensionRegistry = extensionRegistry;
+    this.numberMatchedCache = numberMatchedCache;
+    // writing the response may block on the client, which must not stall the feature streams; the
+    // threads are only started when asynchronous responses are enabled
+    this.resumeExecutor =
+        Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "features-response-" + RESUME_THREADS.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.transformations =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(
+              Map.Entry<TransformationsKey, Map<String, PropertyTransformations>> eldest) {
+            return size() > MAX_TRANSFORMATIONS;
+          }
+        };
 
     this.queryHandlers =
         ImmutableMap.of(
-            Query.FEATURES, QueryHandler.with(QueryInputFeatures.class, this::getItemsResponse),
-            Query.FEATURE, QueryHandler.with(QueryInputFeature.class, this::getItemResponse));
+            Query.FEATURES,
+            QueryHandler.with(
+                QueryInputFeatures.class,
+                (input, context) -> join(getItemsResponse(input, context))),
+            Query.FEATURE,
+            QueryHandler.with(
+                QueryInputFeature.class,
+                (input, context) -> join(getItemResponse(input, context))));
 
     onVolatileStart();
 
@@ -128,7 +177,54 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
     return queryHandlers;
   }
 
-  private Response getItemsResponse(
+  @Override
+  public CompletionStage<Response> handleAsync(
+      Query query, QueryInput queryInput, ApiRequestContext requestContext) {
+    // same checks as for synchronous requests
+    getQueryHandler(query, queryInput);
+
+    switch (query) {
+      case FEATURES:
+        return completeOn(
+            getItemsResponse((QueryInputFeatures) queryInput, requestContext), resumeExecutor);
+      case FEATURE:
+        return completeOn(
+            getItemResponse((QueryInputFeature) queryInput, requestContext), resumeExecutor);
+      default:
+        throw new IllegalStateException("No query handler found for " + query + ".");
+    }
+  }
+
+  @Override
+  public void onStop() {
+    resumeExecutor.shutdown();
+  }
+
+  /**
+   * Streamed responses are returned as completed stages, so they are written by the calling thread.
+   * Responses that are still pending are completed by the feature stream, these are handed over to
+   * the executor.
+   */
+  static <T> CompletionStage<T> completeOn(CompletionStage<T> response, Executor executor) {
+    if (response.toCompletableFuture().isDone()) {
+      return response;
+    }
+
+    return response.thenApplyAsync(Function.identity(), executor);
+  }
+
+  private static Response join(CompletionStage<Response> response) {
+    try {
+      return response.toCompletableFuture().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private CompletionStage<Response> getItemsResponse(
       QueryInputFeatures queryInput, ApiRequestContext requestContext) {
 
     OgcApi api = requestContext.getApi();
@@ -183,7 +279,8 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
         queryInput.sendResponseAsStream());
   }
 
-  private Response getItemResponse(QueryInputFeature queryInput, ApiRequestContext requestContext) {
+  private CompletionStage<Response> getItemResponse(
+      QueryInputFeature queryInput, ApiRequestContext requestContext) {
 
     OgcApi api = requestContext.getApi();
     String collectionId = queryInput.getCollectionId();
@@ -251,7 +348,7 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
         sendResponseAsStream);
   }
 
-  private Response getResponse(
+  private CompletionStage<Response> getResponse(
       OgcApi api,
       ApiRequestContext requestContext,
       String collectionId,
@@ -266,6 +363,9 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
       boolean includeLinkHeader,
       EpsgCrs defaultCrs,
       boolean sendResponseAsStream) {
+    // requests that are not dispatched to an endpoint, e.g. exports, are not published
+    RequestTimings timings = requestContext.getTimings().orElseGet(RequestTimings::new);
+    timings.mark(RequestTimings.ENDPOINT);
 
     QueriesHandler.ensureCollectionIdExists(api.getData(), collectionId);
     QueriesHandler.ensureFeatureProviderSupportsQueries(featureProvider);
@@ -281,6 +381,21 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
 
     List<ApiMediaType> alternateMediaTypes = requestContext.getAlternateMediaTypes();
 
+    String featureTypeId =
+        api.getData()
+            .getCollections()
+            .get(collectionId)
+            .getExtension(FeaturesCoreConfiguration.class)
+            .map(cfg -> cfg.getFeatureType().orElse(collectionId))
+            .orElse(collectionId);
+
+    Optional<FeatureSchema> schema = featureProvider.info().getSchema(featureTypeId);
+
+    boolean cursorPaging =
+        Objects.isNull(featureId)
+            && FeaturesCursor.isCursorPaging(requestContext.getQueryParameterSet())
+            && isCursorSupported(api, collectionId, schema, profiles, outputFormat, requestContext);
+
     List<Link> links =
         Objects.isNull(featureId)
             ? new FeaturesLinksGenerator()
@@ -289,6 +404,7 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
                     query.getOffset(),
                     query.getLimit(),
                     defaultPageSize.orElse(0),
+                    cursorPaging,
                     profiles,
                     requestContext.getMediaType(),
                     alternateMediaTypes,
@@ -305,22 +421,25 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
                     i18n,
                     requestContext.getLanguage());
 
-    String featureTypeId =
-        api.getData()
-            .getCollections()
-            .get(collectionId)
-            .getExtension(FeaturesCoreConfiguration.class)
-            .map(cfg -> cfg.getFeatureType().orElse(collectionId))
-            .orElse(collectionId);
-
-    Optional<FeatureSchema> schema = featureProvider.info().getSchema(featureTypeId);
-
     if (schema.filter(SchemaBase::hasEmbeddedFeature).isPresent()
         && !outputFormat.supportsEmbedding()) {
       throw new NotAcceptableException(
           "The requested media type does not support embedding. Please contact the server administrator.");
     }
 
+    // all pages of a query match the same features, if the number is already known, the provider
+    // does not have to count the features again
+    FeatureQuery countQuery =
+        getCountQuery(query, schema, cursorPaging, requestContext.getQueryParameterSet());
+    Optional<Long> numberMatched =
+        Objects.isNull(featureId)
+            ? numberMatchedCache.get(api, collectionId, countQuery)
+            : Optional.empty();
+    if (numberMatched.isPresent()) {
+      query =
+          ImmutableFeatureQuery.builder().from(query).numberMatched(numberMatched.get()).build();
+    }
+
     ImmutableFeatureTransformationContextGeneric.Builder transformationContext =
         new ImmutableFeatureTransformationContextGeneric.Builder()
             .api(api)
@@ -334,6 +453,7 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
             .links(links)
             .isFeatureCollection(Objects.isNull(featureId))
             .isHitsOnly(query.hitsOnly())
+            .isCursorPaging(cursorPaging)
             .fields(ImmutableMap.of(collectionId, query.getFields()))
             .limit(query.getLimit())
             .offset(query.getOffset())
@@ -380,17 +500,14 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
               .get();
 
       propertyTransformations =
-          outputFormat
-              .getPropertyTransformations(
-                  api.getData(), api.getData().getCollections().get(collectionId), schema, profiles)
-              .map(
-                  pt ->
-                      ImmutableMap.of(
-                          featureTypeId,
-                          pt.withSubstitutions(
-                              FeaturesCoreProviders.DEFAULT_SUBSTITUTIONS.apply(
-                                  transformationContextGeneric.getServiceUrl()))))
-              .orElse(ImmutableMap.of());
+          getPropertyTransformations(
+              api,
+              collectionId,
+              featureTypeId,
+              schema,
+              profiles,
+              outputFormat,
+              transformationContextGeneric.getServiceUrl());
     } else {
       throw new NotAcceptableException(
           MessageFormat.format(
@@ -398,23 +515,88 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
               requestContext.getMediaType().type()));
     }
 
+    timings.mark(RequestTimings.PREPARE);
+
+    if (sendResponseAsStream) {
+      StreamingOutput streamingOutput =
+          stream(
+              featureStream,
+              Objects.nonNull(featureId),
+              encoder,
+              propertyTransformations,
+              timings);
+
+      return CompletableFuture.completedFuture(
+          getResponse(
+              api,
+              requestContext,
+              collectionId,
+              featureId,
+              queryInput,
+              countQuery,
+              numberMatched,
+              links,
+              outputFormat,
+              includeLinkHeader,
+              targetCrs,
+              null,
+              streamingOutput));
+    }
+
+    // the request thread is not needed while the features are queried and encoded, the response is
+    // completed by the feature stream
+    return reduce(featureStream, Objects.nonNull(featureId), encoder, propertyTransformations)
+        .thenApply(
+            result -> {
+              timings.mark(RequestTimings.STREAM);
+
+              return getResponse(
+                  api,
+                  requestContext,
+                  collectionId,
+                  featureId,
+                  queryInput,
+                  countQuery,
+                  numberMatched,
+                  links,
+                  outputFormat,
+                  includeLinkHeader,
+                  targetCrs,
+                  result,
+                  null);
+            });
+  }
+
+  private Response getResponse(
+      OgcApi api,
+      ApiRequestContext requestContext,
+      String collectionId,
+      String featureId,
+      QueryInput queryInput,
+      FeatureQuery countQuery,
+      Optional<Long> numberMatched,
+      List<Link> links,
+      FeatureFormatExtension outputFormat,
+      boolean includeLinkHeader,
+      EpsgCrs targetCrs,
+      ResultReduced<byte[]> result,
+      StreamingOutput streamingOutput) {
     Date lastModified = getLastModified(queryInput);
     EntityTag etag = null;
     String spatialExtentHeader = null;
     String temporalExtentHeader = null;
     byte[] bytes = null;
-    StreamingOutput streamingOutput = null;
-
-    if (sendResponseAsStream) {
-      streamingOutput =
-          stream(featureStream, Objects.nonNull(featureId), encoder, propertyTransformations);
-
-    } else {
-      ResultReduced<byte[]> result =
-          reduce(featureStream, Objects.nonNull(featureId), encoder, propertyTransformations);
 
+    if (Objects.nonNull(result)) {
       bytes = result.reduced();
 
+      // a known number is not stored again, otherwise it would never expire
+      if (Objects.isNull(featureId) && numberMatched.isEmpty()) {
+        outputFormat
+            .getNumberMatched(bytes)
+            .ifPresent(n -> numberMatchedCache.put(api, collectionId, countQuery, n));
+      }
+
       if (result.getETag().isPresent()) {
         etag = result.getETag().get();
         LOGGER.debug("ETag {}", etag);
@@ -456,6 +638,15 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
           temporalExtentHeader = String.format("end=%d", interval.second().getEpochSecond());
         }
       }
+    } else if (isStreamingEtags(api, collectionId)) {
+      Optional<Instant> dataVersion = api.getLastModified(collectionId);
+      if (dataVersion.isPresent()) {
+        // the stream has not been started yet, so a conditional request does not query features
+        etag = getWeakEtag(requestContext, dataVersion.get());
+        if (Objects.isNull(lastModified)) {
+          lastModified = Date.from(dataVersion.get());
+        }
+      }
     }
 
     Response.ResponseBuilder response = evaluatePreconditions(requestContext, lastModified, etag);
@@ -483,10 +674,8 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
                     "%s.%s",
                     Objects.isNull(featureId) ? collectionId : featureId,
                     outputFormat.getMediaType().fileExtension())),
-            Objects.isNull(featureId) && !sendResponseAsStream
-                ? HeaderItems.of(
-                    outputFormat.getNumberMatched(bytes), outputFormat.getNumberReturned(bytes))
-                : HeaderItems.of());
+            getHeaderItems(
+                featureId, numberMatched, outputFormat, bytes, Objects.nonNull(streamingOutput)));
 
     if (Objects.nonNull(spatialExtentHeader)) {
       response.header(BOUNDING_BOX_HEADER, spatialExtentHeader);
@@ -499,11 +688,169 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
     return response.entity(Objects.nonNull(bytes) ? bytes : streamingOutput).build();
   }
 
+  // the resolved transformations only change with the API, the schema of the provider and the
+  // service URL, so they are shared by all requests for the same collection, format and profiles
+  private Map<String, PropertyTransformations> getPropertyTransformations(
+      OgcApi api,
+      String collectionId,
+      String featureTypeId,
+      Optional<FeatureSchema> schema,
+      List<String> profiles,
+      FeatureFormatExtension outputFormat,
+      String serviceUrl) {
+    TransformationsKey key =
+        new TransformationsKey(
+            api.getData(), schema.orElse(null), collectionId, outputFormat, profiles, serviceUrl);
+
+    synchronized (transformations) {
+      Map<String, PropertyTransformations> cached = transformations.get(key);
+      if (Objects.nonNull(cached)) {
+        return cached;
+      }
+    }
+
+    Map<String, PropertyTransformations> resolved =
+        outputFormat
+            .getPropertyTransformations(
+                api.getData(), api.getData().getCollections().get(collectionId), schema, profiles)
+            .map(
+                pt ->
+                    ImmutableMap.of(
+                        featureTypeId,
+                        pt.withSubstitutions(
+                            FeaturesCoreProviders.DEFAULT_SUBSTITUTIONS.apply(serviceUrl))))
+            .orElse(ImmutableMap.of());
+
+    synchronized (transformations) {
+      transformations.put(key, resolved);
+    }
+
+    return resolved;
+  }
+
+  private static boolean isStreamingEtags(OgcApi api, String collectionId) {
+    return api.getData()
+        .getExtension(FeaturesCoreConfiguration.class, collectionId)
+        .map(FeaturesCoreConfiguration::isStreamingEtagsEnabled)
+        .orElse(false);
+  }
+
+  // the request URI covers the query and the links in the response, the media type and language
+  // may also be negotiated with headers; the data version changes with every change of the
+  // features of the collection and when the API is started
+  private static EntityTag getWeakEtag(ApiRequestContext requestContext, Instant dataVersion) {
+    Hasher hasher =
+        Hashing.murmur3_128()
+            .newHasher()
+            .putString(requestContext.getUriCustomizer().toString(), StandardCharsets.UTF_8)
+            .putString(requestContext.getMediaType().type().toString(), StandardCharsets.UTF_8)
+            .putLong(dataVersion.toEpochMilli());
+    requestContext
+        .getLanguage()
+        .ifPresent(language -> hasher.putString(language.toLanguageTag(), StandardCharsets.UTF_8));
+
+    return new EntityTag(hasher.hash().toString(), true);
+  }
+
+  // when streaming, numberMatched is only known before the response is written, if it has been
+  // reported for the same query before, e.g. for the previous page
+  private static HeaderItems getHeaderItems(
+      String featureId,
+      Optional<Long> numberMatched,
+      FeatureFormatExtension outputFormat,
+      byte[] bytes,
+      boolean sendResponseAsStream) {
+    if (Objects.nonNull(featureId)) {
+      return HeaderItems.of();
+    }
+    if (sendResponseAsStream) {
+      return HeaderItems.of(numberMatched, Optional.empty());
+    }
+    return HeaderItems.of(
+        outputFormat.getNumberMatched(bytes), outputFormat.getNumberReturned(bytes));
+  }
+
+  // the cursor of the "next" link is only resolved by formats that know the id of the last
+  // feature, and the id in the response is only a valid cursor, if it is not transformed; otherwise
+  // the first page uses offset paging and a cursor is rejected
+  static boolean isCursorSupported(
+      OgcApi api,
+      String collectionId,
+      Optional<FeatureSchema> schema,
+      List<String> profiles,
+      FeatureFormatExtension outputFormat,
+      ApiRequestContext requestContext) {
+    boolean hasCursor = FeaturesCursor.hasCursor(requestContext.getQueryParameterSet());
+
+    if (!outputFormat.supportsCursorPaging()) {
+      if (hasCursor) {
+        throw new BadRequestException(
+            MessageFormat.format(
+                "The requested media type ''{0}'' does not support the parameter ''{1}''.",
+                requestContext.getMediaType().type(),
+                FeaturesCursor.PARAMETER));
+      }
+      return false;
+    }
+
+    Optional<String> idProperty =
+        schema.flatMap(
+            featureSchema ->
+                featureSchema.getProperties().stream()
+                    .filter(FeatureSchema::isId)
+                    .map(FeatureSchema::getFullPathAsString)
+                    .findFirst());
+    boolean idTransformed =
+        idProperty.isPresent()
+            && outputFormat
+                .getPropertyTransformations(
+                    api.getData(),
+                    api.getData().getCollections().get(collectionId),
+                    schema,
+                    profiles)
+                .map(PropertyTransformations::getTransformations)
+                .map(
+                    transformations ->
+                        !transformations.getOrDefault(idProperty.get(), List.of()).isEmpty())
+                .orElse(false);
+
+    if (idTransformed) {
+      if (hasCursor) {
+        throw new BadRequestException(
+            MessageFormat.format(
+                "The parameter ''{0}'' is not supported for collection ''{1}'', the values of the id property are transformed.",
+                FeaturesCursor.PARAMETER, collectionId));
+      }
+      return false;
+    }
+
+    return true;
+  }
+
+  // in cursor mode, the filter that selects the page is not part of the query of the collection
+  private static FeatureQuery getCountQuery(
+      FeatureQuery query,
+      Optional<FeatureSchema> schema,
+      boolean cursorPaging,
+      QueryParameterSet parameters) {
+    if (!cursorPaging) {
+      return query;
+    }
+
+    return schema
+        .flatMap(
+            featureSchema ->
+                featureSchema.getProperties().stream().filter(FeatureSchema::isId).findFirst())
+        .map(idProperty -> FeaturesCursor.withoutCursor(query, idProperty.getName(), parameters))
+        .orElse(query);
+  }
+
   private StreamingOutput stream(
       FeatureStream featureTransformStream,
       boolean failIfNoFeatures,
       final FeatureTokenEncoder<?> encoder,
-      Map<String, PropertyTransformations> propertyTransformations) {
+      Map<String, PropertyTransformations> propertyTransformations,
+      RequestTimings timings) {
 
     return outputStream -> {
       SinkTransformed<Object, byte[]> featureSink = encoder.to(Sink.outputStream(outputStream));
@@ -515,11 +862,16 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
                   .toCompletableFuture()
                   .join();
 
-      run(stream, failIfNoFeatures);
+      long start = System.nanoTime();
+      try {
+        run(stream, failIfNoFeatures);
+      } finally {
+        timings.add(RequestTimings.STREAM, System.nanoTime() - start);
+      }
     };
   }
 
-  private ResultReduced<byte[]> reduce(
+  private CompletionStage<ResultReduced<byte[]>> reduce(
       FeatureStream featureTransformStream,
       boolean failIfNoFeatures,
       final FeatureTokenEncoder<?> encoder,
@@ -527,33 +879,94 @@ public class FeaturesCoreQueriesHandlerImpl extends AbstractVolatileComposed
 
     SinkReduced<Object, byte[]> featureSink = encoder.to(Sink.reduceByteArray());
 
-    Supplier<ResultReduced<byte[]>> stream =
-        () ->
-            featureTransformStream
-                .runWith(featureSink, propertyTransformations)
-                .toCompletableFuture()
-                .join();
-
-    return run(stream, failIfNoFeatures);
+    return featureTransformStream
+        .runWith(featureSink, propertyTransformations)
+        .handle(
+            (result, error) -> {
+              if (Objects.nonNull(error)) {
+                throw toStreamError(error);
+              }
+              return check(result, failIfNoFeatures);
+            });
   }
 
   private <U extends ResultBase> U run(Supplier<U> stream, boolean failIfNoFeatures) {
     try {
-      U result = stream.get();
+      return check(stream.get(), failIfNoFeatures);
+    } catch (CompletionException e) {
+      throw toStreamError(e);
+    }
+  }
 
-      result.getError().ifPresent(FeatureStream::processStreamError);
+  private static <U extends ResultBase> U check(U result, boolean failIfNoFeatures) {
+    result.getError().ifPresent(FeatureStream::processStreamError);
 
-      if (failIfNoFeatures && !result.hasFeatures()) {
-        throw new NotFoundException("The requested feature does not exist.");
-      }
+    if (failIfNoFeatures && !result.hasFeatures()) {
+      throw new NotFoundException("The requested feature does not exist.");
+    }
 
-      return result;
+    return result;
+  }
 
-    } catch (CompletionException e) {
-      if (e.getCause() instanceof WebApplicationException) {
-        throw (WebApplicationException) e.getCause();
+  private static RuntimeException toStreamError(Throwable error) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    if (cause instanceof WebApplicationException) {
+      return (WebApplicationException) cause;
+    }
+    return new IllegalStateException("Feature stream error.", cause);
+  }
+
+  // the API, the schema and the format are compared by identity, a new revision of the API or the
+  // schema is a new object
+  private static final class TransformationsKey {
+    private final OgcApiDataV2 apiData;
+    private final FeatureSchema schema;
+    private final String collectionId;
+    private final FeatureFormatExtension outputFormat;
+    private final List<String> profiles;
+    private final String serviceUrl;
+
+    private TransformationsKey(
+        OgcApiDataV2 apiData,
+        FeatureSchema schema,
+        String collectionId,
+        FeatureFormatExtension outputFormat,
+        List<String> profiles,
+        String serviceUrl) {
+      this.apiData = apiData;
+      this.schema = schema;
+      this.collectionId = collectionId;
+      this.outputFormat = outputFormat;
+      this.profiles = profiles;
+      this.serviceUrl = serviceUrl;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
       }
-      throw new IllegalStateException("Feature stream error.", e.getCause());
+      if (!(o instanceof TransformationsKey)) {
+        return false;
+      }
+      TransformationsKey that = (TransformationsKey) o;
+      return apiData == that.apiData
+          && schema == that.schema
+          && outputFormat == that.outputFormat
+          && collectionId.equals(that.collectionId)
+          && profiles.equals(that.profiles)
+          && Objects.equals(serviceUrl, that.serviceUrl);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          System.identityHashCode(apiData),
+          System.identityHashCode(schema),
+          System.identityHashCode(outputFormat),
+          collectionId,
+          profiles,
+          serviceUrl);
     }
   }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.app;
+
+import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.features.core.domain.NumberMatchedCache;
+import de.ii.ogcapi.foundation.domain.BoundedCache;
+import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.xtraplatform.base.domain.AppConfiguration;
+import de.ii.xtraplatform.cql.domain.Cql2Expression;
+import de.ii.xtraplatform.features.domain.FeatureQuery;
+import de.ii.xtraplatform.web.domain.DropwizardPlugin;
+import io.dropwizard.core.setup.Environment;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+@Singleton
+@AutoBind
+public class NumberMatchedCacheImpl implements NumberMatchedCache, DropwizardPlugin {
+
+  private static final int MAX_ENTRIES = 10_000;
+  private static final long TTL_MINUTES = 5;
+
+  private final BoundedCache<Key, Long> entries;
+
+  @Inject
+  public NumberMatchedCacheImpl() {
+    this(System::nanoTime);
+  }
+
+  NumberMatchedCacheImpl(LongSupplier nanoTime) {
+    this.entries =
+        BoundedCache.<Key, Long>builder()
+            .maxEntries(MAX_ENTRIES)
+            .timeToLive(TTL_MINUTES, TimeUnit.MINUTES)
+            .nanoTime(nanoTime)
+            .build();
+  }
+
+  @Override
+  public void init(AppConfiguration configuration, Environment environment) {
+    entries.registerMetrics(environment.metrics(), NumberMatchedCache.class);
+  }
+
+  @Override
+  public Optional<Long> get(OgcApi api, String collectionId, FeatureQuery query) {
+    return entries.get(new Key(api.getId(), collectionId, query));
+  }
+
+  @Override
+  public void put(OgcApi api, String collectionId, FeatureQuery query, long numberMatched) {
+    entries.put(new Key(api.getId(), collectionId, query), numberMatched);
+  }
+
+  @Override
+  public void invalidate(OgcApi api, String collectionId) {
+    entries.invalidateIf(
+        key ->
+            Objects.equals(key.apiId, api.getId())
+                && Objects.equals(key.collectionId, collectionId));
+  }
+
+  private static final class Key {
+    private final String apiId;
+    private final String collectionId;
+    private final String type;
+    private final List<Cql2Expression> filters;
+
+    private Key(String apiId, String collectionId, FeatureQuery query) {
+      this.apiId = apiId;
+      this.collectionId = collectionId;
+      this.type = query.getType();
+      this.filters = query.getFilters();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return apiId.equals(that.apiId)
+          && collectionId.equals(that.collectionId)
+          && type.equals(that.type)
+          && filters.equals(that.filters);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(apiId, collectionId, type, filters);
+    }
+  }
+}
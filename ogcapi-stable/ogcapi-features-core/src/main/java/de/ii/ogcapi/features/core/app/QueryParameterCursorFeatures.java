@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.app;
+
+import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.features.core.domain.FeatureQueryParameter;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreConfiguration;
+import de.ii.ogcapi.features.core.domain.FeaturesCoreProviders;
+import de.ii.ogcapi.features.core.domain.FeaturesCursor;
+import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
+import de.ii.ogcapi.foundation.domain.FeatureTypeConfigurationOgcApi;
+import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.ogcapi.foundation.domain.OgcApiQueryParameterBase;
+import de.ii.ogcapi.foundation.domain.QueryParameterSet;
+import de.ii.ogcapi.foundation.domain.SchemaValidator;
+import de.ii.ogcapi.foundation.domain.SpecificationMaturity;
+import de.ii.ogcapi.foundation.domain.TypedQueryParameter;
+import de.ii.xtraplatform.cql.domain.ScalarLiteral;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery.Builder;
+import de.ii.xtraplatform.features.domain.SortKey;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * @title cursor
+ * @endpoints Features
+ * @langEn Selects the page of features after the feature that is identified by the cursor. The
+ *     value is opaque, it is taken from the "next" link of the previous page. The parameter is only
+ *     available, if cursor paging is enabled for the collection, and it cannot be combined with the
+ *     parameters `offset` and `sortby`. Only the GeoJSON and HTML encodings support cursors and
+ *     only, if the values of the id property are not transformed; otherwise the "next" link uses
+ *     the parameter `offset`.
+ * @langDe Wählt die Seite der Features nach dem Feature aus, das durch den Cursor identifiziert
+ *     wird. Der Wert ist opak, er wird aus dem "next"-Link der vorherigen Seite übernommen. Der
+ *     Parameter ist nur verfügbar, wenn das Cursor-Paging für die Collection aktiviert ist, und
+ *     kann nicht mit den Parametern `offset` und `sortby` kombiniert werden. Nur die Kodierungen
+ *     GeoJSON und HTML unterstützen Cursor und nur, wenn die Werte der ID-Eigenschaft nicht
+ *     transformiert werden; sonst verwendet der "next"-Link den Parameter `offset`.
+ */
+@Singleton
+@AutoBind
+public class QueryParameterCursorFeatures extends OgcApiQueryParameterBase
+    implements TypedQueryParameter<ScalarLiteral>, FeatureQueryParameter {
+
+  private final SchemaValidator schemaValidator;
+  private final FeaturesCoreProviders providers;
+  private final Schema<?> schema;
+
+  @Inject
+  QueryParameterCursorFeatures(SchemaValidator schemaValidator, FeaturesCoreProviders providers) {
+    this.schemaValidator = schemaValidator;
+    this.providers = providers;
+    this.schema = new StringSchema();
+  }
+
+  @Override
+  public String getId() {
+    return "cursorFeatures";
+  }
+
+  @Override
+  public String getName() {
+    return FeaturesCursor.PARAMETER;
+  }
+
+  @Override
+  public ScalarLiteral parse(
+      String value,
+      Map<String, Object> typedValues,
+      OgcApi api,
+      Optional<FeatureTypeConfigurationOgcApi> optionalCollectionData) {
+    if (Objects.isNull(value) || optionalCollectionData.isEmpty()) {
+      // no default value
+      return null;
+    }
+
+    // the id of the last feature is compared as a value of the type of the id property
+    return FeaturesCursor.decode(
+        value, getIdProperty(api.getData(), optionalCollectionData.get()).getType());
+  }
+
+  @Override
+  public String getDescription() {
+    return "The optional cursor parameter selects the page after the feature identified by the cursor. "
+        + "The value is opaque and is provided by the 'next' link of the previous page.";
+  }
+
+  @Override
+  public boolean matchesPath(String definitionPath) {
+    return definitionPath.equals("/collections/{collectionId}/items");
+  }
+
+  @Override
+  public boolean isEnabledForApi(OgcApiDataV2 apiData, String collectionId) {
+    return apiData.isCollectionEnabled(collectionId)
+        && isExtensionEnabled(
+            apiData.getCollections().get(collectionId),
+            FeaturesCoreConfiguration.class,
+            FeaturesCoreConfiguration::isCursorPagingEnabled);
+  }
+
+  @Override
+  public Schema<?> getSchema(OgcApiDataV2 apiData) {
+    return schema;
+  }
+
+  @Override
+  public SchemaValidator getSchemaValidator() {
+    return schemaValidator;
+  }
+
+  @Override
+  public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+    return FeaturesCoreConfiguration.class;
+  }
+
+  @Override
+  public void applyTo(
+      Builder queryBuilder,
+      QueryParameterSet parameters,
+      OgcApiDataV2 apiData,
+      FeatureTypeConfigurationOgcApi collectionData) {
+    if (Objects.isNull(collectionData)) {
+      return;
+    }
+
+    Optional<ScalarLiteral> lastFeatureId = parameters.getValue(this);
+
+    if (!FeaturesCursor.isCursorPaging(parameters)) {
+      if (lastFeatureId.isPresent()) {
+        throw new IllegalArgumentException(
+            String.format(
+                "The parameter '%s' cannot be combined with the parameters 'offset' or 'sortby'.",
+                getName()));
+      }
+      return;
+    }
+
+    String idProperty = getIdProperty(apiData, collectionData).getName();
+
+    // the cursor is only valid, if the features are sorted by the id
+    queryBuilder.sortKeys(List.of(SortKey.of(idProperty)));
+    lastFeatureId.ifPresent(
+        featureId -> queryBuilder.addFilters(FeaturesCursor.getPredicate(idProperty, featureId)));
+  }
+
+  private FeatureSchema getIdProperty(
+      OgcApiDataV2 apiData, FeatureTypeConfigurationOgcApi collectionData) {
+    return providers
+        .getFeatureSchema(apiData, collectionData)
+        .flatMap(
+            featureSchema ->
+                featureSchema.getProperties().stream().filter(FeatureSchema::isId).findFirst())
+        .orElseThrow(
+            () ->
+                new IllegalStateException(
+                    String.format(
+                        "Cursor paging is not supported for collection '%s', the feature type has no id property.",
+                        collectionData.getId())));
+  }
+
+  @Override
+  public Optional<SpecificationMaturity> getSpecificationMaturity() {
+    return Optional.of(SpecificationMaturity.DRAFT_LDPROXY);
+  }
+}
@@ -109,6 +109,13 @@ public abstract class EndpointFeaturesDefinition extends EndpointSubCollection {
     return formats;
   }
 
+  protected static boolean isAsyncResponses(OgcApiDataV2 apiData, String collectionId) {
+    return apiData
+        .getExtension(FeaturesCoreConfiguration.class, collectionId)
+        .map(FeaturesCoreConfiguration::isAsyncResponsesEnabled)
+        .orElse(false);
+  }
+
   public Map<MediaType, ApiMediaTypeContent> getFeatureContent(
       List<? extends FormatExtension> formats,
       OgcApiDataV2 apiData,
@@ -175,6 +175,14 @@ public abstract class FeatureFormatExtension implements FormatExtension {
     return false;
   }
 
+  /**
+   * @return {@code true}, if the encoder resolves the cursor of the "next" link with the id of the
+   *     last feature, see {@link FeaturesCursor}
+   */
+  public boolean supportsCursorPaging() {
+    return false;
+  }
+
   public Optional<Long> getNumberMatched(Object content) {
     return Optional.empty();
   }
@@ -92,6 +92,11 @@ public interface FeatureTransformationContext extends EncodingContextSfFlat {
     return false;
   }
 
+  @Value.Default
+  default boolean isCursorPaging() {
+    return false;
+  }
+
   ApiRequestContext getOgcApiRequest();
 
   int getLimit();
@@ -24,6 +24,7 @@ import de.ii.xtraplatform.features.domain.transform.PropertyTransformations;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nullable;
@@ -205,6 +206,77 @@ public interface FeaturesCoreConfiguration
   @Nullable
   Integer getMaximumPageSize();
 
+  /**
+   * @langEn Enables cursor paging for the Features resource. The features are sorted by their id
+   *     and the "next" link uses the parameter `cursor` with the id of the last feature on the
+   *     page instead of the parameter `offset`. The provider then selects the next page with a
+   *     filter on the id, which is much faster for deep pages of large collections. Requests with
+   *     the parameters `offset` or `sortby` still use offset paging.
+   * @langDe Aktiviert das Cursor-Paging für die Ressource "Features". Die Features werden nach
+   *     ihrer ID sortiert und der "next"-Link verwendet statt des Parameters `offset` den Parameter
+   *     `cursor` mit der ID des letzten Features der Seite. Der Provider wählt die nächste Seite
+   *     dann über einen Filter auf die ID aus, was bei großen Collections für hintere Seiten
+   *     deutlich schneller ist. Anfragen mit den Parametern `offset` oder `sortby` verwenden
+   *     weiterhin das Offset-Paging.
+   * @default false
+   * @since v4.2
+   */
+  @Nullable
+  Boolean getCursorPaging();
+
+  @JsonIgnore
+  @Value.Derived
+  @Value.Auxiliary
+  default boolean isCursorPagingEnabled() {
+    return Objects.equals(getCursorPaging(), true);
+  }
+
+  /**
+   * @langEn If enabled, the request thread is released while the features of a response that is
+   *     not streamed are queried and encoded, e.g. for single features or if ETags are sent. The
+   *     response is then completed by the feature provider. Streamed responses are not affected.
+   * @langDe Bei Aktivierung wird der Request-Thread freigegeben, während die Features einer
+   *     Antwort, die nicht gestreamt wird, abgefragt und kodiert werden, z.B. für einzelne Features
+   *     oder wenn ETags gesendet werden. Die Antwort wird dann vom Feature-Provider abgeschlossen.
+   *     Gestreamte Antworten sind nicht betroffen.
+   * @default false
+   * @since v4.2
+   */
+  @Nullable
+  Boolean getAsyncResponses();
+
+  @JsonIgnore
+  @Value.Derived
+  @Value.Auxiliary
+  default boolean isAsyncResponsesEnabled() {
+    return Objects.equals(getAsyncResponses(), true);
+  }
+
+  /**
+   * @langEn If enabled, streamed responses of the Features resource have a weak ETag and a
+   *     Last-Modified header, which are derived from the request and the last change of the
+   *     features of the collection. Conditional requests are then answered without querying the
+   *     features and the response is never buffered to compute the ETag. Only enable this option,
+   *     if all changes of the features are made via the API or reported by the feature provider.
+   * @langDe Bei Aktivierung haben gestreamte Antworten der Ressource "Features" einen schwachen
+   *     ETag und einen Last-Modified-Header, die aus der Anfrage und der letzten Änderung der
+   *     Features der Collection abgeleitet werden. Bedingte Anfragen werden dann ohne Abfrage der
+   *     Features beantwortet und die Antwort wird nie für die Berechnung des ETags gepuffert.
+   *     Aktivieren Sie die Option nur, wenn alle Änderungen der Features über die API erfolgen
+   *     oder vom Feature-Provider gemeldet werden.
+   * @default false
+   * @since v4.2
+   */
+  @Nullable
+  Boolean getStreamingEtags();
+
+  @JsonIgnore
+  @Value.Derived
+  @Value.Auxiliary
+  default boolean isStreamingEtagsEnabled() {
+    return Objects.equals(getStreamingEtags(), true);
+  }
+
   /**
    * @langEn Controls which links should be specified for each feature in the Features resource, if
    *     these exist. The values are the link relation types to be included. By default, links such
@@ -7,6 +7,7 @@
  */
 package de.ii.ogcapi.features.core.domain;
 
+import de.ii.ogcapi.foundation.domain.ApiRequestContext;
 import de.ii.ogcapi.foundation.domain.PermissionGroup;
 import de.ii.ogcapi.foundation.domain.PermissionGroup.Base;
 import de.ii.ogcapi.foundation.domain.QueriesHandler;
@@ -20,6 +21,8 @@ import de.ii.xtraplatform.features.domain.FeatureQuery;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import javax.ws.rs.core.Response;
 import org.immutables.value.Value;
 
 public interface FeaturesCoreQueriesHandler
@@ -35,6 +38,21 @@ public interface FeaturesCoreQueriesHandler
   @Override
   Map<Query, QueryHandler<? extends QueryInput>> getQueryHandlers();
 
+  /**
+   * Like {@link #handle(QueryIdentifier, QueryInput, ApiRequestContext)}, but responses that are
+   * not streamed are completed by the feature stream, without blocking the calling thread while
+   * the features are queried and encoded. These stages complete on a dedicated executor, not on the
+   * thread of the feature stream, since writing the response may block on the client. Streamed
+   * responses are returned as completed stages and are written by the calling thread.
+   *
+   * @param query the query
+   * @param queryInput the query input
+   * @param requestContext the request context
+   * @return the response
+   */
+  CompletionStage<Response> handleAsync(
+      Query query, QueryInput queryInput, ApiRequestContext requestContext);
+
   enum Query implements QueryIdentifier {
     FEATURES,
     FEATURE
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.domain;
+
+import de.ii.ogcapi.foundation.domain.ImmutableLink;
+import de.ii.ogcapi.foundation.domain.Link;
+import de.ii.ogcapi.foundation.domain.QueryParameterSet;
+import de.ii.xtraplatform.cql.domain.Cql2Expression;
+import de.ii.xtraplatform.cql.domain.Gt;
+import de.ii.xtraplatform.cql.domain.ScalarLiteral;
+import de.ii.xtraplatform.features.domain.FeatureQuery;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery;
+import de.ii.xtraplatform.features.domain.SchemaBase.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for cursor paging of feature collections. In cursor mode the features are sorted by
+ * their id and the cursor is an opaque token with the id of the last feature of the previous page
+ * and the type of the id. The next page is selected with a filter on the id instead of skipping the
+ * previous features. The id is compared as a value of its type, so that numeric ids are not
+ * compared as strings.
+ *
+ * <p>The encoders only see the id after the property transformations, so cursor paging requires
+ * that the values of the id property are not transformed, otherwise offset paging is used, too.
+ *
+ * <p>Since the id of the last feature is only known after the features have been encoded, the
+ * "next" link is generated with a placeholder that is resolved by the encoder. Formats that do not
+ * resolve the placeholder, see {@link FeatureFormatExtension#supportsCursorPaging()}, use offset
+ * paging instead.
+ */
+public final class FeaturesCursor {
+
+  public static final String PARAMETER = "cursor";
+  public static final String NEXT_PLACEHOLDER = "NEXT_CURSOR";
+
+  private static final String PARAMETER_OFFSET = "offset";
+  private static final String PARAMETER_SORTBY = "sortby";
+  private static final String SEPARATOR = ":";
+
+  private FeaturesCursor() {}
+
+  /**
+   * @param featureId the id of the last feature of a page
+   * @param type the type of the id property
+   * @return the cursor for the next page
+   */
+  public static String encode(String featureId, Type type) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(
+            String.join(SEPARATOR, getTypeCode(type), featureId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param cursor the cursor from the request
+   * @param type the type of the id property
+   * @return the id of the last feature of the previous page as a literal of the type of the id
+   * @throws IllegalArgumentException if the cursor is not valid for the id property
+   */
+  public static ScalarLiteral decode(String cursor, Type type) {
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw invalid(cursor, e);
+    }
+
+    int separator = decoded.indexOf(SEPARATOR);
+    if (separator < 0 || !Objects.equals(decoded.substring(0, separator), getTypeCode(type))) {
+      throw invalid(cursor, null);
+    }
+    String featureId = decoded.substring(separator + 1);
+
+    try {
+      switch (type) {
+        case INTEGER:
+          return ScalarLiteral.of(Long.parseLong(featureId));
+        case FLOAT:
+          return ScalarLiteral.of(Double.parseDouble(featureId));
+        default:
+          return ScalarLiteral.of(featureId);
+      }
+    } catch (NumberFormatException e) {
+      throw invalid(cursor, e);
+    }
+  }
+
+  private static String getTypeCode(Type type) {
+    switch (type) {
+      case INTEGER:
+        return "i";
+      case FLOAT:
+        return "f";
+      default:
+        return "s";
+    }
+  }
+
+  private static IllegalArgumentException invalid(String cursor, Throwable cause) {
+    return new IllegalArgumentException(
+        String.format("Invalid value for query parameter '%s'. Found: %s.", PARAMETER, cursor),
+        cause);
+  }
+
+  /**
+   * @param parameters the query parameters of the request
+   * @return {@code true}, if cursor paging is enabled for the collection and the request does not
+   *     use offset paging or a custom sort order
+   */
+  public static boolean isCursorPaging(QueryParameterSet parameters) {
+    return parameters.getDefinitions().stream()
+            .anyMatch(parameter -> Objects.equals(parameter.getName(), PARAMETER))
+        && !parameters.getTypedValues().containsKey(PARAMETER_SORTBY)
+        && Objects.equals(parameters.getTypedValues().getOrDefault(PARAMETER_OFFSET, 0), 0);
+  }
+
+  /**
+   * @param parameters the query parameters of the request
+   * @return {@code true}, if the request is for a page after the first page in cursor mode
+   */
+  public static boolean hasCursor(QueryParameterSet parameters) {
+    return parameters.getTypedValues().containsKey(PARAMETER);
+  }
+
+  /**
+   * @param idProperty the name of the id property
+   * @param lastFeatureId the id of the last feature of the previous page
+   * @return the filter that selects the features after the previous page
+   */
+  public static Cql2Expression getPredicate(String idProperty, ScalarLiteral lastFeatureId) {
+    return Gt.of(idProperty, lastFeatureId);
+  }
+
+  /**
+   * @param query the query for a page
+   * @param idProperty the name of the id property
+   * @param parameters the query parameters of the request
+   * @return the query without the filter that selects the page, so that all pages of a query are
+   *     equal, e.g. to share the number of matched features
+   */
+  public static FeatureQuery withoutCursor(
+      FeatureQuery query, String idProperty, QueryParameterSet parameters) {
+    if (!hasCursor(parameters)) {
+      return query;
+    }
+
+    Cql2Expression predicate =
+        getPredicate(idProperty, (ScalarLiteral) parameters.getTypedValues().get(PARAMETER));
+
+    return ImmutableFeatureQuery.builder()
+        .from(query)
+        .filters(
+            query.getFilters().stream()
+                .filter(filter -> !Objects.equals(filter, predicate))
+                .collect(Collectors.toUnmodifiableList()))
+        .build();
+  }
+
+  /**
+   * @param href a link with the cursor placeholder
+   * @param nextCursor the cursor for the next page
+   * @return the link to the next page
+   */
+  public static String resolve(String href, String nextCursor) {
+    return href.replace(NEXT_PLACEHOLDER, nextCursor);
+  }
+
+  /**
+   * @param links the links of a page
+   * @param nextCursor the cursor for the next page, empty, if there is no next page
+   * @return the links with a resolved "next" link or without a "next" link
+   */
+  public static List<Link> resolve(List<Link> links, Optional<String> nextCursor) {
+    return links.stream()
+        .filter(
+            link ->
+                !Objects.equals(link.getRel(), "next")
+                    || !link.getHref().contains(NEXT_PLACEHOLDER)
+                    || nextCursor.isPresent())
+        .map(
+            link ->
+                Objects.equals(link.getRel(), "next") && link.getHref().contains(NEXT_PLACEHOLDER)
+                    ? new ImmutableLink.Builder()
+                        .from(link)
+                        .href(resolve(link.getHref(), nextCursor.get()))
+                        .build()
+                    : link)
+        .collect(Collectors.toUnmodifiableList());
+  }
+}
@@ -31,6 +31,35 @@ public class FeaturesLinksGenerator extends DefaultLinksGenerator {
       List<ApiMediaType> alternateMediaTypes,
       I18n i18n,
       Optional<Locale> language) {
+    return generateLinks(
+        uriBuilder,
+        offset,
+        limit,
+        defaultLimit,
+        false,
+        profiles,
+        mediaType,
+        alternateMediaTypes,
+        i18n,
+        language);
+  }
+
+  /**
+   * @param cursorPaging if {@code true}, the "next" link includes the placeholder {@link
+   *     FeaturesCursor#NEXT_PLACEHOLDER} for the cursor that has to be resolved by the encoder, and
+   *     there is no "prev" link
+   */
+  public List<Link> generateLinks(
+      URICustomizer uriBuilder,
+      int offset,
+      int limit,
+      int defaultLimit,
+      boolean cursorPaging,
+      List<String> profiles,
+      ApiMediaType mediaType,
+      List<ApiMediaType> alternateMediaTypes,
+      I18n i18n,
+      Optional<Locale> language) {
     final ImmutableList.Builder<Link> builder =
         new ImmutableList.Builder<Link>()
             .addAll(
@@ -38,6 +67,32 @@ public class FeaturesLinksGenerator extends DefaultLinksGenerator {
 
     uriBuilder.removeParameters("lang");
 
+    if (cursorPaging) {
+      builder.add(
+          new ImmutableLink.Builder()
+              .href(
+                  getUrlWithCursor(uriBuilder.copy())
+                      .setParameter(FeaturesCursor.PARAMETER, FeaturesCursor.NEXT_PLACEHOLDER)
+                      .toString())
+              .rel("next")
+              .type(mediaType.type().toString())
+              .title(i18n.get("nextLink", language))
+              .build());
+      if (uriBuilder.getQueryParams().stream()
+          .anyMatch(param -> FeaturesCursor.PARAMETER.equals(param.getName()))) {
+        builder.add(
+            new ImmutableLink.Builder()
+                .href(getUrlWithCursor(uriBuilder.copy()).toString())
+                .rel("first")
+                .type(mediaType.type().toString())
+                .title(i18n.get("firstLink", language))
+                .build());
+      }
+      addProfileLinks(builder, profiles, i18n, language);
+
+      return builder.build();
+    }
+
     // we have to create a next link here as we do not know numberMatched yet, but it will
     // be removed again in the feature transformer, if we are on the last page
     builder.add(
@@ -63,6 +118,16 @@ public class FeaturesLinksGenerator extends DefaultLinksGenerator {
               .title(i18n.get("firstLink", language))
               .build());
     }
+    addProfileLinks(builder, profiles, i18n, language);
+
+    return builder.build();
+  }
+
+  private void addProfileLinks(
+      ImmutableList.Builder<Link> builder,
+      List<String> profiles,
+      I18n i18n,
+      Optional<Locale> language) {
     profiles.forEach(
         p ->
             builder.add(
@@ -71,8 +136,10 @@ public class FeaturesLinksGenerator extends DefaultLinksGenerator {
                     .rel("profile")
                     .title(i18n.get("profileLink", language))
                     .build()));
+  }
 
-    return builder.build();
+  private URICustomizer getUrlWithCursor(final URICustomizer uriBuilder) {
+    return uriBuilder.ensureNoTrailingSlash().removeParameters("offset", FeaturesCursor.PARAMETER);
   }
 
   private String getUrlWithPageAndCount(
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.domain;
+
+import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.xtraplatform.features.domain.FeatureQuery;
+import java.util.Optional;
+
+/**
+ * The number of features matched by the queries of a collection. Queries are normalized, i.e. only
+ * the selection of the features is relevant, not the page, the CRS or the properties, so all pages
+ * of a query share the same value. In cursor mode, the filter that selects the page has to be
+ * removed from the query, see {@link FeaturesCursor#withoutCursor}. The values are removed, if the
+ * features of the collection change, and expire after a few minutes, since not all changes of the
+ * data are reported. This also applies to queries without a filter.
+ */
+public interface NumberMatchedCache {
+
+  /**
+   * @param api the API
+   * @param collectionId the collection
+   * @param query the query
+   * @return the number of matched features, if known
+   */
+  Optional<Long> get(OgcApi api, String collectionId, FeatureQuery query);
+
+  /**
+   * @param api the API
+   * @param collectionId the collection
+   * @param query the query
+   * @param numberMatched the number of matched features reported for the query
+   */
+  void put(OgcApi api, String collectionId, FeatureQuery query, long numberMatched);
+
+  /**
+   * Removes all values of the collection.
+   *
+   * @param api the API
+   * @param collectionId the collection
+   */
+  void invalidate(OgcApi api, String collectionId);
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.app
+
+import de.ii.ogcapi.features.core.domain.FeatureFormatExtension
+import de.ii.ogcapi.foundation.domain.ApiRequestContext
+import de.ii.ogcapi.foundation.domain.FeatureTypeConfigurationOgcApi
+import de.ii.ogcapi.foundation.domain.OgcApi
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2
+import de.ii.ogcapi.foundation.domain.QueryParameterSet
+import de.ii.xtraplatform.features.domain.FeatureSchema
+import de.ii.xtraplatform.features.domain.transform.PropertyTransformation
+import de.ii.xtraplatform.features.domain.transform.PropertyTransformations
+import spock.lang.Specification
+
+import javax.ws.rs.core.StreamingOutput
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class FeaturesCoreQueriesHandlerImplSpec extends Specification {
+
+    ExecutorService executor = Executors.newSingleThreadExecutor({ Runnable runnable ->
+        new Thread(runnable, "features-response-test")
+    })
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def 'a streamed response is written by the calling thread'() {
+        given:
+        Executor unused = Mock(Executor)
+        StreamingOutput streamed = { OutputStream output -> output.write(1) } as StreamingOutput
+        CompletionStage<StreamingOutput> response = CompletableFuture.completedFuture(streamed)
+        String thread = null
+
+        when:
+        FeaturesCoreQueriesHandlerImpl.completeOn(response, unused)
+                .thenAccept({ thread = Thread.currentThread().getName() })
+
+        then:
+        thread == Thread.currentThread().getName()
+        0 * unused.execute(_)
+    }
+
+    def 'a reduced response is completed on the executor, not by the feature stream'() {
+        given:
+        CompletableFuture<byte[]> reduced = new CompletableFuture<>()
+        CompletionStage<byte[]> response = FeaturesCoreQueriesHandlerImpl.completeOn(reduced, executor)
+        CompletableFuture<String> thread = new CompletableFuture<>()
+        response.thenAccept({ thread.complete(Thread.currentThread().getName()) })
+
+        when:
+        Thread stream = new Thread({ reduced.complete([1, 2] as byte[]) }, "feature-stream")
+        stream.start()
+        stream.join()
+
+        then:
+        thread.get(5, TimeUnit.SECONDS) == "features-response-test"
+        response.toCompletableFuture().get(5, TimeUnit.SECONDS) == [1, 2] as byte[]
+    }
+
+    def 'an error of the feature stream is passed on'() {
+        given:
+        CompletableFuture<byte[]> reduced = new CompletableFuture<>()
+        CompletionStage<byte[]> response = FeaturesCoreQueriesHandlerImpl.completeOn(reduced, executor)
+
+        when:
+        reduced.completeExceptionally(new IllegalStateException("failed"))
+
+        then:
+        response.toCompletableFuture().isCompletedExceptionally()
+    }
+
+    def 'cursor paging is only used, if the format resolves the cursor and the id is not transformed'() {
+        given:
+        OgcApiDataV2 apiData = Stub(OgcApiDataV2) {
+            getCollections() >> [c: Stub(FeatureTypeConfigurationOgcApi)]
+        }
+        OgcApi api = Stub(OgcApi) {
+            getData() >> apiData
+        }
+        FeatureSchema id = Stub(FeatureSchema) {
+            isId() >> true
+            getFullPathAsString() >> "id"
+        }
+        FeatureSchema schema = Stub(FeatureSchema) {
+            getProperties() >> [id]
+        }
+        PropertyTransformations propertyTransformations = Stub(PropertyTransformations) {
+            getTransformations() >> transformations.collectEntries { [(it): [Stub(PropertyTransformation)]] }
+        }
+        FeatureFormatExtension outputFormat = Stub(FeatureFormatExtension) {
+            supportsCursorPaging() >> supported
+            getPropertyTransformations(*_) >> Optional.of(propertyTransformations)
+        }
+        ApiRequestContext requestContext = Stub(ApiRequestContext) {
+            getQueryParameterSet() >> QueryParameterSet.of()
+        }
+
+        expect:
+        FeaturesCoreQueriesHandlerImpl.isCursorSupported(api, "c", Optional.of(schema), [], outputFormat, requestContext) == expected
+
+        where:
+        supported | transformations || expected
+        true      | []              || true
+        true      | ["name"]        || true
+        true      | ["id"]          || false
+        false     | []              || false
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.app
+
+import de.ii.ogcapi.features.core.domain.FeaturesCursor
+import de.ii.ogcapi.foundation.domain.OgcApi
+import de.ii.ogcapi.foundation.domain.QueryParameterSet
+import de.ii.xtraplatform.cql.domain.Eq
+import de.ii.xtraplatform.cql.domain.ScalarLiteral
+import de.ii.xtraplatform.features.domain.FeatureQuery
+import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+import java.util.function.LongSupplier
+
+class NumberMatchedCacheImplSpec extends Specification {
+
+    long now = 0
+    NumberMatchedCacheImpl cache = new NumberMatchedCacheImpl({ -> now } as LongSupplier)
+    OgcApi api = Stub(OgcApi) {
+        getId() >> "api"
+    }
+
+    def 'all pages of a query share the number of matched features'() {
+        when:
+        cache.put(api, "c", query("a", 0), 42)
+
+        then:
+        cache.get(api, "c", query("a", 10)) == Optional.of(42L)
+        cache.get(api, "c", query("b", 0)).isEmpty()
+        cache.get(api, "other", query("a", 0)).isEmpty()
+    }
+
+    def 'the number of matched features of queries without a filter expires, too'() {
+        given:
+        cache.put(api, "c", query(null, 0), 42)
+
+        expect:
+        cache.get(api, "c", query(null, 10)) == Optional.of(42L)
+
+        when:
+        now += TimeUnit.MINUTES.toNanos(5)
+
+        then:
+        cache.get(api, "c", query(null, 10)).isEmpty()
+    }
+
+    def 'the number of matched features expires'() {
+        given:
+        cache.put(api, "c", query("a", 0), 42)
+
+        when:
+        now += TimeUnit.MINUTES.toNanos(5) - 1
+
+        then:
+        cache.get(api, "c", query("a", 0)) == Optional.of(42L)
+
+        when:
+        now += 1
+
+        then:
+        cache.get(api, "c", query("a", 0)).isEmpty()
+    }
+
+    def 'the number of matched features is removed for a changed collection'() {
+        given:
+        cache.put(api, "c", query("a", 0), 42)
+
+        when:
+        cache.invalidate(api, "c")
+
+        then:
+        cache.get(api, "c", query("a", 0)).isEmpty()
+    }
+
+    def 'pages in cursor mode share the number of matched features without the cursor'() {
+        given:
+        ScalarLiteral cursor = ScalarLiteral.of(10L)
+        FeatureQuery next = ImmutableFeatureQuery.builder()
+                .from(query("a", 0))
+                .addFilters(FeaturesCursor.getPredicate("id", cursor))
+                .build()
+        QueryParameterSet parameters = Stub(QueryParameterSet) {
+            getTypedValues() >> [(FeaturesCursor.PARAMETER): cursor]
+        }
+        cache.put(api, "c", query("a", 0), 42)
+
+        expect:
+        cache.get(api, "c", next).isEmpty()
+        cache.get(api, "c", FeaturesCursor.withoutCursor(next, "id", parameters)) == Optional.of(42L)
+    }
+
+    static FeatureQuery query(String name, int offset) {
+        ImmutableFeatureQuery.Builder builder = ImmutableFeatureQuery.builder()
+                .type("t")
+                .offset(offset)
+                .limit(10)
+        if (name != null) {
+            builder.addFilters(Eq.of("name", ScalarLiteral.of(name)))
+        }
+        return builder.build()
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.domain
+
+import de.ii.ogcapi.foundation.domain.ImmutableLink
+import de.ii.ogcapi.foundation.domain.OgcApiQueryParameter
+import de.ii.ogcapi.foundation.domain.QueryParameterSet
+import de.ii.xtraplatform.cql.domain.Eq
+import de.ii.xtraplatform.cql.domain.ScalarLiteral
+import de.ii.xtraplatform.features.domain.FeatureQuery
+import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery
+import de.ii.xtraplatform.features.domain.SchemaBase.Type
+import de.ii.xtraplatform.features.domain.SortKey
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class FeaturesCursorSpec extends Specification {
+
+    def 'the id of the last feature is decoded as a literal of the type of the id'() {
+        when:
+        String cursor = FeaturesCursor.encode(id, type)
+
+        then:
+        cursor ==~ /[A-Za-z0-9_-]+/
+        FeaturesCursor.decode(cursor, type) == expected
+
+        where:
+        id                | type         | expected
+        "42"              | Type.INTEGER | ScalarLiteral.of(42L)
+        "9007199254740993"| Type.INTEGER | ScalarLiteral.of(9007199254740993L)
+        "1.5"             | Type.FLOAT   | ScalarLiteral.of(1.5d)
+        "abc"             | Type.STRING  | ScalarLiteral.of("abc")
+        "a:b/c?d=ä"       | Type.STRING  | ScalarLiteral.of("a:b/c?d=ä")
+        ""                | Type.STRING  | ScalarLiteral.of("")
+    }
+
+    def 'integer ids are compared as numbers, not as strings'() {
+        expect:
+        FeaturesCursor.decode(FeaturesCursor.encode("10", Type.INTEGER), Type.INTEGER) != ScalarLiteral.of("10")
+    }
+
+    def 'invalid or tampered cursors are rejected'() {
+        when:
+        FeaturesCursor.decode(cursor, type)
+
+        then:
+        IllegalArgumentException e = thrown()
+        e.message.contains("Invalid value for query parameter 'cursor'")
+
+        where:
+        cursor                                      | type
+        "not base64!"                               | Type.STRING
+        base64("42")                                | Type.INTEGER
+        base64("i:abc")                             | Type.INTEGER
+        base64("i:1.5")                             | Type.INTEGER
+        base64("f:NaN-ish")                         | Type.FLOAT
+        FeaturesCursor.encode("abc", Type.STRING)   | Type.INTEGER
+        FeaturesCursor.encode("42", Type.INTEGER)   | Type.STRING
+    }
+
+    def 'cursor paging is not used with a custom sort order or an offset'() {
+        given:
+        OgcApiQueryParameter cursor = Stub(OgcApiQueryParameter) {
+            getName() >> FeaturesCursor.PARAMETER
+        }
+        QueryParameterSet parameters = Stub(QueryParameterSet) {
+            getDefinitions() >> [cursor]
+            getTypedValues() >> values
+        }
+
+        expect:
+        FeaturesCursor.isCursorPaging(parameters) == expected
+
+        where:
+        values                          || expected
+        [:]                             || true
+        [offset: 0]                     || true
+        [offset: 10]                    || false
+        [sortby: [SortKey.of("name")]]  || false
+    }
+
+    def 'the placeholder of the next link is replaced with the cursor'() {
+        given:
+        def links = [
+                new ImmutableLink.Builder().rel("self").href("https://example.com/items?limit=10").build(),
+                new ImmutableLink.Builder().rel("next").href("https://example.com/items?limit=10&cursor=" + FeaturesCursor.NEXT_PLACEHOLDER).build()
+        ]
+
+        when:
+        def resolved = FeaturesCursor.resolve(links, Optional.of("abc"))
+        def last = FeaturesCursor.resolve(links, Optional.empty())
+
+        then:
+        resolved*.href == ["https://example.com/items?limit=10", "https://example.com/items?limit=10&cursor=abc"]
+        last*.rel == ["self"]
+    }
+
+    def 'the filter that selects the page is removed from the query'() {
+        given:
+        def filter = Eq.of("name", ScalarLiteral.of("a"))
+        def cursor = ScalarLiteral.of(42L)
+        FeatureQuery page = ImmutableFeatureQuery.builder()
+                .type("t")
+                .addFilters(filter, FeaturesCursor.getPredicate("id", cursor))
+                .build()
+        QueryParameterSet parameters = Stub(QueryParameterSet) {
+            getTypedValues() >> [(FeaturesCursor.PARAMETER): cursor]
+        }
+
+        when:
+        FeatureQuery query = FeaturesCursor.withoutCursor(page, "id", parameters)
+
+        then:
+        query.getFilters() == [filter]
+        FeaturesCursor.withoutCursor(query, "id", QueryParameterSet.of()).is(query)
+    }
+
+    static String base64(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8))
+    }
+}
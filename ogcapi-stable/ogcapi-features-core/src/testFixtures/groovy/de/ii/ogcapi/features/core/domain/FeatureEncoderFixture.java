@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.domain;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import de.ii.ogcapi.foundation.app.OgcApiEntity;
+import de.ii.ogcapi.foundation.domain.ApiMediaType;
+import de.ii.ogcapi.foundation.domain.ApiRequestContext;
+import de.ii.ogcapi.foundation.domain.AppContextTest;
+import de.ii.ogcapi.foundation.domain.CacheTest;
+import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
+import de.ii.ogcapi.foundation.domain.ImmutableFeatureTypeConfigurationOgcApi;
+import de.ii.ogcapi.foundation.domain.ImmutableOgcApiDataV2;
+import de.ii.ogcapi.foundation.domain.OgcApi;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.ogcapi.foundation.domain.QueryParameterSet;
+import de.ii.ogcapi.foundation.domain.RequestTimings;
+import de.ii.ogcapi.foundation.domain.URICustomizer;
+import de.ii.xtraplatform.auth.domain.User;
+import de.ii.xtraplatform.crs.domain.OgcCrs;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import javax.ws.rs.core.Request;
+
+/**
+ * The API, the request and the transformation context that a feature encoder needs to encode the
+ * replayed events of {@link RecordedFeatures}. The output is counted, but not kept, so that a
+ * benchmark only measures the encoding.
+ */
+public final class FeatureEncoderFixture {
+
+  private final RecordedFeatures features;
+  private final OgcApiDataV2 apiData;
+  private final OgcApi api;
+  private final ApiRequestContext requestContext;
+
+  /**
+   * @param features the features that are encoded
+   * @param mediaType the media type of the request
+   * @param extensions the configurations of the collection, e.g. the configuration of the format
+   */
+  public FeatureEncoderFixture(
+      RecordedFeatures features, ApiMediaType mediaType, ExtensionConfiguration... extensions) {
+    this.features = features;
+    this.apiData =
+        new ImmutableOgcApiDataV2.Builder()
+            .id("s")
+            .serviceType("OGC_API")
+            .putCollections(
+                features.getType(),
+                new ImmutableFeatureTypeConfigurationOgcApi.Builder()
+                    .id(features.getType())
+                    .label(features.getType())
+                    .addExtensions(
+                        new ImmutableFeaturesCoreConfiguration.Builder().enabled(true).build())
+                    .addExtensions(extensions)
+                    .enabled(true)
+                    .build())
+            .build();
+    this.api =
+        new OgcApiEntity(null, null, null, new AppContextTest(), null, new CacheTest(), apiData);
+    this.requestContext = new FixtureRequestContext(api, mediaType);
+  }
+
+  public OgcApi getApi() {
+    return api;
+  }
+
+  public OgcApiDataV2 getApiData() {
+    return apiData;
+  }
+
+  public ApiRequestContext getRequestContext() {
+    return requestContext;
+  }
+
+  /**
+   * The transformation context of a request for all features, like it is created for the query
+   * handler. The encoders create their own context from it.
+   *
+   * @param outputStream the output of the encoder
+   * @return the builder of the transformation context, to set further options
+   */
+  public ImmutableFeatureTransformationContextGeneric.Builder createTransformationContext(
+      OutputStream outputStream) {
+    return new ImmutableFeatureTransformationContextGeneric.Builder()
+        .api(api)
+        .apiData(apiData)
+        .featureSchemas(ImmutableMap.of(features.getType(), Optional.of(features.getSchema())))
+        .ogcApiRequest(requestContext)
+        .crsTransformer(Optional.empty())
+        .codelists(ImmutableMap.of())
+        .defaultCrs(OgcCrs.CRS84)
+        .links(ImmutableList.of())
+        .isFeatureCollection(true)
+        .isHitsOnly(false)
+        .fields(ImmutableMap.of(features.getType(), List.of("*")))
+        .limit(features.getNumberOfFeatures())
+        .offset(0)
+        .maxAllowableOffset(0)
+        .outputStream(outputStream);
+  }
+
+  /** Counts the bytes that are written, but does not keep them. */
+  public static class CountingOutputStream extends OutputStream {
+    private long count;
+
+    public long getCount() {
+      return count;
+    }
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+  }
+
+  private static class FixtureRequestContext implements ApiRequestContext {
+    private final OgcApi api;
+    private final ApiMediaType mediaType;
+
+    FixtureRequestContext(OgcApi api, ApiMediaType mediaType) {
+      this.api = api;
+      this.mediaType = mediaType;
+    }
+
+    @Override
+    public URI getExternalUri() {
+      return null;
+    }
+
+    @Override
+    public ApiMediaType getMediaType() {
+      return mediaType;
+    }
+
+    @Override
+    public List<ApiMediaType> getAlternateMediaTypes() {
+      return ImmutableList.of();
+    }
+
+    @Override
+    public Optional<Locale> getLanguage() {
+      return Optional.empty();
+    }
+
+    @Override
+    public OgcApi getApi() {
+      return api;
+    }
+
+    @Override
+    public URICustomizer getUriCustomizer() {
+      return new URICustomizer();
+    }
+
+    @Override
+    public String getStaticUrlPrefix() {
+      return null;
+    }
+
+    @Override
+    public Map<String, String> getParameters() {
+      return ImmutableMap.of();
+    }
+
+    @Override
+    public Optional<Request> getRequest() {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<User> getUser() {
+      return Optional.empty();
+    }
+
+    @Override
+    public QueryParameterSet getQueryParameterSet() {
+      return QueryParameterSet.of();
+    }
+
+    @Override
+    public Optional<RequestTimings> getTimings() {
+      return Optional.empty();
+    }
+  }
+}
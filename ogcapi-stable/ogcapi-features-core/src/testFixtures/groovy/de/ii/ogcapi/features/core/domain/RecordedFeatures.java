@@ -0,0 +1,332 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.core.domain;
+
+import com.google.common.collect.ImmutableMap;
+import de.ii.xtraplatform.features.domain.FeatureEventHandler;
+import de.ii.xtraplatform.features.domain.FeatureEventHandler.ModifiableContext;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureSchema;
+import de.ii.xtraplatform.features.domain.SchemaBase.Role;
+import de.ii.xtraplatform.features.domain.SchemaBase.Type;
+import de.ii.xtraplatform.features.domain.SchemaMapping;
+import de.ii.xtraplatform.geometries.domain.SimpleFeatureGeometry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The events of a feature collection as they are emitted by a feature provider. The events are
+ * recorded once and can then be replayed into any feature encoder, without a provider. Values are
+ * kept as strings like in the token stream, the paths of the properties are resolved when the
+ * events are recorded, so a replay only sets the context and calls the encoder.
+ */
+public final class RecordedFeatures {
+
+  public enum Event {
+    FEATURE_START,
+    FEATURE_END,
+    OBJECT_START,
+    OBJECT_END,
+    ARRAY_START,
+    ARRAY_END,
+    VALUE
+  }
+
+  private final String type;
+  private final FeatureSchema schema;
+  private final int numberOfFeatures;
+  private final Event[] events;
+  private final List<?>[] paths;
+  private final String[] values;
+  private final Type[] valueTypes;
+  private final SimpleFeatureGeometry[] geometryTypes;
+
+  private RecordedFeatures(Recorder recorder) {
+    this.type = recorder.type;
+    this.schema = recorder.schema;
+    this.numberOfFeatures = recorder.numberOfFeatures;
+    this.events = recorder.events.toArray(Event[]::new);
+    this.paths = recorder.paths.toArray(List<?>[]::new);
+    this.values = recorder.values.toArray(String[]::new);
+    this.valueTypes = recorder.valueTypes.toArray(Type[]::new);
+    this.geometryTypes = recorder.geometryTypes.toArray(SimpleFeatureGeometry[]::new);
+  }
+
+  public static Recorder recorder(String type, FeatureSchema schema) {
+    return new Recorder(type, schema);
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public FeatureSchema getSchema() {
+    return schema;
+  }
+
+  public int getNumberOfFeatures() {
+    return numberOfFeatures;
+  }
+
+  public int getNumberOfEvents() {
+    return events.length;
+  }
+
+  /**
+   * Replays the events into the encoder, from the start to the end of the feature collection.
+   *
+   * @param handler the encoder
+   * @param context a new context of the encoder, see {@code createContext()}
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends ModifiableContext<FeatureSchema, SchemaMapping>> void replay(
+      FeatureEventHandler<FeatureSchema, SchemaMapping, T> handler, T context) {
+    context
+        .setIsUseTargetPaths(true)
+        .setType(type)
+        .setMappings(Map.of(type, SchemaMapping.of(schema)));
+    context.setQuery(ImmutableFeatureQuery.builder().type(type).limit(numberOfFeatures).build());
+
+    handler.onStart(context);
+    for (int i = 0; i < events.length; i++) {
+      if (Objects.nonNull(paths[i])) {
+        context.pathTracker().track((List<String>) paths[i]);
+        context.setIndexes(List.of());
+      }
+
+      switch (events[i]) {
+        case FEATURE_START:
+          handler.onFeatureStart(context);
+          break;
+        case FEATURE_END:
+          handler.onFeatureEnd(context);
+          break;
+        case OBJECT_START:
+          if (Objects.nonNull(geometryTypes[i])) {
+            context.setGeometryType(geometryTypes[i]);
+            context.setInGeometry(true);
+          }
+          handler.onObjectStart(context);
+          break;
+        case OBJECT_END:
+          handler.onObjectEnd(context);
+          if (Objects.nonNull(geometryTypes[i])) {
+            context.setInGeometry(false);
+          }
+          break;
+        case ARRAY_START:
+          handler.onArrayStart(context);
+          break;
+        case ARRAY_END:
+          handler.onArrayEnd(context);
+          break;
+        case VALUE:
+          context.setValueType(valueTypes[i]);
+          context.setValue(values[i]);
+          handler.onValue(context);
+          break;
+      }
+    }
+    handler.onEnd(context);
+  }
+
+  /**
+   * A feature collection with the given number of features. Each feature has an integer id, a
+   * polygon with the given number of positions as primary geometry and string, integer, float,
+   * boolean and date properties. The same collection is used by the benchmarks of all encoders,
+   * so that their results can be compared.
+   *
+   * @param type the id of the collection
+   * @param features the number of features
+   * @param positions the number of positions of the exterior ring of each polygon
+   * @return the events of the feature collection
+   */
+  public static RecordedFeatures createSample(String type, int features, int positions) {
+    FeatureSchema schema =
+        new ImmutableFeatureSchema.Builder()
+            .name(type)
+            .type(Type.OBJECT)
+            .putAllPropertyMap(
+                ImmutableMap.<String, FeatureSchema>builder()
+                    .put("id", property("id", Type.INTEGER).role(Role.ID).build())
+                    .put("name", property("name", Type.STRING).build())
+                    .put("population", property("population", Type.INTEGER).build())
+                    .put("area", property("area", Type.FLOAT).build())
+                    .put("capital", property("capital", Type.BOOLEAN).build())
+                    .put("founded", property("founded", Type.DATE).build())
+                    .put(
+                        "geometry",
+                        property("geometry", Type.GEOMETRY)
+                            .role(Role.PRIMARY_GEOMETRY)
+                            .geometryType(SimpleFeatureGeometry.POLYGON)
+                            .build())
+                    .build())
+            .build();
+
+    Recorder recorder = recorder(type, schema);
+    for (int i = 0; i < features; i++) {
+      recorder
+          .featureStart()
+          .value("id", String.valueOf(i + 1))
+          .polygon(
+              "geometry",
+              createRing(7.0 + 0.001 * (i % 1000), 51.0 + 0.001 * (i / 1000), positions))
+          .value("name", "Feature " + (i + 1))
+          .value("population", String.valueOf(1000L + 37L * i))
+          .value("area", String.format(Locale.ROOT, "%.2f", 12.5 + 0.37 * i))
+          .value("capital", String.valueOf(i % 10 == 0))
+          .value(
+              "founded",
+              String.format(
+                  Locale.ROOT, "%04d-%02d-%02d", 1900 + i % 120, 1 + i % 12, 1 + i % 28))
+          .featureEnd();
+    }
+
+    return recorder.build();
+  }
+
+  private static ImmutableFeatureSchema.Builder property(String name, Type type) {
+    return new ImmutableFeatureSchema.Builder().name(name).type(type);
+  }
+
+  private static String[][] createRing(double x, double y, int positions) {
+    String[][] ring = new String[positions][];
+    for (int i = 0; i < positions - 1; i++) {
+      double angle = 2 * Math.PI * i / (positions - 1);
+      ring[i] =
+          new String[] {
+            String.format(Locale.ROOT, "%.7f", x + 0.0005 * Math.cos(angle)),
+            String.format(Locale.ROOT, "%.7f", y + 0.0005 * Math.sin(angle))
+          };
+    }
+    ring[positions - 1] = ring[0];
+
+    return ring;
+  }
+
+  /** Records the events of a feature collection in the order of the token stream. */
+  public static final class Recorder {
+    private final String type;
+    private final FeatureSchema schema;
+    private final Map<String, FeatureSchema> properties;
+    private final List<Event> events;
+    private final List<List<String>> paths;
+    private final List<String> values;
+    private final List<Type> valueTypes;
+    private final List<SimpleFeatureGeometry> geometryTypes;
+    private int numberOfFeatures;
+
+    private Recorder(String type, FeatureSchema schema) {
+      this.type = type;
+      this.schema = schema;
+      this.properties = new HashMap<>();
+      schema.getAllNestedProperties().forEach(p -> properties.put(p.getFullPathAsString(), p));
+      // the properties of the feature can also be addressed by their name
+      schema.getProperties().forEach(p -> properties.putIfAbsent(p.getName(), p));
+      this.events = new ArrayList<>();
+      this.paths = new ArrayList<>();
+      this.values = new ArrayList<>();
+      this.valueTypes = new ArrayList<>();
+      this.geometryTypes = new ArrayList<>();
+    }
+
+    public Recorder featureStart() {
+      numberOfFeatures++;
+      return add(Event.FEATURE_START, null, null, null, null);
+    }
+
+    public Recorder featureEnd() {
+      return add(Event.FEATURE_END, null, null, null, null);
+    }
+
+    /**
+     * @param path the path of the property, e.g. {@code address.city}
+     * @param value the value as a string, {@code null} for a missing value
+     */
+    public Recorder value(String path, String value) {
+      FeatureSchema property = getProperty(path);
+      return add(Event.VALUE, property.getFullPath(), value, property.getType(), null);
+    }
+
+    public Recorder objectStart(String path) {
+      return add(Event.OBJECT_START, getProperty(path).getFullPath(), null, null, null);
+    }
+
+    public Recorder objectEnd() {
+      return add(Event.OBJECT_END, null, null, null, null);
+    }
+
+    public Recorder arrayStart(String path) {
+      return add(Event.ARRAY_START, getProperty(path).getFullPath(), null, null, null);
+    }
+
+    public Recorder arrayEnd() {
+      return add(Event.ARRAY_END, null, null, null, null);
+    }
+
+    /**
+     * Records a polygon without holes as the events of a geometry, i.e. nested arrays of
+     * coordinate values in an object with the geometry type.
+     *
+     * @param path the path of the geometry property
+     * @param ring the positions of the exterior ring
+     */
+    public Recorder polygon(String path, String[][] ring) {
+      add(
+          Event.OBJECT_START,
+          getProperty(path).getFullPath(),
+          null,
+          null,
+          SimpleFeatureGeometry.POLYGON);
+      add(Event.ARRAY_START, null, null, null, null);
+      add(Event.ARRAY_START, null, null, null, null);
+      for (String[] position : ring) {
+        add(Event.ARRAY_START, null, null, null, null);
+        for (String coordinate : position) {
+          add(Event.VALUE, null, coordinate, Type.FLOAT, null);
+        }
+        add(Event.ARRAY_END, null, null, null, null);
+      }
+      add(Event.ARRAY_END, null, null, null, null);
+      add(Event.ARRAY_END, null, null, null, null);
+      return add(Event.OBJECT_END, null, null, null, SimpleFeatureGeometry.POLYGON);
+    }
+
+    public RecordedFeatures build() {
+      return new RecordedFeatures(this);
+    }
+
+    private FeatureSchema getProperty(String path) {
+      FeatureSchema property = properties.get(path);
+      if (Objects.isNull(property)) {
+        throw new IllegalArgumentException(
+            String.format("Unknown property '%s' in type '%s'.", path, type));
+      }
+      return property;
+    }
+
+    private Recorder add(
+        Event event,
+        List<String> path,
+        String value,
+        Type valueType,
+        SimpleFeatureGeometry geometryType) {
+      events.add(event);
+      paths.add(path);
+      values.add(value);
+      valueTypes.add(valueType);
+      geometryTypes.add(geometryType);
+      return this;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.geojson.app;
+
+import com.google.common.collect.ImmutableSortedSet;
+import de.ii.ogcapi.features.core.domain.FeatureEncoderFixture;
+import de.ii.ogcapi.features.core.domain.FeatureEncoderFixture.CountingOutputStream;
+import de.ii.ogcapi.features.core.domain.RecordedFeatures;
+import de.ii.ogcapi.features.geojson.domain.FeatureEncoderGeoJson;
+import de.ii.ogcapi.features.geojson.domain.GeoJsonWriter;
+import de.ii.ogcapi.features.geojson.domain.ImmutableFeatureTransformationContextGeoJson;
+import de.ii.ogcapi.features.geojson.domain.ImmutableGeoJsonConfiguration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Replays the events of a feature collection into the GeoJSON encoder with the same writers that
+ * are used for a request. The features are the sample collection of {@link RecordedFeatures},
+ * which is shared with the benchmarks of the other encoders. The output is counted, but not kept,
+ * so the results only include the encoding. Run with the {@code gc} profiler to get the allocated
+ * bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FeatureEncoderGeoJsonBenchmark {
+
+  @Param({"1", "100", "10000"})
+  public int features;
+
+  @Param({"false", "true"})
+  public boolean prettify;
+
+  /** The number of positions of the exterior ring of each polygon. */
+  @Param({"5", "100"})
+  public int positions;
+
+  private static final String COLLECTION_ID = "xyz";
+
+  private RecordedFeatures recordedFeatures;
+  private FeatureEncoderFixture fixture;
+
+  /** The size of the response in bytes. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Output {
+    public long outputBytes;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.recordedFeatures = RecordedFeatures.createSample(COLLECTION_ID, features, positions);
+    this.fixture =
+        new FeatureEncoderFixture(
+            recordedFeatures,
+            FeaturesFormatGeoJson.MEDIA_TYPE,
+            new ImmutableGeoJsonConfiguration.Builder().enabled(true).build());
+  }
+
+  @Benchmark
+  public long encodeFeatureCollection(Output output) {
+    CountingOutputStream outputStream = new CountingOutputStream();
+    FeatureEncoderGeoJson encoder =
+        new FeatureEncoderGeoJson(
+            ImmutableFeatureTransformationContextGeoJson.builder()
+                .from(fixture.createTransformationContext(outputStream).build())
+                .geoJsonConfig(new ImmutableGeoJsonConfiguration.Builder().enabled(true).build())
+                .prettify(prettify)
+                .build(),
+            createWriters());
+
+    recordedFeatures.replay(encoder, encoder.createContext());
+
+    output.outputBytes = outputStream.getCount();
+
+    return outputStream.getCount();
+  }
+
+  private static ImmutableSortedSet<GeoJsonWriter> createWriters() {
+    return ImmutableSortedSet.orderedBy(Comparator.comparingInt(GeoJsonWriter::getSortPriority))
+        .add(new GeoJsonWriterSkeleton())
+        .add(new GeoJsonWriterId())
+        .add(new GeoJsonWriterMetadata())
+        .add(new GeoJsonWriterLinks())
+        .add(new GeoJsonWriterGeometry(null))
+        .add(new GeoJsonWriterProperties())
+        .build();
+  }
+}
@@ -288,6 +288,11 @@ public class FeaturesFormatGeoJson extends FeatureFormatExtension
     return true;
   }
 
+  @Override
+  public boolean supportsCursorPaging() {
+    return true;
+  }
+
   @Override
   public Optional<Long> getNumberMatched(Object content) {
     return getMetadata(content, "numberMatched");
@@ -8,6 +8,7 @@
 package de.ii.ogcapi.features.geojson.app;
 
 import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.features.core.domain.FeaturesCursor;
 import de.ii.ogcapi.features.geojson.domain.EncodingAwareContextGeoJson;
 import de.ii.ogcapi.features.geojson.domain.GeoJsonWriter;
 import de.ii.ogcapi.foundation.domain.ImmutableLink;
@@ -145,6 +146,13 @@ public class GeoJsonWriterId implements GeoJsonWriter {
       if (currentSchema.isId()) {
         String id = context.value();
 
+        if (context.encoding().isCursorPaging()) {
+          context
+              .encoding()
+              .getState()
+              .setNextCursor(FeaturesCursor.encode(id, currentSchema.getType()));
+        }
+
         // always a string for a multi-collection query
         boolean isInteger =
             currentSchema.getType() == Type.INTEGER
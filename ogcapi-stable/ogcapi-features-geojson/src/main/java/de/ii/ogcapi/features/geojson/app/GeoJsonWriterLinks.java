@@ -12,6 +12,7 @@ import com.github.azahnen.dagger.annotations.AutoBind;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import de.ii.ogcapi.features.core.domain.FeaturesCoreConfiguration;
+import de.ii.ogcapi.features.core.domain.FeaturesCursor;
 import de.ii.ogcapi.features.geojson.domain.EncodingAwareContextGeoJson;
 import de.ii.ogcapi.features.geojson.domain.GeoJsonWriter;
 import de.ii.ogcapi.foundation.domain.Link;
@@ -90,9 +91,12 @@ public class GeoJsonWriterLinks implements GeoJsonWriter {
   public void onEnd(EncodingAwareContextGeoJson context, Consumer<EncodingAwareContextGeoJson> next)
       throws IOException {
     if (context.encoding().isFeatureCollection()) {
-      this.writeLinksIfAny(
-          context.encoding().getJson(),
-          context.encoding().getState().getCurrentFeatureCollectionLinks());
+      List<Link> links = context.encoding().getState().getCurrentFeatureCollectionLinks();
+      if (context.encoding().isCursorPaging()) {
+        // the cursor of the next page is the id of the last feature
+        links = FeaturesCursor.resolve(links, context.encoding().getState().getNextCursor());
+      }
+      this.writeLinksIfAny(context.encoding().getJson(), links);
     }
 
     // next chain for extensions
@@ -196,5 +196,7 @@ public abstract class FeatureTransformationContextGeoJson implements FeatureTran
     public List<Link> getCurrentFeatureCollectionLinks() {
       return ImmutableList.of();
     }
+
+    public abstract Optional<String> getNextCursor();
   }
 }
@@ -107,6 +107,11 @@ class GeoJsonWriterSetupUtil {
                     QueryParameterSet getQueryParameterSet() {
                         return QueryParameterSet.of()
                     }
+
+                    @Override
+                    Optional<RequestTimings> getTimings() {
+                        return Optional.empty()
+                    }
                 })
                 .limit(10)
                 .offset(20)
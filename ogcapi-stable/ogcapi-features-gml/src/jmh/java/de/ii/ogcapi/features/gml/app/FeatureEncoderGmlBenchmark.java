@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.gml.app;
+
+import com.google.common.collect.ImmutableSortedSet;
+import de.ii.ogcapi.features.core.domain.FeatureEncoderFixture;
+import de.ii.ogcapi.features.core.domain.FeatureEncoderFixture.CountingOutputStream;
+import de.ii.ogcapi.features.core.domain.RecordedFeatures;
+import de.ii.ogcapi.features.gml.domain.GmlConfiguration.GmlVersion;
+import de.ii.ogcapi.features.gml.domain.GmlWriter;
+import de.ii.ogcapi.features.gml.domain.ImmutableFeatureTransformationContextGml;
+import de.ii.ogcapi.features.gml.domain.ImmutableGmlConfiguration;
+import de.ii.ogcapi.foundation.domain.ApiMediaType;
+import de.ii.ogcapi.foundation.domain.ImmutableApiMediaType;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.MediaType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Replays the events of the sample feature collection of {@link RecordedFeatures} into the GML
+ * encoder with the same writers that are used for a request. The features are encoded as GML 3.2
+ * in a {@code sf:FeatureCollection}. The output is counted, but not kept, so the results only
+ * include the encoding. Run with the {@code gc} profiler to get the allocated bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FeatureEncoderGmlBenchmark {
+
+  @Param({"1", "100", "10000"})
+  public int features;
+
+  /** The number of positions of the exterior ring of each polygon. */
+  @Param({"5", "100"})
+  public int positions;
+
+  private static final String COLLECTION_ID = "xyz";
+  private static final String APP = "app";
+  private static final String APP_NS = "http://www.example.com/app";
+  private static final ApiMediaType MEDIA_TYPE =
+      new ImmutableApiMediaType.Builder()
+          .type(new MediaType("application", "gml+xml"))
+          .label("GML")
+          .parameter("xml")
+          .build();
+
+  private RecordedFeatures recordedFeatures;
+  private FeatureEncoderFixture fixture;
+
+  /** The size of the response in bytes. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Output {
+    public long outputBytes;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.recordedFeatures = RecordedFeatures.createSample(COLLECTION_ID, features, positions);
+    this.fixture =
+        new FeatureEncoderFixture(
+            recordedFeatures,
+            MEDIA_TYPE,
+            new ImmutableGmlConfiguration.Builder()
+                .enabled(true)
+                .defaultNamespace(APP)
+                .putApplicationNamespaces(APP, APP_NS)
+                .build());
+  }
+
+  @Benchmark
+  public long encodeFeatureCollection(Output output) {
+    CountingOutputStream outputStream = new CountingOutputStream();
+    FeatureEncoderGml encoder =
+        new FeatureEncoderGml(
+            ImmutableFeatureTransformationContextGml.builder()
+                .from(fixture.createTransformationContext(outputStream).build())
+                .gmlVersion(GmlVersion.GML32)
+                .putAllNamespaces(FeaturesFormatGml.STANDARD_NAMESPACES)
+                .putNamespaces(APP, APP_NS)
+                .defaultNamespace(Optional.of(APP))
+                .featureCollectionElementName(Optional.of("sf:FeatureCollection"))
+                .featureMemberElementName(Optional.of("sf:featureMember"))
+                .supportsStandardResponseParameters(false)
+                .gmlIdOnGeometries(false)
+                .build(),
+            createWriters());
+
+    recordedFeatures.replay(encoder, encoder.createContext());
+
+    output.outputBytes = outputStream.getCount();
+
+    return outputStream.getCount();
+  }
+
+  private static ImmutableSortedSet<GmlWriter> createWriters() {
+    return ImmutableSortedSet.orderedBy(Comparator.comparingInt(GmlWriter::getSortPriority))
+        .add(new GmlWriterSkeleton())
+        .add(new GmlWriterId())
+        .add(new GmlWriterMetadata())
+        .add(new GmlWriterGeometry())
+        .add(new GmlWriterProperties())
+        .build();
+  }
+}
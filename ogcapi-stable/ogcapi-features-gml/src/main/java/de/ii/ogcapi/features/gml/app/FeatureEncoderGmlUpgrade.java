@@ -13,8 +13,6 @@ import static de.ii.xtraplatform.base.domain.util.LambdaWithException.consumerMa
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
-import com.google.common.escape.Escaper;
-import com.google.common.xml.XmlEscapers;
 import de.ii.ogcapi.features.gml.domain.EncodingAwareContextGmlUpgrade;
 import de.ii.ogcapi.features.gml.domain.FeatureTransformationContextGmlUpgrade;
 import de.ii.ogcapi.features.gml.domain.ModifiableEncodingAwareContextGmlUpgrade;
@@ -26,6 +24,7 @@ import de.ii.xtraplatform.geometries.domain.ImmutableCoordinatesTransformer;
 import de.ii.xtraplatform.streams.domain.OutputStreamToByteConsumer;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
@@ -62,8 +61,8 @@ public class FeatureEncoderGmlUpgrade
   private final OutputStreamWriter writer;
   private final XMLNamespaceNormalizer namespaces;
   private final CrsTransformer crsTransformer;
-  private final Escaper escaper;
   private final double maxAllowableOffset;
+  private final SimplifiedGeometryStore simplifiedGeometries;
 
   private boolean inCurrentStart;
   private boolean inCurrentFeatureStart;
@@ -77,7 +76,9 @@ public class FeatureEncoderGmlUpgrade
     "PMD.TooManyMethods",
     "PMD.GodClass"
   }) // this class needs that many methods, a refactoring makes no sense
-  public FeatureEncoderGmlUpgrade(FeatureTransformationContextGmlUpgrade transformationContext) {
+  public FeatureEncoderGmlUpgrade(
+      FeatureTransformationContextGmlUpgrade transformationContext,
+      SimplifiedGeometryStore simplifiedGeometries) {
     super();
     this.transformationContext = transformationContext;
     this.isFeatureCollection = transformationContext.isFeatureCollection();
@@ -85,9 +86,8 @@ public class FeatureEncoderGmlUpgrade
         new OutputStreamWriter(transformationContext.getOutputStream(), StandardCharsets.UTF_8);
     this.namespaces = new XMLNamespaceNormalizer(transformationContext.getNamespaces());
     this.crsTransformer = transformationContext.getCrsTransformer().orElse(null);
-    //noinspection UnstableApiUsage
-    this.escaper = XmlEscapers.xmlAttributeEscaper();
     this.maxAllowableOffset = transformationContext.getMaxAllowableOffset();
+    this.simplifiedGeometries = simplifiedGeometries;
     this.namespaces.addNamespace("sf", "http://www.opengis.net/ogcapi-features-1/1.0/sf", true);
     this.namespaces.addNamespace("ogcapi", "http://www.opengis.net/ogcapi-features-1/1.0", true);
     this.namespaces.addNamespace("atom", "http://www.w3.org/2005/Atom", true);
@@ -158,9 +158,7 @@ public class FeatureEncoderGmlUpgrade
         writer.append("\n<sf:featureMember>");
       }
       writer.append("\n<");
-      writer.append(getNamespaceUri(context.path()));
-      writer.append(":");
-      writer.append(getLocalName(context.path()));
+      writer.append(getQualifiedName(context.path()));
 
       if (!isFeatureCollection) {
         namespaces
@@ -192,9 +190,7 @@ public class FeatureEncoderGmlUpgrade
   public void onFeatureEnd(EncodingAwareContextGmlUpgrade context) {
     try {
       writer.append("\n</");
-      writer.append(getNamespaceUri(context.path()));
-      writer.append(":");
-      writer.append(getLocalName(context.path()));
+      writer.append(getQualifiedName(context.path()));
       writer.append(">");
       if (isFeatureCollection) {
         writer.append("\n</sf:featureMember>");
@@ -225,9 +221,7 @@ public class FeatureEncoderGmlUpgrade
       }
 
       writer.append("\n<");
-      writer.append(getNamespaceUri(context.path()));
-      writer.append(":");
-      writer.append(getLocalName(context.path()));
+      writer.append(getQualifiedName(context.path()));
 
       inCurrentPropertyStart = true;
       if (GEOMETRY_COORDINATES.contains(getLocalName(context.path()))) {
@@ -257,9 +251,7 @@ public class FeatureEncoderGmlUpgrade
         inCurrentPropertyText = false;
 
         writer.append("</");
-        writer.append(getNamespaceUri(context.path()));
-        writer.append(":");
-        writer.append(getLocalName(context.path()));
+        writer.append(getQualifiedName(context.path()));
         writer.append(">");
       }
       inCoordinates = false;
@@ -356,7 +348,7 @@ public class FeatureEncoderGmlUpgrade
     }
     writer.append(localName);
     writer.append("=\"");
-    writer.append(escaper.escape(newValue));
+    XmlEscaping.writeAttributeValue(writer, newValue);
     writer.append("\"");
   }
 
@@ -369,33 +361,16 @@ public class FeatureEncoderGmlUpgrade
       }
 
       if (inCoordinates) {
-        ImmutableCoordinatesTransformer.Builder coordinatesTransformerBuilder =
-            ImmutableCoordinatesTransformer.builder();
-        coordinatesTransformerBuilder.coordinatesWriter(
-            ImmutableCoordinatesWriterGml.of(
-                writer, Optional.ofNullable(currentDimension).orElse(2)));
-
-        if (crsTransformer != null) {
-          coordinatesTransformerBuilder.crsTransformer(crsTransformer);
-        }
-
-        if (currentDimension != null) {
-          coordinatesTransformerBuilder.sourceDimension(currentDimension);
-          coordinatesTransformerBuilder.targetDimension(currentDimension);
-        } else {
-          coordinatesTransformerBuilder.sourceDimension(2);
-          coordinatesTransformerBuilder.targetDimension(2);
-        }
+        String coordinates = Objects.requireNonNull(context.value());
+        int dimension = Optional.ofNullable(currentDimension).orElse(2);
 
         if (maxAllowableOffset > 0) {
-          coordinatesTransformerBuilder.maxAllowableOffset(maxAllowableOffset);
-        }
-
-        try (Writer coordinatesWriter = coordinatesTransformerBuilder.build()) {
-          coordinatesWriter.write(Objects.requireNonNull(context.value()));
+          writeSimplifiedCoordinates(coordinates, dimension);
+        } else {
+          writeCoordinates(writer, coordinates, dimension);
         }
       } else {
-        writer.append(escaper.escape(Objects.requireNonNull(context.value())));
+        XmlEscaping.writeAttributeValue(writer, Objects.requireNonNull(context.value()));
       }
       inCurrentPropertyText = true;
     } catch (IOException e) {
@@ -403,6 +378,50 @@ public class FeatureEncoderGmlUpgrade
     }
   }
 
+  private void writeSimplifiedCoordinates(String coordinates, int dimension) throws IOException {
+    String levelKey =
+        SimplifiedGeometryStore.getLevelKey(
+            transformationContext.getApiData().getId(),
+            transformationContext.getCollectionId(),
+            transformationContext.getTargetCrs().toUriString(),
+            dimension,
+            maxAllowableOffset);
+    Optional<String> simplifiedCoordinates = simplifiedGeometries.get(levelKey, coordinates);
+
+    if (simplifiedCoordinates.isPresent()) {
+      writer.write(simplifiedCoordinates.get());
+      return;
+    }
+
+    StringWriter simplified = new StringWriter(coordinates.length());
+    writeCoordinates(simplified, coordinates, dimension);
+    simplifiedGeometries.put(levelKey, coordinates, simplified.toString());
+    writer.write(simplified.toString());
+  }
+
+  private void writeCoordinates(Writer target, String coordinates, int dimension)
+      throws IOException {
+    ImmutableCoordinatesTransformer.Builder coordinatesTransformerBuilder =
+        ImmutableCoordinatesTransformer.builder();
+    coordinatesTransformerBuilder.coordinatesWriter(
+        ImmutableCoordinatesWriterGml.of(target, dimension));
+
+    if (crsTransformer != null) {
+      coordinatesTransformerBuilder.crsTransformer(crsTransformer);
+    }
+
+    coordinatesTransformerBuilder.sourceDimension(dimension);
+    coordinatesTransformerBuilder.targetDimension(dimension);
+
+    if (maxAllowableOffset > 0) {
+      coordinatesTransformerBuilder.maxAllowableOffset(maxAllowableOffset);
+    }
+
+    try (Writer coordinatesWriter = coordinatesTransformerBuilder.build()) {
+      coordinatesWriter.write(coordinates);
+    }
+  }
+
   private String adjustSchemaLocation(String schemaLocation) {
     List<String> split = Splitter.on(' ').splitToList(schemaLocation);
     Map<String, String> locations = new LinkedHashMap<>();
@@ -427,6 +446,11 @@ public class FeatureEncoderGmlUpgrade
         .collect(Collectors.joining(" "));
   }
 
+  // the qualified name as it is used in the path, prefix and local name are not split
+  private String getQualifiedName(List<String> path) {
+    return path.isEmpty() ? null : path.get(path.size() - 1);
+  }
+
   private String getLocalName(List<String> path) {
     return path.isEmpty() ? null : getLocalName(path.get(path.size() - 1));
   }
@@ -435,10 +459,6 @@ public class FeatureEncoderGmlUpgrade
     return name.substring(name.lastIndexOf(':') + 1);
   }
 
-  private String getNamespaceUri(List<String> path) {
-    return path.isEmpty() ? null : getNamespaceUri(path.get(path.size() - 1));
-  }
-
   private String getNamespaceUri(String name) {
     return name.substring(0, name.lastIndexOf(':'));
   }
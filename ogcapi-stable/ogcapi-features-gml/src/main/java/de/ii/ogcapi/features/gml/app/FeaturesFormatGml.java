@@ -150,10 +150,13 @@ public class FeaturesFormatGml extends FeatureFormatExtension implements Conform
       "http://www.opengis.net/spec/ogcapi-features-1/1.0/conf/gmlsf0";
   private static final String GMLSF2_CC =
       "http://www.opengis.net/spec/ogcapi-features-1/1.0/conf/gmlsf2";
+  private static final int SIMPLIFIED_GEOMETRIES_MAX_LEVELS = 64;
+  private static final long SIMPLIFIED_GEOMETRIES_MAX_CHARS_PER_LEVEL = 4_000_000L;
 
   private final Values<Codelist> codelistStore;
   private final FeaturesCoreValidation featuresCoreValidator;
   private final GmlWriterRegistry gmlWriterRegistry;
+  private final SimplifiedGeometryStore simplifiedGeometries;
 
   @Inject
   public FeaturesFormatGml(
@@ -166,6 +169,9 @@ public class FeaturesFormatGml extends FeatureFormatExtension implements Conform
     this.codelistStore = valueStore.forType(Codelist.class);
     this.featuresCoreValidator = featuresCoreValidator;
     this.gmlWriterRegistry = gmlWriterRegistry;
+    this.simplifiedGeometries =
+        new SimplifiedGeometryStore(
+            SIMPLIFIED_GEOMETRIES_MAX_LEVELS, SIMPLIFIED_GEOMETRIES_MAX_CHARS_PER_LEVEL);
   }
 
   @Override
@@ -248,6 +254,8 @@ public class FeaturesFormatGml extends FeatureFormatExtension implements Conform
 
   @Override
   public ValidationResult onStartup(OgcApi api, MODE apiValidation) {
+    // the levels of the API may have changed
+    simplifiedGeometries.remove(api.getId() + "/");
 
     // no additional operational checks for now, only validation; we can stop, if no validation is
     // requested
@@ -330,7 +338,8 @@ public class FeaturesFormatGml extends FeatureFormatExtension implements Conform
                                         .getData())
                                 .getConnectionInfo())
                         .getNamespaces())
-                .build()));
+                .build(),
+            simplifiedGeometries));
   }
 
   @Override
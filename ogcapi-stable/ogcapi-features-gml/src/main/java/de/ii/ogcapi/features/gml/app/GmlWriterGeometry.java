@@ -281,7 +281,7 @@ public class GmlWriterGeometry implements GmlWriter {
         if (level == 1) {
           writeOpeningTags(
               context,
-              Optional.of(String.format(".%d", context.encoding().getGeometryItem(0))),
+              Optional.of("." + context.encoding().getGeometryItem(0)),
               false,
               getGmlElementName(context, POINT_MEMBER),
               getGmlElementName(context, POINT),
@@ -299,7 +299,7 @@ public class GmlWriterGeometry implements GmlWriter {
         if (level == 1) {
           writeOpeningTags(
               context,
-              Optional.of(String.format(".%d", context.encoding().getGeometryItem(0))),
+              Optional.of("." + context.encoding().getGeometryItem(0)),
               false,
               getGmlElementName(context, CURVE_MEMBER),
               getGmlElementName(context, LINE_STRING),
@@ -332,21 +332,20 @@ public class GmlWriterGeometry implements GmlWriter {
           if (context.schema().orElseThrow().getName().equals("lod2MultiSurface")
               && nextLocalPolygonId > 0) {
             context.encoding().getState().setDeferredPolygonId(nextLocalPolygonId + 1);
-            String polygonId =
-                String.format("%s.%d", context.encoding().getCurrentGmlId(), nextLocalPolygonId);
+            String polygonId = context.encoding().getCurrentGmlId() + "." + nextLocalPolygonId;
             context
                 .encoding()
                 .writeAsSurfaceMemberLink(getGmlElementName(context, SURFACE_MEMBER), polygonId);
             writeOpeningTags(
                 context,
-                Optional.of(String.format(".%d", nextLocalPolygonId)),
+                Optional.of("." + nextLocalPolygonId),
                 true,
                 getGmlElementName(context, SURFACE_MEMBER),
                 getGmlElementName(context, POLYGON));
           } else if (!context.encoding().getState().getDeferredSolidGeometry()) {
             writeOpeningTags(
                 context,
-                Optional.of(String.format(".%d", context.encoding().getGeometryItem(0))),
+                Optional.of("." + context.encoding().getGeometryItem(0)),
                 false,
                 getGmlElementName(context, SURFACE_MEMBER),
                 getGmlElementName(context, POLYGON));
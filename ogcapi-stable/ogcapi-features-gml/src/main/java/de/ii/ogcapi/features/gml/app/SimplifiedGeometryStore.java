@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.gml.app;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the simplified coordinates of geometries per level of detail. A level is the combination
+ * of the collection, the target CRS, the dimension and the tolerance. With the geometry
+ * simplification module the tolerances are snapped to the configured levels, so a geometry is
+ * simplified once per level and served from the store for all later requests.
+ *
+ * <p>The entries are keyed by the source coordinates, not by the feature id, since the features
+ * that are passed through from a WFS have neither a version nor change events. An updated
+ * geometry therefore never hits a stale entry. Each level is a least-recently-used map that is
+ * bounded by the number of characters it holds. The number of levels is bounded, too, since
+ * without snapping every requested tolerance is a level of its own.
+ */
+final class SimplifiedGeometryStore {
+
+  private final int maxLevels;
+  private final long maxCharsPerLevel;
+  private final Map<String, Level> levels;
+
+  SimplifiedGeometryStore(int maxLevels, long maxCharsPerLevel) {
+    this.maxLevels = maxLevels;
+    this.maxCharsPerLevel = maxCharsPerLevel;
+    this.levels = new ConcurrentHashMap<>();
+  }
+
+  static String getLevelKey(
+      String apiId, String collectionId, String crs, int dimension, double maxAllowableOffset) {
+    return String.join(
+        "/",
+        apiId,
+        collectionId,
+        crs,
+        String.valueOf(dimension),
+        String.valueOf(maxAllowableOffset));
+  }
+
+  Optional<String> get(String levelKey, String coordinates) {
+    Level level = levels.get(levelKey);
+
+    return Objects.isNull(level) ? Optional.empty() : level.get(coordinates);
+  }
+
+  void put(String levelKey, String coordinates, String simplifiedCoordinates) {
+    long chars = (long) coordinates.length() + simplifiedCoordinates.length();
+    if (chars > maxCharsPerLevel) {
+      return;
+    }
+
+    Level level = levels.get(levelKey);
+    if (Objects.isNull(level)) {
+      if (levels.size() >= maxLevels) {
+        return;
+      }
+      level = levels.computeIfAbsent(levelKey, key -> new Level(maxCharsPerLevel));
+    }
+
+    level.put(coordinates, simplifiedCoordinates, chars);
+  }
+
+  void remove(String levelKeyPrefix) {
+    levels.keySet().removeIf(key -> key.startsWith(levelKeyPrefix));
+  }
+
+  int size(String levelKey) {
+    Level level = levels.get(levelKey);
+
+    return Objects.isNull(level) ? 0 : level.size();
+  }
+
+  private static final class Level {
+    private final long maxChars;
+    private final LinkedHashMap<String, String> entries;
+    private long chars;
+
+    private Level(long maxChars) {
+      this.maxChars = maxChars;
+      this.entries = new LinkedHashMap<>(16, 0.75f, true);
+      this.chars = 0;
+    }
+
+    private synchronized Optional<String> get(String coordinates) {
+      return Optional.ofNullable(entries.get(coordinates));
+    }
+
+    private synchronized void put(String coordinates, String simplifiedCoordinates, long size) {
+      String previous = entries.put(coordinates, simplifiedCoordinates);
+      if (Objects.nonNull(previous)) {
+        chars -= coordinates.length() + previous.length();
+      }
+      chars += size;
+
+      while (chars > maxChars && !entries.isEmpty()) {
+        Map.Entry<String, String> eldest = entries.entrySet().iterator().next();
+        chars -= eldest.getKey().length() + eldest.getValue().length();
+        entries.remove(eldest.getKey());
+      }
+    }
+
+    private synchronized int size() {
+      return entries.size();
+    }
+  }
+}
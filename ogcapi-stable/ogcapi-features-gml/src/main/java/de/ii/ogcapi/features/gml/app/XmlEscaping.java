@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.gml.app;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escaping of XML text and attribute values in a single pass. Values without characters that have
+ * to be escaped, which are the vast majority, are returned or written without copying.
+ */
+final class XmlEscaping {
+
+  private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+  private XmlEscaping() {}
+
+  /**
+   * Escapes the characters {@code & < > " '}.
+   *
+   * @param text the text
+   * @return the escaped text
+   */
+  static String escapeText(String text) {
+    int length = text.length();
+    int i = 0;
+    while (i < length && getTextEscape(text.charAt(i)) == null) {
+      i++;
+    }
+    if (i == length) {
+      return text;
+    }
+
+    StringBuilder escaped = new StringBuilder(length + 16);
+    escaped.append(text, 0, i);
+    for (; i < length; i++) {
+      char c = text.charAt(i);
+      String escape = getTextEscape(c);
+      if (escape == null) {
+        escaped.append(c);
+      } else {
+        escaped.append(escape);
+      }
+    }
+    return escaped.toString();
+  }
+
+  /**
+   * Writes the value escaped for an attribute. In addition to {@link #escapeText(String)}, tabs and
+   * line breaks are written as character references and characters that are not allowed in XML
+   * are replaced with U+FFFD, like {@code XmlEscapers.xmlAttributeEscaper()}.
+   *
+   * @param writer the writer
+   * @param value the attribute value
+   * @throws IOException if the value cannot be written
+   */
+  static void writeAttributeValue(Writer writer, String value) throws IOException {
+    int length = value.length();
+    int start = 0;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      String escape = getAttributeEscape(c);
+      if (escape != null) {
+        if (i > start) {
+          writer.write(value, start, i - start);
+        }
+        writer.write(escape);
+        start = i + 1;
+      } else if (isIllegal(c)) {
+        if (i > start) {
+          writer.write(value, start, i - start);
+        }
+        writer.write(REPLACEMENT_CHARACTER);
+        start = i + 1;
+      }
+    }
+    if (start < length) {
+      writer.write(value, start, length - start);
+    }
+  }
+
+  private static String getTextEscape(char c) {
+    switch (c) {
+      case '&':
+        return "&amp;";
+      case '<':
+        return "&lt;";
+      case '>':
+        return "&gt;";
+      case '"':
+        return "&quot;";
+      case '\'':
+        return "&apos;";
+      default:
+        return null;
+    }
+  }
+
+  private static String getAttributeEscape(char c) {
+    switch (c) {
+      case '\t':
+        return "&#x9;";
+      case '\n':
+        return "&#xA;";
+      case '\r':
+        return "&#xD;";
+      default:
+        return getTextEscape(c);
+    }
+  }
+
+  private static boolean isIllegal(char c) {
+    return c < 0x20 || c == '\uFFFE' || c == '\uFFFF';
+  }
+}
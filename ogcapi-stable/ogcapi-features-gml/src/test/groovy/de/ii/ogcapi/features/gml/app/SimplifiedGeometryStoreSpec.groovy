@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.gml.app
+
+import spock.lang.Specification
+
+class SimplifiedGeometryStoreSpec extends Specification {
+
+    static final String LEVEL_8 = SimplifiedGeometryStore.getLevelKey("api", "a", "crs", 2, 533.2)
+    static final String LEVEL_12 = SimplifiedGeometryStore.getLevelKey("api", "a", "crs", 2, 33.3)
+
+    def 'simplified coordinates are stored per level'() {
+        given:
+        SimplifiedGeometryStore store = new SimplifiedGeometryStore(4, 1000)
+
+        when:
+        store.put(LEVEL_8, "0 0 1 1 2 2", "0 0 2 2")
+        store.put(LEVEL_12, "0 0 1 1 2 2", "0 0 1 1 2 2")
+
+        then:
+        store.get(LEVEL_8, "0 0 1 1 2 2") == Optional.of("0 0 2 2")
+        store.get(LEVEL_12, "0 0 1 1 2 2") == Optional.of("0 0 1 1 2 2")
+        store.get(LEVEL_8, "0 0 1 1 3 3").isEmpty()
+    }
+
+    def 'the least recently used geometries are evicted when a level is full'() {
+        given:
+        SimplifiedGeometryStore store = new SimplifiedGeometryStore(4, 20)
+        store.put(LEVEL_8, "0 0 1 1", "0 0")
+        store.put(LEVEL_8, "1 1 2 2", "1 1")
+
+        when:
+        store.get(LEVEL_8, "0 0 1 1")
+        store.put(LEVEL_8, "2 2 3 3", "2 2")
+
+        then:
+        store.size(LEVEL_8) == 2
+        store.get(LEVEL_8, "0 0 1 1").isPresent()
+        store.get(LEVEL_8, "1 1 2 2").isEmpty()
+        store.get(LEVEL_8, "2 2 3 3").isPresent()
+    }
+
+    def 'geometries that are larger than a level are not stored'() {
+        given:
+        SimplifiedGeometryStore store = new SimplifiedGeometryStore(4, 10)
+
+        when:
+        store.put(LEVEL_8, "0 0 1 1 2 2", "0 0 2 2")
+
+        then:
+        store.size(LEVEL_8) == 0
+    }
+
+    def 'no levels are added beyond the limit'() {
+        given:
+        SimplifiedGeometryStore store = new SimplifiedGeometryStore(1, 1000)
+        store.put(LEVEL_8, "0 0 1 1", "0 0")
+
+        when:
+        store.put(LEVEL_12, "0 0 1 1", "0 0 1 1")
+
+        then:
+        store.get(LEVEL_8, "0 0 1 1").isPresent()
+        store.get(LEVEL_12, "0 0 1 1").isEmpty()
+    }
+
+    def 'the levels of an API are removed'() {
+        given:
+        SimplifiedGeometryStore store = new SimplifiedGeometryStore(4, 1000)
+        String otherApi = SimplifiedGeometryStore.getLevelKey("api2", "a", "crs", 2, 533.2)
+        store.put(LEVEL_8, "0 0 1 1", "0 0")
+        store.put(otherApi, "0 0 1 1", "0 0")
+
+        when:
+        store.remove("api/")
+
+        then:
+        store.get(LEVEL_8, "0 0 1 1").isEmpty()
+        store.get(otherApi, "0 0 1 1").isPresent()
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.gml.app
+
+import com.google.common.xml.XmlEscapers
+import spock.lang.Specification
+
+class XmlEscapingSpec extends Specification {
+
+    static final List<String> VALUES = [
+            "",
+            "Hauptstraße",
+            "a & b",
+            "<gml:name>",
+            "1 > 0",
+            "\"quoted\"",
+            "it's",
+            "&<>\"'",
+            "&amp; is already escaped",
+            "tab\there",
+            "line\nbreak",
+            "carriage\rreturn",
+            "\r\n",
+            "nul\u0000bell\u0007escape\u001b",
+            (0..0x1f).collect { (char) it }.join(""),
+            "\u007f\u0080\u009f",
+            "Größe: 5 m², Preis: 10 €",
+            "東京都",
+            "emoji 😀 and a lone surrogate \ud83d",
+            "non-characters \ufffe\uffff",
+            "replacement \ufffd",
+            "mixed <a href=\"x?a=1&b='2'\">\tlink\n</a> \u0001 €"
+    ]
+
+    // the escaping in GmlWriterProperties before XmlEscaping
+    static String escapeTextWithReplaceAll(String text) {
+        return text.replaceAll("&", "&amp;")
+                .replaceAll("<", "&lt;")
+                .replaceAll(">", "&gt;")
+                .replaceAll("\"", "&quot;")
+                .replaceAll("'", "&apos;")
+    }
+
+    static String writeAttributeValue(String value) {
+        StringWriter writer = new StringWriter()
+        XmlEscaping.writeAttributeValue(writer, value)
+        return writer.toString()
+    }
+
+    def 'text is escaped like before: #value'() {
+        expect:
+        XmlEscaping.escapeText(value) == escapeTextWithReplaceAll(value)
+
+        where:
+        value << VALUES
+    }
+
+    def 'attribute values are escaped like with the Guava escaper: #value'() {
+        expect:
+        writeAttributeValue(value) == XmlEscapers.xmlAttributeEscaper().escape(value)
+
+        where:
+        value << VALUES
+    }
+
+    def 'every character is escaped like with the Guava escaper'() {
+        given:
+        String all = (0..0xffff).collect { (char) it }.join("")
+
+        expect:
+        writeAttributeValue(all) == XmlEscapers.xmlAttributeEscaper().escape(all)
+        XmlEscaping.escapeText(all) == escapeTextWithReplaceAll(all)
+    }
+
+    def 'text without special characters is not copied'() {
+        given:
+        String value = "Hauptstraße 1, 東京都"
+
+        expect:
+        XmlEscaping.escapeText(value).is(value)
+    }
+
+    def 'the special characters are escaped'() {
+        expect:
+        XmlEscaping.escapeText("&<>\"'") == "&amp;&lt;&gt;&quot;&apos;"
+        writeAttributeValue("&<>\"'\t\n\r\u0000") == "&amp;&lt;&gt;&quot;&apos;&#x9;&#xA;&#xD;\ufffd"
+    }
+}
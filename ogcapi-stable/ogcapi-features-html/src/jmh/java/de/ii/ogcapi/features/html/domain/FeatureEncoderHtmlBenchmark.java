@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.features.html.domain;
+
+import de.ii.ogcapi.features.core.domain.FeatureEncoderFixture;
+import de.ii.ogcapi.features.core.domain.FeatureEncoderFixture.CountingOutputStream;
+import de.ii.ogcapi.features.core.domain.RecordedFeatures;
+import de.ii.ogcapi.foundation.domain.ApiMediaType;
+import de.ii.ogcapi.foundation.domain.ImmutableApiMediaType;
+import de.ii.ogcapi.html.domain.ImmutableHtmlConfiguration;
+import de.ii.xtraplatform.web.domain.MustacheRenderer;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.MediaType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Replays the events of the sample feature collection of {@link RecordedFeatures} into the HTML
+ * encoder. The encoder builds the features of the view, with cursor paging, like for a request.
+ * The Mustache templates are not rendered, the renderer and its template resolvers are part of
+ * the web platform, so the results only include the encoding up to the view. Run with the {@code
+ * gc} profiler to get the allocated bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FeatureEncoderHtmlBenchmark {
+
+  @Param({"1", "100", "10000"})
+  public int features;
+
+  /** The number of positions of the exterior ring of each polygon. */
+  @Param({"5", "100"})
+  public int positions;
+
+  private static final String COLLECTION_ID = "xyz";
+  private static final ApiMediaType MEDIA_TYPE =
+      new ImmutableApiMediaType.Builder()
+          .type(MediaType.TEXT_HTML_TYPE)
+          .label("HTML")
+          .parameter("html")
+          .build();
+
+  private RecordedFeatures recordedFeatures;
+  private FeatureEncoderFixture fixture;
+
+  /** The number of features in the rendered view. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Output {
+    public long renderedFeatures;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    this.recordedFeatures = RecordedFeatures.createSample(COLLECTION_ID, features, positions);
+    this.fixture =
+        new FeatureEncoderFixture(
+            recordedFeatures,
+            MEDIA_TYPE,
+            new ImmutableFeaturesHtmlConfiguration.Builder().enabled(true).build(),
+            new ImmutableHtmlConfiguration.Builder().enabled(true).build());
+  }
+
+  @Benchmark
+  public long encodeFeatureCollection(Output output) {
+    ModifiableFeatureCollectionView view =
+        ModifiableFeatureCollectionView.create()
+            .setApiData(fixture.getApiData())
+            .setCollectionData(fixture.getApiData().getCollections().get(COLLECTION_ID))
+            .setName(COLLECTION_ID)
+            .setTitle(COLLECTION_ID);
+    FeatureEncoderHtml encoder =
+        new FeatureEncoderHtml(
+            ImmutableFeatureTransformationContextHtml.builder()
+                .from(
+                    fixture
+                        .createTransformationContext(new CountingOutputStream())
+                        .isCursorPaging(true)
+                        .build())
+                .collectionView(view)
+                .mustacheRenderer(createRenderer())
+                .build());
+
+    recordedFeatures.replay(encoder, encoder.createContext());
+
+    output.renderedFeatures = view.features().size();
+
+    return view.features().size();
+  }
+
+  // a renderer that does nothing, the view is kept by the caller
+  private static MustacheRenderer createRenderer() {
+    return (MustacheRenderer)
+        Proxy.newProxyInstance(
+            MustacheRenderer.class.getClassLoader(),
+            new Class<?>[] {MustacheRenderer.class},
+            (proxy, method, args) -> method.getReturnType() == boolean.class ? false : null);
+  }
+}
@@ -378,6 +378,11 @@ public class FeaturesFormatHtml extends FeatureFormatExtension
     return true;
   }
 
+  @Override
+  public boolean supportsCursorPaging() {
+    return true;
+  }
+
   private ModifiableFeatureCollectionView createFeatureCollectionView(
       OgcApi api,
       FeatureTypeConfigurationOgcApi featureType,
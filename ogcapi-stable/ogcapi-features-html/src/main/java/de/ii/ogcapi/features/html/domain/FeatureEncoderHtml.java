@@ -8,6 +8,7 @@
 package de.ii.ogcapi.features.html.domain;
 
 import com.google.common.collect.ImmutableList;
+import de.ii.ogcapi.features.core.domain.FeaturesCursor;
 import de.ii.ogcapi.features.html.app.FeatureHtml;
 import de.ii.ogcapi.features.html.app.ImmutableFeatureCollectionDetailsView;
 import de.ii.ogcapi.features.html.app.ModifiableFeatureHtml;
@@ -16,6 +17,7 @@ import de.ii.ogcapi.features.html.app.PropertyHtml;
 import de.ii.ogcapi.foundation.domain.I18n;
 import de.ii.ogcapi.html.domain.NavigationDTO;
 import de.ii.xtraplatform.features.domain.FeatureObjectEncoder;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
 import de.ii.xtraplatform.features.domain.PropertyBase;
 import de.ii.xtraplatform.features.domain.SchemaBase.Type;
 import de.ii.xtraplatform.streams.domain.OutputStreamToByteConsumer;
@@ -37,6 +39,7 @@ public class FeatureEncoderHtml extends FeatureObjectEncoder<PropertyHtml, Featu
   private static final Logger LOGGER = LoggerFactory.getLogger(FeatureEncoderHtml.class);
 
   private final FeatureTransformationContextHtml transformationContext;
+  private String nextCursor;
 
   public FeatureEncoderHtml(FeatureTransformationContextHtml transformationContext) {
     this.transformationContext = transformationContext;
@@ -54,6 +57,11 @@ public class FeatureEncoderHtml extends FeatureObjectEncoder<PropertyHtml, Featu
 
   @Override
   public void onStart(ModifiableContext context) {
+    if (transformationContext.isFeatureCollection() && transformationContext.isCursorPaging()) {
+      // the pagination is set at the end, when the id of the last feature is known
+      return;
+    }
+
     if (transformationContext.isFeatureCollection()
         && context.metadata().getNumberReturned().isPresent()) {
       long returned = context.metadata().getNumberReturned().getAsLong();
@@ -227,6 +235,19 @@ public class FeatureEncoderHtml extends FeatureObjectEncoder<PropertyHtml, Featu
 
   @Override
   public void onFeature(FeatureHtml feature) {
+    if (transformationContext.isCursorPaging()) {
+      this.nextCursor =
+          feature
+              .getId()
+              .filter(id -> Objects.nonNull(id.getFirstValue()))
+              .map(
+                  id ->
+                      FeaturesCursor.encode(
+                          id.getFirstValue(),
+                          id.getSchema().map(FeatureSchema::getType).orElse(Type.STRING)))
+              .orElse(null);
+    }
+
     transformationContext
         .featuresHtmlConfiguration()
         .getFeatureTitleTemplate()
@@ -274,6 +295,9 @@ public class FeatureEncoderHtml extends FeatureObjectEncoder<PropertyHtml, Featu
   @Override
   public void onEnd(ModifiableContext context) {
     if (transformationContext.isFeatureCollection()) {
+      if (transformationContext.isCursorPaging()) {
+        setCursorPagination(context.metadata().getNumberReturned().orElse(0));
+      }
       renderView(transformationContext.collectionView());
 
     } else {
@@ -284,6 +308,34 @@ public class FeatureEncoderHtml extends FeatureObjectEncoder<PropertyHtml, Featu
     }
   }
 
+  private void setCursorPagination(long returned) {
+    String first = String.format("limit=%d", transformationContext.getLimit());
+
+    ImmutableList.Builder<NavigationDTO> pagination = new ImmutableList.Builder<>();
+    ImmutableList.Builder<NavigationDTO> metaPagination = new ImmutableList.Builder<>();
+    if (FeaturesCursor.hasCursor(transformationContext.getOgcApiRequest().getQueryParameterSet())) {
+      pagination.add(new NavigationDTO("«", first));
+    } else {
+      pagination.add(new NavigationDTO("«"));
+    }
+
+    if (returned >= transformationContext.getLimit() && Objects.nonNull(nextCursor)) {
+      String next =
+          String.format(
+              "limit=%d&%s=%s",
+              transformationContext.getLimit(),
+              FeaturesCursor.PARAMETER,
+              nextCursor);
+      pagination.add(new NavigationDTO("›", next));
+      metaPagination.add(new NavigationDTO("next", next));
+    } else {
+      pagination.add(new NavigationDTO("›"));
+    }
+
+    transformationContext.collectionView().setPagination(pagination.build());
+    transformationContext.collectionView().setMetaPagination(metaPagination.build());
+  }
+
   private void renderView(View view) {
     // TODO: FeatureTokenEncoderBytes.getOutputStream
     OutputStreamWriter writer = new OutputStreamWriter(new OutputStreamToByteConsumer(this::push));
@@ -15,6 +15,7 @@ import de.ii.ogcapi.features.core.domain.FeaturesCoreConfiguration;
 import de.ii.ogcapi.features.core.domain.FeaturesCoreProviders;
 import de.ii.ogcapi.features.core.domain.ItemTypeSpecificConformanceClass;
 import de.ii.ogcapi.filter.app.FilterBuildingBlock;
+import de.ii.ogcapi.filter.app.FilterCache;
 import de.ii.ogcapi.filter.domain.FilterConfiguration;
 import de.ii.ogcapi.foundation.domain.ExtensionConfiguration;
 import de.ii.ogcapi.foundation.domain.ExternalDocumentation;
@@ -82,6 +83,7 @@ public class QueryParameterFilter extends OgcApiQueryParameterBase
   private final CrsInfo crsInfo;
   private final Cql cql;
   private final CrsTransformerFactory crsTransformerFactory;
+  private final FilterCache filterCache;
 
   @Inject
   public QueryParameterFilter(
@@ -89,12 +91,14 @@ public class QueryParameterFilter extends OgcApiQueryParameterBase
       SchemaValidator schemaValidator,
       CrsInfo crsInfo,
       Cql cql,
-      CrsTransformerFactory crsTransformerFactory) {
+      CrsTransformerFactory crsTransformerFactory,
+      FilterCache filterCache) {
     this.providers = providers;
     this.schemaValidator = schemaValidator;
     this.crsInfo = crsInfo;
     this.cql = cql;
     this.crsTransformerFactory = crsTransformerFactory;
+    this.filterCache = filterCache;
   }
 
   private boolean supportsCql2(OgcApiDataV2 apiData) {
@@ -284,11 +288,29 @@ public class QueryParameterFilter extends OgcApiQueryParameterBase
                         "The parameter '%s' could not be processed, no collection provided.",
                         getName())));
 
-    Cql2Expression cql2Expression;
     Cql.Format filterLang =
         Objects.requireNonNullElse((Format) typedValues.get("filter-lang"), Format.TEXT);
     EpsgCrs filterCrs =
         Objects.requireNonNullElse((EpsgCrs) typedValues.get("filter-crs"), OgcCrs.CRS84);
+
+    // the same filters are sent repeatedly, e.g. by map clients, parse and check them only once
+    return filterCache.get(
+        api.getData(),
+        collectionData.getId(),
+        value,
+        filterLang,
+        filterCrs,
+        providers.getFeatureSchema(api.getData(), collectionData),
+        () -> parseAndCheck(value, filterLang, filterCrs, api, collectionData));
+  }
+
+  private Cql2Expression parseAndCheck(
+      String value,
+      Cql.Format filterLang,
+      EpsgCrs filterCrs,
+      OgcApi api,
+      FeatureTypeConfigurationOgcApi collectionData) {
+    Cql2Expression cql2Expression;
     try {
       cql2Expression = cql.read(value, filterLang, filterCrs);
     } catch (Throwable e) {
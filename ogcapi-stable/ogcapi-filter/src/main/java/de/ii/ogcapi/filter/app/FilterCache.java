@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.filter.app;
+
+import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.foundation.domain.BoundedCache;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.xtraplatform.base.domain.AppConfiguration;
+import de.ii.xtraplatform.cql.domain.Cql;
+import de.ii.xtraplatform.cql.domain.Cql2Expression;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
+import de.ii.xtraplatform.web.domain.DropwizardPlugin;
+import io.dropwizard.core.setup.Environment;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * A size-bounded least-recently-used cache for parsed and validated filter expressions. The keys
+ * include the hash of the API configuration and the feature schema of the provider, so entries of
+ * a previous configuration or of a reloaded provider are never used again and are evicted over
+ * time.
+ */
+@Singleton
+@AutoBind
+public class FilterCache implements DropwizardPlugin {
+
+  private static final int MAX_ENTRIES = 1_000;
+
+  private final BoundedCache<Key, Cql2Expression> entries;
+
+  @Inject
+  public FilterCache() {
+    this.entries = BoundedCache.<Key, Cql2Expression>builder().maxEntries(MAX_ENTRIES).build();
+  }
+
+  @Override
+  public void init(AppConfiguration configuration, Environment environment) {
+    entries.registerMetrics(environment.metrics(), FilterCache.class);
+  }
+
+  /**
+   * @param apiData the API configuration
+   * @param collectionId the collection
+   * @param filter the filter expression as provided in the request
+   * @param filterLang the filter language
+   * @param filterCrs the CRS of the coordinates in the filter
+   * @param schema the current feature schema of the collection, the queryables are derived from it
+   * @param parser parses and validates the filter expression, if it is not in the cache
+   * @return the parsed and validated filter expression
+   */
+  public Cql2Expression get(
+      OgcApiDataV2 apiData,
+      String collectionId,
+      String filter,
+      Cql.Format filterLang,
+      EpsgCrs filterCrs,
+      Optional<FeatureSchema> schema,
+      Supplier<Cql2Expression> parser) {
+    Key key =
+        new Key(
+            apiData.getId(),
+            apiData.hashCode(),
+            schema.orElse(null),
+            collectionId,
+            filter,
+            filterLang,
+            filterCrs);
+
+    // invalid expressions throw an exception and are not cached
+    return entries.get(key, ignore -> parser.get());
+  }
+
+  private static final class Key {
+    private final String apiId;
+    private final int apiHashCode;
+    private final FeatureSchema schema;
+    private final String collectionId;
+    private final String filter;
+    private final Cql.Format filterLang;
+    private final EpsgCrs filterCrs;
+
+    private Key(
+        String apiId,
+        int apiHashCode,
+        FeatureSchema schema,
+        String collectionId,
+        String filter,
+        Cql.Format filterLang,
+        EpsgCrs filterCrs) {
+      this.apiId = apiId;
+      this.apiHashCode = apiHashCode;
+      this.schema = schema;
+      this.collectionId = collectionId;
+      this.filter = filter;
+      this.filterLang = filterLang;
+      this.filterCrs = filterCrs;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      // the schema is compared by identity, a reloaded provider creates a new schema, and large
+      // schemas are not compared field by field for every request
+      return apiHashCode == key.apiHashCode
+          && schema == key.schema
+          && apiId.equals(key.apiId)
+          && collectionId.equals(key.collectionId)
+          && filter.equals(key.filter)
+          && filterLang == key.filterLang
+          && filterCrs.equals(key.filterCrs);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          apiId,
+          apiHashCode,
+          System.identityHashCode(schema),
+          collectionId,
+          filter,
+          filterLang,
+          filterCrs);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.filter.app
+
+import de.ii.ogcapi.foundation.domain.ImmutableOgcApiDataV2
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2
+import de.ii.xtraplatform.cql.domain.Cql
+import de.ii.xtraplatform.cql.domain.Cql2Expression
+import de.ii.xtraplatform.cql.domain.Eq
+import de.ii.xtraplatform.cql.domain.ScalarLiteral
+import de.ii.xtraplatform.crs.domain.OgcCrs
+import de.ii.xtraplatform.features.domain.FeatureSchema
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class FilterCacheSpec extends Specification {
+
+    static final Cql2Expression EXPRESSION = Eq.of("name", ScalarLiteral.of("a"))
+
+    FilterCache cache = new FilterCache()
+    FeatureSchema schema = Stub(FeatureSchema)
+    int parsed = 0
+    Supplier<Cql2Expression> parser = { parsed++; EXPRESSION } as Supplier
+
+    def 'a filter is parsed once'() {
+        when:
+        cache.get(createApiData("api"), "c", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), parser)
+        def expression = cache.get(createApiData("api"), "c", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), parser)
+
+        then:
+        parsed == 1
+        expression == EXPRESSION
+    }
+
+    def 'a filter is parsed again for another filter language, CRS or collection'() {
+        when:
+        cache.get(createApiData("api"), "c", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), parser)
+        cache.get(createApiData("api"), "c", "name='a'", Cql.Format.JSON, OgcCrs.CRS84, Optional.of(schema), parser)
+        cache.get(createApiData("api"), "c", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84h, Optional.of(schema), parser)
+        cache.get(createApiData("api"), "d", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), parser)
+
+        then:
+        parsed == 4
+    }
+
+    def 'a filter is parsed again after the provider was reloaded'() {
+        given:
+        FeatureSchema reloaded = Stub(FeatureSchema)
+
+        when:
+        cache.get(createApiData("api"), "c", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), parser)
+        cache.get(createApiData("api"), "c", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(reloaded), parser)
+
+        then:
+        parsed == 2
+    }
+
+    def 'a filter is parsed again after the API configuration changed'() {
+        when:
+        cache.get(createApiData("api"), "c", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), parser)
+        cache.get(createApiData("api", "changed"), "c", "name='a'", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), parser)
+
+        then:
+        parsed == 2
+    }
+
+    def 'an invalid filter is not cached'() {
+        given:
+        Supplier<Cql2Expression> invalid = { parsed++; throw new IllegalArgumentException("invalid") } as Supplier
+
+        when:
+        cache.get(createApiData("api"), "c", "name=", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), invalid)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        cache.get(createApiData("api"), "c", "name=", Cql.Format.TEXT, OgcCrs.CRS84, Optional.of(schema), invalid)
+
+        then:
+        thrown(IllegalArgumentException)
+        parsed == 2
+    }
+
+    static OgcApiDataV2 createApiData(String id, String label = "API") {
+        return new ImmutableOgcApiDataV2.Builder()
+                .id(id)
+                .label(label)
+                .serviceType("OGC_API")
+                .build()
+    }
+}
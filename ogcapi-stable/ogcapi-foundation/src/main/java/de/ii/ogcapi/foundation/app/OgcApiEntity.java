@@ -65,6 +65,7 @@ public class OgcApiEntity extends AbstractService<OgcApiDataV2> implements OgcAp
   private final boolean asyncStartup;
 
   private final Cache cache;
+  private final TransformedSpatialExtents transformedSpatialExtents;
 
   @AssistedInject
   public OgcApiEntity(
@@ -81,6 +82,7 @@ public class OgcApiEntity extends AbstractService<OgcApiDataV2> implements OgcAp
     this.servicesContext = servicesContext;
     this.asyncStartup = appContext.getConfiguration().getModules().isStartupAsync();
     this.cache = cache.withPrefix(getEntityType(), getId());
+    this.transformedSpatialExtents = new TransformedSpatialExtents(this::transformSpatialExtent);
   }
 
   @Override
@@ -235,7 +237,8 @@ public class OgcApiEntity extends AbstractService<OgcApiDataV2> implements OgcAp
     Optional<BoundingBox> spatialExtent = getSpatialExtent();
 
     if (spatialExtent.isPresent()) {
-      return transformSpatialExtent(spatialExtent.get(), targetCrs);
+      return transformedSpatialExtents.get(
+          TransformedSpatialExtents.API_EXTENT_KEY, spatialExtent.get(), targetCrs);
     }
 
     return Optional.empty();
@@ -253,7 +256,7 @@ public class OgcApiEntity extends AbstractService<OgcApiDataV2> implements OgcAp
     Optional<BoundingBox> spatialExtent = getSpatialExtent(collectionId);
 
     if (spatialExtent.isPresent()) {
-      return transformSpatialExtent(spatialExtent.get(), targetCrs);
+      return transformedSpatialExtents.get(collectionId, spatialExtent.get(), targetCrs);
     }
 
     return Optional.empty();
@@ -261,8 +264,15 @@ public class OgcApiEntity extends AbstractService<OgcApiDataV2> implements OgcAp
 
   @Override
   public boolean updateSpatialExtent(String collectionId, BoundingBox bbox) {
-    return getChangingData()
-        .update(ChangingSpatialExtent.class, collectionId, ChangingSpatialExtent.of(bbox));
+    boolean updated =
+        getChangingData()
+            .update(ChangingSpatialExtent.class, collectionId, ChangingSpatialExtent.of(bbox));
+
+    if (updated) {
+      transformedSpatialExtents.invalidate(collectionId);
+    }
+
+    return updated;
   }
 
   @Override
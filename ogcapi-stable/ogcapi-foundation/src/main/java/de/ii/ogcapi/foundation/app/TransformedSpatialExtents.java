@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.app;
+
+import de.ii.xtraplatform.crs.domain.BoundingBox;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+/**
+ * The spatial extents of an API and its collections, transformed to other CRSs. There is one entry
+ * per key and target CRS, the number of CRSs of an API is small.
+ */
+class TransformedSpatialExtents {
+
+  static final String API_EXTENT_KEY = "__api__";
+
+  private final BiFunction<BoundingBox, EpsgCrs, Optional<BoundingBox>> transformation;
+  private final ConcurrentMap<String, ConcurrentMap<EpsgCrs, TransformedExtent>> extents;
+
+  TransformedSpatialExtents(
+      BiFunction<BoundingBox, EpsgCrs, Optional<BoundingBox>> transformation) {
+    this.transformation = transformation;
+    this.extents = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @param key the collection or {@link #API_EXTENT_KEY}
+   * @param spatialExtent the current spatial extent
+   * @param targetCrs the target CRS
+   * @return the transformed spatial extent
+   */
+  Optional<BoundingBox> get(String key, BoundingBox spatialExtent, EpsgCrs targetCrs) {
+    ConcurrentMap<EpsgCrs, TransformedExtent> transformed =
+        extents.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+    TransformedExtent cached = transformed.get(targetCrs);
+
+    // the source extent is part of the entry, so a changed extent is never served from the cache,
+    // even if the explicit invalidation was missed
+    if (Objects.nonNull(cached) && Objects.equals(cached.source, spatialExtent)) {
+      return cached.target;
+    }
+
+    Optional<BoundingBox> target = transformation.apply(spatialExtent, targetCrs);
+    transformed.put(targetCrs, new TransformedExtent(spatialExtent, target));
+
+    return target;
+  }
+
+  /**
+   * Removes the extents of a collection and of the whole API, since the latter may have changed,
+   * too.
+   *
+   * @param collectionId the collection
+   */
+  void invalidate(String collectionId) {
+    extents.remove(collectionId);
+    extents.remove(API_EXTENT_KEY);
+  }
+
+  private static final class TransformedExtent {
+    private final BoundingBox source;
+    private final Optional<BoundingBox> target;
+
+    private TransformedExtent(BoundingBox source, Optional<BoundingBox> target) {
+      this.source = source;
+      this.target = target;
+    }
+  }
+}
@@ -66,6 +66,7 @@ public abstract class ApiEndpointDefinition {
   public static final int SORT_PRIORITY_RESOURCES_MANAGER = 2120;
   public static final int SORT_PRIORITY_WMTS = 2200;
   public static final int SORT_PRIORITY_ROUTES_POST = 2500;
+  public static final int SORT_PRIORITY_ROUTE_MATRIX_POST = 2505;
   public static final int SORT_PRIORITY_ROUTES_GET = 2510;
   public static final int SORT_PRIORITY_ROUTE_GET = 2520;
   public static final int SORT_PRIORITY_ROUTE_DELETE = 2530;
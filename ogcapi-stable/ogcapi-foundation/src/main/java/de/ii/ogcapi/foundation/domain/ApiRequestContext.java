@@ -50,6 +50,13 @@ public interface ApiRequestContext {
     return 2048;
   }
 
+  /**
+   * @return the timings of the request, only present for requests that are dispatched to an
+   *     endpoint
+   */
+  @Value.Auxiliary
+  Optional<RequestTimings> getTimings();
+
   @Value.Derived
   default List<String> getExternalUriPath() {
     return PATH_SPLITTER.splitToList(getExternalUri().getPath());
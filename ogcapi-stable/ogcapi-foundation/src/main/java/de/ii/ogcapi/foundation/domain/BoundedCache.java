@@ -0,0 +1,434 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.domain;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * An in-memory least-recently-used cache that is bounded by the number of entries and optionally
+ * by the total weight of the values, e.g. the number of bytes. Entries may expire after a time to
+ * live and may be limited per group of keys, so that keys of one group cannot evict the entries of
+ * all other groups.
+ *
+ * <p>Values that are loaded with {@link #get(Object, Function)} are only computed once, even if
+ * they are requested concurrently. A value that was loaded while entries were invalidated is
+ * returned, but not stored, since it may have been computed from outdated data.
+ *
+ * @param <K> the type of the keys, keys must implement {@code equals} and {@code hashCode}
+ * @param <V> the type of the values
+ */
+public final class BoundedCache<K, V> {
+
+  private final int maxEntries;
+  private final long maxWeight;
+  private final long maxEntryWeight;
+  private final long timeToLive;
+  private final ToLongFunction<? super V> weigher;
+  private final Function<? super K, ?> grouping;
+  private final int maxEntriesPerGroup;
+  private final LongSupplier nanoTime;
+  private final LinkedHashMap<K, Entry<V>> entries;
+  private final Map<Object, LinkedHashSet<K>> groups;
+  private final ConcurrentMap<K, CompletableFuture<V>> loading;
+  private final Counter hits;
+  private final Counter misses;
+  private long weight;
+  private long version;
+
+  private BoundedCache(Builder<K, V> builder) {
+    this.maxEntries = builder.maxEntries;
+    this.maxWeight = builder.maxWeight;
+    this.maxEntryWeight = builder.maxEntryWeight;
+    this.timeToLive = builder.timeToLive;
+    this.weigher = builder.weigher;
+    this.grouping = builder.grouping;
+    this.maxEntriesPerGroup = builder.maxEntriesPerGroup;
+    this.nanoTime = builder.nanoTime;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.groups = new HashMap<>();
+    this.loading = new ConcurrentHashMap<>();
+    this.hits = new Counter();
+    this.misses = new Counter();
+    this.weight = 0;
+    this.version = 0;
+  }
+
+  public static <K, V> Builder<K, V> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * Registers the counters for hits and misses and gauges for the number of entries and, if the
+   * values are weighted, the total weight.
+   *
+   * @param metrics the metric registry
+   * @param owner the class that owns the cache, used as the prefix of the metric names
+   */
+  public void registerMetrics(MetricRegistry metrics, Class<?> owner) {
+    metrics.register(MetricRegistry.name(owner, "hits"), hits);
+    metrics.register(MetricRegistry.name(owner, "misses"), misses);
+    metrics.register(MetricRegistry.name(owner, "size"), (Gauge<Integer>) this::size);
+    if (Objects.nonNull(weigher)) {
+      metrics.register(MetricRegistry.name(owner, "bytes"), (Gauge<Long>) this::weight);
+    }
+  }
+
+  /**
+   * @param key the key
+   * @return the value, if it is in the cache and has not expired
+   */
+  public Optional<V> get(K key) {
+    Optional<V> value = peek(key);
+
+    if (value.isPresent()) {
+      hits.inc();
+    } else {
+      misses.inc();
+    }
+
+    return value;
+  }
+
+  /**
+   * Returns the value for the key. If it is not in the cache, it is loaded, stored and returned.
+   * Concurrent requests for the same key wait for the first one. Exceptions of the loader are
+   * passed to all waiting callers and nothing is stored.
+   *
+   * @param key the key
+   * @param loader computes the value, if the value is {@code null}, nothing is stored
+   * @return the value
+   */
+  public V get(K key, Function<? super K, ? extends V> loader) {
+    Optional<V> cached = get(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+
+    CompletableFuture<V> future = new CompletableFuture<>();
+    CompletableFuture<V> inProgress = loading.putIfAbsent(key, future);
+    if (Objects.nonNull(inProgress)) {
+      return await(inProgress);
+    }
+
+    try {
+      // another request may have completed in the meantime
+      V value = peek(key).orElse(null);
+      if (Objects.isNull(value)) {
+        long stamp = version();
+        value = loader.apply(key);
+        if (Objects.nonNull(value)) {
+          putIfUnchanged(key, value, stamp);
+        }
+      }
+      future.complete(value);
+      return value;
+    } catch (Throwable e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(key, future);
+    }
+  }
+
+  /**
+   * @param key the key
+   * @param value the value
+   */
+  public void put(K key, V value) {
+    put(key, value, timeToLive);
+  }
+
+  /**
+   * @param key the key
+   * @param value the value
+   * @param timeToLiveNanos the time to live of the entry in nanoseconds, zero or negative for no
+   *     expiry
+   */
+  public void put(K key, V value, long timeToLiveNanos) {
+    synchronized (entries) {
+      store(key, value, timeToLiveNanos);
+    }
+  }
+
+  /**
+   * The version changes with every invalidation. Callers that compute a value outside of the cache
+   * get the version before and store the value with {@link #putIfUnchanged}.
+   *
+   * @return the current version
+   */
+  public long version() {
+    synchronized (entries) {
+      return version;
+    }
+  }
+
+  /**
+   * @param key the key
+   * @param value the value
+   * @param stamp the version before the value was computed
+   * @return {@code true}, if the value was stored, {@code false}, if entries have been invalidated
+   *     since
+   */
+  public boolean putIfUnchanged(K key, V value, long stamp) {
+    return putIfUnchanged(key, value, stamp, timeToLive);
+  }
+
+  /**
+   * @param key the key
+   * @param value the value
+   * @param stamp the version before the value was computed
+   * @param timeToLiveNanos the time to live of the entry in nanoseconds, zero or negative for no
+   *     expiry
+   * @return {@code true}, if the value was stored, {@code false}, if entries have been invalidated
+   *     since
+   */
+  public boolean putIfUnchanged(K key, V value, long stamp, long timeToLiveNanos) {
+    synchronized (entries) {
+      if (stamp != version) {
+        return false;
+      }
+      store(key, value, timeToLiveNanos);
+      return true;
+    }
+  }
+
+  /**
+   * @param key the key to remove
+   */
+  public void invalidate(K key) {
+    synchronized (entries) {
+      version++;
+      remove(key);
+    }
+  }
+
+  /**
+   * @param predicate selects the keys to remove
+   */
+  public void invalidateIf(Predicate<? super K> predicate) {
+    synchronized (entries) {
+      version++;
+      Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<K, Entry<V>> next = iterator.next();
+        if (predicate.test(next.getKey())) {
+          iterator.remove();
+          removed(next.getKey(), next.getValue());
+        }
+      }
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (entries) {
+      version++;
+      entries.clear();
+      groups.clear();
+      weight = 0;
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long weight() {
+    synchronized (entries) {
+      return weight;
+    }
+  }
+
+  public Counter getHits() {
+    return hits;
+  }
+
+  public Counter getMisses() {
+    return misses;
+  }
+
+  private Optional<V> peek(K key) {
+    synchronized (entries) {
+      Entry<V> entry = entries.get(key);
+      if (Objects.isNull(entry)) {
+        return Optional.empty();
+      }
+      if (entry.expires <= nanoTime.getAsLong()) {
+        remove(key);
+        return Optional.empty();
+      }
+      if (Objects.nonNull(grouping)) {
+        // keep the order of the group in line with the access order of the entries
+        LinkedHashSet<K> group = groups.get(grouping.apply(key));
+        group.remove(key);
+        group.add(key);
+      }
+      return Optional.of(entry.value);
+    }
+  }
+
+  // callers synchronize on entries
+  private void store(K key, V value, long timeToLiveNanos) {
+    long valueWeight = Objects.nonNull(weigher) ? weigher.applyAsLong(value) : 0;
+    remove(key);
+    if (valueWeight > maxEntryWeight) {
+      return;
+    }
+
+    if (Objects.nonNull(grouping)) {
+      Object group = grouping.apply(key);
+      LinkedHashSet<K> keys = groups.get(group);
+      if (Objects.nonNull(keys) && keys.size() >= maxEntriesPerGroup) {
+        // evict the least recently used entry of the same group
+        remove(keys.iterator().next());
+      }
+      groups.computeIfAbsent(group, ignore -> new LinkedHashSet<>()).add(key);
+    }
+
+    long expires = timeToLiveNanos > 0 ? nanoTime.getAsLong() + timeToLiveNanos : Long.MAX_VALUE;
+    entries.put(key, new Entry<>(value, valueWeight, expires));
+    weight += valueWeight;
+
+    Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+    while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+      Map.Entry<K, Entry<V>> next = eldest.next();
+      eldest.remove();
+      removed(next.getKey(), next.getValue());
+    }
+  }
+
+  // callers synchronize on entries
+  private void remove(K key) {
+    Entry<V> entry = entries.remove(key);
+    if (Objects.nonNull(entry)) {
+      removed(key, entry);
+    }
+  }
+
+  // callers synchronize on entries
+  private void removed(K key, Entry<V> entry) {
+    weight -= entry.weight;
+    if (Objects.nonNull(grouping)) {
+      Object group = grouping.apply(key);
+      LinkedHashSet<K> keys = groups.get(group);
+      if (Objects.nonNull(keys)) {
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          groups.remove(group);
+        }
+      }
+    }
+  }
+
+  private static <V> V await(CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long weight;
+    private final long expires;
+
+    private Entry(V value, long weight, long expires) {
+      this.value = value;
+      this.weight = weight;
+      this.expires = expires;
+    }
+  }
+
+  public static final class Builder<K, V> {
+    private int maxEntries = Integer.MAX_VALUE;
+    private long maxWeight = Long.MAX_VALUE;
+    private long maxEntryWeight = Long.MAX_VALUE;
+    private long timeToLive = 0;
+    private ToLongFunction<? super V> weigher;
+    private Function<? super K, ?> grouping;
+    private int maxEntriesPerGroup = Integer.MAX_VALUE;
+    private LongSupplier nanoTime = System::nanoTime;
+
+    private Builder() {}
+
+    public Builder<K, V> maxEntries(int maxEntries) {
+      this.maxEntries = maxEntries;
+      return this;
+    }
+
+    /**
+     * @param weigher the weight of a value, e.g. the number of bytes
+     * @param maxWeight the maximum total weight of all entries
+     * @param maxEntryWeight values with a larger weight are not stored
+     * @return the builder
+     */
+    public Builder<K, V> maxWeight(
+        ToLongFunction<? super V> weigher, long maxWeight, long maxEntryWeight) {
+      this.weigher = weigher;
+      this.maxWeight = maxWeight;
+      this.maxEntryWeight = maxEntryWeight;
+      return this;
+    }
+
+    /**
+     * @param grouping the group of a key
+     * @param maxEntriesPerGroup the maximum number of entries per group
+     * @return the builder
+     */
+    public Builder<K, V> maxEntriesPerGroup(
+        Function<? super K, ?> grouping, int maxEntriesPerGroup) {
+      this.grouping = grouping;
+      this.maxEntriesPerGroup = maxEntriesPerGroup;
+      return this;
+    }
+
+    public Builder<K, V> timeToLive(long duration, TimeUnit unit) {
+      this.timeToLive = unit.toNanos(duration);
+      return this;
+    }
+
+    /**
+     * @param nanoTime the clock for the time to live, the default is {@link System#nanoTime()}
+     * @return the builder
+     */
+    public Builder<K, V> nanoTime(LongSupplier nanoTime) {
+      this.nanoTime = nanoTime;
+      return this;
+    }
+
+    public BoundedCache<K, V> build() {
+      return new BoundedCache<>(this);
+    }
+  }
+}
@@ -32,6 +32,7 @@ public class FoundationBuildingBlock implements ApiBuildingBlock {
         .includeLinkHeader(true)
         .useLangParameter(false)
         .includeSpecificationInformation(false)
+        .serverTiming(false)
         .build();
   }
 }
@@ -186,6 +186,28 @@ public interface FoundationConfiguration extends ExtensionConfiguration {
     return Objects.equals(Boolean.TRUE, getIncludeSpecificationInformation());
   }
 
+  /**
+   * @langEn If `true`, responses include a `Server-Timing` header with the time spent in the
+   *     stages of the request processing that are completed before the response is written, e.g.
+   *     dispatch, validation, authorization and the query handler. The timings of all stages are
+   *     always available as metrics per API.
+   * @langDe Bei `true` enthalten Antworten einen `Server-Timing`-Header mit der Dauer der Phasen
+   *     der Verarbeitung einer Anfrage, die abgeschlossen sind, bevor die Antwort geschrieben wird,
+   *     z.B. Dispatch, Validierung, Autorisierung und der Query-Handler. Die Dauer aller Phasen
+   *     ist immer als Metrik pro API verfügbar.
+   * @default false
+   * @since v4.2
+   */
+  @Nullable
+  Boolean getServerTiming();
+
+  @JsonIgnore
+  @Value.Derived
+  @Value.Auxiliary
+  default boolean isServerTimingEnabled() {
+    return Objects.equals(Boolean.TRUE, getServerTiming());
+  }
+
   @Override
   default Builder getBuilder() {
     return new ImmutableFoundationConfiguration.Builder();
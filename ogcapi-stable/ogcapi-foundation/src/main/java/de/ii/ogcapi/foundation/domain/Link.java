@@ -107,6 +107,30 @@ public abstract class Link {
     return link.build();
   }
 
+  /**
+   * @return the value of a `Link` header for this link or, for a URI template, the value of a
+   *     `Link-Template` header
+   */
+  @JsonIgnore
+  @XmlTransient
+  @Value.Lazy
+  public String getLinkHeader() {
+    if (!Objects.equals(getTemplated(), true)) {
+      return getLink().toString();
+    }
+
+    StringBuilder builder =
+        new StringBuilder().append('<').append(getHref()).append(">; rel=\"").append(getRel());
+    if (getTitle() != null) {
+      builder.append("\"; title=\"").append(getTitle());
+    }
+    if (getType() != null) {
+      builder.append("\"; type=\"").append(getType());
+    }
+
+    return builder.append('"').toString();
+  }
+
   @JsonIgnore
   @XmlTransient
   @Value.Derived
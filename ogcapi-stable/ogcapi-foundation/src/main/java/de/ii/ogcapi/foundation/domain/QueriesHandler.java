@@ -8,7 +8,6 @@
 package de.ii.ogcapi.foundation.domain;
 
 import com.github.azahnen.dagger.annotations.AutoMultiBind;
-import com.google.common.collect.ImmutableList;
 import de.ii.xtraplatform.crs.domain.EpsgCrs;
 import de.ii.xtraplatform.features.domain.FeatureProvider;
 import java.text.MessageFormat;
@@ -22,10 +21,8 @@ import java.util.stream.Collectors;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.EntityTag;
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.Variant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +57,12 @@ public interface QueriesHandler<T extends QueryIdentifier> {
   default Response handle(
       T queryIdentifier, QueryInput queryInput, ApiRequestContext requestContext) {
 
+    return getQueryHandler(queryIdentifier, queryInput).handle(queryInput, requestContext);
+  }
+
+  default QueryHandler<? extends QueryInput> getQueryHandler(
+      T queryIdentifier, QueryInput queryInput) {
+
     QueryHandler<? extends QueryInput> queryHandler = getQueryHandlers().get(queryIdentifier);
 
     if (Objects.isNull(queryHandler)) {
@@ -73,7 +76,7 @@ public interface QueriesHandler<T extends QueryIdentifier> {
               queryHandler.getClass().getSimpleName(), queryInput.getClass().getSimpleName()));
     }
 
-    return queryHandler.handle(queryInput, requestContext);
+    return queryHandler;
   }
 
   default Response.ResponseBuilder evaluatePreconditions(
@@ -139,39 +142,32 @@ public interface QueriesHandler<T extends QueryIdentifier> {
     cacheInfo.expires().ifPresent(response::expires);
 
     response.variants(
-        Variant.mediaTypes(
-                new ImmutableList.Builder<ApiMediaType>()
-                        .add(requestContext.getMediaType())
-                        .addAll(requestContext.getAlternateMediaTypes())
-                        .build()
-                        .stream()
-                        .map(ApiMediaType::type)
-                        .toArray(MediaType[]::new))
-            .languages(LANGUAGES)
-            .encodings(ENCODINGS)
-            .add()
-            .build());
+        ResponseVariants.of(
+            requestContext.getMediaType(), requestContext.getAlternateMediaTypes()));
 
     requestContext.getLanguage().ifPresent(response::language);
 
     if (Objects.nonNull(links)) {
-      // skip URI templates in the Link header as these are not RFC 8288 links
-      List<javax.ws.rs.core.Link> headerLinks =
-          links.stream()
-              .filter(link -> link.getTemplated() == null || !link.getTemplated())
-              .sorted(Link.COMPARATOR_LINKS)
-              .map(Link::getLink)
-              .collect(Collectors.toUnmodifiableList());
-
-      // Instead use a Link-Template header for templaes
-      List<String> headerLinkTemplates = getLinkTemplates(links);
+      // URI templates are not RFC 8288 links, so use a Link-Template header for them; the header
+      // values are only built once per link and are added as strings
+      List<Link> sortedLinks =
+          links.stream().sorted(Link.COMPARATOR_LINKS).collect(Collectors.toUnmodifiableList());
+      int maxSize = requestContext.getMaxResponseLinkHeaderSize();
+      int size = 0;
+      for (Link link : sortedLinks) {
+        size += link.getLinkHeader().length();
+        if (size > maxSize) {
+          break;
+        }
+      }
 
       // only add links and link templates, if the strings are not larger than the limit
-      if (headerLinks.stream().map(l -> l.toString().length()).mapToInt(Integer::intValue).sum()
-              + headerLinkTemplates.stream().map(String::length).mapToInt(Integer::intValue).sum()
-          <= requestContext.getMaxResponseLinkHeaderSize()) {
-        headerLinks.forEach(response::links);
-        headerLinkTemplates.forEach(template -> response.header("Link-Template", template));
+      if (size <= maxSize) {
+        for (Link link : sortedLinks) {
+          response.header(
+              Objects.equals(link.getTemplated(), true) ? "Link-Template" : "Link",
+              link.getLinkHeader());
+        }
       }
     }
 
@@ -201,19 +197,7 @@ public interface QueriesHandler<T extends QueryIdentifier> {
     return links.stream()
         .filter(link -> link.getTemplated() != null && link.getTemplated())
         .sorted(Link.COMPARATOR_LINKS)
-        .map(
-            template -> {
-              StringBuilder builder =
-                  new StringBuilder(
-                      String.format("<%s>; rel=\"%s\"", template.getHref(), template.getRel()));
-              if (template.getTitle() != null) {
-                builder.append(String.format("; title=\"%s\"", template.getTitle()));
-              }
-              if (template.getType() != null) {
-                builder.append(String.format("; type=\"%s\"", template.getType()));
-              }
-              return builder.toString();
-            })
+        .map(Link::getLinkHeader)
         .collect(Collectors.toUnmodifiableList());
   }
 
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.domain;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The time spent in the stages of processing a request. A stage is either completed with {@link
+ * #mark(String)}, which assigns the time since the previous mark to the stage, or with {@link
+ * #add(String, long)} for stages that do not follow each other, e.g. the feature stream that runs
+ * while the response is written. The timings are published as metrics and, if enabled, as a
+ * `Server-Timing` header.
+ *
+ * <p>The {@link #WRITE} stage only includes the time that is spent writing the response entity
+ * itself. For a streamed response, the time of the stages that run while the entity is written,
+ * i.e. {@link #STREAM}, is not included.
+ */
+public final class RequestTimings {
+
+  public static final String PROPERTY = RequestTimings.class.getName();
+
+  public static final String DISPATCH = "dispatch";
+  public static final String VALIDATION = "validation";
+  public static final String AUTHORIZATION = "authorization";
+  public static final String ENDPOINT = "endpoint";
+  public static final String PREPARE = "prepare";
+  public static final String STREAM = "stream";
+  public static final String WRITE = "write";
+
+  private final long start;
+  private final Map<String, Long> stages;
+  private long last;
+  private long bytesWritten;
+  private String apiId;
+  private String collectionId;
+  private String format;
+  private boolean serverTiming;
+
+  public RequestTimings() {
+    this.start = System.nanoTime();
+    this.stages = new LinkedHashMap<>();
+    this.last = start;
+    this.bytesWritten = -1;
+  }
+
+  /**
+   * Completes a stage that started with the previous mark or with the request.
+   *
+   * @param stage the stage
+   */
+  public synchronized void mark(String stage) {
+    long now = System.nanoTime();
+    stages.merge(stage, now - last, Long::sum);
+    last = now;
+  }
+
+  /**
+   * Adds time to a stage without changing the start of the next stage.
+   *
+   * @param stage the stage
+   * @param nanos the time in nanoseconds
+   */
+  public synchronized void add(String stage, long nanos) {
+    stages.merge(stage, nanos, Long::sum);
+  }
+
+  public synchronized Map<String, Long> getStages() {
+    return new LinkedHashMap<>(stages);
+  }
+
+  /**
+   * @param stage the stage
+   * @return the time in nanoseconds that has been assigned to the stage so far
+   */
+  public synchronized long getStage(String stage) {
+    return stages.getOrDefault(stage, 0L);
+  }
+
+  public long getElapsed() {
+    return System.nanoTime() - start;
+  }
+
+  public synchronized long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  public synchronized void setBytesWritten(long bytesWritten) {
+    this.bytesWritten = bytesWritten;
+  }
+
+  public synchronized void setRequest(
+      String apiId, Optional<String> collectionId, String format, boolean serverTiming) {
+    this.apiId = apiId;
+    this.collectionId = collectionId.orElse(null);
+    this.format = format;
+    this.serverTiming = serverTiming;
+  }
+
+  public synchronized Optional<String> getApiId() {
+    return Optional.ofNullable(apiId);
+  }
+
+  public synchronized Optional<String> getCollectionId() {
+    return Optional.ofNullable(collectionId);
+  }
+
+  public synchronized Optional<String> getFormat() {
+    return Optional.ofNullable(format);
+  }
+
+  public synchronized boolean isServerTiming() {
+    return serverTiming;
+  }
+
+  /**
+   * @return the completed stages and the total time so far in the format of the `Server-Timing`
+   *     header, the durations are in milliseconds
+   */
+  public synchronized String toServerTiming() {
+    String timings =
+        stages.entrySet().stream()
+            .map(stage -> toServerTiming(stage.getKey(), stage.getValue()))
+            .collect(Collectors.joining(", "));
+    String total = toServerTiming("total", getElapsed());
+
+    return timings.isEmpty() ? total : String.join(", ", timings, total);
+  }
+
+  private static String toServerTiming(String stage, long nanos) {
+    return String.format(Locale.US, "%s;dur=%.3f", stage, nanos / 1_000_000.0);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format(
+        "%s/%s/%s: %s",
+        Objects.requireNonNullElse(apiId, "-"),
+        Objects.requireNonNullElse(collectionId, "-"),
+        Objects.requireNonNullElse(format, "-"),
+        toServerTiming());
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.domain;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Variant;
+
+/**
+ * The variants of a response, which determine the `Vary` header. They only depend on the media
+ * types of the resource, since the languages and encodings are the same for all responses, so
+ * they are built once for each combination of media types.
+ */
+final class ResponseVariants {
+
+  // there is only a small number of combinations per API, this is just a safeguard
+  private static final int MAX_ENTRIES = 1_024;
+  private static final Map<List<MediaType>, List<Variant>> VARIANTS = new ConcurrentHashMap<>();
+
+  private ResponseVariants() {}
+
+  static List<Variant> of(ApiMediaType mediaType, List<ApiMediaType> alternateMediaTypes) {
+    List<MediaType> mediaTypes =
+        Stream.concat(Stream.of(mediaType), alternateMediaTypes.stream())
+            .map(ApiMediaType::type)
+            .collect(Collectors.toUnmodifiableList());
+
+    List<Variant> variants = VARIANTS.get(mediaTypes);
+    if (variants == null) {
+      variants =
+          Variant.mediaTypes(mediaTypes.toArray(MediaType[]::new))
+              .languages(QueriesHandler.LANGUAGES)
+              .encodings(QueriesHandler.ENCODINGS)
+              .add()
+              .build();
+      if (VARIANTS.size() < MAX_ENTRIES) {
+        VARIANTS.put(mediaTypes, List.copyOf(variants));
+      }
+    }
+
+    return variants;
+  }
+}
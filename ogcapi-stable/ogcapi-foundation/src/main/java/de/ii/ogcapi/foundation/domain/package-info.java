@@ -10,6 +10,7 @@
     multiBindings = {
       ContainerRequestFilter.class,
       ContainerResponseFilter.class,
+      WriterInterceptor.class,
       Binder.class,
       ExceptionMapper.class
     })
@@ -27,5 +28,6 @@ import de.ii.xtraplatform.entities.domain.maptobuilder.encoding.BuildableMapEnco
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.ContainerResponseFilter;
 import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.WriterInterceptor;
 import org.glassfish.jersey.internal.inject.Binder;
 import org.immutables.value.Value;
@@ -18,8 +18,10 @@ import com.networknt.schema.SchemaValidatorsConfig;
 import com.networknt.schema.SpecVersion;
 import com.networknt.schema.SpecVersionDetector;
 import com.networknt.schema.ValidationMessage;
+import de.ii.ogcapi.foundation.domain.BoundedCache;
 import de.ii.ogcapi.foundation.domain.SchemaValidator;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 import java.util.Set;
 import javax.inject.Inject;
@@ -29,13 +31,37 @@ import javax.inject.Singleton;
 @AutoBind
 public class SchemaValidatorImpl implements SchemaValidator {
 
+  private static final int MAX_CACHED_SCHEMAS = 1_000;
+
+  private final ObjectMapper mapper;
+  // the schemas are typically static parameter schemas, the bound is just a safeguard
+  private final BoundedCache<String, JsonSchema> schemaCache;
+
   @Inject
-  public SchemaValidatorImpl() {}
+  public SchemaValidatorImpl() {
+    this.mapper = new ObjectMapper();
+    this.schemaCache =
+        BoundedCache.<String, JsonSchema>builder().maxEntries(MAX_CACHED_SCHEMAS).build();
+  }
 
   @Override
   public Optional<String> validate(String schemaContent, String jsonContent) throws IOException {
-    ObjectMapper mapper = new ObjectMapper();
-    JsonNode schemaNode = mapper.readTree(schemaContent);
+    JsonSchema schema;
+    try {
+      schema =
+          schemaCache.get(
+              schemaContent,
+              content -> {
+                try {
+                  return getSchema(mapper.readTree(content));
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
     JsonNode jsonNode;
     try {
       jsonNode = mapper.readTree(jsonContent);
@@ -44,6 +70,10 @@ public class SchemaValidatorImpl implements SchemaValidator {
       return Optional.of(e.getOriginalMessage());
     }
 
+    return validate(schema, jsonNode);
+  }
+
+  private JsonSchema getSchema(JsonNode schemaNode) {
     SpecVersion.VersionFlag version;
     try {
       version = SpecVersionDetector.detect(schemaNode);
@@ -51,16 +81,14 @@ public class SchemaValidatorImpl implements SchemaValidator {
       // use 2020-12 as the fallback version
       version = SpecVersion.VersionFlag.V202012;
     }
-    return validate(schemaNode, jsonNode, version);
-  }
-
-  private Optional<String> validate(
-      JsonNode schemaNode, JsonNode jsonNode, SpecVersion.VersionFlag version) {
     JsonSchemaFactory validatorFactory = JsonSchemaFactory.getInstance(version);
     SchemaValidatorsConfig config = new SchemaValidatorsConfig();
     config.setFailFast(true);
     config.setHandleNullableField(true);
-    JsonSchema schema = validatorFactory.getSchema(schemaNode, config);
+    return validatorFactory.getSchema(schemaNode, config);
+  }
+
+  private Optional<String> validate(JsonSchema schema, JsonNode jsonNode) {
     Set<ValidationMessage> result;
     try {
       result = schema.validate(jsonNode);
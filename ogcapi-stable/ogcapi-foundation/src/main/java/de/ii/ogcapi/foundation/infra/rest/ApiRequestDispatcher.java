@@ -19,6 +19,7 @@ import de.ii.ogcapi.foundation.domain.ApiRequestContext;
 import de.ii.ogcapi.foundation.domain.EndpointExtension;
 import de.ii.ogcapi.foundation.domain.ExtensionRegistry;
 import de.ii.ogcapi.foundation.domain.FeatureTypeConfigurationOgcApi;
+import de.ii.ogcapi.foundation.domain.FoundationConfiguration;
 import de.ii.ogcapi.foundation.domain.HttpRequestOverrideQueryParameter;
 import de.ii.ogcapi.foundation.domain.ImmutableRequestContext.Builder;
 import de.ii.ogcapi.foundation.domain.OgcApi;
@@ -28,6 +29,7 @@ import de.ii.ogcapi.foundation.domain.OgcApiResource;
 import de.ii.ogcapi.foundation.domain.ParameterExtension;
 import de.ii.ogcapi.foundation.domain.QueryParameterSet;
 import de.ii.ogcapi.foundation.domain.RequestInjectableContext;
+import de.ii.ogcapi.foundation.domain.RequestTimings;
 import de.ii.xtraplatform.auth.domain.User;
 import de.ii.xtraplatform.base.domain.AppContext;
 import de.ii.xtraplatform.services.domain.ServiceEndpoint;
@@ -121,6 +123,8 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
       @Context ContainerRequestContext requestContext,
       @Context Request request,
       @Auth Optional<User> optionalUser) {
+    RequestTimings timings = new RequestTimings();
+    requestContext.setProperty(RequestTimings.PROPERTY, timings);
 
     String subPath = ((UriRoutingContext) requestContext.getUriInfo()).getFinalMatchingGroup();
     String method = requestContext.getMethod();
@@ -162,6 +166,8 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
     MultivaluedMap<String, String> actualParameters =
         getActualQueryParameters(requestContext, body);
 
+    timings.mark(RequestTimings.DISPATCH);
+
     // Validate request
     ApiOperation apiOperation =
         validateRequest(
@@ -179,6 +185,8 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
         QueryParameterSet.of(knownParameters, actualParameters)
             .evaluate(api, optionalCollectionData);
 
+    timings.mark(RequestTimings.VALIDATION);
+
     // Content negotiation
     ImmutableSet<ApiMediaType> supportedMediaTypes =
         ogcApiEndpoint.getMediaTypes(apiData, subPath, method);
@@ -193,6 +201,15 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
     Locale selectedLanguage =
         contentNegotiationLanguage.negotiateLanguage(requestContext).orElse(Locale.ENGLISH);
 
+    timings.setRequest(
+        apiData.getId(),
+        optionalCollectionData.map(FeatureTypeConfigurationOgcApi::getId),
+        selectedMediaType.label(),
+        apiData
+            .getExtension(FoundationConfiguration.class)
+            .map(FoundationConfiguration::isServerTimingEnabled)
+            .orElse(false));
+
     ApiRequestContext apiRequestContext =
         new Builder()
             .requestUri(requestContext.getUriInfo().getRequestUri())
@@ -205,6 +222,7 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
             .api(api)
             .maxResponseLinkHeaderSize(maxResponseLinkHeaderSize)
             .user(optionalUser)
+            .timings(timings)
             .build();
 
     // might return a new ApiRequestContext with policy obligations applied
@@ -212,6 +230,8 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
         apiRequestAuthorizer.checkAuthorization(
             apiRequestContext, apiOperation, optionalUser, body);
 
+    timings.mark(RequestTimings.AUTHORIZATION);
+
     // reset body for downstream endpoints
     body.ifPresent(bytes -> requestContext.setEntityStream(new ByteArrayInputStream(bytes)));
 
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.infra.rest;
+
+import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.foundation.domain.BoundedCache;
+import de.ii.xtraplatform.base.domain.AppConfiguration;
+import de.ii.xtraplatform.web.domain.DropwizardPlugin;
+import io.dropwizard.core.setup.Environment;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches gzip compressed variants of responses with a strong entity tag, e.g. the API definition,
+ * collections or tile sets. The first response is compressed in the background, later responses
+ * with the same entity tag are served from the cache, if the client accepts gzip. Since the key
+ * includes the entity tag, changed resources never get an outdated variant and the old variants are
+ * evicted over time.
+ */
+@Singleton
+@AutoBind
+public class PrecompressedVariants
+    implements ContainerResponseFilter, WriterInterceptor, DropwizardPlugin {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PrecompressedVariants.class);
+
+  private static final String GZIP = "gzip";
+  private static final String PROPERTY_KEY = PrecompressedVariants.class.getName() + ".key";
+  private static final String PROPERTY_SERVED = PrecompressedVariants.class.getName() + ".served";
+  private static final int MIN_ENTRY_SIZE = 1_024;
+  private static final int MAX_ENTRY_SIZE = 8 * 1_024 * 1_024;
+  private static final long MAX_SIZE = 64L * 1_024 * 1_024;
+  // do not queue more work than that, responses are compressed on the fly in the meantime
+  private static final int MAX_PENDING = 16;
+
+  private final BoundedCache<String, byte[]> entries;
+  private final ExecutorService executorService;
+  private final AtomicInteger pending;
+
+  @Inject
+  public PrecompressedVariants() {
+    this.entries =
+        BoundedCache.<String, byte[]>builder()
+            .maxWeight(compressed -> compressed.length, MAX_SIZE, MAX_ENTRY_SIZE)
+            .build();
+    this.executorService =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "precompressed-variants");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.pending = new AtomicInteger();
+  }
+
+  @Override
+  public void init(AppConfiguration configuration, Environment environment) {
+    entries.registerMetrics(environment.metrics(), PrecompressedVariants.class);
+  }
+
+  @Override
+  public void filter(
+      ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+      throws IOException {
+    if (!"GET".equalsIgnoreCase(requestContext.getMethod())
+        || responseContext.getStatus() != 200
+        || !responseContext.hasEntity()
+        || Objects.nonNull(responseContext.getHeaderString(HttpHeaders.CONTENT_ENCODING))
+        || !isCompressible(responseContext.getMediaType())
+        || !acceptsGzip(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+      return;
+    }
+
+    EntityTag eTag = responseContext.getEntityTag();
+    if (Objects.isNull(eTag) || eTag.isWeak()) {
+      return;
+    }
+
+    String language =
+        Objects.requireNonNullElse(
+            responseContext.getHeaderString(HttpHeaders.CONTENT_LANGUAGE), "");
+    String key =
+        String.join(
+            "|",
+            requestContext.getUriInfo().getRequestUri().toString(),
+            responseContext.getMediaType().toString(),
+            language,
+            eTag.getValue());
+
+    Optional<byte[]> cached = entries.get(key);
+
+    if (cached.isEmpty()) {
+      requestContext.setProperty(PROPERTY_KEY, key);
+      return;
+    }
+
+    byte[] compressed = cached.get();
+    requestContext.setProperty(PROPERTY_SERVED, true);
+    responseContext.setEntity(
+        compressed, responseContext.getEntityAnnotations(), responseContext.getMediaType());
+    responseContext.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+    responseContext.getHeaders().putSingle(HttpHeaders.CONTENT_LENGTH, compressed.length);
+    responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    Object key = context.getProperty(PROPERTY_KEY);
+    if (Objects.nonNull(context.getProperty(PROPERTY_SERVED)) || !(key instanceof String)) {
+      context.proceed();
+      return;
+    }
+
+    CapturingOutputStream capture = new CapturingOutputStream(context.getOutputStream());
+    context.setOutputStream(capture);
+    context.proceed();
+
+    byte[] content = capture.getCaptured();
+    if (Objects.isNull(content) || content.length < MIN_ENTRY_SIZE) {
+      return;
+    }
+    if (pending.incrementAndGet() > MAX_PENDING) {
+      pending.decrementAndGet();
+      return;
+    }
+
+    try {
+      executorService.submit(
+          () -> {
+            try {
+              entries.put((String) key, compress(content));
+            } catch (Throwable e) {
+              LOGGER.debug("Could not compress response: {}", e.getMessage());
+            } finally {
+              pending.decrementAndGet();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      pending.decrementAndGet();
+    }
+  }
+
+  private static byte[] compress(byte[] content) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(content);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static boolean isCompressible(MediaType mediaType) {
+    if (Objects.isNull(mediaType)) {
+      return false;
+    }
+    String type = mediaType.getType().toLowerCase(Locale.ROOT);
+    String subtype = mediaType.getSubtype().toLowerCase(Locale.ROOT);
+
+    return "text".equals(type)
+        || subtype.contains("json")
+        || subtype.contains("xml")
+        || subtype.contains("yaml")
+        || subtype.contains("javascript");
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (Objects.isNull(acceptEncoding)) {
+      return false;
+    }
+
+    boolean accepted = false;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      String name = parts[0].trim().toLowerCase(Locale.ROOT);
+      if (!GZIP.equals(name) && !"*".equals(name)) {
+        continue;
+      }
+      boolean rejected = false;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+        if (parameter.startsWith("q=")) {
+          try {
+            rejected = Double.parseDouble(parameter.substring(2)) <= 0;
+          } catch (NumberFormatException e) {
+            rejected = true;
+          }
+        }
+      }
+      if (GZIP.equals(name)) {
+        // an explicit entry takes precedence over the wildcard
+        return !rejected;
+      }
+      accepted = !rejected;
+    }
+
+    return accepted;
+  }
+
+  /** Writes to the response and keeps a copy of the content up to the maximum entry size. */
+  private static class CapturingOutputStream extends OutputStream {
+
+    private final OutputStream delegate;
+    private ByteArrayOutputStream captured;
+
+    CapturingOutputStream(OutputStream delegate) {
+      this.delegate = delegate;
+      this.captured = new ByteArrayOutputStream();
+    }
+
+    byte[] getCaptured() {
+      return Objects.nonNull(captured) ? captured.toByteArray() : null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      if (Objects.nonNull(captured) && ensureCapacity(1)) {
+        captured.write(b);
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+      capture(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    private void capture(byte[] b, int off, int len) {
+      if (Objects.nonNull(captured) && ensureCapacity(len)) {
+        captured.write(b, off, len);
+      }
+    }
+
+    private boolean ensureCapacity(int len) {
+      if (captured.size() + len > MAX_ENTRY_SIZE) {
+        // too large, stop capturing
+        captured = null;
+        return false;
+      }
+      return true;
+    }
+  }
+}
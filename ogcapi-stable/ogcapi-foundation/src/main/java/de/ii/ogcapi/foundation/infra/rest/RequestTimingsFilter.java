@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.infra.rest;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.azahnen.dagger.annotations.AutoBind;
+import com.google.common.io.CountingOutputStream;
+import de.ii.ogcapi.foundation.domain.RequestTimings;
+import de.ii.xtraplatform.base.domain.AppConfiguration;
+import de.ii.xtraplatform.web.domain.DropwizardPlugin;
+import io.dropwizard.core.setup.Environment;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the {@link RequestTimings} of API requests. The stages are recorded as timers named
+ * {@code ogcapi.requests.{apiId}.{stage}}, the written bytes as a histogram. The same metrics are
+ * also recorded per collection and format, named {@code
+ * ogcapi.requests.{apiId}.{collectionId}.{format}.{stage}}, with {@code _} for requests without a
+ * collection. The collections are the configured ones and the formats are the labels of the
+ * supported media types, never values from the request. In addition, the number of these
+ * combinations is limited per API, further combinations are recorded as {@code other.other}. If
+ * enabled, the stages that are completed before the response is written are also returned in a
+ * `Server-Timing` header.
+ *
+ * <p>The feature stream runs the query, the transformations and the encoding interleaved, so
+ * these are recorded as a single {@link RequestTimings#STREAM} stage.
+ */
+@Singleton
+@AutoBind
+public class RequestTimingsFilter
+    implements ContainerResponseFilter, WriterInterceptor, DropwizardPlugin {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequestTimingsFilter.class);
+
+  private static final String SERVER_TIMING = "Server-Timing";
+
+  // the maximum number of combinations of collection and format with their own metrics per API
+  static final int MAX_TAGS = 100;
+  static final String NONE = "_";
+  static final String OTHER = "other";
+  // dots would add levels to the metric names
+  private static final Pattern INVALID = Pattern.compile("[^A-Za-z0-9_-]");
+
+  private final Map<String, Set<String>> tags;
+  private MetricRegistry metrics;
+
+  @Inject
+  public RequestTimingsFilter() {
+    this.tags = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public void init(AppConfiguration configuration, Environment environment) {
+    this.metrics = environment.metrics();
+  }
+
+  @Override
+  public void filter(
+      ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+      throws IOException {
+    Object timings = requestContext.getProperty(RequestTimings.PROPERTY);
+    if (!(timings instanceof RequestTimings)) {
+      return;
+    }
+
+    if (((RequestTimings) timings).isServerTiming()) {
+      responseContext
+          .getHeaders()
+          .putSingle(SERVER_TIMING, ((RequestTimings) timings).toServerTiming());
+    }
+
+    if (!responseContext.hasEntity()) {
+      publish((RequestTimings) timings);
+    }
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    Object timings = context.getProperty(RequestTimings.PROPERTY);
+    if (!(timings instanceof RequestTimings)) {
+      context.proceed();
+      return;
+    }
+
+    RequestTimings requestTimings = (RequestTimings) timings;
+    CountingOutputStream outputStream = new CountingOutputStream(context.getOutputStream());
+    context.setOutputStream(outputStream);
+    long streamed = requestTimings.getStage(RequestTimings.STREAM);
+    long start = System.nanoTime();
+
+    try {
+      context.proceed();
+    } finally {
+      // a streamed entity runs the feature stream while it is written, that is a separate stage
+      streamed = requestTimings.getStage(RequestTimings.STREAM) - streamed;
+      requestTimings.add(RequestTimings.WRITE, Math.max(0, System.nanoTime() - start - streamed));
+      requestTimings.setBytesWritten(outputStream.getCount());
+      publish(requestTimings);
+    }
+  }
+
+  private void publish(RequestTimings timings) {
+    if (Objects.isNull(metrics) || timings.getApiId().isEmpty()) {
+      return;
+    }
+
+    String apiId = timings.getApiId().get();
+    String prefix = MetricRegistry.name("ogcapi", "requests", apiId);
+    Map<String, Long> stages = timings.getStages();
+    long elapsed = timings.getElapsed();
+
+    publish(prefix, stages, elapsed, timings.getBytesWritten());
+    publish(
+        MetricRegistry.name(prefix, getTag(apiId, timings.getCollectionId(), timings.getFormat())),
+        stages,
+        elapsed,
+        timings.getBytesWritten());
+
+    if (LOGGER.isTraceEnabled()) {
+      LOGGER.trace("Request timings {}", timings);
+    }
+  }
+
+  private void publish(String prefix, Map<String, Long> stages, long elapsed, long bytesWritten) {
+    for (Map.Entry<String, Long> stage : stages.entrySet()) {
+      metrics
+          .timer(MetricRegistry.name(prefix, stage.getKey()))
+          .update(stage.getValue(), TimeUnit.NANOSECONDS);
+    }
+    metrics.timer(MetricRegistry.name(prefix, "total")).update(elapsed, TimeUnit.NANOSECONDS);
+    if (bytesWritten >= 0) {
+      metrics.histogram(MetricRegistry.name(prefix, "bytes")).update(bytesWritten);
+    }
+  }
+
+  /**
+   * @param apiId the API
+   * @param collectionId the collection of the request, if any
+   * @param format the format of the response, if any
+   * @return the part of the metric names for the collection and the format, {@code other.other}
+   *     if the API already has the maximum number of combinations
+   */
+  String getTag(String apiId, Optional<String> collectionId, Optional<String> format) {
+    String tag =
+        MetricRegistry.name(sanitize(collectionId.orElse(NONE)), sanitize(format.orElse(NONE)));
+    Set<String> known = tags.computeIfAbsent(apiId, id -> ConcurrentHashMap.newKeySet());
+
+    if (known.contains(tag)) {
+      return tag;
+    }
+    synchronized (known) {
+      if (known.size() < MAX_TAGS) {
+        known.add(tag);
+        return tag;
+      }
+    }
+
+    return MetricRegistry.name(OTHER, OTHER);
+  }
+
+  private static String sanitize(String value) {
+    return INVALID.matcher(value).replaceAll("_");
+  }
+}
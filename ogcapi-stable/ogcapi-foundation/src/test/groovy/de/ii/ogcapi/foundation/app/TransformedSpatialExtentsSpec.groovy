@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.app
+
+import de.ii.xtraplatform.crs.domain.BoundingBox
+import de.ii.xtraplatform.crs.domain.EpsgCrs
+import de.ii.xtraplatform.crs.domain.OgcCrs
+import spock.lang.Specification
+
+import java.util.function.BiFunction
+
+class TransformedSpatialExtentsSpec extends Specification {
+
+    static final EpsgCrs TARGET = EpsgCrs.of(3857)
+    static final BoundingBox EXTENT = BoundingBox.of(7d, 50d, 8d, 51d, OgcCrs.CRS84)
+    static final BoundingBox TRANSFORMED = BoundingBox.of(1d, 2d, 3d, 4d, TARGET)
+
+    int transformations = 0
+    TransformedSpatialExtents extents = new TransformedSpatialExtents({ BoundingBox bbox, EpsgCrs crs ->
+        transformations++
+        Optional.of(TRANSFORMED)
+    } as BiFunction)
+
+    def 'an extent is transformed once per target CRS'() {
+        when:
+        extents.get("c", EXTENT, TARGET)
+        extents.get("c", EXTENT, TARGET)
+        extents.get("c", EXTENT, OgcCrs.CRS84)
+
+        then:
+        transformations == 2
+        extents.get("c", EXTENT, TARGET) == Optional.of(TRANSFORMED)
+    }
+
+    def 'a changed extent is transformed again, even without an invalidation'() {
+        given:
+        extents.get("c", EXTENT, TARGET)
+
+        when:
+        extents.get("c", BoundingBox.of(7d, 50d, 9d, 51d, OgcCrs.CRS84), TARGET)
+
+        then:
+        transformations == 2
+    }
+
+    def 'an updated spatial extent removes the extents of the collection and the API'() {
+        given:
+        extents.get("c", EXTENT, TARGET)
+        extents.get("other", EXTENT, TARGET)
+        extents.get(TransformedSpatialExtents.API_EXTENT_KEY, EXTENT, TARGET)
+
+        when:
+        extents.invalidate("c")
+        extents.get("c", EXTENT, TARGET)
+        extents.get("other", EXTENT, TARGET)
+        extents.get(TransformedSpatialExtents.API_EXTENT_KEY, EXTENT, TARGET)
+
+        then:
+        transformations == 5
+    }
+}
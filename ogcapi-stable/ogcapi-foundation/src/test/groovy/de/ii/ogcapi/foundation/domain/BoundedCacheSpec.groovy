@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.domain
+
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.LongSupplier
+
+class BoundedCacheSpec extends Specification {
+
+    long now = 0
+
+    def 'the least recently used entry is evicted'() {
+        given:
+        BoundedCache<String, Integer> cache = BoundedCache.builder().maxEntries(2).build()
+        cache.put("a", 1)
+        cache.put("b", 2)
+
+        when:
+        cache.get("a")
+        cache.put("c", 3)
+
+        then:
+        cache.size() == 2
+        cache.get("a") == Optional.of(1)
+        cache.get("b").isEmpty()
+        cache.get("c") == Optional.of(3)
+    }
+
+    def 'entries are evicted by weight and too large values are not stored'() {
+        given:
+        BoundedCache<String, byte[]> cache = BoundedCache.builder()
+                .maxWeight({ byte[] value -> value.length as long }, 10, 6)
+                .build()
+
+        when:
+        cache.put("a", new byte[4])
+        cache.put("b", new byte[4])
+        cache.put("c", new byte[4])
+        cache.put("d", new byte[7])
+
+        then:
+        cache.weight() == 8
+        cache.get("a").isEmpty()
+        cache.get("b").isPresent()
+        cache.get("c").isPresent()
+        cache.get("d").isEmpty()
+    }
+
+    def 'entries expire after the time to live'() {
+        given:
+        BoundedCache<String, Integer> cache = BoundedCache.builder()
+                .timeToLive(1, TimeUnit.MINUTES)
+                .nanoTime({ -> now } as LongSupplier)
+                .build()
+        cache.put("a", 1)
+        cache.put("b", 2, TimeUnit.MINUTES.toNanos(2))
+
+        when:
+        now = TimeUnit.MINUTES.toNanos(1) - 1
+
+        then:
+        cache.get("a") == Optional.of(1)
+
+        when:
+        now = TimeUnit.MINUTES.toNanos(1)
+
+        then:
+        cache.get("a").isEmpty()
+        cache.get("b") == Optional.of(2)
+        cache.size() == 1
+    }
+
+    def 'the entries of a group are limited without evicting other groups'() {
+        given:
+        BoundedCache<String, Integer> cache = BoundedCache.builder()
+                .maxEntriesPerGroup({ String key -> key.substring(0, 1) }, 2)
+                .build()
+        cache.put("a1", 1)
+        cache.put("b1", 1)
+        cache.put("a2", 2)
+
+        when:
+        cache.get("a1")
+        cache.put("a3", 3)
+
+        then:
+        cache.get("a1").isPresent()
+        cache.get("a2").isEmpty()
+        cache.get("a3").isPresent()
+        cache.get("b1").isPresent()
+    }
+
+    def 'a value is loaded once for concurrent requests'() {
+        given:
+        BoundedCache<String, Integer> cache = BoundedCache.builder().maxEntries(10).build()
+        AtomicInteger loads = new AtomicInteger()
+        CountDownLatch release = new CountDownLatch(1)
+        def executor = Executors.newFixedThreadPool(4)
+
+        when:
+        def results = (1..4).collect {
+            executor.submit({
+                cache.get("a", { key -> loads.incrementAndGet(); release.await(); 42 })
+            } as Callable)
+        }
+        Thread.sleep(100)
+        release.countDown()
+
+        then:
+        results*.get() == [42, 42, 42, 42]
+        loads.get() == 1
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def 'failed loads are not stored'() {
+        given:
+        BoundedCache<String, Integer> cache = BoundedCache.builder().maxEntries(10).build()
+
+        when:
+        cache.get("a", { key -> throw new IllegalStateException("failed") })
+
+        then:
+        thrown(IllegalStateException)
+        cache.get("a", { key -> 1 }) == 1
+    }
+
+    def 'a value that was computed during an invalidation is not stored'() {
+        given:
+        BoundedCache<String, Integer> cache = BoundedCache.builder().maxEntries(10).build()
+        long stamp = cache.version()
+
+        when:
+        cache.invalidate("a")
+        boolean stored = cache.putIfUnchanged("a", 1, stamp)
+
+        then:
+        !stored
+        cache.get("a").isEmpty()
+        cache.putIfUnchanged("a", 2, cache.version())
+        cache.get("a") == Optional.of(2)
+    }
+
+    def 'selected entries are invalidated'() {
+        given:
+        BoundedCache<String, Integer> cache = BoundedCache.builder()
+                .maxWeight({ Integer value -> value as long }, 100, 100)
+                .build()
+        cache.put("api1/a", 1)
+        cache.put("api1/b", 2)
+        cache.put("api2/a", 3)
+
+        when:
+        cache.invalidateIf({ String key -> key.startsWith("api1/") })
+
+        then:
+        cache.size() == 1
+        cache.weight() == 3
+        cache.get("api2/a") == Optional.of(3)
+    }
+}
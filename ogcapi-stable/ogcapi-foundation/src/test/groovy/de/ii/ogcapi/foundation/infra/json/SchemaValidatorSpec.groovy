@@ -51,6 +51,20 @@ class SchemaValidatorSpec extends Specification {
         result.isPresent()
     }
 
+    def "Validate repeatedly against the same compiled schema"() {
+        given:
+        String schema = new File('src/test/resources/schema.json').getText()
+        String feature = new File('src/test/resources/feature.json').getText()
+        String invalidFeature = new File('src/test/resources/feature2.json').getText()
+        when:
+        Optional<String> result1 = schemaValidator.validate(schema, feature)
+        Optional<String> result2 = schemaValidator.validate(schema, invalidFeature)
+        Optional<String> result3 = schemaValidator.validate(schema, feature)
+        then:
+        result1.isEmpty()
+        result2.isPresent()
+        result3.isEmpty()
+    }
 
     def "Validate and catch errors"() {
         when:
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.infra.rest
+
+import java.lang.annotation.Annotation
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPInputStream
+import javax.ws.rs.container.ContainerRequestContext
+import javax.ws.rs.container.ContainerResponseContext
+import javax.ws.rs.core.EntityTag
+import javax.ws.rs.core.HttpHeaders
+import javax.ws.rs.core.MediaType
+import javax.ws.rs.core.MultivaluedHashMap
+import javax.ws.rs.core.MultivaluedMap
+import javax.ws.rs.core.UriInfo
+import javax.ws.rs.ext.WriterInterceptorContext
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class PrecompressedVariantsSpec extends Specification {
+
+    static final byte[] CONTENT = ('{"id":"collections","links":[]}' * 100).getBytes(StandardCharsets.UTF_8)
+
+    PrecompressedVariants variants = new PrecompressedVariants()
+
+    static class Exchange {
+        final Map<String, Object> attributes = [:]
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>()
+        final ByteArrayOutputStream written = new ByteArrayOutputStream()
+        Object entity = CONTENT
+    }
+
+    Exchange run(String acceptEncoding, EntityTag eTag) {
+        Exchange exchange = new Exchange()
+        variants.filter(request(exchange, acceptEncoding), response(exchange, eTag))
+        variants.aroundWriteTo(writer(exchange))
+        return exchange
+    }
+
+    static ContainerRequestContext request(Exchange exchange, String acceptEncoding) {
+        UriInfo uriInfo = [
+                getRequestUri: { URI.create("https://example.com/api/collections") }
+        ] as UriInfo
+
+        return [
+                getMethod      : { "GET" },
+                getHeaderString: { String name -> name == HttpHeaders.ACCEPT_ENCODING ? acceptEncoding : null },
+                getUriInfo     : { uriInfo },
+                setProperty    : { String key, Object value -> exchange.attributes[key] = value },
+                getProperty    : { String key -> exchange.attributes[key] }
+        ] as ContainerRequestContext
+    }
+
+    static ContainerResponseContext response(Exchange exchange, EntityTag eTag) {
+        return [
+                getStatus           : { 200 },
+                hasEntity           : { true },
+                getHeaderString     : { String name -> exchange.headers.getFirst(name)?.toString() },
+                getMediaType        : { MediaType.APPLICATION_JSON_TYPE },
+                getEntityTag        : { eTag },
+                getHeaders          : { exchange.headers },
+                getEntityAnnotations: { new Annotation[0] },
+                setEntity           : { Object value, Annotation[] annotations, MediaType mediaType -> exchange.entity = value }
+        ] as ContainerResponseContext
+    }
+
+    static WriterInterceptorContext writer(Exchange exchange) {
+        OutputStream[] outputStream = [exchange.written]
+
+        return [
+                getProperty    : { String key -> exchange.attributes[key] },
+                getOutputStream: { outputStream[0] },
+                setOutputStream: { OutputStream value -> outputStream[0] = value },
+                proceed        : { outputStream[0].write((byte[]) exchange.entity) }
+        ] as WriterInterceptorContext
+    }
+
+    static byte[] decompress(byte[] compressed) {
+        return new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes()
+    }
+
+    def 'the precompressed variant is served with Content-Encoding and Vary'() {
+        given:
+        EntityTag eTag = new EntityTag("v1")
+
+        when: 'the first response is written uncompressed and compressed in the background'
+        Exchange first = run("gzip, deflate", eTag)
+
+        then:
+        first.written.toByteArray() == CONTENT
+        first.headers.isEmpty()
+
+        when: 'a later request is served from the cache'
+        Exchange second = null
+        new PollingConditions(timeout: 5).eventually {
+            second = run("gzip, deflate", eTag)
+            assert second.headers.getFirst(HttpHeaders.CONTENT_ENCODING) == "gzip"
+        }
+
+        then:
+        second.headers.get(HttpHeaders.VARY) == [HttpHeaders.ACCEPT_ENCODING]
+        second.headers.getFirst(HttpHeaders.CONTENT_LENGTH) == ((byte[]) second.entity).length
+        decompress((byte[]) second.entity) == CONTENT
+        decompress(second.written.toByteArray()) == CONTENT
+    }
+
+    def 'no variant is served to clients that do not accept gzip: #acceptEncoding'() {
+        given:
+        EntityTag eTag = new EntityTag("v1")
+        run("gzip", eTag)
+        new PollingConditions(timeout: 5).eventually {
+            Exchange cached = run("gzip", eTag)
+            assert cached.headers.getFirst(HttpHeaders.CONTENT_ENCODING) == "gzip"
+        }
+
+        when:
+        Exchange exchange = run(acceptEncoding, eTag)
+
+        then:
+        exchange.headers.isEmpty()
+        exchange.written.toByteArray() == CONTENT
+
+        where:
+        acceptEncoding << [null, "br", "gzip;q=0", "*, gzip;q=0"]
+    }
+
+    def 'a changed entity tag does not get the variant of the old one'() {
+        given:
+        run("gzip", new EntityTag("v1"))
+        new PollingConditions(timeout: 5).eventually {
+            Exchange cached = run("gzip", new EntityTag("v1"))
+            assert cached.headers.getFirst(HttpHeaders.CONTENT_ENCODING) == "gzip"
+        }
+
+        when:
+        Exchange exchange = run("gzip", new EntityTag("v2"))
+
+        then:
+        exchange.headers.isEmpty()
+        exchange.written.toByteArray() == CONTENT
+    }
+
+    def 'responses with a weak entity tag are never cached'() {
+        given:
+        EntityTag eTag = new EntityTag("v1", true)
+
+        when:
+        run("gzip", eTag)
+        Thread.sleep(200)
+        Exchange exchange = run("gzip", eTag)
+
+        then:
+        exchange.headers.isEmpty()
+        exchange.written.toByteArray() == CONTENT
+    }
+}
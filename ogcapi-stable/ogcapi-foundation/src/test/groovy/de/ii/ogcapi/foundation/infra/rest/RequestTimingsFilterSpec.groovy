@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.foundation.infra.rest
+
+import spock.lang.Specification
+
+class RequestTimingsFilterSpec extends Specification {
+
+    RequestTimingsFilter filter = new RequestTimingsFilter()
+
+    def 'the collection and the format are part of the metric names'() {
+        expect:
+        filter.getTag("api", Optional.ofNullable(collectionId), Optional.ofNullable(format)) == tag
+
+        where:
+        collectionId | format    || tag
+        "buildings"  | "GeoJSON" || "buildings.GeoJSON"
+        null         | "HTML"    || "_.HTML"
+        "a.b"        | "JSON-FG" || "a_b.JSON-FG"
+        null         | null      || "_._"
+    }
+
+    def 'the number of combinations of collection and format is limited per API'() {
+        given:
+        (1..RequestTimingsFilter.MAX_TAGS).each { i ->
+            filter.getTag("api", Optional.of("c" + i), Optional.of("JSON"))
+        }
+
+        expect:
+        filter.getTag("api", Optional.of("c1"), Optional.of("JSON")) == "c1.JSON"
+        filter.getTag("api", Optional.of("c0"), Optional.of("JSON")) == "other.other"
+        filter.getTag("other-api", Optional.of("c0"), Optional.of("JSON")) == "c0.JSON"
+    }
+}
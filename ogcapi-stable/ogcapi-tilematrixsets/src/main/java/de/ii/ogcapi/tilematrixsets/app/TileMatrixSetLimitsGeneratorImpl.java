@@ -8,6 +8,7 @@
 package de.ii.ogcapi.tilematrixsets.app;
 
 import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.foundation.domain.BoundedCache;
 import de.ii.ogcapi.foundation.domain.OgcApi;
 import de.ii.ogcapi.tilematrixsets.domain.TileMatrixSetLimitsGenerator;
 import de.ii.ogcapi.tilematrixsets.domain.TileMatrixSetLimitsOgcApi;
@@ -20,6 +21,7 @@ import de.ii.xtraplatform.tiles.domain.MinMax;
 import de.ii.xtraplatform.tiles.domain.TileMatrixSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
@@ -30,6 +32,10 @@ import org.slf4j.LoggerFactory;
 /**
  * This class is responsible for generating a list of tileMatrixSetLimits in json responses for
  * /tiles and /collections/{collectionsId}/tiles requests.
+ *
+ * <p>Transformed bounding boxes and computed limits are cached. The cache keys include the
+ * bounding box, so an updated spatial extent of an API or collection results in a new entry and the
+ * outdated entries are evicted as the least recently used ones.
  */
 @Singleton
 @AutoBind
@@ -37,11 +43,28 @@ public class TileMatrixSetLimitsGeneratorImpl implements TileMatrixSetLimitsGene
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(TileMatrixSetLimitsGeneratorImpl.class);
+  private static final int MAX_CACHE_ENTRIES = 10_000;
+
   private final CrsTransformerFactory crsTransformerFactory;
+  private final BoundedCache<LimitsKey, List<TileMatrixSetLimitsOgcApi>> limitsCache;
+  private final BoundedCache<LimitsKey, TileMatrixSetLimitsOgcApi> singleLimitsCache;
+  private final BoundedCache<TransformationKey, Optional<BoundingBox>> boundingBoxCache;
 
   @Inject
   public TileMatrixSetLimitsGeneratorImpl(CrsTransformerFactory crsTransformerFactory) {
     this.crsTransformerFactory = crsTransformerFactory;
+    this.limitsCache =
+        BoundedCache.<LimitsKey, List<TileMatrixSetLimitsOgcApi>>builder()
+            .maxEntries(MAX_CACHE_ENTRIES)
+            .build();
+    this.singleLimitsCache =
+        BoundedCache.<LimitsKey, TileMatrixSetLimitsOgcApi>builder()
+            .maxEntries(MAX_CACHE_ENTRIES)
+            .build();
+    this.boundingBoxCache =
+        BoundedCache.<TransformationKey, Optional<BoundingBox>>builder()
+            .maxEntries(MAX_CACHE_ENTRIES)
+            .build();
   }
 
   @Override
@@ -50,18 +73,20 @@ public class TileMatrixSetLimitsGeneratorImpl implements TileMatrixSetLimitsGene
       TileMatrixSet tileMatrixSet,
       MinMax tileMatrixRange,
       Optional<String> collectionId) {
-    return tileMatrixSet
-        .getLimitsList(tileMatrixRange, getBoundingBox(api, tileMatrixSet, collectionId))
-        .stream()
-        .map(TileMatrixSetLimitsOgcApi::of)
-        .collect(Collectors.toList());
+    return getLimitsList(
+        tileMatrixSet, tileMatrixRange, getBoundingBox(api, tileMatrixSet, collectionId));
   }
 
   @Override
   public TileMatrixSetLimitsOgcApi getTileMatrixSetLimits(
       OgcApi api, TileMatrixSet tileMatrixSet, int tileMatrix, Optional<String> collectionId) {
-    return TileMatrixSetLimitsOgcApi.of(
-        tileMatrixSet.getLimits(tileMatrix, getBoundingBox(api, tileMatrixSet, collectionId)));
+    return singleLimitsCache.get(
+        new LimitsKey(
+            tileMatrixSet.getId(),
+            tileMatrix,
+            tileMatrix,
+            getBoundingBox(api, tileMatrixSet, collectionId)),
+        key -> TileMatrixSetLimitsOgcApi.of(tileMatrixSet.getLimits(tileMatrix, key.bbox)));
   }
 
   /**
@@ -76,7 +101,11 @@ public class TileMatrixSetLimitsGeneratorImpl implements TileMatrixSetLimitsGene
       BoundingBox boundingBox, TileMatrixSet tileMatrixSet, MinMax tileMatrixRange) {
 
     Optional<BoundingBox> bbox =
-        getBoundingBoxInTargetCrs(boundingBox, tileMatrixSet.getCrs(), crsTransformerFactory);
+        boundingBoxCache.get(
+            new TransformationKey(boundingBox, tileMatrixSet.getCrs()),
+            key ->
+                getBoundingBoxInTargetCrs(
+                    boundingBox, tileMatrixSet.getCrs(), crsTransformerFactory));
 
     if (bbox.isEmpty()) {
       // fallback to bbox of the tile matrix set
@@ -85,9 +114,18 @@ public class TileMatrixSetLimitsGeneratorImpl implements TileMatrixSetLimitsGene
       bbox = Optional.of(tileMatrixSet.getBoundingBox());
     }
 
-    return tileMatrixSet.getLimitsList(tileMatrixRange, bbox.get()).stream()
-        .map(TileMatrixSetLimitsOgcApi::of)
-        .collect(Collectors.toList());
+    return getLimitsList(tileMatrixSet, tileMatrixRange, bbox.get());
+  }
+
+  private List<TileMatrixSetLimitsOgcApi> getLimitsList(
+      TileMatrixSet tileMatrixSet, MinMax tileMatrixRange, BoundingBox bbox) {
+    return limitsCache.get(
+        new LimitsKey(
+            tileMatrixSet.getId(), tileMatrixRange.getMin(), tileMatrixRange.getMax(), bbox),
+        key ->
+            tileMatrixSet.getLimitsList(tileMatrixRange, bbox).stream()
+                .map(TileMatrixSetLimitsOgcApi::of)
+                .collect(Collectors.toUnmodifiableList()));
   }
 
   private static BoundingBox getBoundingBox(
@@ -157,4 +195,65 @@ public class TileMatrixSetLimitsGeneratorImpl implements TileMatrixSetLimitsGene
             targetCrs));
     return Optional.empty();
   }
+
+  private static final class LimitsKey {
+    private final String tileMatrixSetId;
+    private final int minLevel;
+    private final int maxLevel;
+    private final BoundingBox bbox;
+
+    private LimitsKey(String tileMatrixSetId, int minLevel, int maxLevel, BoundingBox bbox) {
+      this.tileMatrixSetId = tileMatrixSetId;
+      this.minLevel = minLevel;
+      this.maxLevel = maxLevel;
+      this.bbox = bbox;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof LimitsKey)) {
+        return false;
+      }
+      LimitsKey other = (LimitsKey) o;
+      return minLevel == other.minLevel
+          && maxLevel == other.maxLevel
+          && tileMatrixSetId.equals(other.tileMatrixSetId)
+          && bbox.equals(other.bbox);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tileMatrixSetId, minLevel, maxLevel, bbox);
+    }
+  }
+
+  private static final class TransformationKey {
+    private final BoundingBox bbox;
+    private final EpsgCrs targetCrs;
+
+    private TransformationKey(BoundingBox bbox, EpsgCrs targetCrs) {
+      this.bbox = bbox;
+      this.targetCrs = targetCrs;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TransformationKey)) {
+        return false;
+      }
+      TransformationKey other = (TransformationKey) o;
+      return bbox.equals(other.bbox) && targetCrs.equals(other.targetCrs);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(bbox, targetCrs);
+    }
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.tilematrixsets.app
+
+import de.ii.ogcapi.foundation.domain.OgcApi
+import de.ii.ogcapi.tilematrixsets.domain.ImmutableTileMatrixSetLimitsOgcApi
+import de.ii.xtraplatform.crs.domain.BoundingBox
+import de.ii.xtraplatform.crs.domain.CrsTransformerFactory
+import de.ii.xtraplatform.crs.domain.EpsgCrs
+import de.ii.xtraplatform.tiles.domain.ImmutableMinMax
+import de.ii.xtraplatform.tiles.domain.MinMax
+import de.ii.xtraplatform.tiles.domain.TileMatrixSet
+import de.ii.xtraplatform.tiles.domain.TileMatrixSetLimits
+import spock.lang.Specification
+
+class TileMatrixSetLimitsGeneratorImplSpec extends Specification {
+
+    static final EpsgCrs CRS = EpsgCrs.of(3857)
+    static final MinMax RANGE = new ImmutableMinMax.Builder().min(0).max(1).build()
+
+    BoundingBox extent = BoundingBox.of(0d, 0d, 10d, 10d, CRS)
+    OgcApi api = Stub(OgcApi) {
+        getSpatialExtent("c", CRS) >> { Optional.of(extent) }
+    }
+    TileMatrixSet tileMatrixSet = Mock(TileMatrixSet) {
+        getId() >> "WebMercatorQuad"
+        getCrs() >> CRS
+    }
+    TileMatrixSetLimitsGeneratorImpl generator =
+            new TileMatrixSetLimitsGeneratorImpl(Stub(CrsTransformerFactory))
+
+    def 'the limits of a range of tile matrices are computed once per extent'() {
+        when:
+        generator.getTileMatrixSetLimits(api, tileMatrixSet, RANGE, Optional.of("c"))
+        def limits = generator.getTileMatrixSetLimits(api, tileMatrixSet, RANGE, Optional.of("c"))
+
+        then:
+        1 * tileMatrixSet.getLimitsList(RANGE, extent) >> [createLimits("0"), createLimits("1")]
+        limits*.getTileMatrix() == ["0", "1"]
+    }
+
+    def 'the limits of a single tile matrix are computed directly'() {
+        when:
+        generator.getTileMatrixSetLimits(api, tileMatrixSet, 1, Optional.of("c"))
+        def limits = generator.getTileMatrixSetLimits(api, tileMatrixSet, 1, Optional.of("c"))
+
+        then:
+        1 * tileMatrixSet.getLimits(1, extent) >> createLimits("1")
+        0 * tileMatrixSet.getLimitsList(*_)
+        limits.getTileMatrix() == "1"
+    }
+
+    def 'the limits are computed again for an updated spatial extent'() {
+        given:
+        BoundingBox original = extent
+        BoundingBox updated = BoundingBox.of(0d, 0d, 20d, 20d, CRS)
+
+        when:
+        generator.getTileMatrixSetLimits(api, tileMatrixSet, 1, Optional.of("c"))
+        extent = updated
+        def limits = generator.getTileMatrixSetLimits(api, tileMatrixSet, 1, Optional.of("c"))
+
+        then:
+        1 * tileMatrixSet.getLimits(1, original) >> createLimits("1")
+        1 * tileMatrixSet.getLimits(1, updated) >> createLimits("1", 2)
+        limits.getMaxTileCol() == 2
+    }
+
+    static TileMatrixSetLimits createLimits(String tileMatrix, int max = 1) {
+        return new ImmutableTileMatrixSetLimitsOgcApi.Builder()
+                .tileMatrix(tileMatrix)
+                .minTileRow(0)
+                .maxTileRow(max)
+                .minTileCol(0)
+                .maxTileCol(max)
+                .build()
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.tiles.app;
+
+import static de.ii.ogcapi.tiles.app.TilesBuildingBlock.DATASET_TILES;
+
+import com.github.azahnen.dagger.annotations.AutoBind;
+import de.ii.ogcapi.foundation.domain.BoundedCache;
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.ogcapi.tiles.domain.ParameterizedTilesCache;
+import de.ii.ogcapi.tiles.domain.TilesConfiguration;
+import de.ii.xtraplatform.base.domain.AppConfiguration;
+import de.ii.xtraplatform.tiles.domain.TileGenerationParametersTransient;
+import de.ii.xtraplatform.tiles.domain.TileMatrixSetLimits;
+import de.ii.xtraplatform.tiles.domain.TileQuery;
+import de.ii.xtraplatform.tiles.domain.TileResult;
+import de.ii.xtraplatform.web.domain.DropwizardPlugin;
+import io.dropwizard.core.setup.Environment;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Keeps tiles that are generated with user parameters in memory. The key includes the parsed user
+ * parameters, which are immutable values, so requests with the same parameters in a different
+ * order or notation share the cached tiles. The cache is limited by the total size and by the
+ * number of tiles per parameter set, so that many one-off filters cannot evict popular parameter
+ * sets like the steps of a time slider. Entries expire after the time configured in the tiles
+ * building block and are removed, if features in the tile change.
+ */
+@Singleton
+@AutoBind
+public class ParameterizedTilesCacheImpl implements ParameterizedTilesCache, DropwizardPlugin {
+
+  private static final long MAX_SIZE = 64L * 1_024 * 1_024;
+  private static final int MAX_ENTRY_SIZE = 2 * 1_024 * 1_024;
+  private static final int MAX_TILES_PER_PARAMETERS = 4_096;
+
+  private final BoundedCache<Key, TileResult> entries;
+
+  @Inject
+  public ParameterizedTilesCacheImpl() {
+    this(System::nanoTime);
+  }
+
+  ParameterizedTilesCacheImpl(LongSupplier nanoTime) {
+    this.entries =
+        BoundedCache.<Key, TileResult>builder()
+            .maxWeight(
+                result -> result.getContent().map(content -> content.length).orElse(0),
+                MAX_SIZE,
+                MAX_ENTRY_SIZE)
+            .maxEntriesPerGroup(key -> key.parameters, MAX_TILES_PER_PARAMETERS)
+            .nanoTime(nanoTime)
+            .build();
+  }
+
+  @Override
+  public void init(AppConfiguration configuration, Environment environment) {
+    entries.registerMetrics(environment.metrics(), ParameterizedTilesCache.class);
+  }
+
+  @Override
+  public TileResult getOrGenerate(
+      OgcApiDataV2 apiData,
+      Optional<String> collectionId,
+      TileQuery tileQuery,
+      TileGenerationParametersTransient userParameters,
+      Supplier<TileResult> generator) {
+    long ttl = getTimeToLive(apiData, collectionId);
+    if (ttl <= 0) {
+      return generator.get();
+    }
+
+    Key key =
+        new Key(
+            new Parameters(apiData.getId(), collectionId.orElse(DATASET_TILES), userParameters),
+            tileQuery.getTileset(),
+            tileQuery.getTileMatrixSet().getId(),
+            tileQuery.getLevel(),
+            tileQuery.getRow(),
+            tileQuery.getCol(),
+            tileQuery.getMediaType().toString());
+
+    Optional<TileResult> cached = entries.get(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+
+    long stamp = entries.version();
+    TileResult result = generator.get();
+
+    // tiles that changed while the tile was generated are not stored
+    if (result.isAvailable()) {
+      entries.putIfUnchanged(key, result, stamp, ttl);
+    }
+
+    return result;
+  }
+
+  @Override
+  public void invalidate(
+      OgcApiDataV2 apiData,
+      Optional<String> collectionId,
+      String tileMatrixSetId,
+      TileMatrixSetLimits limits) {
+    String collection = collectionId.orElse(DATASET_TILES);
+    int level = Integer.parseInt(limits.getTileMatrix());
+
+    entries.invalidateIf(
+        key ->
+            Objects.equals(key.parameters.apiId, apiData.getId())
+                && Objects.equals(key.parameters.collectionId, collection)
+                && Objects.equals(key.tileMatrixSetId, tileMatrixSetId)
+                && key.level == level
+                && key.row >= limits.getMinTileRow()
+                && key.row <= limits.getMaxTileRow()
+                && key.col >= limits.getMinTileCol()
+                && key.col <= limits.getMaxTileCol());
+  }
+
+  private static long getTimeToLive(OgcApiDataV2 apiData, Optional<String> collectionId) {
+    return collectionId
+        .map(id -> apiData.getExtension(TilesConfiguration.class, id))
+        .orElseGet(() -> apiData.getExtension(TilesConfiguration.class))
+        .map(TilesConfiguration::getParameterizedTilesCacheSeconds)
+        .map(TimeUnit.SECONDS::toNanos)
+        .orElse(0L);
+  }
+
+  private static final class Parameters {
+    private final String apiId;
+    private final String collectionId;
+    private final TileGenerationParametersTransient userParameters;
+
+    private Parameters(
+        String apiId, String collectionId, TileGenerationParametersTransient userParameters) {
+      this.apiId = apiId;
+      this.collectionId = collectionId;
+      this.userParameters = userParameters;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Parameters)) {
+        return false;
+      }
+      Parameters that = (Parameters) o;
+      return apiId.equals(that.apiId)
+          && collectionId.equals(that.collectionId)
+          && userParameters.equals(that.userParameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(apiId, collectionId, userParameters);
+    }
+  }
+
+  private static final class Key {
+    private final Parameters parameters;
+    private final String tileset;
+    private final String tileMatrixSetId;
+    private final int level;
+    private final int row;
+    private final int col;
+    private final String mediaType;
+
+    private Key(
+        Parameters parameters,
+        String tileset,
+        String tileMatrixSetId,
+        int level,
+        int row,
+        int col,
+        String mediaType) {
+      this.parameters = parameters;
+      this.tileset = tileset;
+      this.tileMatrixSetId = tileMatrixSetId;
+      this.level = level;
+      this.row = row;
+      this.col = col;
+      this.mediaType = mediaType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return level == that.level
+          && row == that.row
+          && col == that.col
+          && parameters.equals(that.parameters)
+          && tileset.equals(that.tileset)
+          && tileMatrixSetId.equals(that.tileMatrixSetId)
+          && mediaType.equals(that.mediaType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(parameters, tileset, tileMatrixSetId, level, row, col, mediaType);
+    }
+  }
+}
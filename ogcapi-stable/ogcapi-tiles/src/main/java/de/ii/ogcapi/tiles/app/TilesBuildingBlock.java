@@ -149,6 +149,7 @@ public class TilesBuildingBlock implements ApiBuildingBlock, ApiExtensionHealth
                 .collect(ImmutableList.toImmutableList()))
         .style("DEFAULT")
         .wmts(WmtsScope.NONE)
+        .parameterizedTilesCacheSeconds(0)
         .build();
   }
 
@@ -14,6 +14,7 @@ import de.ii.ogcapi.foundation.domain.OgcApi;
 import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
 import de.ii.ogcapi.tilematrixsets.domain.TileMatrixSetLimitsGenerator;
 import de.ii.ogcapi.tilematrixsets.domain.TileMatrixSetLimitsOgcApi;
+import de.ii.ogcapi.tiles.domain.ParameterizedTilesCache;
 import de.ii.ogcapi.tiles.domain.TilesProviders;
 import de.ii.ogcapi.tiles.domain.TilesProvidersCache;
 import de.ii.xtraplatform.base.domain.resiliency.AbstractVolatileComposed;
@@ -46,17 +47,20 @@ public class TilesProvidersCacheImpl extends AbstractVolatileComposed
   private final TilesProviders tilesProviders;
   private final TileMatrixSetLimitsGenerator limitsGenerator;
   private final TileMatrixSetRepository tileMatrixSetRepository;
+  private final ParameterizedTilesCache parameterizedTilesCache;
 
   @Inject
   public TilesProvidersCacheImpl(
       TilesProviders tilesProviders,
       TileMatrixSetLimitsGenerator limitsGenerator,
       TileMatrixSetRepository tileMatrixSetRepository,
+      ParameterizedTilesCache parameterizedTilesCache,
       VolatileRegistry volatileRegistry) {
     super(volatileRegistry, true);
     this.tilesProviders = tilesProviders;
     this.limitsGenerator = limitsGenerator;
     this.tileMatrixSetRepository = tileMatrixSetRepository;
+    this.parameterizedTilesCache = parameterizedTilesCache;
 
     onVolatileStart();
 
@@ -173,6 +177,8 @@ public class TilesProvidersCacheImpl extends AbstractVolatileComposed
                 Integer.parseInt(limits.getTileMatrix()), limits.getMinTileRow()));
       }
 
+      parameterizedTilesCache.invalidate(apiData, collectionId, tileMatrixSet.getId(), limits);
+
       tilesProviders
           .getTileProviderOrThrow(
               apiData, collectionId.flatMap(apiData::getCollectionData), TileProvider::seeding)
@@ -53,6 +53,7 @@ import de.ii.ogcapi.tiles.domain.ImmutableWmtsTileMatrix;
 import de.ii.ogcapi.tiles.domain.ImmutableWmtsTileMatrixSet;
 import de.ii.ogcapi.tiles.domain.ImmutableWmtsTileMatrixSetLink;
 import de.ii.ogcapi.tiles.domain.ImmutableWmtsWGS84BoundingBox;
+import de.ii.ogcapi.tiles.domain.ParameterizedTilesCache;
 import de.ii.ogcapi.tiles.domain.TileFormatExtension;
 import de.ii.ogcapi.tiles.domain.TileGenerationUserParameter;
 import de.ii.ogcapi.tiles.domain.TileSet;
@@ -130,6 +131,7 @@ public class TilesQueriesHandlerImpl extends AbstractVolatileComposed
   private final TileMatrixSetLimitsGenerator limitsGenerator;
   private final TilesProviders tilesProviders;
   private final TileMatrixSetRepository tileMatrixSetRepository;
+  private final ParameterizedTilesCache parameterizedTilesCache;
 
   @Inject
   public TilesQueriesHandlerImpl(
@@ -140,6 +142,7 @@ public class TilesQueriesHandlerImpl extends AbstractVolatileComposed
       TileMatrixSetLimitsGenerator limitsGenerator,
       TilesProviders tilesProviders,
       TileMatrixSetRepository tileMatrixSetRepository,
+      ParameterizedTilesCache parameterizedTilesCache,
       VolatileRegistry volatileRegistry) {
     super(TilesQueriesHandler.class.getSimpleName(), volatileRegistry, true);
     this.i18n = i18n;
@@ -149,6 +152,7 @@ public class TilesQueriesHandlerImpl extends AbstractVolatileComposed
     this.limitsGenerator = limitsGenerator;
     this.tilesProviders = tilesProviders;
     this.tileMatrixSetRepository = tileMatrixSetRepository;
+    this.parameterizedTilesCache = parameterizedTilesCache;
 
     this.queryHandlers =
         ImmutableMap.<Query, QueryHandler<? extends QueryInput>>builder()
@@ -400,9 +404,21 @@ public class TilesQueriesHandlerImpl extends AbstractVolatileComposed
 
     TileAccess tileAccess = tileProvider.access().get();
 
-    TileQuery tileQuery = getTileQuery(queryInput, requestContext, tileProvider);
-
-    TileResult result = tileAccess.getTile(tileQuery);
+    String tileset = getTileset(queryInput, requestContext, tileProvider);
+    TileGenerationParametersTransient userParameters =
+        getUserParameters(queryInput, tileProvider, tileset);
+    TileQuery tileQuery = getTileQuery(queryInput, requestContext, tileset, userParameters);
+
+    // tiles with user parameters are not stored in the tile cache of the provider
+    TileResult result =
+        userParameters.isEmpty()
+            ? tileAccess.getTile(tileQuery)
+            : parameterizedTilesCache.getOrGenerate(
+                requestContext.getApi().getData(),
+                queryInput.getCollectionId(),
+                tileQuery,
+                userParameters,
+                () -> tileAccess.getTile(tileQuery));
 
     if (!result.isAvailable()) {
       if (result.isOutsideLimits() || result.isNotFound() || tileAccess.tilesMayBeUnavailable()) {
@@ -787,12 +803,11 @@ public class TilesQueriesHandlerImpl extends AbstractVolatileComposed
         "%s%s", id, tilesetMetadata.getStyleId().map(s -> String.format("_%s", s)).orElse(""));
   }
 
-  private TileQuery getTileQuery(
+  private String getTileset(
       QueryInputTile queryInput, ApiRequestContext requestContext, TileProvider tileProvider) {
     OgcApiDataV2 apiData = requestContext.getApi().getData();
     Optional<FeatureTypeConfigurationOgcApi> collectionData =
         queryInput.getCollectionId().flatMap(apiData::getCollectionData);
-    TileFormatExtension outputFormat = queryInput.getOutputFormat();
 
     String ts =
         collectionData.isPresent()
@@ -804,17 +819,42 @@ public class TilesQueriesHandlerImpl extends AbstractVolatileComposed
                 .getExtension(TilesConfiguration.class)
                 .map(TilesConfiguration::getDatasetTileset)
                 .orElseThrow();
-    String tileset =
-        queryInput
-            .getStyleId()
-            .map(
-                style -> {
-                  if (tileProvider.access().isAvailable()) {
-                    return tileProvider.access().get().getMapStyleTileset(ts, style);
-                  }
-                  return ts;
-                })
-            .orElse(ts);
+    return queryInput
+        .getStyleId()
+        .map(
+            style -> {
+              if (tileProvider.access().isAvailable()) {
+                return tileProvider.access().get().getMapStyleTileset(ts, style);
+              }
+              return ts;
+            })
+        .orElse(ts);
+  }
+
+  private TileGenerationParametersTransient getUserParameters(
+      QueryInputTile queryInput, TileProvider tileProvider, String tileset) {
+    Optional<TileGenerationSchema> generationSchema =
+        tileProvider.generator().isAvailable() && queryInput.getStyleId().isEmpty()
+            ? Optional.of(tileProvider.generator().get().getGenerationSchema(tileset))
+            : Optional.empty();
+    ImmutableTileGenerationParametersTransient.Builder userParametersBuilder =
+        new ImmutableTileGenerationParametersTransient.Builder();
+    queryInput
+        .getParameters()
+        .forEach(
+            TileGenerationUserParameter.class,
+            parameter ->
+                parameter.applyTo(
+                    userParametersBuilder, queryInput.getParameters(), generationSchema));
+    return userParametersBuilder.build();
+  }
+
+  private TileQuery getTileQuery(
+      QueryInputTile queryInput,
+      ApiRequestContext requestContext,
+      String tileset,
+      TileGenerationParametersTransient userParameters) {
+    TileFormatExtension outputFormat = queryInput.getOutputFormat();
 
     ImmutableTileQuery.Builder tileQueryBuilder =
         ImmutableTileQuery.builder()
@@ -832,20 +872,6 @@ public class TilesQueriesHandlerImpl extends AbstractVolatileComposed
         .substitutions(
             FeaturesCoreProviders.DEFAULT_SUBSTITUTIONS.apply(requestContext.getApiUri()));
 
-    Optional<TileGenerationSchema> generationSchema =
-        tileProvider.generator().isAvailable() && queryInput.getStyleId().isEmpty()
-            ? Optional.of(tileProvider.generator().get().getGenerationSchema(tileset))
-            : Optional.empty();
-    ImmutableTileGenerationParametersTransient.Builder userParametersBuilder =
-        new ImmutableTileGenerationParametersTransient.Builder();
-    queryInput
-        .getParameters()
-        .forEach(
-            TileGenerationUserParameter.class,
-            parameter ->
-                parameter.applyTo(
-                    userParametersBuilder, queryInput.getParameters(), generationSchema));
-    TileGenerationParametersTransient userParameters = userParametersBuilder.build();
     if (!userParameters.isEmpty()) {
       tileQueryBuilder.generationParametersTransient(userParameters);
     }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.tiles.domain;
+
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2;
+import de.ii.xtraplatform.tiles.domain.TileGenerationParametersTransient;
+import de.ii.xtraplatform.tiles.domain.TileMatrixSetLimits;
+import de.ii.xtraplatform.tiles.domain.TileQuery;
+import de.ii.xtraplatform.tiles.domain.TileResult;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache for tiles that are generated with user parameters like `filter` or `datetime`
+ * and therefore bypass the tile cache of the tile provider.
+ */
+public interface ParameterizedTilesCache {
+
+  /**
+   * @param apiData the API
+   * @param collectionId the collection, empty for dataset tiles
+   * @param tileQuery the tile query
+   * @param userParameters the user parameters of the query, part of the key
+   * @param generator generates the tile, if it is not cached
+   * @return the cached or generated tile
+   */
+  TileResult getOrGenerate(
+      OgcApiDataV2 apiData,
+      Optional<String> collectionId,
+      TileQuery tileQuery,
+      TileGenerationParametersTransient userParameters,
+      Supplier<TileResult> generator);
+
+  /**
+   * Removes all cached tiles within the limits, for all user parameters.
+   *
+   * @param apiData the API
+   * @param collectionId the collection, empty for dataset tiles
+   * @param tileMatrixSetId the tile matrix set
+   * @param limits the tiles to remove
+   */
+  void invalidate(
+      OgcApiDataV2 apiData,
+      Optional<String> collectionId,
+      String tileMatrixSetId,
+      TileMatrixSetLimits limits);
+}
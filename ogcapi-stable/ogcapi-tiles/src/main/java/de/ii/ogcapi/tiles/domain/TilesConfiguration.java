@@ -578,6 +578,26 @@ public interface TilesConfiguration extends SfFlatConfiguration, CachingConfigur
   @Nullable
   WmtsScope getWmts();
 
+  /**
+   * @langEn Tiles that are requested with parameters like `filter` or `datetime` are generated for
+   *     each request and are not stored in the tile cache. Instead, they are kept in memory for the
+   *     given number of seconds, so that repeated requests with the same parameters, e.g. from a
+   *     time slider, do not query the data again. Changes to features remove the affected tiles.
+   *     The in-memory cache is disabled with `0`, since it only pays off for clients that repeat
+   *     requests with the same parameters.
+   * @langDe Kacheln, die mit Parametern wie `filter` oder `datetime` angefragt werden, werden für
+   *     jede Anfrage erzeugt und nicht im Kachel-Cache gespeichert. Stattdessen werden sie für die
+   *     angegebene Anzahl Sekunden im Speicher gehalten, damit wiederholte Anfragen mit denselben
+   *     Parametern, z.B. von einem Zeitschieberegler, die Daten nicht erneut abfragen. Änderungen
+   *     an Features entfernen die betroffenen Kacheln. Bei `0` ist der Cache im Speicher
+   *     deaktiviert, da er sich nur für Clients lohnt, die Anfragen mit denselben Parametern
+   *     wiederholen.
+   * @default 0
+   * @since v4.2
+   */
+  @Nullable
+  Integer getParameterizedTilesCacheSeconds();
+
   // TODO cache values so these are only computed once
   default boolean hasCollectionTiles(
       TilesProviders providers, OgcApiDataV2 apiData, String collectionId) {
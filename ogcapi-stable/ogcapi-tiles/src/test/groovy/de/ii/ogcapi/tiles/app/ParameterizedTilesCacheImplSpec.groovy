@@ -0,0 +1,186 @@
+/*
+ * Copyright 2024 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ogcapi.tiles.app
+
+import de.ii.ogcapi.foundation.domain.ImmutableOgcApiDataV2
+import de.ii.ogcapi.foundation.domain.OgcApiDataV2
+import de.ii.ogcapi.tiles.domain.ImmutableTilesConfiguration
+import de.ii.xtraplatform.tiles.domain.ImmutableTileGenerationParametersTransient
+import de.ii.xtraplatform.tiles.domain.TileGenerationParametersTransient
+import de.ii.xtraplatform.tiles.domain.TileMatrixSet
+import de.ii.xtraplatform.tiles.domain.TileMatrixSetLimits
+import de.ii.xtraplatform.tiles.domain.TileQuery
+import de.ii.xtraplatform.tiles.domain.TileResult
+import spock.lang.Specification
+
+import javax.ws.rs.core.MediaType
+import java.util.concurrent.TimeUnit
+import java.util.function.LongSupplier
+import java.util.function.Supplier
+
+class ParameterizedTilesCacheImplSpec extends Specification {
+
+    static final MediaType MVT = new MediaType("application", "vnd.mapbox-vector-tile")
+
+    long now = 0
+    int generated = 0
+    ParameterizedTilesCacheImpl cache = new ParameterizedTilesCacheImpl({ -> now } as LongSupplier)
+
+    def 'tiles are not cached without a time to live: #seconds'() {
+        given:
+        OgcApiDataV2 apiData = createApiData(seconds)
+
+        when:
+        get(apiData, tile(10, 1, 2), limit(100))
+        get(apiData, tile(10, 1, 2), limit(100))
+
+        then:
+        generated == 2
+
+        where:
+        seconds << [null, 0]
+    }
+
+    def 'tiles are cached until they expire'() {
+        given:
+        OgcApiDataV2 apiData = createApiData(60)
+
+        when:
+        TileResult first = get(apiData, tile(10, 1, 2), limit(100))
+        now += TimeUnit.SECONDS.toNanos(59)
+        TileResult second = get(apiData, tile(10, 1, 2), limit(100))
+
+        then:
+        generated == 1
+        second.is(first)
+
+        when:
+        now += TimeUnit.SECONDS.toNanos(1)
+        TileResult third = get(apiData, tile(10, 1, 2), limit(100))
+
+        then:
+        generated == 2
+        !third.is(first)
+    }
+
+    def 'requests with equal parameters share the cached tile'() {
+        given:
+        OgcApiDataV2 apiData = createApiData(60)
+
+        when:
+        get(apiData, tile(10, 1, 2), limit(100))
+        get(createApiData(60), tile(10, 1, 2), limit(100))
+
+        then:
+        generated == 1
+    }
+
+    def 'the key includes the parameters, the tile, the media type and the API: #change'() {
+        given:
+        get(createApiData(60), tile(10, 1, 2), limit(100))
+
+        when:
+        get(createApiData(60, apiId), tile(level, row, col, mediaType), limit(maxFeatures))
+
+        then:
+        generated == 2
+
+        where:
+        change       | apiId   | level | row | col | mediaType                              | maxFeatures
+        'parameters' | "api"   | 10    | 1   | 2   | MVT                                    | 200
+        'level'      | "api"   | 11    | 1   | 2   | MVT                                    | 100
+        'row'        | "api"   | 10    | 2   | 2   | MVT                                    | 100
+        'col'        | "api"   | 10    | 1   | 3   | MVT                                    | 100
+        'media type' | "api"   | 10    | 1   | 2   | new MediaType("application", "json")   | 100
+        'API'        | "other" | 10    | 1   | 2   | MVT                                    | 100
+    }
+
+    def 'tiles that are not available are not cached'() {
+        given:
+        OgcApiDataV2 apiData = createApiData(60)
+        Supplier<TileResult> notFound = {
+            generated++
+            Stub(TileResult) {
+                isAvailable() >> false
+            }
+        }
+
+        when:
+        cache.getOrGenerate(apiData, Optional.empty(), tile(10, 1, 2), limit(100), notFound)
+        cache.getOrGenerate(apiData, Optional.empty(), tile(10, 1, 2), limit(100), notFound)
+
+        then:
+        generated == 2
+    }
+
+    def 'invalidated tiles are removed for all parameters'() {
+        given:
+        OgcApiDataV2 apiData = createApiData(60)
+        get(apiData, tile(10, 1, 2), limit(100))
+        get(apiData, tile(10, 1, 2), limit(200))
+        get(apiData, tile(10, 5, 5), limit(100))
+
+        when:
+        cache.invalidate(apiData, Optional.empty(), "WebMercatorQuad", limits(10, 0, 2, 0, 2))
+        get(apiData, tile(10, 1, 2), limit(100))
+        get(apiData, tile(10, 1, 2), limit(200))
+        get(apiData, tile(10, 5, 5), limit(100))
+
+        then:
+        generated == 5
+    }
+
+    TileResult get(OgcApiDataV2 apiData, TileQuery tileQuery, TileGenerationParametersTransient parameters) {
+        return cache.getOrGenerate(apiData, Optional.empty(), tileQuery, parameters, {
+            generated++
+            Stub(TileResult) {
+                isAvailable() >> true
+                getContent() >> Optional.of([1, 2, 3] as byte[])
+            }
+        })
+    }
+
+    TileQuery tile(int level, int row, int col, MediaType mediaType = MVT) {
+        TileMatrixSet tileMatrixSet = Stub(TileMatrixSet) {
+            getId() >> "WebMercatorQuad"
+        }
+        return Stub(TileQuery) {
+            getTileset() >> "__all__"
+            getTileMatrixSet() >> tileMatrixSet
+            getLevel() >> level
+            getRow() >> row
+            getCol() >> col
+            getMediaType() >> mediaType
+        }
+    }
+
+    TileMatrixSetLimits limits(int level, int minRow, int maxRow, int minCol, int maxCol) {
+        return Stub(TileMatrixSetLimits) {
+            getTileMatrix() >> String.valueOf(level)
+            getMinTileRow() >> minRow
+            getMaxTileRow() >> maxRow
+            getMinTileCol() >> minCol
+            getMaxTileCol() >> maxCol
+        }
+    }
+
+    static TileGenerationParametersTransient limit(int limit) {
+        return new ImmutableTileGenerationParametersTransient.Builder().limit(limit).build()
+    }
+
+    static OgcApiDataV2 createApiData(Integer seconds, String id = "api") {
+        return new ImmutableOgcApiDataV2.Builder()
+                .id(id)
+                .serviceType("OGC_API")
+                .addExtensions(new ImmutableTilesConfiguration.Builder()
+                        .enabled(true)
+                        .parameterizedTilesCacheSeconds(seconds)
+                        .build())
+                .build()
+    }
+}